@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sedona.benchmarks;
+
+import org.apache.sedona.spark.SedonaContext;
+import org.apache.spark.sql.SparkSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * GeoParquet scan with a spatial filter pushed down, read with the vectorized reader or row by row with record
+ * level filtering (sedona.geoparquet.recordfilter). Points are uniformly distributed, so the query window selects
+ * about selectivity of the rows, and the geometry column is stored first, followed by numColumns double columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class GeoParquetScanBenchmark
+{
+    @Param({"1000000"})
+    public int numRows;
+
+    @Param({"4", "32"})
+    public int numColumns;
+
+    @Param({"0.01", "0.5"})
+    public double selectivity;
+
+    @Param({"true", "false"})
+    public boolean recordFilter;
+
+    private SparkSession spark;
+
+    private Path dataDir;
+
+    @Setup(Level.Trial)
+    public void setup()
+            throws IOException
+    {
+        SparkSession.Builder builder = SedonaContext.builder()
+                .master("local[4]")
+                .appName("GeoParquetScanBenchmark")
+                .config("spark.ui.enabled", "false")
+                .config("spark.sql.parquet.enableVectorizedReader", "true")
+                .config("sedona.geoparquet.recordfilter", String.valueOf(recordFilter));
+        spark = SedonaContext.create(builder.getOrCreate());
+        List<String> columns = new ArrayList<>();
+        columns.add("ST_Point(rand(1) * 100, rand(2) * 100) AS geom");
+        for (int i = 0; i < numColumns; i++) {
+            columns.add("rand(" + (i + 3) + ") AS c" + i);
+        }
+        dataDir = Files.createTempDirectory("geoparquet-scan-benchmark");
+        spark.range(numRows)
+                .selectExpr(columns.toArray(new String[0]))
+                .write()
+                .mode("overwrite")
+                .format("geoparquet")
+                .save(dataDir.toString());
+        spark.read().format("geoparquet").load(dataDir.toString()).createOrReplaceTempView("points");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+            throws IOException
+    {
+        spark.stop();
+        try (Stream<Path> paths = Files.walk(dataDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Selects all the columns of the rows in the query window, the aggregate keeps every column alive.
+     */
+    @Benchmark
+    public long intersects()
+    {
+        double size = 100 * Math.sqrt(selectivity);
+        StringBuilder sum = new StringBuilder("0");
+        for (int i = 0; i < numColumns; i++) {
+            sum.append(" + c").append(i);
+        }
+        String window = String.format("ST_PolygonFromEnvelope(0, 0, %f, %f)", size, size);
+        return spark.sql("SELECT count(*), sum(" + sum + ") FROM points WHERE ST_Intersects(geom, " + window + ")")
+                .first().getLong(0);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.benchmarks;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic geometries for the benchmarks. The generator is seeded, so every run of a
+ * benchmark works on exactly the same data.
+ */
+public class GeometryGenerator
+{
+    public static final long DEFAULT_SEED = 42L;
+
+    /**
+     * Extent all generated geometries fall into.
+     */
+    public static final Envelope EXTENT = new Envelope(0, 1000, 0, 1000);
+
+    private static final double MAX_RADIUS = 5.0;
+
+    private final GeometryFactory factory = new GeometryFactory();
+    private final Random random;
+
+    public GeometryGenerator()
+    {
+        this(DEFAULT_SEED);
+    }
+
+    public GeometryGenerator(long seed)
+    {
+        this.random = new Random(seed);
+    }
+
+    public Geometry next(GeometryShape shape)
+    {
+        double x = EXTENT.getMinX() + random.nextDouble() * EXTENT.getWidth();
+        double y = EXTENT.getMinY() + random.nextDouble() * EXTENT.getHeight();
+        if (shape == GeometryShape.POINT) {
+            return point(x, y);
+        }
+        return polygon(x, y, MAX_RADIUS, shape.getNumVertices());
+    }
+
+    public List<Geometry> next(GeometryShape shape, int count)
+    {
+        List<Geometry> geometries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            geometries.add(next(shape));
+        }
+        return geometries;
+    }
+
+    /**
+     * Random points inside the given envelope, used as probes for predicate benchmarks.
+     */
+    public List<Point> points(Envelope envelope, int count)
+    {
+        List<Point> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double x = envelope.getMinX() + random.nextDouble() * envelope.getWidth();
+            double y = envelope.getMinY() + random.nextDouble() * envelope.getHeight();
+            points.add(point(x, y));
+        }
+        return points;
+    }
+
+    public Point point(double x, double y)
+    {
+        return factory.createPoint(new Coordinate(x, y));
+    }
+
+    /**
+     * A star-shaped polygon around (x, y). Vertices are placed at increasing angles with a jittered
+     * radius, which keeps the ring simple and the polygon valid for any number of vertices.
+     */
+    public Polygon polygon(double x, double y, double maxRadius, int numVertices)
+    {
+        Coordinate[] ring = new Coordinate[numVertices + 1];
+        for (int i = 0; i < numVertices; i++) {
+            double angle = 2 * Math.PI * i / numVertices;
+            double radius = maxRadius * (0.5 + 0.5 * random.nextDouble());
+            ring[i] = new Coordinate(x + radius * Math.cos(angle), y + radius * Math.sin(angle));
+        }
+        ring[numVertices] = ring[0].copy();
+        return factory.createPolygon(ring);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.benchmarks;
+
+import org.apache.sedona.core.spatialPartitioning.KDB;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assigning geometries to KDB-tree partitions, which every record goes through when a spatial RDD
+ * is partitioned.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KDBPlaceObjectBenchmark
+{
+    private static final int NUM_SAMPLES = 100000;
+    private static final int NUM_GEOMETRIES = 1024;
+
+    @Param({"POINT", "POLYGON_10", "POLYGON_10000"})
+    public GeometryShape shape;
+
+    @Param({"64", "1024"})
+    public int numPartitions;
+
+    private KDB tree;
+    private Geometry[] geometries;
+
+    @Setup
+    public void setup()
+    {
+        GeometryGenerator generator = new GeometryGenerator();
+        // Built the same way SpatialRDD.calc_partitioner builds it from a sample
+        tree = new KDB(NUM_SAMPLES / numPartitions, numPartitions, GeometryGenerator.EXTENT);
+        for (Geometry sample : generator.next(GeometryShape.POINT, NUM_SAMPLES)) {
+            tree.insert(sample.getEnvelopeInternal());
+        }
+        tree.assignLeafIds();
+        tree.dropElements();
+        List<Geometry> list = generator.next(shape, NUM_GEOMETRIES);
+        geometries = list.toArray(new Geometry[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_GEOMETRIES)
+    public void placeObject(Blackhole blackhole)
+    {
+        for (Geometry geometry : geometries) {
+            Iterator<?> it = tree.placeObject(geometry);
+            while (it.hasNext()) {
+                blackhole.consume(it.next());
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sedona.benchmarks;
+
+import org.apache.sedona.spark.SedonaContext;
+import org.apache.spark.sql.SparkSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * k nearest neighbour join of points with ST_KNN, compared with a distance join ranking the matches of each query
+ * with a window function.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class KnnJoinBenchmark
+{
+    @Param({"100000"})
+    public int numQueries;
+
+    @Param({"1000000"})
+    public int numObjects;
+
+    @Param({"5"})
+    public int k;
+
+    /**
+     * Radius of the distance join. Objects are spread over a 100 x 100 square, so a radius of 0.5 holds about 80
+     * objects per query with the default number of objects, enough for most queries to find k neighbours.
+     */
+    @Param({"0.5"})
+    public double radius;
+
+    private SparkSession spark;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        SparkSession.Builder builder = SedonaContext.builder()
+                .master("local[4]")
+                .appName("KnnJoinBenchmark")
+                .config("spark.ui.enabled", "false")
+                .config("spark.sql.autoBroadcastJoinThreshold", "-1")
+                .config("sedona.join.autoBroadcastJoinThreshold", "-1");
+        spark = SedonaContext.create(builder.getOrCreate());
+        spark.range(numQueries)
+                .selectExpr("id", "ST_Point(rand(1) * 100, rand(2) * 100) AS geom")
+                .cache()
+                .createOrReplaceTempView("queries");
+        spark.range(numObjects)
+                .selectExpr("id", "ST_Point(rand(3) * 100, rand(4) * 100) AS geom")
+                .cache()
+                .createOrReplaceTempView("objects");
+        spark.table("queries").count();
+        spark.table("objects").count();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        spark.stop();
+    }
+
+    @Benchmark
+    public long knnJoin()
+    {
+        return spark.sql(String.format(
+                "SELECT queries.id, objects.id FROM queries JOIN objects ON ST_KNN(queries.geom, objects.geom, %d)", k))
+                .count();
+    }
+
+    @Benchmark
+    public long distanceJoinWithRank()
+    {
+        return spark.sql(String.format(
+                "SELECT qid, oid FROM (" +
+                        "SELECT queries.id AS qid, objects.id AS oid, " +
+                        "row_number() OVER (PARTITION BY queries.id ORDER BY ST_Distance(queries.geom, objects.geom)) AS rank " +
+                        "FROM queries JOIN objects ON ST_Distance(queries.geom, objects.geom) <= %f) " +
+                        "WHERE rank <= %d", radius, k))
+                .count();
+    }
+}
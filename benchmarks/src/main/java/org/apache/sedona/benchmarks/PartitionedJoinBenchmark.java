@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sedona.benchmarks;
+
+import org.apache.sedona.spark.SedonaContext;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partitioned point-in-polygon join, refining candidates with or without prepared geometries.
+ * Broadcast joins are disabled, so the join is planned as a partitioned RangeJoinExec.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PartitionedJoinBenchmark
+{
+    @Param({"1000000"})
+    public int numPoints;
+
+    @Param({"1000"})
+    public int numPolygons;
+
+    /**
+     * Shape of the polygons: BOX for 5-vertex rectangles, CIRCLE for 33-vertex buffered points
+     */
+    @Param({"BOX", "CIRCLE"})
+    public String shape;
+
+    @Param({"true", "false"})
+    public boolean preparedGeometry;
+
+    private SparkSession spark;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        SparkSession.Builder builder = SedonaContext.builder()
+                .master("local[4]")
+                .appName("PartitionedJoinBenchmark")
+                .config("spark.ui.enabled", "false")
+                .config("spark.sql.autoBroadcastJoinThreshold", "-1")
+                .config("sedona.join.autoBroadcastJoinThreshold", "-1")
+                .config("sedona.join.preparedgeometry", String.valueOf(preparedGeometry));
+        spark = SedonaContext.create(builder.getOrCreate());
+        spark.range(numPoints)
+                .selectExpr("ST_Point(rand(1) * 100, rand(2) * 100) AS geom")
+                .cache()
+                .createOrReplaceTempView("points");
+        String polygon = shape.equals("BOX") ?
+                "ST_PolygonFromEnvelope(x - r, y - r, x + r, y + r)" :
+                "ST_Buffer(ST_Point(x, y), r)";
+        spark.range(numPolygons)
+                .selectExpr("id", "rand(3) * 100 AS x", "rand(4) * 100 AS y", "1.0 + rand(5) AS r")
+                .selectExpr("id", polygon + " AS geom")
+                .cache()
+                .createOrReplaceTempView("polygons");
+        spark.table("points").count();
+        spark.table("polygons").count();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        spark.stop();
+    }
+
+    @Benchmark
+    public long contains()
+    {
+        Dataset<Row> joined = spark.sql("SELECT polygons.id FROM polygons JOIN points ON ST_Contains(polygons.geom, points.geom)");
+        return joined.count();
+    }
+
+    @Benchmark
+    public long intersects()
+    {
+        Dataset<Row> joined = spark.sql("SELECT polygons.id FROM points JOIN polygons ON ST_Intersects(points.geom, polygons.geom)");
+        return joined.count();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sedona.benchmarks;
+
+import org.apache.sedona.common.raster.MapAlgebra;
+import org.apache.sedona.common.raster.RasterBandAccessors;
+import org.apache.sedona.common.raster.RasterConstructors;
+import org.apache.sedona.common.utils.RasterUtils;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opengis.referencing.FactoryException;
+
+import javax.media.jai.TiledImage;
+import java.awt.image.RenderedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-band pixel loops of raster functions, such as RS_Count, RS_SummaryStats and RS_AddBandFromArray.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RasterBandBenchmark
+{
+    /**
+     * Width and height of the raster
+     */
+    @Param({"1000", "4000"})
+    public int size;
+
+    /**
+     * Whether the raster is made of 256x256 tiles instead of a single tile
+     */
+    @Param({"false", "true"})
+    public boolean tiled;
+
+    private GridCoverage2D raster;
+    private double[] bandValues;
+
+    @Setup
+    public void setup()
+            throws FactoryException
+    {
+        Random random = new Random(42);
+        bandValues = new double[size * size];
+        for (int i = 0; i < bandValues.length; i++) {
+            // One pixel out of ten is no data
+            bandValues[i] = random.nextInt(10) == 0 ? 0 : random.nextInt(255) + 1;
+        }
+        raster = RasterConstructors.makeEmptyRaster(1, size, size, 0, 0, 1, -1, 0, 0, 4326);
+        raster = MapAlgebra.addBandFromArray(raster, bandValues, 1, 0d);
+        if (tiled) {
+            RenderedImage image = raster.getRenderedImage();
+            TiledImage tiledImage = new TiledImage(0, 0, size, size, 0, 0,
+                    image.getSampleModel().createCompatibleSampleModel(256, 256), image.getColorModel());
+            tiledImage.set(image);
+            raster = RasterUtils.create(tiledImage, raster.getGridGeometry(), raster.getSampleDimensions(), null);
+        }
+    }
+
+    @Benchmark
+    public long count()
+    {
+        return RasterBandAccessors.getCount(raster, 1, true);
+    }
+
+    @Benchmark
+    public double[] summaryStats()
+    {
+        return RasterBandAccessors.getSummaryStats(raster, 1, true);
+    }
+
+    @Benchmark
+    public GridCoverage2D appendBand()
+    {
+        return MapAlgebra.addBandFromArray(raster, bandValues);
+    }
+
+    @Benchmark
+    public GridCoverage2D replaceBand()
+    {
+        return MapAlgebra.addBandFromArray(raster, bandValues, 1);
+    }
+}
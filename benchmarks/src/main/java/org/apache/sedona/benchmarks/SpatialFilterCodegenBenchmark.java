@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.benchmarks;
+
+import org.apache.sedona.spark.SedonaContext;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering a cached DataFrame of points with spatial predicates and ST_Distance, with generated code
+ * compared with interpreted evaluation of the filter expressions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SpatialFilterCodegenBenchmark
+{
+    @Param({"1000000"})
+    public int numRows;
+
+    @Param({"true", "false"})
+    public boolean codegen;
+
+    private SparkSession spark;
+
+    private Dataset<Row> points;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        SparkSession.Builder builder = SedonaContext.builder()
+                .master("local[1]")
+                .appName("SpatialFilterCodegenBenchmark")
+                .config("spark.ui.enabled", "false");
+        if (codegen) {
+            builder.config("spark.sql.codegen.factoryMode", "CODEGEN_ONLY");
+        }
+        else {
+            builder.config("spark.sql.codegen.wholeStage", "false")
+                    .config("spark.sql.codegen.factoryMode", "NO_CODEGEN");
+        }
+        spark = SedonaContext.create(builder.getOrCreate());
+        points = spark.range(numRows)
+                .selectExpr("ST_Point(rand(1) * 100, rand(2) * 100) AS geom")
+                .cache();
+        points.count();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        spark.stop();
+    }
+
+    @Benchmark
+    public long intersects()
+    {
+        return points.where("ST_Intersects(geom, ST_PolygonFromEnvelope(10.0, 10.0, 60.0, 60.0))").count();
+    }
+
+    @Benchmark
+    public long contains()
+    {
+        return points.where("ST_Contains(ST_PolygonFromEnvelope(10.0, 10.0, 60.0, 60.0), geom)").count();
+    }
+
+    @Benchmark
+    public long distanceWithin()
+    {
+        return points.where("ST_Distance(geom, ST_Point(50.0, 50.0)) <= 20.0").count();
+    }
+
+    @Benchmark
+    public long coordinateRange()
+    {
+        return points.where("ST_X(geom) BETWEEN 10.0 AND 60.0 AND ST_Y(geom) BETWEEN 10.0 AND 60.0").count();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.benchmarks;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.sedona.core.enums.IndexType;
+import org.apache.sedona.core.serde.SedonaKryoRegistrator;
+import org.apache.sedona.core.spatialRddTool.IndexBuilder;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.index.SpatialIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kryo serialization of the per-partition spatial indexes, as done when an indexed RDD is cached
+ * serialized or broadcast.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialIndexSerdeBenchmark
+{
+    @Param({"RTREE", "QUADTREE", "PACKED_RTREE"})
+    public IndexType indexType;
+
+    @Param({"POINT", "POLYGON_10"})
+    public GeometryShape shape;
+
+    @Param({"10000", "100000"})
+    public int numItems;
+
+    private Kryo kryo;
+    private SpatialIndex index;
+    private Output output;
+    private Input input;
+
+    @Setup
+    public void setup()
+            throws Exception
+    {
+        kryo = new Kryo();
+        new SedonaKryoRegistrator().registerClasses(kryo);
+        index = new IndexBuilder<Geometry>(indexType)
+                .call(new GeometryGenerator().next(shape, numItems).iterator())
+                .next();
+        output = new Output(1 << 20, -1);
+        kryo.writeClassAndObject(output, index);
+        input = new Input(output.toBytes());
+    }
+
+    @Benchmark
+    public int write()
+    {
+        output.clear();
+        kryo.writeClassAndObject(output, index);
+        return output.position();
+    }
+
+    @Benchmark
+    public Object read()
+    {
+        input.setPosition(0);
+        return kryo.readClassAndObject(input);
+    }
+}
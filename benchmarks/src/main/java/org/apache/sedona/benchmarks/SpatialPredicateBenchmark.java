@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.benchmarks;
+
+import org.apache.sedona.core.spatialOperator.SpatialPredicate;
+import org.apache.sedona.core.spatialOperator.SpatialPredicateEvaluators;
+import org.apache.sedona.core.spatialOperator.SpatialPredicateEvaluators.SpatialPredicateEvaluator;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refinement cost of spatial predicates: a polygon tested against points inside its envelope, with
+ * and without preparing the polygon first. This is the inner loop of a spatial join.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialPredicateBenchmark
+{
+    private static final int NUM_PROBES = 1024;
+
+    @Param({"INTERSECTS", "CONTAINS", "COVERS"})
+    public SpatialPredicate predicate;
+
+    @Param({"POLYGON_10", "POLYGON_10000"})
+    public GeometryShape shape;
+
+    private SpatialPredicateEvaluator evaluator;
+    private Geometry polygon;
+    private PreparedGeometry preparedPolygon;
+    private Point[] probes;
+
+    @Setup
+    public void setup()
+    {
+        GeometryGenerator generator = new GeometryGenerator();
+        evaluator = SpatialPredicateEvaluators.create(predicate);
+        polygon = generator.next(shape);
+        preparedPolygon = PreparedGeometryFactory.prepare(polygon);
+        List<Point> points = generator.points(polygon.getEnvelopeInternal(), NUM_PROBES);
+        probes = points.toArray(new Point[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_PROBES)
+    public int eval()
+    {
+        int matches = 0;
+        for (Point probe : probes) {
+            if (evaluator.eval(polygon, probe)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_PROBES)
+    public int evalPrepared()
+    {
+        int matches = 0;
+        for (Point probe : probes) {
+            if (evaluator.eval(preparedPolygon, probe)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
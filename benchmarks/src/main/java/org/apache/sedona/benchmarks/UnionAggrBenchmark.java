@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.benchmarks;
+
+import org.apache.sedona.common.utils.CascadedUnionBuffer;
+import org.locationtech.jts.geom.Geometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dissolving overlapping polygons the way ST_Union_Aggr does, compared with unioning the inputs into the
+ * result one by one. The time of the one by one union grows quadratically with the number of inputs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class UnionAggrBenchmark
+{
+    @Param({"1000", "2000", "4000"})
+    public int numItems;
+
+    private List<Geometry> polygons;
+
+    @Setup
+    public void setup()
+    {
+        polygons = new GeometryGenerator().next(GeometryShape.POLYGON_10, numItems);
+    }
+
+    @Benchmark
+    public Geometry cascadedUnion()
+    {
+        CascadedUnionBuffer buffer = new CascadedUnionBuffer();
+        for (Geometry polygon : polygons) {
+            buffer.add(polygon);
+        }
+        return buffer.getResult();
+    }
+
+    @Benchmark
+    public Geometry unionOneByOne()
+    {
+        Geometry result = polygons.get(0);
+        for (int i = 1; i < polygons.size(); i++) {
+            result = result.union(polygons.get(i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.benchmarks;
+
+import org.apache.sedona.common.geometrySerde.GeometrySerializer;
+import org.apache.sedona.common.geometrySerde.GeometryWKBTranscoder;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion between WKB and the SQL geometry format, as done by GeoParquet reads and writes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WKBTranscoderBenchmark
+{
+    @Param({"POINT", "POLYGON_10", "POLYGON_10000"})
+    public GeometryShape shape;
+
+    private final GeometryWKBTranscoder transcoder = new GeometryWKBTranscoder();
+    private byte[] wkb;
+    private byte[] bytes;
+
+    @Setup
+    public void setup()
+    {
+        Geometry geometry = new GeometryGenerator().next(shape);
+        wkb = new WKBWriter().write(geometry);
+        bytes = GeometrySerializer.serialize(geometry);
+    }
+
+    @Benchmark
+    public byte[] wkbToSerdeViaJts() throws ParseException
+    {
+        return GeometrySerializer.serialize(new WKBReader().read(wkb));
+    }
+
+    @Benchmark
+    public byte[] wkbToSerde()
+    {
+        return transcoder.wkbToSerde(wkb);
+    }
+
+    @Benchmark
+    public byte[] serdeToWkbViaJts()
+    {
+        return new WKBWriter().write(GeometrySerializer.deserialize(bytes));
+    }
+
+    @Benchmark
+    public byte[] serdeToWkb()
+    {
+        return transcoder.serdeToWkb(bytes);
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.sedona.common.utils.S2Utils;
 import org.locationtech.jts.algorithm.MinimumBoundingCircle;
 import org.locationtech.jts.algorithm.hull.ConcaveHull;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -132,39 +133,23 @@ public class Functions {
     }
 
     public static double xMin(Geometry geometry) {
-        Coordinate[] points = geometry.getCoordinates();
-        double min = Double.MAX_VALUE;
-        for(int i=0; i < points.length; i++){
-            min = Math.min(points[i].getX(), min);
-        }
-        return min;
+        Envelope envelope = geometry.getEnvelopeInternal();
+        return envelope.isNull() ? Double.MAX_VALUE : envelope.getMinX();
     }
 
     public static double xMax(Geometry geometry) {
-        Coordinate[] points = geometry.getCoordinates();
-        double max = - Double.MAX_VALUE;
-        for (int i=0; i < points.length; i++) {
-            max = Math.max(points[i].getX(), max);
-        }
-        return max;
+        Envelope envelope = geometry.getEnvelopeInternal();
+        return envelope.isNull() ? - Double.MAX_VALUE : envelope.getMaxX();
     }
 
     public static double yMin(Geometry geometry) {
-        Coordinate[] points = geometry.getCoordinates();
-        double min = Double.MAX_VALUE;
-        for(int i=0; i < points.length; i++){
-            min = Math.min(points[i].getY(), min);
-        }
-        return min;
+        Envelope envelope = geometry.getEnvelopeInternal();
+        return envelope.isNull() ? Double.MAX_VALUE : envelope.getMinY();
     }
 
     public static double yMax(Geometry geometry) {
-        Coordinate[] points = geometry.getCoordinates();
-        double max = - Double.MAX_VALUE;
-        for (int i=0; i < points.length; i++) {
-            max = Math.max(points[i].getY(), max);
-        }
-        return max;
+        Envelope envelope = geometry.getEnvelopeInternal();
+        return envelope.isNull() ? - Double.MAX_VALUE : envelope.getMaxY();
     }
 
     public static Double zMax(Geometry geometry) {
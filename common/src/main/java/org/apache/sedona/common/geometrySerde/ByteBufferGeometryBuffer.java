@@ -104,6 +104,21 @@ class ByteBufferGeometryBuffer implements GeometryBuffer {
         return byteBuffer.getInt(offset);
     }
 
+    @Override
+    public void putFloat(int offset, float value) {
+        byteBuffer.putFloat(offset, value);
+    }
+
+    @Override
+    public float getFloat(int offset) {
+        return byteBuffer.getFloat(offset);
+    }
+
+    @Override
+    public double getDouble(int offset) {
+        return byteBuffer.getDouble(offset);
+    }
+
     @Override
     public void putCoordinate(int offset, Coordinate coordinate) {
         byteBuffer.putDouble(offset, coordinate.x);
@@ -45,6 +45,12 @@ interface GeometryBuffer {
 
     int getInt(int offset);
 
+    void putFloat(int offset, float value);
+
+    float getFloat(int offset);
+
+    double getDouble(int offset);
+
     void putCoordinate(int offset, Coordinate coordinate);
 
     CoordinateSequence getCoordinate(int offset);
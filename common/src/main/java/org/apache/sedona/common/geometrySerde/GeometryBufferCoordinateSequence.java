@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.common.geometrySerde;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateXY;
+import org.locationtech.jts.geom.CoordinateXYM;
+import org.locationtech.jts.geom.CoordinateXYZM;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.impl.CoordinateArraySequence;
+
+/**
+ * A read-only coordinate sequence reading ordinates directly from a {@link GeometryBuffer}, without
+ * copying them into {@link Coordinate} objects. Geometries built on top of this sequence share memory
+ * with the serialized geometry, so in-place modifications are not supported. Call {@link #copy()} to
+ * obtain a modifiable sequence.
+ */
+class GeometryBufferCoordinateSequence implements CoordinateSequence {
+    private final GeometryBuffer buffer;
+    private final int offset;
+    private final int size;
+    private final CoordinateType coordType;
+
+    GeometryBufferCoordinateSequence(
+            GeometryBuffer buffer, int offset, int size, CoordinateType coordType) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.size = size;
+        this.coordType = coordType;
+    }
+
+    @Override
+    public int getDimension() {
+        return coordType.ordinates;
+    }
+
+    @Override
+    public int getMeasures() {
+        return coordType.hasM ? 1 : 0;
+    }
+
+    @Override
+    public Coordinate getCoordinate(int i) {
+        double x = getX(i);
+        double y = getY(i);
+        switch (coordType) {
+            case XY:
+                return new CoordinateXY(x, y);
+            case XYZ:
+                return new Coordinate(x, y, getOrdinate(i, 2));
+            case XYM:
+                return new CoordinateXYM(x, y, getOrdinate(i, 2));
+            case XYZM:
+                return new CoordinateXYZM(x, y, getOrdinate(i, 2), getOrdinate(i, 3));
+            default:
+                throw new IllegalStateException("coordinateType was not configured properly");
+        }
+    }
+
+    @Override
+    public Coordinate getCoordinateCopy(int i) {
+        return getCoordinate(i);
+    }
+
+    @Override
+    public void getCoordinate(int index, Coordinate coord) {
+        coord.setX(getX(index));
+        coord.setY(getY(index));
+        if (coordType.hasZ) {
+            coord.setZ(getZ(index));
+        }
+        if (coordType.hasM) {
+            coord.setM(getM(index));
+        }
+    }
+
+    @Override
+    public double getX(int index) {
+        return buffer.getDouble(offset + index * coordType.bytes);
+    }
+
+    @Override
+    public double getY(int index) {
+        return buffer.getDouble(offset + index * coordType.bytes + 8);
+    }
+
+    @Override
+    public double getOrdinate(int index, int ordinateIndex) {
+        if (ordinateIndex < 0 || ordinateIndex >= coordType.ordinates) {
+            return Double.NaN;
+        }
+        return buffer.getDouble(offset + index * coordType.bytes + 8 * ordinateIndex);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void setOrdinate(int index, int ordinateIndex, double value) {
+        throw new UnsupportedOperationException(
+                "Coordinates backed by serialized geometry buffer cannot be modified");
+    }
+
+    @Override
+    public Coordinate[] toCoordinateArray() {
+        Coordinate[] coordinates = new Coordinate[size];
+        for (int k = 0; k < size; k++) {
+            coordinates[k] = getCoordinate(k);
+        }
+        return coordinates;
+    }
+
+    @Override
+    public Envelope expandEnvelope(Envelope env) {
+        int coordOffset = offset;
+        for (int k = 0; k < size; k++) {
+            env.expandToInclude(buffer.getDouble(coordOffset), buffer.getDouble(coordOffset + 8));
+            coordOffset += coordType.bytes;
+        }
+        return env;
+    }
+
+    @Override
+    @Deprecated
+    public Object clone() {
+        return copy();
+    }
+
+    @Override
+    public CoordinateSequence copy() {
+        return new CoordinateArraySequence(toCoordinateArray(), getDimension(), getMeasures());
+    }
+
+    @Override
+    public String toString() {
+        return copy().toString();
+    }
+}
@@ -19,6 +19,8 @@
 
 package org.apache.sedona.common.geometrySerde;
 
+import java.nio.ByteBuffer;
+
 public class GeometryBufferFactory {
     private static boolean enableUnsafeGeometryBuffer = true;
 
@@ -53,6 +55,18 @@ public class GeometryBufferFactory {
         }
     }
 
+    /**
+     * Wrap a range of a byte array, such as the buffer of a stream. The returned buffer starts at the given
+     * offset, and must not be accessed beyond the given length.
+     */
+    public static GeometryBuffer wrap(byte[] bytes, int offset, int length) {
+        if (UnsafeGeometryBuffer.isUnsafeAvailable() && enableUnsafeGeometryBuffer) {
+            return new UnsafeGeometryBuffer(bytes, offset);
+        } else {
+            return new ByteBufferGeometryBuffer(ByteBuffer.wrap(bytes, offset, length).slice());
+        }
+    }
+
     public static GeometryBuffer wrap(String bufferType, byte[] bytes) {
         switch (bufferType) {
             case "bytebuffer":
@@ -22,10 +22,11 @@ package org.apache.sedona.common.geometrySerde;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Registration;
 import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
+import com.esotericsoftware.kryo.io.ByteBufferOutput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import org.apache.sedona.common.geometryObjects.Circle;
-import org.apache.sedona.common.geometrySerde.GeometrySerializer;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
@@ -34,6 +35,7 @@ import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
 
 import java.io.Serializable;
+import java.util.function.IntFunction;
 
 /**
  * Provides methods to efficiently serialize and deserialize geometry types.
@@ -42,11 +44,19 @@ import java.io.Serializable;
  * GeometryCollection, Circle and Envelope types.
  * <p>
  * First byte contains {@link Type#id}. Then go type-specific bytes, followed
- * by user-data attached to the geometry.
+ * by user-data attached to the geometry. Geometries are serialized with {@link GeometrySerializer}
+ * directly into the buffer of the Kryo output, and deserialized from the buffer of the Kryo input
+ * when it holds the whole serialized geometry.
  */
 public class GeometrySerde
         extends Serializer implements Serializable
 {
+    // Tags of the user data attached to geometries. Tags 0 and 1 are the values of the boolean written
+    // in place of the tag by earlier versions.
+    private static final byte NO_USER_DATA = 0;
+    private static final byte KRYO_USER_DATA = 1;
+    private static final byte COMPACT_USER_DATA = 2;
+
     @Override
     public void write(Kryo kryo, Output out, Object object)
     {
@@ -83,21 +93,52 @@ public class GeometrySerde
 
     private void writeGeometry(Kryo kryo, Output out, Geometry geometry)
     {
-        byte[] data = GeometrySerializer.serialize(geometry);
-        out.writeInt(data.length);
-        out.write(data, 0, data.length);
+        OutputAllocator allocator = new OutputAllocator(out);
+        GeometryBuffer buffer = GeometrySerializer.serialize(geometry, allocator);
+        if (!allocator.inPlace) {
+            out.write(buffer.toByteArray(), 0, allocator.size);
+        }
         writeUserData(kryo, out, geometry);
     }
 
     private void writeUserData(Kryo kryo, Output out, Geometry geometry)
     {
-        out.writeBoolean(geometry.getUserData() != null);
-        if (geometry.getUserData() != null) {
-            kryo.writeClass(out, geometry.getUserData().getClass());
-            kryo.writeObject(out, geometry.getUserData());
+        Object userData = geometry.getUserData();
+        if (userData == null) {
+            out.writeByte(NO_USER_DATA);
+        }
+        else if (isCompactUserData(userData)) {
+            out.writeByte(COMPACT_USER_DATA);
+            writeCompactUserData(out, userData);
+        }
+        else {
+            out.writeByte(KRYO_USER_DATA);
+            kryo.writeClass(out, userData.getClass());
+            kryo.writeObject(out, userData);
         }
     }
 
+    /**
+     * Whether the user data is written by {@link #writeCompactUserData} instead of Kryo. Subclasses can
+     * write the most frequent type of user data without the overhead of Kryo class registrations, such as
+     * the rows attached to geometries by spatial joins.
+     */
+    protected boolean isCompactUserData(Object userData)
+    {
+        return false;
+    }
+
+    protected void writeCompactUserData(Output out, Object userData)
+    {
+        throw new UnsupportedOperationException("Cannot write compact user data of type " +
+                userData.getClass().getName());
+    }
+
+    protected Object readCompactUserData(Input input)
+    {
+        throw new UnsupportedOperationException("Cannot read compact user data");
+    }
+
     @Override
     public Object read(Kryo kryo, Input input, Class aClass)
     {
@@ -130,24 +171,78 @@ public class GeometrySerde
 
     private Object readUserData(Kryo kryo, Input input)
     {
-        Object userData = null;
-        if (input.readBoolean()) {
-            Registration clazz = kryo.readClass(input);
-            userData = kryo.readObject(input, clazz.getType());
+        byte tag = input.readByte();
+        switch (tag) {
+            case NO_USER_DATA:
+                return null;
+            case KRYO_USER_DATA: {
+                Registration clazz = kryo.readClass(input);
+                return kryo.readObject(input, clazz.getType());
+            }
+            case COMPACT_USER_DATA:
+                return readCompactUserData(input);
+            default:
+                throw new IllegalArgumentException("Unknown user data tag: " + tag);
         }
-        return userData;
     }
 
     private Geometry readGeometry(Kryo kryo, Input input)
     {
         int length = input.readInt();
-        byte[] bytes = new byte[length];
-        input.readBytes(bytes);
-        Geometry geometry = GeometrySerializer.deserialize(bytes);
+        Geometry geometry;
+        if (!(input instanceof ByteBufferInput) && input.limit() - input.position() >= length) {
+            // Deserialize from the buffer of the input, coordinates are copied out of it
+            GeometryBuffer buffer = GeometryBufferFactory.wrap(input.getBuffer(), input.position(), length);
+            geometry = GeometrySerializer.deserialize(buffer);
+            input.setPosition(input.position() + length);
+        }
+        else {
+            byte[] bytes = new byte[length];
+            input.readBytes(bytes);
+            geometry = GeometrySerializer.deserialize(bytes);
+        }
         geometry.setUserData(readUserData(kryo, input));
         return geometry;
     }
 
+    /**
+     * Writes the size of the serialized geometry and reserves the space for it in the buffer of the output,
+     * flushing the output if needed, so that the geometry is serialized in place. A new buffer is allocated
+     * when the geometry does not fit in the buffer of the output.
+     */
+    private static class OutputAllocator
+            implements IntFunction<GeometryBuffer>
+    {
+        private final Output out;
+        private int size;
+        private boolean inPlace;
+
+        OutputAllocator(Output out)
+        {
+            this.out = out;
+        }
+
+        @Override
+        public GeometryBuffer apply(int size)
+        {
+            this.size = size;
+            out.writeInt(size);
+            if (out instanceof ByteBufferOutput) {
+                return GeometryBufferFactory.create(size);
+            }
+            if (out.getBuffer().length - out.position() < size && out.getOutputStream() != null) {
+                out.flush();
+            }
+            int position = out.position();
+            if (out.getBuffer().length - position < size) {
+                return GeometryBufferFactory.create(size);
+            }
+            inPlace = true;
+            out.setPosition(position + size);
+            return GeometryBufferFactory.wrap(out.getBuffer(), position, size);
+        }
+    }
+
     private enum Type
     {
         SHAPE(0),
@@ -21,6 +21,7 @@ package org.apache.sedona.common.geometrySerde;
 
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -33,31 +34,93 @@ import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.io.WKBConstants;
 
+import java.util.function.IntFunction;
+
 public class GeometrySerializer {
     private static final Coordinate NULL_COORDINATE = new Coordinate(Double.NaN, Double.NaN);
     private static final GeometryFactory FACTORY = new GeometryFactory();
 
+    // The highest bit of the preamble byte indicates that a bounding box of 4 floats
+    // (minX, minY, maxX, maxY) follows the 8-byte header. Geometry type IDs only take
+    // 3 bits, so this bit is never set by serializers unaware of the bounding box.
+    // Readers older than Sedona 1.5.0 take this bit as part of the geometry type and fail,
+    // so the bounding box is only written when explicitly enabled.
+    static final int BOUNDING_BOX_FLAG = 0x80;
+    static final int HEADER_SIZE = 8;
+    static final int BOUNDING_BOX_SIZE = 16;
+
+    private static volatile boolean enableBoundingBox = false;
+
+    /**
+     * Enable or disable writing the bounding box header when serializing non-point geometries. It is
+     * disabled by default. Buffers with or without bounding box can always be deserialized by this
+     * version, but buffers with bounding box cannot be read by Sedona versions older than 1.5.0.
+     * <p>
+     * This switch is process-wide: it changes the format written by every thread and session of the JVM.
+     * Engines set it once per JVM from their configuration, e.g. the Spark conf
+     * {@code spark.sedona.serde.boundingbox}. Use {@link #serialize(Geometry, boolean)} to choose the
+     * format of a single geometry.
+     */
+    public static void toggleBoundingBox(boolean enabled) {
+        enableBoundingBox = enabled;
+    }
+
+    static boolean isBoundingBoxEnabled() {
+        return enableBoundingBox;
+    }
+
     public static byte[] serialize(Geometry geometry) {
-        GeometryBuffer buffer;
+        return serialize(geometry, enableBoundingBox);
+    }
+
+    /**
+     * Serialize a geometry, choosing explicitly whether the bounding box header is written.
+     *
+     * @param geometry the geometry to serialize
+     * @param withBoundingBox whether to write the bounding box of non-point geometries
+     * @return the serialized geometry
+     */
+    public static byte[] serialize(Geometry geometry, boolean withBoundingBox) {
+        return serialize(geometry, withBoundingBox, GeometryBufferFactory::create).toByteArray();
+    }
+
+    /**
+     * Serialize a geometry into a buffer obtained from the given allocator, which is called exactly once
+     * with the size of the serialized geometry. This allows serializing a geometry directly into the buffer
+     * of a stream instead of a new byte array.
+     *
+     * @param geometry the geometry to serialize
+     * @param allocator allocates a buffer of the given size, the returned buffer may be a view of a larger one
+     * @return the buffer returned by the allocator, filled with the serialized geometry
+     */
+    static GeometryBuffer serialize(Geometry geometry, IntFunction<GeometryBuffer> allocator) {
+        return serialize(geometry, enableBoundingBox, allocator);
+    }
+
+    private static GeometryBuffer serialize(
+            Geometry geometry, boolean withBoundingBox, IntFunction<GeometryBuffer> allocator) {
+        Envelope bbox = null;
+        if (withBoundingBox && !(geometry instanceof Point) && !geometry.isEmpty()) {
+            bbox = geometry.getEnvelopeInternal();
+        }
         if (geometry instanceof Point) {
-            buffer = serializePoint((Point) geometry);
+            return serializePoint((Point) geometry, allocator);
         } else if (geometry instanceof MultiPoint) {
-            buffer = serializeMultiPoint((MultiPoint) geometry);
+            return serializeMultiPoint((MultiPoint) geometry, bbox, allocator);
         } else if (geometry instanceof LineString) {
-            buffer = serializeLineString((LineString) geometry);
+            return serializeLineString((LineString) geometry, bbox, allocator);
         } else if (geometry instanceof MultiLineString) {
-            buffer = serializeMultiLineString((MultiLineString) geometry);
+            return serializeMultiLineString((MultiLineString) geometry, bbox, allocator);
         } else if (geometry instanceof Polygon) {
-            buffer = serializePolygon((Polygon) geometry);
+            return serializePolygon((Polygon) geometry, bbox, allocator);
         } else if (geometry instanceof MultiPolygon) {
-            buffer = serializeMultiPolygon((MultiPolygon) geometry);
+            return serializeMultiPolygon((MultiPolygon) geometry, bbox, allocator);
         } else if (geometry instanceof GeometryCollection) {
-            buffer = serializeGeometryCollection((GeometryCollection) geometry);
+            return serializeGeometryCollection((GeometryCollection) geometry, bbox, allocator);
         } else {
             throw new UnsupportedOperationException(
                     "Geometry type is not supported: " + geometry.getClass().getSimpleName());
         }
-        return buffer.toByteArray();
     }
 
     public static Geometry deserialize(byte[] bytes) {
@@ -65,12 +128,28 @@ public class GeometrySerializer {
         return deserialize(buffer);
     }
 
+    /**
+     * Deserialize a geometry without copying its coordinates. Coordinate sequences of the returned
+     * geometry read ordinates directly from the given byte array, which must not be modified while the
+     * geometry is in use. The returned geometry cannot be modified in place, so this is intended for
+     * read-only operations such as computing envelopes, counting points or inspecting geometry types.
+     *
+     * @param bytes serialized geometry
+     * @return a read-only geometry backed by the given bytes
+     */
+    public static Geometry deserializeLazily(byte[] bytes) {
+        GeometryBuffer buffer = new LazyGeometryBuffer(GeometryBufferFactory.wrap(bytes));
+        return deserialize(buffer);
+    }
+
     public static Geometry deserialize(GeometryBuffer buffer) {
-        checkBufferSize(buffer, 8);
+        checkBufferSize(buffer, HEADER_SIZE);
         int preambleByte = buffer.getByte(0) & 0xFF;
-        int wkbType = preambleByte >> 4;
+        int wkbType = (preambleByte >> 4) & 0x07;
         CoordinateType coordType = CoordinateType.valueOf((preambleByte & 0x0F) >> 1);
         boolean hasSrid = (preambleByte & 0x01) != 0;
+        int headerSize = headerSize(preambleByte);
+        checkBufferSize(buffer, headerSize);
         buffer.setCoordinateType(coordType);
         int srid = 0;
         if (hasSrid) {
@@ -79,55 +158,169 @@ public class GeometrySerializer {
             int srid0 = buffer.getByte(3) & 0xFF;
             srid = (srid2 | srid1 | srid0);
         }
-        return deserialize(buffer, wkbType, srid);
+        return deserialize(buffer, wkbType, srid, headerSize);
     }
 
-    private static Geometry deserialize(GeometryBuffer buffer, int wkbType, int srid) {
+    private static Geometry deserialize(GeometryBuffer buffer, int wkbType, int srid, int headerSize) {
         switch (wkbType) {
             case WKBConstants.wkbPoint:
-                return deserializePoint(buffer, srid);
+                return deserializePoint(buffer, srid, headerSize);
             case WKBConstants.wkbMultiPoint:
-                return deserializeMultiPoint(buffer, srid);
+                return deserializeMultiPoint(buffer, srid, headerSize);
             case WKBConstants.wkbLineString:
-                return deserializeLineString(buffer, srid);
+                return deserializeLineString(buffer, srid, headerSize);
             case WKBConstants.wkbMultiLineString:
-                return deserializeMultiLineString(buffer, srid);
+                return deserializeMultiLineString(buffer, srid, headerSize);
             case WKBConstants.wkbPolygon:
-                return deserializePolygon(buffer, srid);
+                return deserializePolygon(buffer, srid, headerSize);
             case WKBConstants.wkbMultiPolygon:
-                return deserializeMultiPolygon(buffer, srid);
+                return deserializeMultiPolygon(buffer, srid, headerSize);
             case WKBConstants.wkbGeometryCollection:
-                return deserializeGeometryCollection(buffer, srid);
+                return deserializeGeometryCollection(buffer, srid, headerSize);
+            default:
+                throw new IllegalArgumentException(
+                        "Cannot deserialize buffer containing unknown geometry type ID: " + wkbType);
+        }
+    }
+
+    /**
+     * Get the envelope of a serialized geometry without deserializing it. The envelope is read from
+     * the bounding box header of non-point geometries, or from the coordinate of points. Bounding box
+     * headers are stored in single precision and rounded outwards, so the returned envelope may be
+     * slightly larger than the exact envelope of the geometry.
+     *
+     * @param bytes serialized geometry
+     * @return the envelope of the geometry, an empty envelope for empty geometries, or null if the
+     *     envelope cannot be obtained without deserializing the geometry
+     */
+    public static Envelope peekEnvelope(byte[] bytes) {
+        return peekEnvelope(GeometryBufferFactory.wrap(bytes));
+    }
+
+    public static Envelope peekEnvelope(GeometryBuffer buffer) {
+        checkBufferSize(buffer, HEADER_SIZE);
+        int preambleByte = buffer.getByte(0) & 0xFF;
+        int wkbType = (preambleByte >> 4) & 0x07;
+        int numCoordinates = buffer.getInt(4);
+        if (numCoordinates == 0) {
+            return new Envelope();
+        }
+        if ((preambleByte & BOUNDING_BOX_FLAG) != 0) {
+            checkBufferSize(buffer, HEADER_SIZE + BOUNDING_BOX_SIZE);
+            double minX = buffer.getFloat(8);
+            double minY = buffer.getFloat(12);
+            double maxX = buffer.getFloat(16);
+            double maxY = buffer.getFloat(20);
+            return new Envelope(minX, maxX, minY, maxY);
+        }
+        if (wkbType == WKBConstants.wkbPoint) {
+            checkBufferSize(buffer, HEADER_SIZE + 16);
+            double x = buffer.getDouble(8);
+            double y = buffer.getDouble(16);
+            return new Envelope(x, x, y, y);
+        }
+        return null;
+    }
+
+    /**
+     * Expand an envelope to include a serialized geometry without deserializing it. Unlike
+     * {@link #peekEnvelope(byte[])}, the coordinates are scanned instead of reading the single precision
+     * bounding box header, so the envelope is exact. No object is allocated other than the buffer wrapping
+     * the bytes.
+     *
+     * @param bytes serialized geometry
+     * @param envelope the envelope to expand
+     */
+    public static void expandEnvelope(byte[] bytes, Envelope envelope) {
+        expandEnvelope(GeometryBufferFactory.wrap(bytes), 0, envelope);
+    }
+
+    /**
+     * Expand the envelope with the coordinates of the serialized geometry at the given offset.
+     *
+     * @return the end offset of the serialized geometry
+     */
+    private static int expandEnvelope(GeometryBuffer buffer, int offset, Envelope envelope) {
+        checkBufferSize(buffer, offset + HEADER_SIZE);
+        int preambleByte = buffer.getByte(offset) & 0xFF;
+        int wkbType = (preambleByte >> 4) & 0x07;
+        CoordinateType coordType = CoordinateType.valueOf((preambleByte & 0x0F) >> 1);
+        int numCoordinates = getBoundedInt(buffer, offset + 4);
+        int coordsOffset = offset + headerSize(preambleByte);
+        if (wkbType == WKBConstants.wkbGeometryCollection) {
+            int childOffset = coordsOffset;
+            for (int k = 0; k < numCoordinates; k++) {
+                int childEndOffset = expandEnvelope(buffer, childOffset, envelope);
+                childOffset += alignedOffset(childEndOffset - childOffset);
+            }
+            return childOffset;
+        }
+        int intsOffset = coordsOffset + numCoordinates * coordType.bytes;
+        checkBufferSize(buffer, intsOffset);
+        for (int k = coordsOffset; k < intsOffset; k += coordType.bytes) {
+            double x = buffer.getDouble(k);
+            double y = buffer.getDouble(k + 8);
+            // Empty points in multi points are stored as NaN coordinates
+            if (!Double.isNaN(x) && !Double.isNaN(y)) {
+                envelope.expandToInclude(x, y);
+            }
+        }
+        switch (wkbType) {
+            case WKBConstants.wkbPoint:
+            case WKBConstants.wkbMultiPoint:
+            case WKBConstants.wkbLineString:
+                return intsOffset;
+            case WKBConstants.wkbPolygon:
+                if (numCoordinates == 0) {
+                    return intsOffset;
+                }
+                checkBufferSize(buffer, intsOffset + 4);
+                return intsOffset + 4 * (1 + getBoundedInt(buffer, intsOffset));
+            case WKBConstants.wkbMultiLineString:
+                checkBufferSize(buffer, intsOffset + 4);
+                return intsOffset + 4 * (1 + getBoundedInt(buffer, intsOffset));
+            case WKBConstants.wkbMultiPolygon:
+                checkBufferSize(buffer, intsOffset + 4);
+                int numPolygons = getBoundedInt(buffer, intsOffset);
+                int endOffset = intsOffset + 4;
+                for (int k = 0; k < numPolygons; k++) {
+                    checkBufferSize(buffer, endOffset + 4);
+                    endOffset += 4 * (1 + getBoundedInt(buffer, endOffset));
+                }
+                return endOffset;
             default:
                 throw new IllegalArgumentException(
                         "Cannot deserialize buffer containing unknown geometry type ID: " + wkbType);
         }
     }
 
-    private static GeometryBuffer serializePoint(Point point) {
+    private static GeometryBuffer serializePoint(Point point, IntFunction<GeometryBuffer> allocator) {
         Coordinate coordinate = point.getCoordinate();
         if (coordinate == null) {
-            return createGeometryBuffer(WKBConstants.wkbPoint, CoordinateType.XY, point.getSRID(), 8, 0);
+            return createGeometryBuffer(
+                    WKBConstants.wkbPoint, CoordinateType.XY, point.getSRID(), HEADER_SIZE, 0, null,
+                    allocator);
         }
         CoordinateType coordType = getCoordinateType(coordinate);
-        int bufferSize = 8 + coordType.bytes;
+        int bufferSize = HEADER_SIZE + coordType.bytes;
         GeometryBuffer buffer =
-                createGeometryBuffer(WKBConstants.wkbPoint, coordType, point.getSRID(), bufferSize, 1);
-        buffer.putCoordinate(8, coordinate);
+                createGeometryBuffer(
+                        WKBConstants.wkbPoint, coordType, point.getSRID(), bufferSize, 1, null, allocator);
+        buffer.putCoordinate(HEADER_SIZE, coordinate);
         return buffer;
     }
 
-    private static Point deserializePoint(GeometryBuffer buffer, int srid) {
+    private static Point deserializePoint(GeometryBuffer buffer, int srid, int headerSize) {
         CoordinateType coordType = buffer.getCoordinateType();
         int numCoordinates = getBoundedInt(buffer, 4);
         Point point;
         if (numCoordinates == 0) {
             point = FACTORY.createPoint();
-            buffer.mark(8);
+            buffer.mark(headerSize);
         } else {
-            int bufferSize = 8 + coordType.bytes;
+            int bufferSize = headerSize + coordType.bytes;
             checkBufferSize(buffer, bufferSize);
-            CoordinateSequence coordinates = buffer.getCoordinate(8);
+            CoordinateSequence coordinates = buffer.getCoordinate(headerSize);
             point = FACTORY.createPoint(coordinates);
             buffer.mark(bufferSize);
         }
@@ -135,21 +328,30 @@ public class GeometrySerializer {
         return point;
     }
 
-    private static GeometryBuffer serializeMultiPoint(MultiPoint multiPoint) {
+    private static GeometryBuffer serializeMultiPoint(
+            MultiPoint multiPoint, Envelope bbox, IntFunction<GeometryBuffer> allocator) {
         int numPoints = multiPoint.getNumGeometries();
         if (numPoints == 0) {
             return createGeometryBuffer(
-                    WKBConstants.wkbMultiPoint, CoordinateType.XY, multiPoint.getSRID(), 8, 0);
+                    WKBConstants.wkbMultiPoint, CoordinateType.XY, multiPoint.getSRID(), HEADER_SIZE, 0, null,
+                    allocator);
         }
         CoordinateType coordType = getCoordinateType(multiPoint);
-        int bufferSize = 8 + numPoints * coordType.bytes;
+        int headerSize = headerSize(bbox);
+        int bufferSize = headerSize + numPoints * coordType.bytes;
         GeometryBuffer buffer =
                 createGeometryBuffer(
-                        WKBConstants.wkbMultiPoint, coordType, multiPoint.getSRID(), bufferSize, numPoints);
+                        WKBConstants.wkbMultiPoint,
+                        coordType,
+                        multiPoint.getSRID(),
+                        bufferSize,
+                        numPoints,
+                        bbox,
+                        allocator);
         for (int k = 0; k < numPoints; k++) {
             Point point = (Point) multiPoint.getGeometryN(k);
             Coordinate coordinate = point.getCoordinate();
-            int coordinateOffset = 8 + k * coordType.bytes;
+            int coordinateOffset = headerSize + k * coordType.bytes;
             if (coordinate == null) {
                 buffer.putCoordinate(coordinateOffset, NULL_COORDINATE);
             } else {
@@ -159,16 +361,15 @@ public class GeometrySerializer {
         return buffer;
     }
 
-    private static MultiPoint deserializeMultiPoint(GeometryBuffer buffer, int srid) {
+    private static MultiPoint deserializeMultiPoint(GeometryBuffer buffer, int srid, int headerSize) {
         CoordinateType coordType = buffer.getCoordinateType();
         int numPoints = getBoundedInt(buffer, 4);
-        int bufferSize = 8 + numPoints * coordType.bytes;
+        int bufferSize = headerSize + numPoints * coordType.bytes;
         checkBufferSize(buffer, bufferSize);
         Point[] points = new Point[numPoints];
         for (int i = 0; i < numPoints; i++) {
-            CoordinateSequence coordinates = buffer.getCoordinate(8 + i * coordType.bytes);
-            Coordinate coordinate = coordinates.getCoordinate(0);
-            if (Double.isNaN(coordinate.x)) {
+            CoordinateSequence coordinates = buffer.getCoordinate(headerSize + i * coordType.bytes);
+            if (Double.isNaN(coordinates.getX(0))) {
                 points[i] = FACTORY.createPoint();
             } else {
                 points[i] = FACTORY.createPoint(coordinates);
@@ -181,44 +382,50 @@ public class GeometrySerializer {
         return multiPoint;
     }
 
-    private static GeometryBuffer serializeLineString(LineString lineString) {
+    private static GeometryBuffer serializeLineString(
+            LineString lineString, Envelope bbox, IntFunction<GeometryBuffer> allocator) {
         CoordinateSequence coordinates = lineString.getCoordinateSequence();
         int numCoordinates = coordinates.size();
         if (numCoordinates == 0) {
             return createGeometryBuffer(
-                    WKBConstants.wkbLineString, CoordinateType.XY, lineString.getSRID(), 8, 0);
+                    WKBConstants.wkbLineString, CoordinateType.XY, lineString.getSRID(), HEADER_SIZE, 0, null,
+                    allocator);
         }
         CoordinateType coordType = getCoordinateType(coordinates.getCoordinate(0));
-        int bufferSize = 8 + numCoordinates * coordType.bytes;
+        int headerSize = headerSize(bbox);
+        int bufferSize = headerSize + numCoordinates * coordType.bytes;
         GeometryBuffer buffer =
                 createGeometryBuffer(
                         WKBConstants.wkbLineString,
                         coordType,
                         lineString.getSRID(),
                         bufferSize,
-                        numCoordinates);
-        buffer.putCoordinates(8, coordinates);
+                        numCoordinates,
+                        bbox,
+                        allocator);
+        buffer.putCoordinates(headerSize, coordinates);
         return buffer;
     }
 
-    private static LineString deserializeLineString(GeometryBuffer buffer, int srid) {
+    private static LineString deserializeLineString(GeometryBuffer buffer, int srid, int headerSize) {
         CoordinateType coordType = buffer.getCoordinateType();
         int numCoordinates = getBoundedInt(buffer, 4);
-        int bufferSize = 8 + numCoordinates * coordType.bytes;
+        int bufferSize = headerSize + numCoordinates * coordType.bytes;
         checkBufferSize(buffer, bufferSize);
-        CoordinateSequence coordinates = buffer.getCoordinates(8, numCoordinates);
+        CoordinateSequence coordinates = buffer.getCoordinates(headerSize, numCoordinates);
         buffer.mark(bufferSize);
         LineString lineString = FACTORY.createLineString(coordinates);
         lineString.setSRID(srid);
         return lineString;
     }
 
-    private static GeometryBuffer serializeMultiLineString(MultiLineString multiLineString) {
+    private static GeometryBuffer serializeMultiLineString(
+            MultiLineString multiLineString, Envelope bbox, IntFunction<GeometryBuffer> allocator) {
         int numLineStrings = multiLineString.getNumGeometries();
         CoordinateType coordType = getCoordinateType(multiLineString);
         int numCoordinates = multiLineString.getNumPoints();
-        int coordsOffset = 8;
-        int numOffset = 8 + numCoordinates * coordType.bytes;
+        int coordsOffset = headerSize(bbox);
+        int numOffset = coordsOffset + numCoordinates * coordType.bytes;
         int bufferSize = numOffset + 4 + numLineStrings * 4;
         GeometryBuffer buffer =
                 createGeometryBuffer(
@@ -226,7 +433,9 @@ public class GeometrySerializer {
                         coordType,
                         multiLineString.getSRID(),
                         bufferSize,
-                        numCoordinates);
+                        numCoordinates,
+                        bbox,
+                        allocator);
         GeomPartSerializer serializer = new GeomPartSerializer(buffer, coordsOffset, numOffset);
         serializer.writeInt(numLineStrings);
         for (int k = 0; k < numLineStrings; k++) {
@@ -237,11 +446,12 @@ public class GeometrySerializer {
         return buffer;
     }
 
-    private static MultiLineString deserializeMultiLineString(GeometryBuffer buffer, int srid) {
+    private static MultiLineString deserializeMultiLineString(
+            GeometryBuffer buffer, int srid, int headerSize) {
         CoordinateType coordType = buffer.getCoordinateType();
         int numCoordinates = getBoundedInt(buffer, 4);
-        int coordsOffset = 8;
-        int numOffset = 8 + numCoordinates * coordType.bytes;
+        int coordsOffset = headerSize;
+        int numOffset = headerSize + numCoordinates * coordType.bytes;
         GeomPartSerializer serializer = new GeomPartSerializer(buffer, coordsOffset, numOffset);
         int numLineStrings = serializer.checkedReadBoundedInt();
         serializer.checkRemainingIntsAtLeast(numLineStrings);
@@ -257,39 +467,47 @@ public class GeometrySerializer {
         return multiLineString;
     }
 
-    private static GeometryBuffer serializePolygon(Polygon polygon) {
+    private static GeometryBuffer serializePolygon(
+            Polygon polygon, Envelope bbox, IntFunction<GeometryBuffer> allocator) {
         LinearRing exteriorRing = polygon.getExteriorRing();
         if (exteriorRing == null || exteriorRing.isEmpty()) {
             return createGeometryBuffer(
-                    WKBConstants.wkbPolygon, CoordinateType.XY, polygon.getSRID(), 8, 0);
+                    WKBConstants.wkbPolygon, CoordinateType.XY, polygon.getSRID(), HEADER_SIZE, 0, null,
+                    allocator);
         }
         CoordinateSequence coordinates = exteriorRing.getCoordinateSequence();
         CoordinateType coordType = getCoordinateType(coordinates.getCoordinate(0));
         int numCoordinates = polygon.getNumPoints();
         int numInteriorRings = polygon.getNumInteriorRing();
-        int coordsOffset = 8;
-        int numRingsOffset = 8 + numCoordinates * coordType.bytes;
+        int coordsOffset = headerSize(bbox);
+        int numRingsOffset = coordsOffset + numCoordinates * coordType.bytes;
         int bufferSize = numRingsOffset + 4 + 4 * (numInteriorRings + 1);
         GeometryBuffer buffer =
                 createGeometryBuffer(
-                        WKBConstants.wkbPolygon, coordType, polygon.getSRID(), bufferSize, numCoordinates);
+                        WKBConstants.wkbPolygon,
+                        coordType,
+                        polygon.getSRID(),
+                        bufferSize,
+                        numCoordinates,
+                        bbox,
+                        allocator);
         GeomPartSerializer serializer = new GeomPartSerializer(buffer, coordsOffset, numRingsOffset);
         serializer.write(polygon);
         assert bufferSize == serializer.intsOffset;
         return buffer;
     }
 
-    private static Polygon deserializePolygon(GeometryBuffer buffer, int srid) {
+    private static Polygon deserializePolygon(GeometryBuffer buffer, int srid, int headerSize) {
         CoordinateType coordType = buffer.getCoordinateType();
         int numCoordinates = getBoundedInt(buffer, 4);
         if (numCoordinates == 0) {
-            buffer.mark(8);
+            buffer.mark(headerSize);
             Polygon polygon = FACTORY.createPolygon();
             polygon.setSRID(srid);
             return polygon;
         }
-        int coordsOffset = 8;
-        int numRingsOffset = 8 + numCoordinates * coordType.bytes;
+        int coordsOffset = headerSize;
+        int numRingsOffset = headerSize + numCoordinates * coordType.bytes;
         GeomPartSerializer serializer = new GeomPartSerializer(buffer, coordsOffset, numRingsOffset);
         Polygon polygon = serializer.readPolygon();
         serializer.markEndOfBuffer();
@@ -297,7 +515,8 @@ public class GeometrySerializer {
         return polygon;
     }
 
-    private static GeometryBuffer serializeMultiPolygon(MultiPolygon multiPolygon) {
+    private static GeometryBuffer serializeMultiPolygon(
+            MultiPolygon multiPolygon, Envelope bbox, IntFunction<GeometryBuffer> allocator) {
         int numPolygons = multiPolygon.getNumGeometries();
         int numCoordinates = 0;
         CoordinateType coordType = getCoordinateType(multiPolygon);
@@ -310,8 +529,8 @@ public class GeometrySerializer {
                 numCoordinates += polygon.getNumPoints();
             }
         }
-        int coordsOffset = 8;
-        int numPolygonsOffset = 8 + numCoordinates * coordType.bytes;
+        int coordsOffset = headerSize(bbox);
+        int numPolygonsOffset = coordsOffset + numCoordinates * coordType.bytes;
         int bufferSize = numPolygonsOffset + 4 + (numPolygons * 4) + (totalRings * 4);
         GeometryBuffer buffer =
                 createGeometryBuffer(
@@ -319,7 +538,9 @@ public class GeometrySerializer {
                         coordType,
                         multiPolygon.getSRID(),
                         bufferSize,
-                        numCoordinates);
+                        numCoordinates,
+                        bbox,
+                        allocator);
         GeomPartSerializer serializer = new GeomPartSerializer(buffer, coordsOffset, numPolygonsOffset);
         serializer.writeInt(numPolygons);
         for (int k = 0; k < numPolygons; k++) {
@@ -330,11 +551,12 @@ public class GeometrySerializer {
         return buffer;
     }
 
-    private static MultiPolygon deserializeMultiPolygon(GeometryBuffer buffer, int srid) {
+    private static MultiPolygon deserializeMultiPolygon(
+            GeometryBuffer buffer, int srid, int headerSize) {
         CoordinateType coordType = buffer.getCoordinateType();
         int numCoordinates = getBoundedInt(buffer, 4);
-        int coordsOffset = 8;
-        int numPolygonsOffset = 8 + numCoordinates * coordType.bytes;
+        int coordsOffset = headerSize;
+        int numPolygonsOffset = headerSize + numCoordinates * coordType.bytes;
         GeomPartSerializer serializer = new GeomPartSerializer(buffer, coordsOffset, numPolygonsOffset);
         int numPolygons = serializer.checkedReadBoundedInt();
         Polygon[] polygons = new Polygon[numPolygons];
@@ -349,32 +571,41 @@ public class GeometrySerializer {
         return multiPolygon;
     }
 
-    private static GeometryBuffer serializeGeometryCollection(GeometryCollection geometryCollection) {
+    private static GeometryBuffer serializeGeometryCollection(
+            GeometryCollection geometryCollection, Envelope bbox, IntFunction<GeometryBuffer> allocator) {
         int numGeometries = geometryCollection.getNumGeometries();
         if (numGeometries == 0) {
             return createGeometryBuffer(
                     WKBConstants.wkbGeometryCollection,
                     CoordinateType.XY,
                     geometryCollection.getSRID(),
-                    8,
-                    0);
+                    HEADER_SIZE,
+                    0,
+                    null,
+                    allocator);
         }
+        // Only the top-level geometry carries a bounding box, child geometries are serialized
+        // without one.
         byte[][] buffers = new byte[numGeometries][];
         int totalBytes = 0;
         for (int k = 0; k < numGeometries; k++) {
-            byte[] buf = serialize(geometryCollection.getGeometryN(k));
+            Geometry child = geometryCollection.getGeometryN(k);
+            byte[] buf = serialize(child, false, GeometryBufferFactory::create).toByteArray();
             buffers[k] = buf;
             totalBytes += alignedOffset(buf.length);
         }
-        int bufferSize = 8 + totalBytes;
+        int headerSize = headerSize(bbox);
+        int bufferSize = headerSize + totalBytes;
         GeometryBuffer buffer =
                 createGeometryBuffer(
                         WKBConstants.wkbGeometryCollection,
                         CoordinateType.XY,
                         geometryCollection.getSRID(),
                         bufferSize,
-                        numGeometries);
-        int offset = 8;
+                        numGeometries,
+                        bbox,
+                        allocator);
+        int offset = headerSize;
         for (int k = 0; k < numGeometries; k++) {
             byte[] buf = buffers[k];
             buffer.putBytes(offset, buf);
@@ -384,16 +615,17 @@ public class GeometrySerializer {
         return buffer;
     }
 
-    private static GeometryCollection deserializeGeometryCollection(GeometryBuffer buffer, int srid) {
+    private static GeometryCollection deserializeGeometryCollection(
+            GeometryBuffer buffer, int srid, int headerSize) {
         int numGeometries = getBoundedInt(buffer, 4);
         if (numGeometries == 0) {
-            buffer.mark(8);
+            buffer.mark(headerSize);
             GeometryCollection geometryCollection = FACTORY.createGeometryCollection();
             geometryCollection.setSRID(srid);
             return geometryCollection;
         }
         Geometry[] geometries = new Geometry[numGeometries];
-        int offset = 8;
+        int offset = headerSize;
         for (int k = 0; k < numGeometries; k++) {
             GeometryBuffer geomBuffer = buffer.slice(offset);
             Geometry geometry = deserialize(geomBuffer);
@@ -409,13 +641,22 @@ public class GeometrySerializer {
     }
 
     private static GeometryBuffer createGeometryBuffer(
-            int wkbType, CoordinateType coordType, int srid, int bufferSize, int numCoordinates) {
-        GeometryBuffer buffer = GeometryBufferFactory.create(bufferSize);
+            int wkbType,
+            CoordinateType coordType,
+            int srid,
+            int bufferSize,
+            int numCoordinates,
+            Envelope bbox,
+            IntFunction<GeometryBuffer> allocator) {
+        GeometryBuffer buffer = allocator.apply(bufferSize);
         buffer.setCoordinateType(coordType);
 
         // Set header bytes [preamble][srid (3 bytes)][numCoordinates (4 bytes)]
         int hasSridBit = (srid != 0 ? 1 : 0);
         int preambleByte = (wkbType << 4) | (coordType.value << 1) | hasSridBit;
+        if (bbox != null) {
+            preambleByte |= BOUNDING_BOX_FLAG;
+        }
         buffer.putByte(0, (byte) preambleByte);
         if (srid != 0) {
             // Store SRID in the next 3 bytes in big endian byte order, with the highest bit set
@@ -425,9 +666,35 @@ public class GeometrySerializer {
             buffer.putByte(3, (byte) srid);
         }
         buffer.putInt(4, numCoordinates);
+        if (bbox != null) {
+            // Optional bounding box [minX][minY][maxX][maxY] (4 floats), rounded outwards so that
+            // it always covers the exact envelope of the geometry.
+            buffer.putFloat(8, floorFloat(bbox.getMinX()));
+            buffer.putFloat(12, floorFloat(bbox.getMinY()));
+            buffer.putFloat(16, ceilFloat(bbox.getMaxX()));
+            buffer.putFloat(20, ceilFloat(bbox.getMaxY()));
+        }
         return buffer;
     }
 
+    private static int headerSize(Envelope bbox) {
+        return bbox != null ? HEADER_SIZE + BOUNDING_BOX_SIZE : HEADER_SIZE;
+    }
+
+    private static int headerSize(int preambleByte) {
+        return (preambleByte & BOUNDING_BOX_FLAG) != 0 ? HEADER_SIZE + BOUNDING_BOX_SIZE : HEADER_SIZE;
+    }
+
+    static float floorFloat(double value) {
+        float f = (float) value;
+        return f > value ? Math.nextDown(f) : f;
+    }
+
+    static float ceilFloat(double value) {
+        float f = (float) value;
+        return f < value ? Math.nextUp(f) : f;
+    }
+
     private static void checkBufferSize(GeometryBuffer buffer, int minimumSize) {
         if (buffer.getLength() < minimumSize) {
             throw new IllegalArgumentException("Buffer to be deserialized is incomplete");
@@ -472,7 +739,7 @@ public class GeometrySerializer {
         }
     }
 
-    private static int alignedOffset(int offset) {
+    static int alignedOffset(int offset) {
         return (offset + 7) & ~7;
     }
 
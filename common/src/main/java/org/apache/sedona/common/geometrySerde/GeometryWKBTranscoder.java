@@ -0,0 +1,796 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.common.geometrySerde;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.io.WKBConstants;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static org.apache.sedona.common.geometrySerde.GeometrySerializer.BOUNDING_BOX_FLAG;
+import static org.apache.sedona.common.geometrySerde.GeometrySerializer.BOUNDING_BOX_SIZE;
+import static org.apache.sedona.common.geometrySerde.GeometrySerializer.HEADER_SIZE;
+import static org.apache.sedona.common.geometrySerde.GeometrySerializer.alignedOffset;
+import static org.apache.sedona.common.geometrySerde.GeometrySerializer.ceilFloat;
+import static org.apache.sedona.common.geometrySerde.GeometrySerializer.floorFloat;
+
+/**
+ * Transcodes geometries between WKB and the format of {@link GeometrySerializer} without building JTS
+ * geometry objects. The envelope of the transcoded geometry is computed in the same pass.
+ *
+ * <p>WKB is decoded the same way as {@link org.locationtech.jts.io.WKBReader} does: the third ordinate of
+ * 3D and 4D coordinates is read as Z and the fourth ordinate is dropped, rings are closed and padded to
+ * at least 4 coordinates and line strings with a single coordinate are padded to 2 coordinates. WKB is
+ * encoded the same way as {@link org.locationtech.jts.io.WKBWriter} with the dimension returned by
+ * {@code GeomUtils.getDimension} does.
+ *
+ * <p>Instances reuse their internal buffers and are not thread-safe.
+ */
+public class GeometryWKBTranscoder {
+    private static final String[] GEOMETRY_TYPE_NAMES = {
+            null,
+            "Point",
+            "LineString",
+            "Polygon",
+            "MultiPoint",
+            "MultiLineString",
+            "MultiPolygon",
+            "GeometryCollection"
+    };
+    private static final int WKB_Z_FLAG = 0x80000000;
+    private static final int WKB_M_FLAG = 0x40000000;
+    private static final int WKB_SRID_FLAG = 0x20000000;
+
+    private final Envelope envelope = new Envelope();
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+    private int geometryType;
+    private boolean hasZ;
+
+    // States for decoding WKB. Coordinates and integers are collected separately since the serialized
+    // format stores all coordinates before the integers describing the structure of the geometry.
+    private ByteBuffer wkb;
+    private int wkbOffset;
+    private CoordinateType coordType;
+    private byte[] coords = new byte[256];
+    private ByteBuffer coordsBuffer = ByteBuffer.wrap(coords).order(ByteOrder.nativeOrder());
+    private int coordsLength;
+    private int[] ints = new int[16];
+    private int numInts;
+    private GeometryWKBTranscoder nested;
+
+    // States for encoding WKB
+    private byte[] out = new byte[256];
+    private ByteBuffer outBuffer = ByteBuffer.wrap(out);
+    private int outLength;
+    private int serdeCoordsOffset;
+    private int serdeIntsOffset;
+
+    /**
+     * Transcode a WKB or EWKB geometry to the format of {@link GeometrySerializer}.
+     *
+     * @param bytes WKB of the geometry
+     * @return the serialized geometry
+     */
+    public byte[] wkbToSerde(byte[] bytes) {
+        byte[] serde = decodeWkb(ByteBuffer.wrap(bytes), 0, 0, GeometrySerializer.isBoundingBoxEnabled());
+        updateEnvelope();
+        return serde;
+    }
+
+    /**
+     * Transcode a geometry serialized by {@link GeometrySerializer} to WKB in big endian byte order.
+     *
+     * @param bytes the serialized geometry
+     * @return WKB of the geometry
+     */
+    public byte[] serdeToWkb(byte[] bytes) {
+        ByteBuffer serde = ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder());
+        outLength = 0;
+        resetEnvelope();
+        hasZ = serdeHasZ(serde, 0);
+        geometryType = (serde.get(0) >> 4) & 0x07;
+        encodeWkb(serde, 0, hasZ ? 3 : 2);
+        updateEnvelope();
+        return Arrays.copyOf(out, outLength);
+    }
+
+    /**
+     * Compute the envelope of a WKB or EWKB geometry without transcoding it. This is much cheaper than
+     * {@link #wkbToSerde(byte[])} and is useful for filtering geometries by their envelopes before decoding
+     * them. The result is also returned by subsequent calls to {@link #getEnvelope()}.
+     *
+     * @param bytes WKB of the geometry
+     * @return the envelope of the geometry, which is reused by subsequent calls
+     */
+    public Envelope wkbEnvelope(byte[] bytes) {
+        wkb = ByteBuffer.wrap(bytes);
+        wkbOffset = 0;
+        resetEnvelope();
+        geometryType = wkbGeometryType(scanWkbEnvelope());
+        updateEnvelope();
+        return envelope;
+    }
+
+    /**
+     * Get the envelope of the last transcoded geometry. The returned envelope is reused by subsequent calls.
+     */
+    public Envelope getEnvelope() {
+        return envelope;
+    }
+
+    /**
+     * Get the type name of the last transcoded geometry, as returned by {@code Geometry.getGeometryType}.
+     */
+    public String getGeometryType() {
+        return GEOMETRY_TYPE_NAMES[geometryType];
+    }
+
+    /**
+     * Check if the first coordinate of the last transcoded geometry has a Z ordinate.
+     */
+    public boolean hasZ() {
+        return hasZ;
+    }
+
+    private byte[] decodeWkb(ByteBuffer wkb, int offset, int defaultSrid, boolean withBoundingBox) {
+        this.wkb = wkb;
+        wkbOffset = offset;
+        coordsLength = 0;
+        numInts = 0;
+        resetEnvelope();
+        int typeInt = readWkbHeader();
+        int wkbType = wkbGeometryType(typeInt);
+        int srid = defaultSrid;
+        if ((typeInt & WKB_SRID_FLAG) != 0) {
+            srid = readWkbInt();
+        }
+        int wkbDims = wkbDimensions(typeInt);
+        // The coordinate type is determined by the first coordinate, the same as GeometrySerializer does
+        coordType = null;
+        geometryType = wkbType;
+        int numCoordinates;
+        switch (wkbType) {
+            case WKBConstants.wkbPoint:
+                numCoordinates = readPoint(wkbDims) ? 1 : 0;
+                break;
+            case WKBConstants.wkbLineString:
+                numCoordinates = readLineString(wkbDims);
+                break;
+            case WKBConstants.wkbPolygon:
+                numCoordinates = readPolygon(wkbDims);
+                break;
+            case WKBConstants.wkbMultiPoint:
+                numCoordinates = readMultiPoint();
+                break;
+            case WKBConstants.wkbMultiLineString:
+                numCoordinates = readMultiLineString();
+                break;
+            case WKBConstants.wkbMultiPolygon:
+                numCoordinates = readMultiPolygon();
+                break;
+            case WKBConstants.wkbGeometryCollection:
+                hasZ = false;
+                return readGeometryCollection(srid, withBoundingBox);
+            default:
+                throw new IllegalArgumentException("Unknown WKB geometry type: " + wkbType);
+        }
+        if (numCoordinates == 0 || coordType == null) {
+            coordType = CoordinateType.XY;
+        }
+        if (numCoordinates == 0) {
+            if (wkbType == WKBConstants.wkbPoint
+                    || wkbType == WKBConstants.wkbLineString
+                    || wkbType == WKBConstants.wkbPolygon) {
+                // Empty points, line strings and polygons only have a header
+                coordsLength = 0;
+                numInts = 0;
+            }
+        }
+        hasZ = coordType.hasZ;
+        boolean hasBoundingBox = withBoundingBox && wkbType != WKBConstants.wkbPoint && !isEmptyEnvelope();
+        int headerSize = hasBoundingBox ? HEADER_SIZE + BOUNDING_BOX_SIZE : HEADER_SIZE;
+        byte[] bytes = new byte[headerSize + coordsLength + 4 * numInts];
+        ByteBuffer serde = ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder());
+        writeSerdeHeader(serde, wkbType, coordType, srid, numCoordinates, hasBoundingBox);
+        System.arraycopy(coords, 0, bytes, headerSize, coordsLength);
+        int intsOffset = headerSize + coordsLength;
+        for (int k = 0; k < numInts; k++) {
+            serde.putInt(intsOffset + 4 * k, ints[k]);
+        }
+        return bytes;
+    }
+
+    private boolean readPoint(int wkbDims) {
+        checkWkbSize(wkbOffset + 8L * wkbDims);
+        double x = wkb.getDouble(wkbOffset);
+        double y = wkb.getDouble(wkbOffset + 8);
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            // Empty point. Points in multi points are stored as NaN coordinates.
+            wkbOffset += 8 * wkbDims;
+            if (coordType == null) {
+                coordType = CoordinateType.XY;
+            }
+            ensureCoordsCapacity(coordType.bytes);
+            for (int k = 0; k < coordType.ordinates; k++) {
+                coordsBuffer.putDouble(coordsLength + 8 * k, Double.NaN);
+            }
+            coordsLength += coordType.bytes;
+            return false;
+        }
+        readCoordinates(1, wkbDims);
+        return true;
+    }
+
+    private int readLineString(int wkbDims) {
+        int numCoordinates = readWkbCount();
+        if (numCoordinates == 0) {
+            return 0;
+        }
+        int firstCoordOffset = coordsLength;
+        readCoordinates(numCoordinates, wkbDims);
+        if (numCoordinates == 1) {
+            repeatCoordinate(firstCoordOffset, 1);
+            numCoordinates = 2;
+        }
+        return numCoordinates;
+    }
+
+    private int readRing(int wkbDims) {
+        int numCoordinates = readWkbCount();
+        if (numCoordinates == 0) {
+            return 0;
+        }
+        int firstCoordOffset = coordsLength;
+        readCoordinates(numCoordinates, wkbDims);
+        int lastCoordOffset = coordsLength - coordType.bytes;
+        boolean isClosed =
+                coordsBuffer.getDouble(firstCoordOffset) == coordsBuffer.getDouble(lastCoordOffset)
+                        && coordsBuffer.getDouble(firstCoordOffset + 8) == coordsBuffer.getDouble(lastCoordOffset + 8);
+        int numRingCoordinates;
+        if (numCoordinates <= 3) {
+            numRingCoordinates = 4;
+        } else if (!isClosed) {
+            numRingCoordinates = numCoordinates + 1;
+        } else {
+            numRingCoordinates = numCoordinates;
+        }
+        repeatCoordinate(firstCoordOffset, numRingCoordinates - numCoordinates);
+        return numRingCoordinates;
+    }
+
+    private int readPolygon(int wkbDims) {
+        int numRings = readWkbCount();
+        int numRingsIndex = numInts;
+        addInt(numRings);
+        int numCoordinates = 0;
+        for (int k = 0; k < numRings; k++) {
+            int numRingCoordinates = readRing(wkbDims);
+            addInt(numRingCoordinates);
+            numCoordinates += numRingCoordinates;
+        }
+        if (numRings > 0 && ints[numRingsIndex + 1] == 0) {
+            if (numCoordinates > 0) {
+                throw new IllegalArgumentException("Polygon shell is empty but holes are not");
+            }
+            numInts = numRingsIndex;
+            addInt(0);
+        }
+        return numCoordinates;
+    }
+
+    private int readMultiPoint() {
+        int numPoints = readWkbCount();
+        for (int k = 0; k < numPoints; k++) {
+            int wkbDims = readWkbChildHeader(WKBConstants.wkbPoint);
+            readPoint(wkbDims);
+        }
+        return numPoints;
+    }
+
+    private int readMultiLineString() {
+        int numLineStrings = readWkbCount();
+        addInt(numLineStrings);
+        int numCoordinates = 0;
+        for (int k = 0; k < numLineStrings; k++) {
+            int wkbDims = readWkbChildHeader(WKBConstants.wkbLineString);
+            int numLineStringCoordinates = readLineString(wkbDims);
+            addInt(numLineStringCoordinates);
+            numCoordinates += numLineStringCoordinates;
+            if (coordType == null) {
+                // The first line string is empty
+                coordType = CoordinateType.XY;
+            }
+        }
+        return numCoordinates;
+    }
+
+    private int readMultiPolygon() {
+        int numPolygons = readWkbCount();
+        addInt(numPolygons);
+        int numCoordinates = 0;
+        for (int k = 0; k < numPolygons; k++) {
+            int wkbDims = readWkbChildHeader(WKBConstants.wkbPolygon);
+            numCoordinates += readPolygon(wkbDims);
+            if (coordType == null) {
+                // The first polygon is empty
+                coordType = CoordinateType.XY;
+            }
+        }
+        return numCoordinates;
+    }
+
+    private byte[] readGeometryCollection(int srid, boolean withBoundingBox) {
+        int numGeometries = readWkbCount();
+        if (nested == null) {
+            nested = new GeometryWKBTranscoder();
+        }
+        // Child geometries are serialized without bounding box, the same as GeometrySerializer does
+        byte[][] children = new byte[numGeometries][];
+        int totalBytes = 0;
+        for (int k = 0; k < numGeometries; k++) {
+            byte[] child = nested.decodeWkb(wkb, wkbOffset, srid, false);
+            wkbOffset = nested.wkbOffset;
+            if (!nested.isEmptyEnvelope()) {
+                expandEnvelope(nested.minX, nested.minY);
+                expandEnvelope(nested.maxX, nested.maxY);
+            }
+            children[k] = child;
+            totalBytes += alignedOffset(child.length);
+        }
+        boolean hasBoundingBox = withBoundingBox && !isEmptyEnvelope();
+        int headerSize = hasBoundingBox ? HEADER_SIZE + BOUNDING_BOX_SIZE : HEADER_SIZE;
+        byte[] bytes = new byte[headerSize + totalBytes];
+        ByteBuffer serde = ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder());
+        writeSerdeHeader(
+                serde, WKBConstants.wkbGeometryCollection, CoordinateType.XY, srid, numGeometries, hasBoundingBox);
+        int offset = headerSize;
+        for (byte[] child : children) {
+            System.arraycopy(child, 0, bytes, offset, child.length);
+            offset += alignedOffset(child.length);
+        }
+        return bytes;
+    }
+
+    private void readCoordinates(int numCoordinates, int wkbDims) {
+        int wkbCoordBytes = 8 * wkbDims;
+        checkWkbSize(wkbOffset + (long) numCoordinates * wkbCoordBytes);
+        if (coordType == null) {
+            boolean hasZ = wkbDims > 2 && !Double.isNaN(wkb.getDouble(wkbOffset + 16));
+            coordType = hasZ ? CoordinateType.XYZ : CoordinateType.XY;
+        }
+        ensureCoordsCapacity(numCoordinates * coordType.bytes);
+        boolean hasZ = coordType.hasZ;
+        int inOffset = wkbOffset;
+        int outOffset = coordsLength;
+        for (int k = 0; k < numCoordinates; k++) {
+            double x = wkb.getDouble(inOffset);
+            double y = wkb.getDouble(inOffset + 8);
+            coordsBuffer.putDouble(outOffset, x);
+            coordsBuffer.putDouble(outOffset + 8, y);
+            if (hasZ) {
+                coordsBuffer.putDouble(outOffset + 16, wkbDims > 2 ? wkb.getDouble(inOffset + 16) : Double.NaN);
+            }
+            expandEnvelope(x, y);
+            inOffset += wkbCoordBytes;
+            outOffset += coordType.bytes;
+        }
+        wkbOffset = inOffset;
+        coordsLength = outOffset;
+    }
+
+    /**
+     * Skip over the WKB geometry at the current offset and expand the envelope with its coordinates.
+     *
+     * @return the type int of the geometry
+     */
+    private int scanWkbEnvelope() {
+        int typeInt = readWkbHeader();
+        if ((typeInt & WKB_SRID_FLAG) != 0) {
+            readWkbInt();
+        }
+        int wkbType = wkbGeometryType(typeInt);
+        int wkbDims = wkbDimensions(typeInt);
+        switch (wkbType) {
+            case WKBConstants.wkbPoint:
+                scanCoordinates(1, wkbDims);
+                break;
+            case WKBConstants.wkbLineString:
+                scanCoordinates(readWkbCount(), wkbDims);
+                break;
+            case WKBConstants.wkbPolygon:
+                int numRings = readWkbCount();
+                for (int k = 0; k < numRings; k++) {
+                    scanCoordinates(readWkbCount(), wkbDims);
+                }
+                break;
+            case WKBConstants.wkbMultiPoint:
+            case WKBConstants.wkbMultiLineString:
+            case WKBConstants.wkbMultiPolygon:
+            case WKBConstants.wkbGeometryCollection:
+                int numGeometries = readWkbCount();
+                for (int k = 0; k < numGeometries; k++) {
+                    scanWkbEnvelope();
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown WKB geometry type: " + wkbType);
+        }
+        return typeInt;
+    }
+
+    private void scanCoordinates(int numCoordinates, int wkbDims) {
+        int wkbCoordBytes = 8 * wkbDims;
+        checkWkbSize(wkbOffset + (long) numCoordinates * wkbCoordBytes);
+        int inOffset = wkbOffset;
+        for (int k = 0; k < numCoordinates; k++) {
+            double x = wkb.getDouble(inOffset);
+            double y = wkb.getDouble(inOffset + 8);
+            // Empty points are stored as NaN coordinates
+            if (!Double.isNaN(x) && !Double.isNaN(y)) {
+                expandEnvelope(x, y);
+            }
+            inOffset += wkbCoordBytes;
+        }
+        wkbOffset = inOffset;
+    }
+
+    private void repeatCoordinate(int coordOffset, int times) {
+        int coordBytes = coordType.bytes;
+        ensureCoordsCapacity(times * coordBytes);
+        for (int k = 0; k < times; k++) {
+            System.arraycopy(coords, coordOffset, coords, coordsLength, coordBytes);
+            coordsLength += coordBytes;
+        }
+    }
+
+    private int readWkbHeader() {
+        checkWkbSize(wkbOffset + 5L);
+        byte byteOrder = wkb.get(wkbOffset);
+        wkb.order(byteOrder == WKBConstants.wkbNDR ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int typeInt = wkb.getInt(wkbOffset + 1);
+        wkbOffset += 5;
+        return typeInt;
+    }
+
+    private int readWkbChildHeader(int expectedType) {
+        int typeInt = readWkbHeader();
+        int wkbType = wkbGeometryType(typeInt);
+        if (wkbType != expectedType) {
+            throw new IllegalArgumentException(
+                    "Unexpected WKB geometry type " + wkbType + ", expecting " + GEOMETRY_TYPE_NAMES[expectedType]);
+        }
+        if ((typeInt & WKB_SRID_FLAG) != 0) {
+            readWkbInt();
+        }
+        return wkbDimensions(typeInt);
+    }
+
+    private int readWkbInt() {
+        checkWkbSize(wkbOffset + 4L);
+        int value = wkb.getInt(wkbOffset);
+        wkbOffset += 4;
+        return value;
+    }
+
+    private int readWkbCount() {
+        int value = readWkbInt();
+        if (value < 0 || value > wkb.limit() - wkbOffset) {
+            throw new IllegalArgumentException("Unexpected number of elements in WKB: " + value);
+        }
+        return value;
+    }
+
+    private void checkWkbSize(long minimumSize) {
+        if (wkb.limit() < minimumSize) {
+            throw new IllegalArgumentException("WKB to be transcoded is incomplete");
+        }
+    }
+
+    private static int wkbGeometryType(int typeInt) {
+        return (typeInt & 0xFFFF) % 1000;
+    }
+
+    private static int wkbDimensions(int typeInt) {
+        int isoDims = (typeInt & 0xFFFF) / 1000;
+        boolean hasZ = (typeInt & WKB_Z_FLAG) != 0 || isoDims == 1 || isoDims == 3;
+        boolean hasM = (typeInt & WKB_M_FLAG) != 0 || isoDims == 2 || isoDims == 3;
+        return 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+    }
+
+    private void writeSerdeHeader(
+            ByteBuffer serde,
+            int wkbType,
+            CoordinateType coordType,
+            int srid,
+            int numCoordinates,
+            boolean hasBoundingBox) {
+        int preambleByte = (wkbType << 4) | (coordType.value << 1) | (srid != 0 ? 1 : 0);
+        if (hasBoundingBox) {
+            preambleByte |= BOUNDING_BOX_FLAG;
+        }
+        serde.put(0, (byte) preambleByte);
+        if (srid != 0) {
+            serde.put(1, (byte) (srid >> 16));
+            serde.put(2, (byte) (srid >> 8));
+            serde.put(3, (byte) srid);
+        }
+        serde.putInt(4, numCoordinates);
+        if (hasBoundingBox) {
+            serde.putFloat(8, floorFloat(minX));
+            serde.putFloat(12, floorFloat(minY));
+            serde.putFloat(16, ceilFloat(maxX));
+            serde.putFloat(20, ceilFloat(maxY));
+        }
+    }
+
+    private void addInt(int value) {
+        if (numInts == ints.length) {
+            ints = Arrays.copyOf(ints, ints.length * 2);
+        }
+        ints[numInts++] = value;
+    }
+
+    private void ensureCoordsCapacity(int numBytes) {
+        if (coordsLength + numBytes > coords.length) {
+            coords = Arrays.copyOf(coords, Math.max(coords.length * 2, coordsLength + numBytes));
+            coordsBuffer = ByteBuffer.wrap(coords).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Encode the serialized geometry at the given offset as WKB.
+     *
+     * @return the end offset of the serialized geometry
+     */
+    private int encodeWkb(ByteBuffer serde, int offset, int wkbDims) {
+        checkSerdeSize(serde, offset + HEADER_SIZE);
+        int preambleByte = serde.get(offset) & 0xFF;
+        int wkbType = (preambleByte >> 4) & 0x07;
+        CoordinateType coordType = CoordinateType.valueOf((preambleByte & 0x0F) >> 1);
+        int headerSize = (preambleByte & BOUNDING_BOX_FLAG) != 0 ? HEADER_SIZE + BOUNDING_BOX_SIZE : HEADER_SIZE;
+        int numCoordinates = getSerdeBoundedInt(serde, offset + 4);
+        writeWkbHeader(wkbType, wkbDims);
+        if (wkbType == WKBConstants.wkbGeometryCollection) {
+            writeWkbInt(numCoordinates);
+            int childOffset = offset + headerSize;
+            for (int k = 0; k < numCoordinates; k++) {
+                int childEndOffset = encodeWkb(serde, childOffset, wkbDims);
+                childOffset += alignedOffset(childEndOffset - childOffset);
+            }
+            return childOffset;
+        }
+        serdeCoordsOffset = offset + headerSize;
+        serdeIntsOffset = serdeCoordsOffset + numCoordinates * coordType.bytes;
+        checkSerdeSize(serde, serdeIntsOffset);
+        switch (wkbType) {
+            case WKBConstants.wkbPoint:
+                if (numCoordinates == 0) {
+                    ensureOutCapacity(8 * wkbDims);
+                    for (int k = 0; k < wkbDims; k++) {
+                        outBuffer.putDouble(outLength, Double.NaN);
+                        outLength += 8;
+                    }
+                } else {
+                    writeWkbCoordinates(serde, 1, coordType, wkbDims);
+                }
+                break;
+            case WKBConstants.wkbLineString:
+                writeWkbInt(numCoordinates);
+                writeWkbCoordinates(serde, numCoordinates, coordType, wkbDims);
+                break;
+            case WKBConstants.wkbPolygon:
+                if (numCoordinates == 0) {
+                    writeWkbInt(0);
+                } else {
+                    writeWkbRings(serde, coordType, wkbDims);
+                }
+                break;
+            case WKBConstants.wkbMultiPoint:
+                writeWkbInt(numCoordinates);
+                for (int k = 0; k < numCoordinates; k++) {
+                    writeWkbHeader(WKBConstants.wkbPoint, wkbDims);
+                    writeWkbCoordinates(serde, 1, coordType, wkbDims);
+                }
+                break;
+            case WKBConstants.wkbMultiLineString:
+                int numLineStrings = readSerdeInt(serde);
+                writeWkbInt(numLineStrings);
+                for (int k = 0; k < numLineStrings; k++) {
+                    writeWkbHeader(WKBConstants.wkbLineString, wkbDims);
+                    int numLineStringCoordinates = readSerdeInt(serde);
+                    writeWkbInt(numLineStringCoordinates);
+                    writeWkbCoordinates(serde, numLineStringCoordinates, coordType, wkbDims);
+                }
+                break;
+            case WKBConstants.wkbMultiPolygon:
+                int numPolygons = readSerdeInt(serde);
+                writeWkbInt(numPolygons);
+                for (int k = 0; k < numPolygons; k++) {
+                    writeWkbHeader(WKBConstants.wkbPolygon, wkbDims);
+                    writeWkbRings(serde, coordType, wkbDims);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException(
+                        "Cannot transcode buffer containing unknown geometry type ID: " + wkbType);
+        }
+        return serdeIntsOffset;
+    }
+
+    private void writeWkbRings(ByteBuffer serde, CoordinateType coordType, int wkbDims) {
+        int numRings = readSerdeInt(serde);
+        writeWkbInt(numRings);
+        for (int k = 0; k < numRings; k++) {
+            int numRingCoordinates = readSerdeInt(serde);
+            writeWkbInt(numRingCoordinates);
+            writeWkbCoordinates(serde, numRingCoordinates, coordType, wkbDims);
+        }
+    }
+
+    private void writeWkbCoordinates(ByteBuffer serde, int numCoordinates, CoordinateType coordType, int wkbDims) {
+        int coordBytes = coordType.bytes;
+        checkSerdeSize(serde, serdeCoordsOffset + (long) numCoordinates * coordBytes);
+        ensureOutCapacity(numCoordinates * 8 * wkbDims);
+        boolean hasZ = coordType.hasZ;
+        int inOffset = serdeCoordsOffset;
+        int outOffset = outLength;
+        for (int k = 0; k < numCoordinates; k++) {
+            double x = serde.getDouble(inOffset);
+            double y = serde.getDouble(inOffset + 8);
+            outBuffer.putDouble(outOffset, x);
+            outBuffer.putDouble(outOffset + 8, y);
+            if (wkbDims > 2) {
+                outBuffer.putDouble(outOffset + 16, hasZ ? serde.getDouble(inOffset + 16) : Double.NaN);
+            }
+            expandEnvelope(x, y);
+            inOffset += coordBytes;
+            outOffset += 8 * wkbDims;
+        }
+        serdeCoordsOffset = inOffset;
+        outLength = outOffset;
+    }
+
+    private void writeWkbHeader(int wkbType, int wkbDims) {
+        ensureOutCapacity(5);
+        outBuffer.put(outLength, (byte) WKBConstants.wkbXDR);
+        outBuffer.putInt(outLength + 1, wkbDims > 2 ? wkbType | WKB_Z_FLAG : wkbType);
+        outLength += 5;
+    }
+
+    private void writeWkbInt(int value) {
+        ensureOutCapacity(4);
+        outBuffer.putInt(outLength, value);
+        outLength += 4;
+    }
+
+    private void ensureOutCapacity(int numBytes) {
+        if (outLength + numBytes > out.length) {
+            out = Arrays.copyOf(out, Math.max(out.length * 2, outLength + numBytes));
+            outBuffer = ByteBuffer.wrap(out);
+        }
+    }
+
+    private int readSerdeInt(ByteBuffer serde) {
+        checkSerdeSize(serde, serdeIntsOffset + 4L);
+        int value = getSerdeBoundedInt(serde, serdeIntsOffset);
+        serdeIntsOffset += 4;
+        return value;
+    }
+
+    /**
+     * Check if the first coordinate of the serialized geometry has a Z ordinate. This determines the
+     * dimension of the WKB output, the same as {@code GeomUtils.getDimension} does for JTS geometries.
+     */
+    private static boolean serdeHasZ(ByteBuffer serde, int offset) {
+        checkSerdeSize(serde, offset + HEADER_SIZE);
+        int preambleByte = serde.get(offset) & 0xFF;
+        int wkbType = (preambleByte >> 4) & 0x07;
+        CoordinateType coordType = CoordinateType.valueOf((preambleByte & 0x0F) >> 1);
+        int headerSize = (preambleByte & BOUNDING_BOX_FLAG) != 0 ? HEADER_SIZE + BOUNDING_BOX_SIZE : HEADER_SIZE;
+        int numCoordinates = getSerdeBoundedInt(serde, offset + 4);
+        if (numCoordinates == 0) {
+            return false;
+        }
+        if (wkbType == WKBConstants.wkbGeometryCollection) {
+            return serdeHasZ(serde, offset + headerSize);
+        }
+        if (!coordType.hasZ) {
+            return false;
+        }
+        int coordsOffset = offset + headerSize;
+        int intsOffset = coordsOffset + numCoordinates * coordType.bytes;
+        checkSerdeSize(serde, intsOffset);
+        switch (wkbType) {
+            case WKBConstants.wkbMultiPoint:
+                // The first point of a multi point may be empty
+                if (Double.isNaN(serde.getDouble(coordsOffset))) {
+                    return false;
+                }
+                break;
+            case WKBConstants.wkbMultiLineString:
+            case WKBConstants.wkbMultiPolygon:
+                // The first line string or polygon may be empty
+                checkSerdeSize(serde, intsOffset + 8L);
+                if (serde.getInt(intsOffset) == 0 || serde.getInt(intsOffset + 4) == 0) {
+                    return false;
+                }
+                break;
+            default:
+                break;
+        }
+        return !Double.isNaN(serde.getDouble(coordsOffset + 16));
+    }
+
+    private static int getSerdeBoundedInt(ByteBuffer serde, int offset) {
+        int value = serde.getInt(offset);
+        if (value < 0) {
+            throw new IllegalArgumentException("Unexpected negative value encountered: " + value);
+        }
+        if (value > serde.limit()) {
+            throw new IllegalArgumentException("Unexpected large value encountered: " + value);
+        }
+        return value;
+    }
+
+    private static void checkSerdeSize(ByteBuffer serde, long minimumSize) {
+        if (serde.limit() < minimumSize) {
+            throw new IllegalArgumentException("Buffer to be transcoded is incomplete");
+        }
+    }
+
+    private void resetEnvelope() {
+        minX = Double.POSITIVE_INFINITY;
+        minY = Double.POSITIVE_INFINITY;
+        maxX = Double.NEGATIVE_INFINITY;
+        maxY = Double.NEGATIVE_INFINITY;
+    }
+
+    private void expandEnvelope(double x, double y) {
+        if (x < minX) {
+            minX = x;
+        }
+        if (x > maxX) {
+            maxX = x;
+        }
+        if (y < minY) {
+            minY = y;
+        }
+        if (y > maxY) {
+            maxY = y;
+        }
+    }
+
+    private boolean isEmptyEnvelope() {
+        return minX > maxX;
+    }
+
+    private void updateEnvelope() {
+        if (isEmptyEnvelope()) {
+            envelope.setToNull();
+        } else {
+            envelope.init(minX, maxX, minY, maxY);
+        }
+    }
+}
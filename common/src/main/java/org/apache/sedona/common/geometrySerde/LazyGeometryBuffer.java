@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.common.geometrySerde;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+
+/**
+ * A geometry buffer returning coordinate sequences that read directly from the underlying buffer
+ * instead of copying coordinates out of it. Used for deserializing geometries lazily.
+ */
+class LazyGeometryBuffer implements GeometryBuffer {
+    private final GeometryBuffer buffer;
+
+    LazyGeometryBuffer(GeometryBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public CoordinateType getCoordinateType() {
+        return buffer.getCoordinateType();
+    }
+
+    @Override
+    public void setCoordinateType(CoordinateType coordinateType) {
+        buffer.setCoordinateType(coordinateType);
+    }
+
+    @Override
+    public int getLength() {
+        return buffer.getLength();
+    }
+
+    @Override
+    public void mark(int offset) {
+        buffer.mark(offset);
+    }
+
+    @Override
+    public int getMark() {
+        return buffer.getMark();
+    }
+
+    @Override
+    public void putByte(int offset, byte value) {
+        buffer.putByte(offset, value);
+    }
+
+    @Override
+    public byte getByte(int offset) {
+        return buffer.getByte(offset);
+    }
+
+    @Override
+    public void putBytes(int offset, byte[] bytes) {
+        buffer.putBytes(offset, bytes);
+    }
+
+    @Override
+    public void getBytes(byte[] bytes, int offset, int length) {
+        buffer.getBytes(bytes, offset, length);
+    }
+
+    @Override
+    public void putInt(int offset, int value) {
+        buffer.putInt(offset, value);
+    }
+
+    @Override
+    public int getInt(int offset) {
+        return buffer.getInt(offset);
+    }
+
+    @Override
+    public void putFloat(int offset, float value) {
+        buffer.putFloat(offset, value);
+    }
+
+    @Override
+    public float getFloat(int offset) {
+        return buffer.getFloat(offset);
+    }
+
+    @Override
+    public double getDouble(int offset) {
+        return buffer.getDouble(offset);
+    }
+
+    @Override
+    public void putCoordinate(int offset, Coordinate coordinate) {
+        buffer.putCoordinate(offset, coordinate);
+    }
+
+    @Override
+    public CoordinateSequence getCoordinate(int offset) {
+        return getCoordinates(offset, 1);
+    }
+
+    @Override
+    public void putCoordinates(int offset, CoordinateSequence coordinates) {
+        buffer.putCoordinates(offset, coordinates);
+    }
+
+    @Override
+    public CoordinateSequence getCoordinates(int offset, int numCoordinates) {
+        return new GeometryBufferCoordinateSequence(
+                buffer, offset, numCoordinates, buffer.getCoordinateType());
+    }
+
+    @Override
+    public GeometryBuffer slice(int offset) {
+        return new LazyGeometryBuffer(buffer.slice(offset));
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+}
@@ -23,6 +23,8 @@ import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import org.apache.sedona.common.index.PackedRTree;
+import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.index.quadtree.IndexSerde;
 import org.locationtech.jts.index.quadtree.Quadtree;
 import org.locationtech.jts.index.strtree.STRtree;
@@ -32,9 +34,9 @@ import java.io.Serializable;
 /**
  * Provides methods to efficiently serialize and deserialize spatialIndex types.
  * <p>
- * Support Quadtree, STRtree types
+ * Support Quadtree, STRtree, PackedRTree types
  * <p>
- * trees are serialized recursively.
+ * trees are serialized recursively, packed R-trees are serialized as flat arrays.
  */
 public class SpatialIndexSerde
         extends Serializer implements Serializable
@@ -72,6 +74,10 @@ public class SpatialIndexSerde
                     = new org.locationtech.jts.index.strtree.IndexSerde();
             indexSerde.write(kryo, output, tree);
         }
+        else if (o instanceof PackedRTree) {
+            writeType(output, Type.PACKED_RTREE);
+            writePackedRTree(kryo, output, (PackedRTree) o);
+        }
         else {
             throw new UnsupportedOperationException(" index type not supported ");
         }
@@ -92,12 +98,43 @@ public class SpatialIndexSerde
                         new org.locationtech.jts.index.strtree.IndexSerde();
                 return indexSerde.read(kryo, input);
             }
+            case PACKED_RTREE: {
+                return readPackedRTree(kryo, input);
+            }
             default: {
                 throw new UnsupportedOperationException("can't deserialize spatial index of type" + indexType);
             }
         }
     }
 
+    private void writePackedRTree(Kryo kryo, Output output, PackedRTree tree)
+    {
+        output.writeInt(tree.getNodeCapacity());
+        int[] levelBounds = tree.getLevelBounds();
+        output.writeInt(levelBounds.length);
+        output.writeInts(levelBounds);
+        output.writeDoubles(tree.getBoxes());
+        output.writeInts(tree.getIndices());
+        for (Object item : tree.getItems()) {
+            geometrySerde.write(kryo, output, item);
+        }
+    }
+
+    private PackedRTree readPackedRTree(Kryo kryo, Input input)
+    {
+        int nodeCapacity = input.readInt();
+        int[] levelBounds = input.readInts(input.readInt());
+        // Number of items and nodes is the end of the last level
+        int numNodes = levelBounds[levelBounds.length - 1];
+        double[] boxes = input.readDoubles(4 * numNodes);
+        int[] indices = input.readInts(numNodes);
+        Object[] items = new Object[levelBounds[0]];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = geometrySerde.read(kryo, input, Geometry.class);
+        }
+        return new PackedRTree(nodeCapacity, items, boxes, indices, levelBounds);
+    }
+
     private void writeType(Output output, Type type)
     {
         output.writeByte((byte) type.id);
@@ -107,7 +144,8 @@ public class SpatialIndexSerde
     {
 
         QUADTREE(0),
-        RTREE(1);
+        RTREE(1),
+        PACKED_RTREE(2);
 
         private final int id;
 
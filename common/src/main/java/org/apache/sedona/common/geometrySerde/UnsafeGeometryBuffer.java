@@ -133,6 +133,24 @@ class UnsafeGeometryBuffer implements GeometryBuffer {
         return UNSAFE.getInt(bytes, baseOffset + offset);
     }
 
+    @Override
+    public void putFloat(int offset, float value) {
+        assert baseOffset + offset + 4 <= bytes.length + BYTE_ARRAY_BASE_OFFSET;
+        UNSAFE.putFloat(bytes, baseOffset + offset, value);
+    }
+
+    @Override
+    public float getFloat(int offset) {
+        assert baseOffset + offset + 4 <= bytes.length + BYTE_ARRAY_BASE_OFFSET;
+        return UNSAFE.getFloat(bytes, baseOffset + offset);
+    }
+
+    @Override
+    public double getDouble(int offset) {
+        assert baseOffset + offset + 8 <= bytes.length + BYTE_ARRAY_BASE_OFFSET;
+        return UNSAFE.getDouble(bytes, baseOffset + offset);
+    }
+
     @Override
     public void putCoordinate(int offset, Coordinate coordinate) {
         long coordOffset = baseOffset + offset;
@@ -0,0 +1,421 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.common.index;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.SpatialIndex;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A static R-tree packed with the Sort-Tile-Recursive algorithm, storing all nodes in flat primitive arrays.
+ * <p>
+ * Items and tree nodes are laid out level by level in a single array of bounding boxes: the first
+ * {@code numItems} boxes are the items in leaf order, followed by the boxes of each upper level, the root
+ * being the last one. For an item, {@code indices} holds the position of the item in {@code items}. For a
+ * node, it holds the position of its first child, the other children being stored right after it. Such a
+ * tree has no per-node objects, so it is compact in memory, cheap to serialize and cache friendly to query.
+ * <p>
+ * Like {@link org.locationtech.jts.index.strtree.STRtree}, items are inserted first and the tree is built
+ * on the first query. No item can be inserted once the tree is built, and items cannot be removed.
+ */
+public class PackedRTree
+        implements SpatialIndex, Serializable
+{
+    public static final int DEFAULT_NODE_CAPACITY = 16;
+
+    private final int nodeCapacity;
+
+    // Items and their bounding boxes before the tree is built
+    private ArrayList<Object> pendingItems = new ArrayList<>();
+    private double[] pendingBoxes = new double[4 * DEFAULT_NODE_CAPACITY];
+
+    private volatile boolean built = false;
+    private Object[] items;
+    // minX, minY, maxX, maxY of each item and node
+    private double[] boxes;
+    private int[] indices;
+    // End position (exclusive) of each level, level 0 holds the items
+    private int[] levelBounds;
+
+    public PackedRTree()
+    {
+        this(DEFAULT_NODE_CAPACITY);
+    }
+
+    public PackedRTree(int nodeCapacity)
+    {
+        if (nodeCapacity < 2) {
+            throw new IllegalArgumentException("Node capacity must be at least 2: " + nodeCapacity);
+        }
+        this.nodeCapacity = nodeCapacity;
+    }
+
+    /**
+     * Creates a built tree from its packed representation, used for deserialization.
+     */
+    public PackedRTree(int nodeCapacity, Object[] items, double[] boxes, int[] indices, int[] levelBounds)
+    {
+        this.nodeCapacity = nodeCapacity;
+        this.items = items;
+        this.boxes = boxes;
+        this.indices = indices;
+        this.levelBounds = levelBounds;
+        this.pendingItems = null;
+        this.pendingBoxes = null;
+        this.built = true;
+    }
+
+    @Override
+    public void insert(Envelope itemEnv, Object item)
+    {
+        if (built) {
+            throw new IllegalStateException("Cannot insert items into a packed R-tree after it has been built.");
+        }
+        if (itemEnv.isNull()) {
+            return;
+        }
+        int offset = 4 * pendingItems.size();
+        if (offset + 4 > pendingBoxes.length) {
+            pendingBoxes = Arrays.copyOf(pendingBoxes, pendingBoxes.length * 2);
+        }
+        pendingBoxes[offset] = itemEnv.getMinX();
+        pendingBoxes[offset + 1] = itemEnv.getMinY();
+        pendingBoxes[offset + 2] = itemEnv.getMaxX();
+        pendingBoxes[offset + 3] = itemEnv.getMaxY();
+        pendingItems.add(item);
+    }
+
+    @Override
+    public List query(Envelope searchEnv)
+    {
+        final List<Object> result = new ArrayList<>();
+        query(searchEnv, item -> result.add(item));
+        return result;
+    }
+
+    @Override
+    public void query(Envelope searchEnv, ItemVisitor visitor)
+    {
+        if (searchEnv.isNull()) {
+            return;
+        }
+        query(searchEnv.getMinX(), searchEnv.getMinY(), searchEnv.getMaxX(), searchEnv.getMaxY(), visitor);
+    }
+
+    /**
+     * Visits all items whose bounding boxes intersect the given search window. The search does not
+     * allocate any object.
+     */
+    public void query(double minX, double minY, double maxX, double maxY, ItemVisitor visitor)
+    {
+        build();
+        if (items.length == 0) {
+            return;
+        }
+        int root = levelBounds[levelBounds.length - 1] - 1;
+        if (intersects(root, minX, minY, maxX, maxY)) {
+            search(root, levelBounds.length - 1, minX, minY, maxX, maxY, visitor);
+        }
+    }
+
+    private void search(int node, int level, double minX, double minY, double maxX, double maxY, ItemVisitor visitor)
+    {
+        int childStart = indices[node];
+        int childEnd = Math.min(childStart + nodeCapacity, levelBounds[level - 1]);
+        for (int child = childStart; child < childEnd; child++) {
+            if (!intersects(child, minX, minY, maxX, maxY)) {
+                continue;
+            }
+            if (level == 1) {
+                visitor.visitItem(items[indices[child]]);
+            }
+            else {
+                search(child, level - 1, minX, minY, maxX, maxY, visitor);
+            }
+        }
+    }
+
+    private boolean intersects(int pos, double minX, double minY, double maxX, double maxY)
+    {
+        int offset = 4 * pos;
+        return boxes[offset] <= maxX && boxes[offset + 1] <= maxY && boxes[offset + 2] >= minX && boxes[offset + 3] >= minY;
+    }
+
+    /**
+     * Removing items is not supported by packed R-trees.
+     */
+    @Override
+    public boolean remove(Envelope itemEnv, Object item)
+    {
+        throw new UnsupportedOperationException("Cannot remove items from a packed R-tree.");
+    }
+
+    /**
+     * Builds the tree from the inserted items. Called automatically on the first query, it does nothing if
+     * the tree is already built.
+     */
+    public void build()
+    {
+        if (built) {
+            return;
+        }
+        synchronized (this) {
+            if (!built) {
+                pack();
+            }
+        }
+    }
+
+    private void pack()
+    {
+        int numItems = pendingItems.size();
+        int[] order = new int[numItems];
+        for (int i = 0; i < numItems; i++) {
+            order[i] = i;
+        }
+        sortTileRecursive(order);
+
+        double[] leafBoxes = new double[4 * numItems];
+        for (int i = 0; i < numItems; i++) {
+            System.arraycopy(pendingBoxes, 4 * order[i], leafBoxes, 4 * i, 4);
+        }
+        packLevels(pendingItems.toArray(), leafBoxes, order);
+
+        pendingItems = null;
+        pendingBoxes = null;
+        built = true;
+    }
+
+    /**
+     * Builds the upper levels above the given leaves.
+     *
+     * @param items the items
+     * @param leafBoxes the bounding boxes of the items in leaf order
+     * @param leafIndices the position in items of each item in leaf order
+     */
+    private void packLevels(Object[] items, double[] leafBoxes, int[] leafIndices)
+    {
+        int numItems = items.length;
+
+        // Compute the end position of each level
+        List<Integer> bounds = new ArrayList<>();
+        int numNodes = numItems;
+        bounds.add(numNodes);
+        if (numItems > 0) {
+            int count = numItems;
+            do {
+                count = (count + nodeCapacity - 1) / nodeCapacity;
+                numNodes += count;
+                bounds.add(numNodes);
+            }
+            while (count != 1);
+        }
+        levelBounds = new int[bounds.size()];
+        for (int i = 0; i < levelBounds.length; i++) {
+            levelBounds[i] = bounds.get(i);
+        }
+
+        this.items = items;
+        boxes = Arrays.copyOf(leafBoxes, 4 * numNodes);
+        indices = Arrays.copyOf(leafIndices, numNodes);
+
+        // Pack each level into nodes of the level above
+        int pos = numItems;
+        for (int level = 1; level < levelBounds.length; level++) {
+            int levelStart = level == 1 ? 0 : levelBounds[level - 2];
+            int levelEnd = levelBounds[level - 1];
+            for (int childStart = levelStart; childStart < levelEnd; childStart += nodeCapacity) {
+                int childEnd = Math.min(childStart + nodeCapacity, levelEnd);
+                double nodeMinX = Double.POSITIVE_INFINITY;
+                double nodeMinY = Double.POSITIVE_INFINITY;
+                double nodeMaxX = Double.NEGATIVE_INFINITY;
+                double nodeMaxY = Double.NEGATIVE_INFINITY;
+                for (int child = childStart; child < childEnd; child++) {
+                    nodeMinX = Math.min(nodeMinX, boxes[4 * child]);
+                    nodeMinY = Math.min(nodeMinY, boxes[4 * child + 1]);
+                    nodeMaxX = Math.max(nodeMaxX, boxes[4 * child + 2]);
+                    nodeMaxY = Math.max(nodeMaxY, boxes[4 * child + 3]);
+                }
+                boxes[4 * pos] = nodeMinX;
+                boxes[4 * pos + 1] = nodeMinY;
+                boxes[4 * pos + 2] = nodeMaxX;
+                boxes[4 * pos + 3] = nodeMaxY;
+                indices[pos] = childStart;
+                pos++;
+            }
+        }
+    }
+
+    /**
+     * Merges trees holding disjoint slices of the items into a single tree. The leaves of the trees are
+     * concatenated in the given order and only the upper levels are built, so the items are not sorted again.
+     * Trees built in parallel from slices of items sorted by the x of their centers give about the same tree
+     * as packing all the items at once.
+     *
+     * @param nodeCapacity the node capacity of the merged tree
+     * @param trees the trees to merge, in the order of their slices
+     * @return the merged tree, already built
+     */
+    public static PackedRTree merge(int nodeCapacity, List<PackedRTree> trees)
+    {
+        int numItems = 0;
+        for (PackedRTree tree : trees) {
+            tree.build();
+            numItems += tree.items.length;
+        }
+        Object[] items = new Object[numItems];
+        double[] leafBoxes = new double[4 * numItems];
+        int[] leafIndices = new int[numItems];
+        int pos = 0;
+        for (PackedRTree tree : trees) {
+            for (int i = 0; i < tree.items.length; i++) {
+                items[pos] = tree.items[tree.indices[i]];
+                System.arraycopy(tree.boxes, 4 * i, leafBoxes, 4 * pos, 4);
+                leafIndices[pos] = pos;
+                pos++;
+            }
+        }
+        PackedRTree merged = new PackedRTree(nodeCapacity);
+        merged.packLevels(items, leafBoxes, leafIndices);
+        merged.pendingItems = null;
+        merged.pendingBoxes = null;
+        merged.built = true;
+        return merged;
+    }
+
+    /**
+     * Sorts items into leaf order: items are sorted by the x of their centers, cut into vertical slices, and
+     * each slice is sorted by the y of the centers. Upper levels keep this order, so consecutive nodes stay
+     * spatially close.
+     */
+    private void sortTileRecursive(int[] order)
+    {
+        int numItems = order.length;
+        if (numItems <= nodeCapacity) {
+            return;
+        }
+        double[] centerX = new double[numItems];
+        double[] centerY = new double[numItems];
+        for (int i = 0; i < numItems; i++) {
+            centerX[i] = (pendingBoxes[4 * i] + pendingBoxes[4 * i + 2]) / 2;
+            centerY[i] = (pendingBoxes[4 * i + 1] + pendingBoxes[4 * i + 3]) / 2;
+        }
+        sort(order, centerX, 0, numItems - 1);
+        int numLeaves = (numItems + nodeCapacity - 1) / nodeCapacity;
+        int numSlices = (int) Math.ceil(Math.sqrt(numLeaves));
+        int sliceSize = ((numLeaves + numSlices - 1) / numSlices) * nodeCapacity;
+        for (int sliceStart = 0; sliceStart < numItems; sliceStart += sliceSize) {
+            sort(order, centerY, sliceStart, Math.min(sliceStart + sliceSize, numItems) - 1);
+        }
+    }
+
+    /**
+     * Sorts order[left..right] by keys[order[i]] with quicksort.
+     */
+    private static void sort(int[] order, double[] keys, int left, int right)
+    {
+        while (left < right) {
+            if (right - left < 16) {
+                for (int i = left + 1; i <= right; i++) {
+                    int value = order[i];
+                    double key = keys[value];
+                    int j = i - 1;
+                    while (j >= left && keys[order[j]] > key) {
+                        order[j + 1] = order[j];
+                        j--;
+                    }
+                    order[j + 1] = value;
+                }
+                return;
+            }
+            double pivot = keys[order[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (keys[order[i]] < pivot) {
+                    i++;
+                }
+                while (keys[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            // Recurse into the smaller part to bound the stack depth
+            if (j - left < right - i) {
+                sort(order, keys, left, j);
+                left = i;
+            }
+            else {
+                sort(order, keys, i, right);
+                right = j;
+            }
+        }
+    }
+
+    public int getNodeCapacity()
+    {
+        return nodeCapacity;
+    }
+
+    public int size()
+    {
+        return built ? items.length : pendingItems.size();
+    }
+
+    public boolean isBuilt()
+    {
+        return built;
+    }
+
+    public Object[] getItems()
+    {
+        build();
+        return items;
+    }
+
+    public double[] getBoxes()
+    {
+        build();
+        return boxes;
+    }
+
+    public int[] getIndices()
+    {
+        build();
+        return indices;
+    }
+
+    public int[] getLevelBounds()
+    {
+        build();
+        return levelBounds;
+    }
+}
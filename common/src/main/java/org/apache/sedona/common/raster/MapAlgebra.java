@@ -30,6 +30,7 @@ import javax.media.jai.TiledImage;
 import java.awt.*;
 import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
 import java.awt.image.WritableRaster;
 
 public class MapAlgebra
@@ -115,19 +116,14 @@ public class MapAlgebra
     private static GridCoverage2D copyRasterAndAppendBand(GridCoverage2D gridCoverage2D, double[] bandValues, Double noDataValue) {
         // Get the original image and its properties
         RenderedImage originalImage = gridCoverage2D.getRenderedImage();
-        Raster raster = originalImage.getData();
-        Point location = gridCoverage2D.getRenderedImage().getData().getBounds().getLocation();
-        WritableRaster wr = RasterFactory.createBandedRaster(raster.getDataBuffer().getDataType(), originalImage.getWidth(), originalImage.getHeight(), gridCoverage2D.getNumSampleDimensions() + 1, location);
-        // Copy the raster data and append the new band values
-        for (int i = 0; i < raster.getWidth(); i++) {
-            for (int j = 0; j < raster.getHeight(); j++) {
-                double[] pixels = raster.getPixel(i, j, (double[]) null);
-                double[] copiedPixels = new double[pixels.length + 1];
-                System.arraycopy(pixels, 0, copiedPixels, 0, pixels.length);
-                copiedPixels[pixels.length] = bandValues[j * raster.getWidth() + i];
-                wr.setPixel(i, j, copiedPixels);
-            }
+        int numBands = gridCoverage2D.getNumSampleDimensions();
+        Point location = new Point(originalImage.getMinX(), originalImage.getMinY());
+        WritableRaster wr = RasterFactory.createBandedRaster(originalImage.getSampleModel().getDataType(), originalImage.getWidth(), originalImage.getHeight(), numBands + 1, location);
+        // Copy the raster data band by band, then append the new band values
+        for (int band = 0; band < numBands; band++) {
+            copyBand(originalImage, band, wr, band);
         }
+        wr.setSamples(wr.getMinX(), wr.getMinY(), wr.getWidth(), wr.getHeight(), numBands, bandValues);
         // Add a sample dimension for newly added band
         int numBand = wr.getNumBands();
         GridSampleDimension[] originalSampleDimensions = gridCoverage2D.getSampleDimensions();
@@ -153,16 +149,15 @@ public class MapAlgebra
         }
         // Get the original image and its properties
         RenderedImage originalImage = gridCoverage2D.getRenderedImage();
-        Raster raster = originalImage.getData();
-        WritableRaster wr = raster.createCompatibleWritableRaster();
-        // Copy the raster data and replace the band values
-        for (int i = 0; i < raster.getWidth(); i++) {
-            for (int j = 0; j < raster.getHeight(); j++) {
-                double[] bands = raster.getPixel(i, j, (double[]) null);
-                bands[bandIndex - 1] = bandValues[j * raster.getWidth() + i];
-                wr.setPixel(i, j, bands);
+        SampleModel sampleModel = originalImage.getSampleModel().createCompatibleSampleModel(originalImage.getWidth(), originalImage.getHeight());
+        WritableRaster wr = Raster.createWritableRaster(sampleModel, null);
+        // Copy the raster data band by band, except for the replaced band which takes the new band values
+        for (int band = 0; band < wr.getNumBands(); band++) {
+            if (band != bandIndex - 1) {
+                copyBand(originalImage, band, wr, band);
             }
         }
+        wr.setSamples(wr.getMinX(), wr.getMinY(), wr.getWidth(), wr.getHeight(), bandIndex - 1, bandValues);
         GridSampleDimension[] sampleDimensions = gridCoverage2D.getSampleDimensions();
         GridSampleDimension sampleDimension = sampleDimensions[bandIndex - 1];
         if (noDataValue == null && removeNoDataIfNull) {
@@ -177,6 +172,16 @@ public class MapAlgebra
         return copyRasterAndReplaceBand(gridCoverage2D, bandIndex, bandValues, null, false);
     }
 
+    /**
+     * Copies a band of an image into a band of a raster of the same size, tile by tile, without materializing
+     * the whole image or allocating a buffer per pixel. The raster may be located anywhere.
+     */
+    private static void copyBand(RenderedImage image, int band, WritableRaster target, int targetBand) {
+        int dx = target.getMinX() - image.getMinX(), dy = target.getMinY() - image.getMinY();
+        RasterUtils.visitSamples(image, band, (block, samples) ->
+                target.setSamples(block.x + dx, block.y + dy, block.width, block.height, targetBand, samples));
+    }
+
     private static final ThreadLocal<String> previousScript = new ThreadLocal<>();
     private static final ThreadLocal<JiffleDirectRuntime> previousRuntime = new ThreadLocal<>();
 
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sedona.common.raster;
+
+import com.sun.media.imageioimpl.common.BogusColorSpace;
+import it.geosolutions.imageioimpl.plugins.tiff.TIFFImageReaderSpi;
+import org.apache.sedona.common.raster.inputstream.RangeReaderImageInputStream;
+import org.apache.sedona.common.raster.inputstream.RangeReaders;
+
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.media.jai.ImageLayout;
+import javax.media.jai.PlanarImage;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Image of an out-db raster. Instead of holding the pixels, the image refers to a window of a GeoTIFF file and reads
+ * the tiles overlapping the requested region from the file when pixels are accessed. The tile grid of the image is
+ * aligned with the tile grid of the file, so each tile of the image is read from exactly one tile of the file.
+ * Tiled GeoTIFFs such as Cloud Optimized GeoTIFFs only need a few range reads for accessing a few pixels.
+ */
+public class OutDbRenderedImage extends PlanarImage {
+    private static final int MAX_CACHED_TILES = 8;
+    private static final int MAX_OPEN_READERS = 4;
+
+    /**
+     * Open TIFF readers of each thread, keyed by path. Image readers are not thread safe, and keeping them open
+     * avoids parsing the header of the file again for reading each tile. Readers stay open until they are evicted by
+     * readers of other files, fail to read, or are closed by {@link #closeReaders()}.
+     */
+    private static final ThreadLocal<Map<String, ImageReader>> readers = ThreadLocal.withInitial(() ->
+            new LinkedHashMap<String, ImageReader>(MAX_OPEN_READERS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ImageReader> eldest) {
+                    if (size() > MAX_OPEN_READERS) {
+                        closeReader(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            });
+
+    private final String path;
+    private final Rectangle window;
+    private final Map<Point, Raster> tiles = new LinkedHashMap<Point, Raster>(MAX_CACHED_TILES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Point, Raster> eldest) {
+            return size() > MAX_CACHED_TILES;
+        }
+    };
+
+    /**
+     * @param path path of the GeoTIFF file
+     * @param window region of the image in the file, in pixel coordinates of the file
+     * @param tileWidth width of tiles of the file
+     * @param tileHeight height of tiles of the file
+     * @param dataType data type of the bands
+     * @param numBands number of bands
+     */
+    public OutDbRenderedImage(String path, Rectangle window, int tileWidth, int tileHeight, int dataType, int numBands) {
+        super(createLayout(window, tileWidth, tileHeight, dataType, numBands), null, null);
+        this.path = path;
+        this.window = new Rectangle(window);
+    }
+
+    private static ImageLayout createLayout(Rectangle window, int tileWidth, int tileHeight, int dataType, int numBands) {
+        SampleModel sampleModel = new BandedSampleModel(dataType, tileWidth, tileHeight, numBands);
+        int[] nBits = new int[numBands];
+        Arrays.fill(nBits, DataBuffer.getDataTypeSize(dataType));
+        ColorModel colorModel = new ComponentColorModel(new BogusColorSpace(numBands), nBits, false, true,
+                Transparency.OPAQUE, dataType);
+        return new ImageLayout(0, 0, window.width, window.height,
+                -(window.x % tileWidth), -(window.y % tileHeight), tileWidth, tileHeight, sampleModel, colorModel);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return region of this image in the file, in pixel coordinates of the file
+     */
+    public Rectangle getWindow() {
+        return new Rectangle(window);
+    }
+
+    /**
+     * Create an out-db image for a region of this image. The pixels of the region are not read.
+     * @param region region of this image
+     * @return the image of the region
+     */
+    public OutDbRenderedImage getSubImage(Rectangle region) {
+        Rectangle subWindow = new Rectangle(window.x + region.x, window.y + region.y, region.width, region.height);
+        return new OutDbRenderedImage(path, subWindow, tileWidth, tileHeight, sampleModel.getDataType(),
+                sampleModel.getNumBands());
+    }
+
+    @Override
+    public Raster getTile(int tileX, int tileY) {
+        Point key = new Point(tileX, tileY);
+        synchronized (tiles) {
+            Raster tile = tiles.get(key);
+            if (tile != null) {
+                return tile;
+            }
+        }
+        Raster tile = readTile(tileX, tileY);
+        synchronized (tiles) {
+            tiles.put(key, tile);
+        }
+        return tile;
+    }
+
+    private Raster readTile(int tileX, int tileY) {
+        Point origin = new Point(tileXToX(tileX), tileYToY(tileY));
+        WritableRaster tile = createWritableRaster(sampleModel, origin);
+        Rectangle region = tile.getBounds().intersection(getBounds());
+        if (region.isEmpty()) {
+            return tile;
+        }
+        ImageReadParam param = new ImageReadParam();
+        param.setSourceRegion(new Rectangle(region.x + window.x, region.y + window.y, region.width, region.height));
+        try {
+            // Not all TIFF readers support readRaster, so we read the region as an image and take its raster
+            Raster data = getReader(path).read(0, param).getRaster();
+            tile.setRect(region.x - data.getMinX(), region.y - data.getMinY(), data);
+        } catch (IOException e) {
+            // The reader may be broken after an IO error, open a new one next time
+            closeReader(readers.get().remove(path));
+            throw new UncheckedIOException("Failed to read tile of out-db raster " + path, e);
+        }
+        return tile;
+    }
+
+    private static ImageReader getReader(String path) throws IOException {
+        Map<String, ImageReader> openReaders = readers.get();
+        ImageReader reader = openReaders.get(path);
+        if (reader == null) {
+            ImageInputStream stream = new RangeReaderImageInputStream(RangeReaders.open(path));
+            reader = new TIFFImageReaderSpi().createReaderInstance();
+            reader.setInput(stream);
+            openReaders.put(path, reader);
+        }
+        return reader;
+    }
+
+    /**
+     * Close the readers opened by the current thread. Engines running tasks on pooled threads should call this when
+     * a task completes, so that files are not kept open by idle threads and files rewritten in the meantime are not
+     * read using stale headers. Readers are opened again when needed.
+     */
+    public static void closeReaders() {
+        Map<String, ImageReader> openReaders = readers.get();
+        for (ImageReader reader : openReaders.values()) {
+            closeReader(reader);
+        }
+        openReaders.clear();
+        readers.remove();
+    }
+
+    private static void closeReader(ImageReader reader) {
+        if (reader == null) {
+            return;
+        }
+        Object input = reader.getInput();
+        reader.dispose();
+        if (input instanceof ImageInputStream) {
+            try {
+                ((ImageInputStream) input).close();
+            } catch (IOException e) {
+                // Ignore errors when releasing the file
+            }
+        }
+    }
+}
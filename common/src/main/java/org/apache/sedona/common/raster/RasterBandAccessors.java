@@ -20,10 +20,23 @@ package org.apache.sedona.common.raster;
 
 import org.apache.sedona.common.utils.RasterUtils;
 import org.geotools.coverage.GridSampleDimension;
-import org.geotools.coverage.grid.GridCoordinates2D;
 import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.geometry.jts.JTS;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.util.PolygonExtracter;
+import org.opengis.metadata.spatial.PixelOrientation;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
 
-import java.awt.image.Raster;
+import java.awt.Rectangle;
+import java.awt.image.RenderedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class RasterBandAccessors {
 
@@ -46,23 +59,26 @@ public class RasterBandAccessors {
         int height = RasterAccessors.getHeight(raster), width = RasterAccessors.getWidth(raster);
         if(excludeNoDataValue) {
             RasterUtils.ensureBand(raster, band);
-            long numberOfPixel = 0;
             Double bandNoDataValue = RasterBandAccessors.getBandNoDataValue(raster, band);
-
-            for(int j = 0; j < height; j++){
-                for(int i = 0; i < width; i++){
-
-                    double[] bandPixelValues = raster.evaluate(new GridCoordinates2D(i, j), (double[]) null);
-                    double bandValue = bandPixelValues[band - 1];
-                    if(bandNoDataValue == null || bandValue != bandNoDataValue){
-                        numberOfPixel += 1;
+            if (bandNoDataValue == null) {
+                return (long) width * height;
+            }
+            double noDataValue = bandNoDataValue;
+            long[] numberOfPixel = {0};
+            RasterUtils.visitSamples(raster.getRenderedImage(), band - 1, (block, samples) -> {
+                int numSamples = block.width * block.height;
+                long count = 0;
+                for (int k = 0; k < numSamples; k++) {
+                    if (samples[k] != noDataValue) {
+                        count++;
                     }
                 }
-            }
-            return numberOfPixel;
+                numberOfPixel[0] += count;
+            });
+            return numberOfPixel[0];
         } else {
             // code for false
-            return width * height;
+            return (long) width * height;
         }
     }
 
@@ -82,43 +98,49 @@ public class RasterBandAccessors {
 
     public static double[] getSummaryStats(GridCoverage2D rasterGeom, int band, boolean excludeNoDataValue) {
         RasterUtils.ensureBand(rasterGeom, band);
-        Raster raster = rasterGeom.getRenderedImage().getData();
-        int height = RasterAccessors.getHeight(rasterGeom), width = RasterAccessors.getWidth(rasterGeom);
-        double[] pixels = raster.getSamples(0, 0, width, height, band - 1, (double[]) null);
-        double count = 0, sum = 0, mean = 0, stddev = 0, min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
-        Double noDataValue = RasterBandAccessors.getBandNoDataValue(rasterGeom, band);
-        for (double pixel: pixels) {
-            if(excludeNoDataValue) {
-            // exclude no data values
-                if (noDataValue == null || pixel != noDataValue) {
+        RenderedImage image = rasterGeom.getRenderedImage();
+        Double bandNoDataValue = RasterBandAccessors.getBandNoDataValue(rasterGeom, band);
+        // Samples equal to the no data value are skipped if they are excluded. NaN is never equal to any sample.
+        double noDataValue = excludeNoDataValue && bandNoDataValue != null ? bandNoDataValue : Double.NaN;
+        // count, sum, min, max
+        double[] stats = {0, 0, Double.MAX_VALUE, -Double.MAX_VALUE};
+        RasterUtils.visitSamples(image, band - 1, (block, samples) -> {
+            int numSamples = block.width * block.height;
+            double count = 0, sum = 0, min = stats[2], max = stats[3];
+            for (int k = 0; k < numSamples; k++) {
+                double pixel = samples[k];
+                if (pixel != noDataValue) {
                     count++;
                     sum += pixel;
                     min = Math.min(min, pixel);
                     max = Math.max(max, pixel);
                 }
-            } else {
-                // include no data values
-                count = pixels.length;
-                sum += pixel;
-                min = Math.min(min, pixel);
-                max = Math.max(max, pixel);
             }
-        }
+            stats[0] += count;
+            stats[1] += sum;
+            stats[2] = min;
+            stats[3] = max;
+        });
+        double count = stats[0], sum = stats[1];
         if (count == 0) {
             return new double[] {0, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN};
         }
-        mean = sum / count;
-        for(double pixel: pixels){
-            if (excludeNoDataValue){
-                if (noDataValue == null || pixel != noDataValue) {
-                    stddev += Math.pow(pixel - mean, 2);
+        double mean = sum / count;
+        double[] squaredDeviations = {0};
+        RasterUtils.visitSamples(image, band - 1, (block, samples) -> {
+            int numSamples = block.width * block.height;
+            double total = 0;
+            for (int k = 0; k < numSamples; k++) {
+                double pixel = samples[k];
+                if (pixel != noDataValue) {
+                    double deviation = pixel - mean;
+                    total += deviation * deviation;
                 }
-            } else {
-                stddev += Math.pow(pixel - mean, 2);
             }
-        }
-        stddev = Math.sqrt(stddev/count);
-        return new double[]{count, sum, mean, stddev, min, max};
+            squaredDeviations[0] += total;
+        });
+        double stddev = Math.sqrt(squaredDeviations[0] / count);
+        return new double[]{count, sum, mean, stddev, stats[2], stats[3]};
     }
 
     public static double[] getSummaryStats(GridCoverage2D raster, int band) {
@@ -143,4 +165,307 @@ public class RasterBandAccessors {
     public static String getBandType(GridCoverage2D raster){
         return getBandType(raster, 1);
     }
+
+    /**
+     * Computes a statistic over the pixels of a band covered by a polygonal geometry. A pixel is covered when its
+     * center lies in any polygon of the geometry, so overlapping polygons of invalid multipolygons are unioned. The
+     * geometry is rasterized on the grid of the raster in a scanline pass, and only the window of the raster covered
+     * by the geometry is read.
+     * @param raster the raster
+     * @param roi the polygonal region of interest. It is transformed to the CRS of the raster if it has an SRID.
+     * @param band the band, starts at 1
+     * @param statType one of count, sum, mean, stddev, min and max
+     * @param excludeNoDataValue whether to skip the pixels holding the no data value of the band, which may be NaN
+     * @return the statistic, or null if no pixel is covered. The count of an empty zone is 0.
+     */
+    public static Double getZonalStats(GridCoverage2D raster, Geometry roi, int band, String statType, boolean excludeNoDataValue) throws TransformException {
+        String stat = statType.toLowerCase();
+        if (!Arrays.asList("count", "sum", "mean", "stddev", "min", "max").contains(stat)) {
+            throw new IllegalArgumentException("Unsupported zonal statistic " + statType + ". Supported statistics are count, sum, mean, stddev, min and max");
+        }
+        RasterUtils.ensureBand(raster, band);
+        Zone zone = new Zone(raster, roi, band, excludeNoDataValue);
+        // count, sum, min, max
+        double[] stats = {0, 0, Double.MAX_VALUE, -Double.MAX_VALUE};
+        zone.visitSamples((samples, from, to) -> {
+            double count = 0, sum = 0, min = stats[2], max = stats[3];
+            for (int k = from; k < to; k++) {
+                double pixel = samples[k];
+                if (!zone.isNoData(pixel)) {
+                    count++;
+                    sum += pixel;
+                    min = Math.min(min, pixel);
+                    max = Math.max(max, pixel);
+                }
+            }
+            stats[0] += count;
+            stats[1] += sum;
+            stats[2] = min;
+            stats[3] = max;
+        });
+        double count = stats[0];
+        if (stat.equals("count")) {
+            return count;
+        }
+        if (count == 0) {
+            return null;
+        }
+        double mean = stats[1] / count;
+        switch (stat) {
+            case "sum":
+                return stats[1];
+            case "mean":
+                return mean;
+            case "min":
+                return stats[2];
+            case "max":
+                return stats[3];
+            default:
+                double[] squaredDeviations = {0};
+                zone.visitSamples((samples, from, to) -> {
+                    double total = 0;
+                    for (int k = from; k < to; k++) {
+                        double pixel = samples[k];
+                        if (!zone.isNoData(pixel)) {
+                            double deviation = pixel - mean;
+                            total += deviation * deviation;
+                        }
+                    }
+                    squaredDeviations[0] += total;
+                });
+                return Math.sqrt(squaredDeviations[0] / count);
+        }
+    }
+
+    public static Double getZonalStats(GridCoverage2D raster, Geometry roi, int band, String statType) throws TransformException {
+        return getZonalStats(raster, roi, band, statType, true);
+    }
+
+    /**
+     * Computes the histogram of the pixels of a band covered by a polygonal geometry, skipping the no data value of
+     * the band. Pixels are covered as in {@link #getZonalStats(GridCoverage2D, Geometry, int, String, boolean)}.
+     * @param raster the raster
+     * @param roi the polygonal region of interest
+     * @param band the band, starts at 1
+     * @param numBins the number of bins, evenly splitting [min, max]
+     * @param min the lower bound of the first bin
+     * @param max the upper bound of the last bin, which is inclusive. Pixels outside [min, max] are not counted.
+     * @return the number of covered pixels in each bin
+     */
+    public static Long[] getZonalHistogram(GridCoverage2D raster, Geometry roi, int band, int numBins, double min, double max) throws TransformException {
+        if (numBins <= 0 || !(min < max)) {
+            throw new IllegalArgumentException("The histogram must have a positive number of bins and min must be lower than max");
+        }
+        RasterUtils.ensureBand(raster, band);
+        Zone zone = new Zone(raster, roi, band, true);
+        long[] bins = new long[numBins];
+        double scale = numBins / (max - min);
+        zone.visitSamples((samples, from, to) -> {
+            for (int k = from; k < to; k++) {
+                double pixel = samples[k];
+                if (!zone.isNoData(pixel) && pixel >= min && pixel <= max) {
+                    bins[Math.min((int) ((pixel - min) * scale), numBins - 1)]++;
+                }
+            }
+        });
+        Long[] result = new Long[numBins];
+        for (int k = 0; k < numBins; k++) {
+            result[k] = bins[k];
+        }
+        return result;
+    }
+
+    /**
+     * Receives the covered samples of a zone, one span of a row at a time.
+     */
+    @FunctionalInterface
+    private interface SpanVisitor {
+        void visit(double[] samples, int from, int to);
+    }
+
+    /**
+     * The pixels of a band covered by a polygonal geometry, as spans of covered pixels for each row of the window of
+     * the raster overlapping the geometry.
+     */
+    private static class Zone {
+        private final RenderedImage image;
+        private final int band;
+        private final boolean excludeNoDataValue;
+        private final double noDataValue;
+        private final Rectangle window;
+        /**
+         * Start and end columns of the covered spans of each row of the window, as [start, end, start, end, ...]
+         */
+        private final int[][] spans;
+
+        Zone(GridCoverage2D raster, Geometry roi, int band, boolean excludeNoDataValue) throws TransformException {
+            this.image = raster.getRenderedImage();
+            this.band = band - 1;
+            GridSampleDimension sampleDimension = raster.getSampleDimension(band - 1);
+            this.noDataValue = RasterUtils.getNoDataValue(sampleDimension);
+            // A NaN no data value could only be told apart from a missing one by the no data category
+            this.excludeNoDataValue = excludeNoDataValue &&
+                    (!Double.isNaN(noDataValue) || RasterUtils.hasNoDataValue(sampleDimension));
+
+            // Rasterize the geometry in grid space, where pixel (i, j) spans [i, i + 1) x [j, j + 1)
+            Geometry geometry = RasterUtils.convertCRSIfNeeded(roi, raster.getCoordinateReferenceSystem2D());
+            List<Polygon> polygons = new ArrayList<>();
+            PolygonExtracter.getPolygons(geometry, polygons);
+            if (polygons.isEmpty() && !geometry.isEmpty()) {
+                throw new IllegalArgumentException("Zonal statistics require a polygonal geometry, got " + geometry.getGeometryType());
+            }
+            MathTransform crsToGrid = raster.getGridGeometry().getCRSToGrid2D(PixelOrientation.UPPER_LEFT);
+            List<List<double[]>> polygonEdges = new ArrayList<>();
+            Envelope envelope = new Envelope();
+            for (Polygon polygon : polygons) {
+                Polygon gridPolygon = (Polygon) JTS.transform(polygon, crsToGrid);
+                envelope.expandToInclude(gridPolygon.getEnvelopeInternal());
+                List<double[]> edges = new ArrayList<>();
+                addEdges(gridPolygon.getExteriorRing(), edges);
+                for (int k = 0; k < gridPolygon.getNumInteriorRing(); k++) {
+                    addEdges(gridPolygon.getInteriorRingN(k), edges);
+                }
+                polygonEdges.add(edges);
+            }
+
+            // Pixels whose centers lie in the envelope of the geometry
+            int minX = Math.max(0, (int) Math.ceil(envelope.getMinX() - 0.5));
+            int maxX = Math.min(image.getWidth(), (int) Math.ceil(envelope.getMaxX() - 0.5));
+            int minY = Math.max(0, (int) Math.ceil(envelope.getMinY() - 0.5));
+            int maxY = Math.min(image.getHeight(), (int) Math.ceil(envelope.getMaxY() - 0.5));
+            if (envelope.isNull() || minX >= maxX || minY >= maxY) {
+                this.window = new Rectangle();
+                this.spans = new int[0][];
+            } else {
+                this.window = new Rectangle(minX, minY, maxX - minX, maxY - minY);
+                this.spans = new int[window.height][];
+                Arrays.fill(spans, new int[0]);
+                for (List<double[]> edges : polygonEdges) {
+                    scanlines(edges, window, spans);
+                }
+            }
+        }
+
+        boolean isNoData(double pixel) {
+            return excludeNoDataValue && (pixel == noDataValue || (Double.isNaN(noDataValue) && Double.isNaN(pixel)));
+        }
+
+        private static void addEdges(LineString ring, List<double[]> edges) {
+            Coordinate[] coordinates = ring.getCoordinates();
+            for (int k = 1; k < coordinates.length; k++) {
+                Coordinate start = coordinates[k - 1], end = coordinates[k];
+                if (start.y != end.y) {
+                    // Edges are stored as [minY, maxY, x at minY, dx / dy]
+                    Coordinate low = start.y < end.y ? start : end, high = start.y < end.y ? end : start;
+                    edges.add(new double[] {low.y, high.y, low.x, (high.x - low.x) / (high.y - low.y)});
+                }
+            }
+        }
+
+        /**
+         * Find the spans of each row covered by a polygon, by intersecting its edges with the line through the centers
+         * of the pixels of the row, and add them to the spans covered by the previous polygons. Edges are visited in
+         * order of their minimum y, and only the edges crossing the row are kept active. The spans of a polygon
+         * follow the even-odd rule, so its holes are skipped.
+         */
+        private static void scanlines(List<double[]> edges, Rectangle window, int[][] spans) {
+            if (edges.isEmpty()) {
+                return;
+            }
+            edges.sort((a, b) -> Double.compare(a[0], b[0]));
+            double maxY = edges.stream().mapToDouble(edge -> edge[1]).max().getAsDouble();
+            // Rows whose centers lie between the minimum and the maximum y of the polygon
+            int startRow = Math.max(0, (int) Math.ceil(edges.get(0)[0] - 0.5) - window.y);
+            int endRow = Math.min(window.height, (int) Math.ceil(maxY - 0.5) - window.y);
+            List<double[]> active = new ArrayList<>();
+            double[] crossings = new double[16];
+            int nextEdge = 0;
+            for (int row = startRow; row < endRow; row++) {
+                double y = window.y + row + 0.5;
+                while (nextEdge < edges.size() && edges.get(nextEdge)[0] <= y) {
+                    active.add(edges.get(nextEdge++));
+                }
+                active.removeIf(edge -> edge[1] <= y);
+                int numCrossings = 0;
+                for (double[] edge : active) {
+                    if (numCrossings == crossings.length) {
+                        crossings = Arrays.copyOf(crossings, numCrossings * 2);
+                    }
+                    crossings[numCrossings++] = edge[2] + (y - edge[0]) * edge[3];
+                }
+                Arrays.sort(crossings, 0, numCrossings);
+                int[] rowSpans = new int[numCrossings];
+                int numSpans = 0;
+                for (int k = 0; k + 1 < numCrossings; k += 2) {
+                    // Pixel i is covered when crossings[k] <= i + 0.5 < crossings[k + 1]
+                    int start = Math.max(window.x, (int) Math.ceil(crossings[k] - 0.5));
+                    int end = Math.min(window.x + window.width, (int) Math.ceil(crossings[k + 1] - 0.5));
+                    if (start < end) {
+                        rowSpans[numSpans++] = start;
+                        rowSpans[numSpans++] = end;
+                    }
+                }
+                spans[row] = union(spans[row], Arrays.copyOf(rowSpans, numSpans));
+            }
+        }
+
+        /**
+         * Merge two sorted lists of disjoint spans into a sorted list of disjoint spans.
+         */
+        private static int[] union(int[] spans, int[] otherSpans) {
+            if (spans.length == 0) {
+                return otherSpans;
+            } else if (otherSpans.length == 0) {
+                return spans;
+            }
+            int[] merged = new int[spans.length + otherSpans.length];
+            int numMerged = 0;
+            int i = 0, j = 0;
+            while (i < spans.length || j < otherSpans.length) {
+                int start, end;
+                if (j == otherSpans.length || (i < spans.length && spans[i] <= otherSpans[j])) {
+                    start = spans[i];
+                    end = spans[i + 1];
+                    i += 2;
+                } else {
+                    start = otherSpans[j];
+                    end = otherSpans[j + 1];
+                    j += 2;
+                }
+                if (numMerged > 0 && start <= merged[numMerged - 1]) {
+                    merged[numMerged - 1] = Math.max(merged[numMerged - 1], end);
+                } else {
+                    merged[numMerged++] = start;
+                    merged[numMerged++] = end;
+                }
+            }
+            return Arrays.copyOf(merged, numMerged);
+        }
+
+        /**
+         * Visit the covered samples. Only the tiles overlapping the window are read.
+         */
+        void visitSamples(SpanVisitor visitor) {
+            if (window.isEmpty()) {
+                return;
+            }
+            int imageMinX = image.getMinX(), imageMinY = image.getMinY();
+            Rectangle region = new Rectangle(window);
+            region.translate(imageMinX, imageMinY);
+            RasterUtils.visitSamples(image, region, band, (block, samples) -> {
+                int blockX = block.x - imageMinX;
+                for (int y = 0; y < block.height; y++) {
+                    int[] rowSpans = spans[block.y - imageMinY + y - window.y];
+                    int rowOffset = y * block.width;
+                    for (int k = 0; k < rowSpans.length; k += 2) {
+                        int start = Math.max(rowSpans[k], blockX);
+                        int end = Math.min(rowSpans[k + 1], blockX + block.width);
+                        if (start < end) {
+                            visitor.visit(samples, rowOffset + start - blockX, rowOffset + end - blockX);
+                        }
+                    }
+                }
+            });
+        }
+    }
 }
@@ -14,8 +14,11 @@
 package org.apache.sedona.common.raster;
 
 import org.apache.sedona.common.raster.inputstream.ByteArrayImageInputStream;
+import org.apache.sedona.common.raster.inputstream.RangeReaderImageInputStream;
+import org.apache.sedona.common.raster.inputstream.RangeReaders;
 import org.apache.sedona.common.utils.RasterUtils;
 import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.coverage.grid.GridCoverageFactory;
 import org.geotools.coverage.grid.GridEnvelope2D;
 import org.geotools.coverage.grid.GridGeometry2D;
 import org.geotools.gce.arcgrid.ArcGridReader;
@@ -24,14 +27,25 @@ import org.geotools.referencing.CRS;
 import org.geotools.referencing.crs.DefaultEngineeringCRS;
 import org.geotools.referencing.operation.transform.AffineTransform2D;
 import org.geotools.util.factory.Hints;
+import org.opengis.metadata.spatial.PixelOrientation;
 import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.datum.PixelInCell;
 import org.opengis.referencing.operation.MathTransform;
 
 import javax.media.jai.RasterFactory;
+import javax.media.jai.RenderedImageAdapter;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
 import java.awt.image.WritableRaster;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 public class RasterConstructors
 {
@@ -45,6 +59,156 @@ public class RasterConstructors
         return geoTiffReader.read(null);
     }
 
+    /**
+     * Create an out-db raster referring to a GeoTIFF file. Only the header of the file is read, the pixels are read
+     * tile by tile when accessed. Serialized out-db rasters hold the path of the file instead of the pixels, so the
+     * file has to be accessible from wherever the raster will be used.
+     * @param path path of the GeoTIFF file. Files on file systems other than the local file system could be read when
+     *             a {@link org.apache.sedona.common.raster.inputstream.RangeReaderFactory} accepting the path is registered
+     * @return the out-db raster
+     */
+    public static GridCoverage2D fromGeoTiffPath(String path) throws IOException {
+        try (RangeReaderImageInputStream stream = new RangeReaderImageInputStream(RangeReaders.open(path))) {
+            GeoTiffReader geoTiffReader = new GeoTiffReader(stream, new Hints(Hints.FORCE_LONGITUDE_FIRST_AXIS_ORDER, Boolean.TRUE));
+            try {
+                // Pixels of the coverage returned by the reader are read on demand, we only need its metadata
+                GridCoverage2D coverage = geoTiffReader.read(null);
+                RenderedImage image = coverage.getRenderedImage();
+                SampleModel sampleModel = image.getSampleModel();
+                OutDbRenderedImage outDbImage = new OutDbRenderedImage(path,
+                        new Rectangle(image.getMinX(), image.getMinY(), image.getWidth(), image.getHeight()),
+                        image.getTileWidth(), image.getTileHeight(), sampleModel.getDataType(), sampleModel.getNumBands());
+                return new GridCoverageFactory().create(coverage.getName(), outDbImage, coverage.getGridGeometry(),
+                        coverage.getSampleDimensions(), null, coverage.getProperties());
+            } finally {
+                geoTiffReader.dispose();
+            }
+        }
+    }
+
+    /**
+     * A tile of a raster, at the given column and row of the tile grid
+     */
+    public static class Tile {
+        private final int tileX;
+        private final int tileY;
+        private final GridCoverage2D coverage;
+
+        public Tile(int tileX, int tileY, GridCoverage2D coverage) {
+            this.tileX = tileX;
+            this.tileY = tileY;
+            this.coverage = coverage;
+        }
+
+        public int getTileX() {
+            return tileX;
+        }
+
+        public int getTileY() {
+            return tileY;
+        }
+
+        public GridCoverage2D getCoverage() {
+            return coverage;
+        }
+    }
+
+    /**
+     * Split a raster into tiles of tileWidth * tileHeight pixels. Tiles at the right and bottom edges of the raster
+     * may be smaller. Each tile has its own georeference. Tiles of out-db rasters are also out-db rasters, so their
+     * pixels are not read when tiling.
+     * @param raster the raster to split
+     * @param tileWidth width of tiles, in pixels
+     * @param tileHeight height of tiles, in pixels
+     * @return tiles of the raster, row by row
+     */
+    public static Tile[] generateTiles(GridCoverage2D raster, int tileWidth, int tileHeight) {
+        List<Tile> tiles = new ArrayList<>();
+        generateTileIterator(raster, tileWidth, tileHeight).forEachRemaining(tiles::add);
+        return tiles.toArray(new Tile[0]);
+    }
+
+    /**
+     * Split a raster into tiles as {@link #generateTiles(GridCoverage2D, int, int)} does, but generate each tile only
+     * when it is visited, so that the tiles of a large raster are not all held in memory at once.
+     * @param raster the raster to split
+     * @param tileWidth width of tiles, in pixels
+     * @param tileHeight height of tiles, in pixels
+     * @return an iterator over the tiles of the raster, row by row
+     */
+    public static Iterator<Tile> generateTileIterator(GridCoverage2D raster, int tileWidth, int tileHeight) {
+        if (tileWidth <= 0 || tileHeight <= 0) {
+            throw new IllegalArgumentException("Tile width and height must be positive");
+        }
+        int numTilesX = (RasterAccessors.getWidth(raster) + tileWidth - 1) / tileWidth;
+        int numTilesY = (RasterAccessors.getHeight(raster) + tileHeight - 1) / tileHeight;
+        return new Iterator<Tile>() {
+            private int tileX = 0;
+            private int tileY = 0;
+
+            @Override
+            public boolean hasNext() {
+                return tileY < numTilesY && numTilesX > 0;
+            }
+
+            @Override
+            public Tile next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Tile tile = new Tile(tileX, tileY, generateTile(raster, tileWidth, tileHeight, tileX, tileY));
+                if (++tileX == numTilesX) {
+                    tileX = 0;
+                    tileY++;
+                }
+                return tile;
+            }
+        };
+    }
+
+    /**
+     * Get a tile of a raster split into tiles of tileWidth * tileHeight pixels.
+     * @param raster the raster to split
+     * @param tileWidth width of tiles, in pixels
+     * @param tileHeight height of tiles, in pixels
+     * @param tileX column of the tile
+     * @param tileY row of the tile
+     * @return the tile
+     */
+    public static GridCoverage2D generateTile(GridCoverage2D raster, int tileWidth, int tileHeight, int tileX, int tileY) {
+        RenderedImage image = raster.getRenderedImage();
+        while (image instanceof RenderedImageAdapter) {
+            image = ((RenderedImageAdapter) image).getWrappedImage();
+        }
+        Rectangle region = new Rectangle(image.getMinX() + tileX * tileWidth, image.getMinY() + tileY * tileHeight,
+                tileWidth, tileHeight).intersection(new Rectangle(image.getMinX(), image.getMinY(), image.getWidth(), image.getHeight()));
+        if (region.isEmpty()) {
+            throw new IllegalArgumentException("Tile (" + tileX + ", " + tileY + ") is outside of the raster");
+        }
+
+        AffineTransform tileTransform = new AffineTransform(RasterUtils.getAffineTransform(raster, PixelOrientation.UPPER_LEFT));
+        tileTransform.translate(region.x - image.getMinX(), region.y - image.getMinY());
+        GridGeometry2D gridGeometry = new GridGeometry2D(
+                new GridEnvelope2D(0, 0, region.width, region.height),
+                PixelInCell.CELL_CORNER,
+                new AffineTransform2D(tileTransform), raster.getCoordinateReferenceSystem(), null);
+
+        if (image instanceof OutDbRenderedImage) {
+            Rectangle subRegion = new Rectangle(region.x - image.getMinX(), region.y - image.getMinY(), region.width, region.height);
+            OutDbRenderedImage tileImage = ((OutDbRenderedImage) image).getSubImage(subRegion);
+            return RasterUtils.create(tileImage, gridGeometry, raster.getSampleDimensions(), null);
+        }
+        Raster data = image.getData(region);
+        WritableRaster tileRaster;
+        if (data instanceof WritableRaster) {
+            tileRaster = ((WritableRaster) data).createWritableTranslatedChild(0, 0);
+        } else {
+            tileRaster = data.createCompatibleWritableRaster(region.width, region.height);
+            tileRaster.setRect(-region.x, -region.y, data);
+        }
+        return RasterUtils.create(tileRaster, gridGeometry, raster.getSampleDimensions());
+    }
+
     /**
      * Convenience function setting DOUBLE as datatype for the bands
      * Create a new empty raster with the given number of empty bands.
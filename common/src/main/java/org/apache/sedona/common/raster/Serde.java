@@ -13,22 +13,127 @@
  */
 package org.apache.sedona.common.raster;
 
+import com.sun.media.imageioimpl.common.BogusColorSpace;
+import it.geosolutions.jaiext.range.NoDataContainer;
+import org.apache.sedona.common.utils.RasterUtils;
+import org.geotools.coverage.GridSampleDimension;
 import org.geotools.coverage.grid.GridCoverage2D;
 import org.geotools.coverage.grid.GridCoverageFactory;
+import org.geotools.coverage.grid.GridEnvelope2D;
+import org.geotools.coverage.grid.GridGeometry2D;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.crs.DefaultEngineeringCRS;
+import org.geotools.referencing.operation.transform.AffineTransform2D;
+import org.opengis.metadata.spatial.PixelOrientation;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.datum.PixelInCell;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.util.InternationalString;
 
-import javax.media.jai.PlanarImage;
 import javax.media.jai.RenderedImageAdapter;
-import javax.media.jai.remote.SerializableRenderedImage;
+import java.awt.Rectangle;
+import java.awt.color.ColorSpace;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
+/**
+ * Serializer of rasters. Rasters are written in a compact binary layout:
+ * <pre>
+ *   version (1 byte), name
+ *   grid range (x, y, width, height), grid to CRS affine transform of pixel corners (6 doubles)
+ *   CRS (none, GENERIC_2D, EPSG code, or Java serialized CRS)
+ *   image width, height, number of bands, data type, color model
+ *   sample dimensions, image properties, coverage properties
+ *   compression flag, followed by the band sequential pixel data in little-endian order
+ * </pre>
+ * Out-db rasters ({@link OutDbRenderedImage}) write the path of their file and their window in the file instead of
+ * the pixel data.
+ * Rasters that could not be represented by this layout, such as rasters with a non-affine grid to CRS transform
+ * or with a sample model that is not a {@link ComponentSampleModel}, are serialized using Java serialization.
+ * Both layouts can be deserialized, since the stream magic of Java serialization never collides with the version
+ * byte of the compact layout.
+ */
 public class Serde {
 
+    private static final byte COMPACT_VERSION = 1;
+
+    private static final byte CRS_NONE = 0;
+    private static final byte CRS_GENERIC_2D = 1;
+    private static final byte CRS_EPSG = 2;
+    private static final byte CRS_SERIALIZED = 3;
+
+    private static final byte COLOR_SPACE_BOGUS = 0;
+    private static final byte COLOR_SPACE_SRGB = 1;
+    private static final byte COLOR_SPACE_GRAY = 2;
+    private static final byte COLOR_SPACE_LINEAR_RGB = 3;
+
+    private static final byte SAMPLE_DIMENSION_SERIALIZED = 0;
+    private static final byte SAMPLE_DIMENSION_PLAIN = 1;
+    private static final byte SAMPLE_DIMENSION_NODATA = 2;
+
+    private static final byte PROPERTY_NODATA = 0;
+    private static final byte PROPERTY_SERIALIZED = 1;
+
+    private static final byte PIXELS_RAW = 0;
+    private static final byte PIXELS_DEFLATE = 1;
+    private static final byte PIXELS_OUT_DB = 2;
+
+    private static final int CACHE_SIZE = 64;
+
+    /**
+     * Encoded CRS and sample dimensions of recently serialized rasters. Rasters processed by a query usually share
+     * the same CRS and band definitions, so we only pay the cost of encoding them once.
+     */
+    private static final Map<Object, byte[]> encodedObjects = createCache();
+
+    /**
+     * Decoded CRS and sample dimensions of recently deserialized rasters, keyed by their encoded form.
+     */
+    private static final Map<Object, Object> decodedObjects = createCache();
+
+    private static volatile boolean compressPixels = false;
+
     static final Field field;
     static {
         try {
@@ -39,7 +144,724 @@ public class Serde {
         }
     }
 
+    /**
+     * Compress the pixel data of serialized rasters using Deflate. Compression is disabled by default.
+     * <p>
+     * This switch is process-wide: it changes the format written by every thread and session of the JVM.
+     * It is only intended for tests and benchmarks comparing both formats. Use
+     * {@link #serialize(GridCoverage2D, boolean)} to choose the format of a single raster.
+     * @param enabled whether to compress pixel data
+     */
+    public static void toggleCompression(boolean enabled) {
+        compressPixels = enabled;
+    }
+
     public static byte[] serialize(GridCoverage2D raster) throws IOException {
+        return serialize(raster, compressPixels);
+    }
+
+    /**
+     * Serialize a raster. Compressing the pixel data trades CPU time for smaller serialized rasters, which may
+     * pay off when rasters are shuffled or cached. Out-db rasters are never compressed since their pixels are
+     * not written.
+     * @param raster the raster to serialize
+     * @param compress whether to compress pixel data using Deflate
+     * @return serialized raster
+     */
+    public static byte[] serialize(GridCoverage2D raster, boolean compress) throws IOException {
+        byte[] bytes = serializeCompact(raster, compress);
+        return bytes != null ? bytes : serializeLegacy(raster);
+    }
+
+    /**
+     * Deserialize a raster. The pixel data of byte rasters may directly refer to the given array, so the array
+     * should not be modified after calling this method.
+     * @param bytes serialized raster
+     * @return the deserialized raster
+     */
+    public static GridCoverage2D deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        if (bytes.length >= 2 && bytes[0] == (byte) 0xAC && bytes[1] == (byte) 0xED) {
+            // Stream magic of ObjectOutputStream
+            return deserializeLegacy(bytes);
+        }
+        return deserializeCompact(bytes);
+    }
+
+    private static byte[] serializeCompact(GridCoverage2D raster, boolean compress) throws IOException {
+        RenderedImage image = raster.getRenderedImage();
+        while (image instanceof RenderedImageAdapter) {
+            image = ((RenderedImageAdapter) image).getWrappedImage();
+        }
+        if (image.getMinX() != 0 || image.getMinY() != 0) {
+            return null;
+        }
+        MathTransform gridToCRS = raster.getGridGeometry().getGridToCRS2D(PixelOrientation.UPPER_LEFT);
+        if (!(gridToCRS instanceof AffineTransform)) {
+            return null;
+        }
+        // Out-db rasters are serialized as references to their files, their pixels should not be loaded here
+        boolean isOutDb = image instanceof OutDbRenderedImage;
+        Raster data = null;
+        SampleModel sampleModel = image.getSampleModel();
+        if (!isOutDb) {
+            data = image instanceof BufferedImage ? ((BufferedImage) image).getRaster() : image.getData();
+            sampleModel = data.getSampleModel();
+            if (data.getDataBuffer().getDataType() != sampleModel.getDataType()) {
+                return null;
+            }
+        }
+        int dataType = sampleModel.getDataType();
+        int numBands = sampleModel.getNumBands();
+        if (!(sampleModel instanceof ComponentSampleModel) || !isSupportedDataType(dataType)) {
+            return null;
+        }
+        ColorModel colorModel = image.getColorModel();
+        int colorSpace = colorSpaceOf(colorModel, numBands, dataType);
+        if (colorSpace < 0) {
+            return null;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        long payloadSize = (long) width * height * numBands * (DataBuffer.getDataTypeSize(dataType) / 8);
+        if (!isOutDb && payloadSize > Integer.MAX_VALUE - 8) {
+            return null;
+        }
+        GridSampleDimension[] sampleDimensions = raster.getSampleDimensions();
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bos);
+        out.writeByte(COMPACT_VERSION);
+        out.writeUTF(raster.getName().toString());
+        Rectangle gridRange = raster.getGridGeometry().getGridRange2D();
+        out.writeInt(gridRange.x);
+        out.writeInt(gridRange.y);
+        out.writeInt(gridRange.width);
+        out.writeInt(gridRange.height);
+        double[] matrix = new double[6];
+        ((AffineTransform) gridToCRS).getMatrix(matrix);
+        for (double value : matrix) {
+            out.writeDouble(value);
+        }
+        out.write(encodeCRS(raster.getCoordinateReferenceSystem()));
+
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(numBands);
+        out.writeByte(dataType);
+        out.writeByte(colorSpace);
+        out.writeBoolean(colorModel.hasAlpha());
+        out.writeBoolean(colorModel.isAlphaPremultiplied());
+        out.writeByte(colorModel.getTransparency());
+
+        out.writeInt(sampleDimensions.length);
+        for (GridSampleDimension sampleDimension : sampleDimensions) {
+            out.write(encodeSampleDimension(sampleDimension));
+        }
+        writeImageProperties(out, image);
+        writeCoverageProperties(out, raster.getProperties());
+
+        if (isOutDb) {
+            OutDbRenderedImage outDbImage = (OutDbRenderedImage) image;
+            Rectangle window = outDbImage.getWindow();
+            out.writeByte(PIXELS_OUT_DB);
+            out.writeUTF(outDbImage.getPath());
+            out.writeInt(window.x);
+            out.writeInt(window.y);
+            out.writeInt(outDbImage.getTileWidth());
+            out.writeInt(outDbImage.getTileHeight());
+            out.flush();
+            return bos.toByteArray();
+        }
+        if (!compress) {
+            out.writeByte(PIXELS_RAW);
+            out.flush();
+            int headerSize = bos.size();
+            byte[] bytes = Arrays.copyOf(bos.toByteArray(), headerSize + (int) payloadSize);
+            writePixels(data, ByteBuffer.wrap(bytes, headerSize, (int) payloadSize).slice().order(ByteOrder.LITTLE_ENDIAN));
+            return bytes;
+        }
+        out.writeByte(PIXELS_DEFLATE);
+        ByteBuffer pixels = ByteBuffer.allocate((int) payloadSize).order(ByteOrder.LITTLE_ENDIAN);
+        writePixels(data, pixels);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(pixels.array());
+            deflater.finish();
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+        } finally {
+            deflater.end();
+        }
+        out.flush();
+        return bos.toByteArray();
+    }
+
+    private static GridCoverage2D deserializeCompact(byte[] bytes) throws IOException, ClassNotFoundException {
+        ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
+        DataInputStream in = new DataInputStream(bis);
+        byte version = in.readByte();
+        if (version != COMPACT_VERSION) {
+            throw new IOException("Unsupported raster serialization version: " + version);
+        }
+        String name = in.readUTF();
+        GridEnvelope2D gridRange = new GridEnvelope2D(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+        double[] matrix = new double[6];
+        for (int k = 0; k < matrix.length; k++) {
+            matrix[k] = in.readDouble();
+        }
+        CoordinateReferenceSystem crs = readCRS(in);
+
+        int width = in.readInt();
+        int height = in.readInt();
+        int numBands = in.readInt();
+        int dataType = in.readByte();
+        int colorSpace = in.readByte();
+        boolean hasAlpha = in.readBoolean();
+        boolean isAlphaPremultiplied = in.readBoolean();
+        int transparency = in.readByte();
+
+        GridSampleDimension[] sampleDimensions = new GridSampleDimension[in.readInt()];
+        for (int k = 0; k < sampleDimensions.length; k++) {
+            sampleDimensions[k] = readSampleDimension(in);
+        }
+        Hashtable<String, Object> imageProperties = readProperties(in);
+        Map<String, Object> coverageProperties = readProperties(in);
+
+        GridGeometry2D gridGeometry = new GridGeometry2D(gridRange, PixelInCell.CELL_CORNER,
+                new AffineTransform2D(matrix[0], matrix[1], matrix[2], matrix[3], matrix[4], matrix[5]), crs, null);
+        byte compression = in.readByte();
+        if (compression == PIXELS_OUT_DB) {
+            String path = in.readUTF();
+            Rectangle window = new Rectangle(in.readInt(), in.readInt(), width, height);
+            OutDbRenderedImage image = new OutDbRenderedImage(path, window, in.readInt(), in.readInt(), dataType, numBands);
+            for (Map.Entry<String, Object> property : imageProperties.entrySet()) {
+                image.setProperty(property.getKey(), property.getValue());
+            }
+            return new GridCoverageFactory().create(name, image, gridGeometry, sampleDimensions, null, coverageProperties);
+        }
+        int offset = bytes.length - bis.available();
+        long payloadSize = (long) width * height * numBands * (DataBuffer.getDataTypeSize(dataType) / 8);
+        if (width < 0 || height < 0 || numBands < 0 || payloadSize > Integer.MAX_VALUE - 8) {
+            throw new IOException("Invalid size of serialized raster: " + width + " x " + height + " x " + numBands + " bands");
+        }
+        if (compression == PIXELS_DEFLATE) {
+            byte[] pixels = new byte[(int) payloadSize];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(bytes, offset, bytes.length - offset);
+                int length = 0;
+                while (length < payloadSize) {
+                    int inflated = inflater.inflate(pixels, length, (int) payloadSize - length);
+                    if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IOException("Truncated pixel data of serialized raster: expected " + payloadSize + " bytes, got " + length);
+                    }
+                    length += inflated;
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupted pixel data of serialized raster", e);
+            } finally {
+                inflater.end();
+            }
+            bytes = pixels;
+            offset = 0;
+        }
+        else if (payloadSize > bytes.length - offset) {
+            throw new IOException("Truncated pixel data of serialized raster: expected " + payloadSize + " bytes, got " + (bytes.length - offset));
+        }
+        DataBuffer dataBuffer = readPixels(dataType, width * height, numBands, bytes, offset);
+
+        int[] bankIndices = new int[numBands];
+        for (int k = 0; k < numBands; k++) {
+            bankIndices[k] = k;
+        }
+        SampleModel sampleModel = new BandedSampleModel(dataType, width, height, width, bankIndices, new int[numBands]);
+        WritableRaster writableRaster = Raster.createWritableRaster(sampleModel, dataBuffer, null);
+        ColorModel colorModel = createColorModel(colorSpace, numBands, hasAlpha, isAlphaPremultiplied, transparency, dataType);
+        BufferedImage image = new BufferedImage(colorModel, writableRaster, isAlphaPremultiplied, imageProperties);
+        return new GridCoverageFactory().create(name, image, gridGeometry, sampleDimensions, null, coverageProperties);
+    }
+
+    private static boolean isSupportedDataType(int dataType) {
+        switch (dataType) {
+            case DataBuffer.TYPE_BYTE:
+            case DataBuffer.TYPE_USHORT:
+            case DataBuffer.TYPE_SHORT:
+            case DataBuffer.TYPE_INT:
+            case DataBuffer.TYPE_FLOAT:
+            case DataBuffer.TYPE_DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Find the color space tag of color model. The color model of deserialized rasters is always recreated as a
+     * {@link ComponentColorModel} with one component of the full data type size per band.
+     * @return the color space tag, or -1 if the color model could not be represented by the compact layout
+     */
+    private static int colorSpaceOf(ColorModel colorModel, int numBands, int dataType) {
+        if (!(colorModel instanceof ComponentColorModel) || colorModel.getNumComponents() != numBands
+                || colorModel.getTransferType() != dataType) {
+            return -1;
+        }
+        int componentSize = DataBuffer.getDataTypeSize(dataType);
+        for (int k = 0; k < numBands; k++) {
+            if (colorModel.getComponentSize(k) != componentSize) {
+                return -1;
+            }
+        }
+        ColorSpace colorSpace = colorModel.getColorSpace();
+        if (colorSpace instanceof BogusColorSpace) {
+            return COLOR_SPACE_BOGUS;
+        } else if (colorSpace == ColorSpace.getInstance(ColorSpace.CS_sRGB)) {
+            return COLOR_SPACE_SRGB;
+        } else if (colorSpace == ColorSpace.getInstance(ColorSpace.CS_GRAY)) {
+            return COLOR_SPACE_GRAY;
+        } else if (colorSpace == ColorSpace.getInstance(ColorSpace.CS_LINEAR_RGB)) {
+            return COLOR_SPACE_LINEAR_RGB;
+        }
+        return -1;
+    }
+
+    private static ColorModel createColorModel(int colorSpaceTag, int numBands, boolean hasAlpha,
+                                               boolean isAlphaPremultiplied, int transparency, int dataType) {
+        ColorSpace colorSpace;
+        switch (colorSpaceTag) {
+            case COLOR_SPACE_SRGB:
+                colorSpace = ColorSpace.getInstance(ColorSpace.CS_sRGB);
+                break;
+            case COLOR_SPACE_GRAY:
+                colorSpace = ColorSpace.getInstance(ColorSpace.CS_GRAY);
+                break;
+            case COLOR_SPACE_LINEAR_RGB:
+                colorSpace = ColorSpace.getInstance(ColorSpace.CS_LINEAR_RGB);
+                break;
+            default:
+                colorSpace = new BogusColorSpace(hasAlpha ? numBands - 1 : numBands);
+        }
+        int[] nBits = new int[numBands];
+        Arrays.fill(nBits, DataBuffer.getDataTypeSize(dataType));
+        return new ComponentColorModel(colorSpace, nBits, hasAlpha, isAlphaPremultiplied, transparency, dataType);
+    }
+
+    /**
+     * Write the samples of each band to pixels, band after band. We read the banks of the data buffer directly
+     * instead of calling {@link Raster#getSamples}, so that rows could be copied in bulk.
+     */
+    private static void writePixels(Raster data, ByteBuffer pixels) {
+        ComponentSampleModel sampleModel = (ComponentSampleModel) data.getSampleModel();
+        DataBuffer dataBuffer = data.getDataBuffer();
+        int width = data.getWidth();
+        int height = data.getHeight();
+        int pixelStride = sampleModel.getPixelStride();
+        int scanlineStride = sampleModel.getScanlineStride();
+        int[] bankIndices = sampleModel.getBankIndices();
+        int[] bandOffsets = sampleModel.getBandOffsets();
+        int x0 = data.getMinX() - data.getSampleModelTranslateX();
+        int y0 = data.getMinY() - data.getSampleModelTranslateY();
+        for (int band = 0; band < bankIndices.length; band++) {
+            int bank = bankIndices[band];
+            int start = dataBuffer.getOffsets()[bank] + y0 * scanlineStride + x0 * pixelStride + bandOffsets[band];
+            switch (dataBuffer.getDataType()) {
+                case DataBuffer.TYPE_BYTE: {
+                    byte[] src = ((DataBufferByte) dataBuffer).getData(bank);
+                    for (int y = 0; y < height; y++) {
+                        int pos = start + y * scanlineStride;
+                        if (pixelStride == 1) {
+                            pixels.put(src, pos, width);
+                        } else {
+                            for (int x = 0; x < width; x++, pos += pixelStride) {
+                                pixels.put(src[pos]);
+                            }
+                        }
+                    }
+                    break;
+                }
+                case DataBuffer.TYPE_USHORT:
+                case DataBuffer.TYPE_SHORT: {
+                    short[] src = dataBuffer instanceof DataBufferUShort ?
+                            ((DataBufferUShort) dataBuffer).getData(bank) : ((DataBufferShort) dataBuffer).getData(bank);
+                    ShortBuffer dst = pixels.asShortBuffer();
+                    for (int y = 0; y < height; y++) {
+                        int pos = start + y * scanlineStride;
+                        if (pixelStride == 1) {
+                            dst.put(src, pos, width);
+                        } else {
+                            for (int x = 0; x < width; x++, pos += pixelStride) {
+                                dst.put(src[pos]);
+                            }
+                        }
+                    }
+                    pixels.position(pixels.position() + dst.position() * 2);
+                    break;
+                }
+                case DataBuffer.TYPE_INT: {
+                    int[] src = ((DataBufferInt) dataBuffer).getData(bank);
+                    IntBuffer dst = pixels.asIntBuffer();
+                    for (int y = 0; y < height; y++) {
+                        int pos = start + y * scanlineStride;
+                        if (pixelStride == 1) {
+                            dst.put(src, pos, width);
+                        } else {
+                            for (int x = 0; x < width; x++, pos += pixelStride) {
+                                dst.put(src[pos]);
+                            }
+                        }
+                    }
+                    pixels.position(pixels.position() + dst.position() * 4);
+                    break;
+                }
+                case DataBuffer.TYPE_FLOAT: {
+                    float[] src = ((DataBufferFloat) dataBuffer).getData(bank);
+                    FloatBuffer dst = pixels.asFloatBuffer();
+                    for (int y = 0; y < height; y++) {
+                        int pos = start + y * scanlineStride;
+                        if (pixelStride == 1) {
+                            dst.put(src, pos, width);
+                        } else {
+                            for (int x = 0; x < width; x++, pos += pixelStride) {
+                                dst.put(src[pos]);
+                            }
+                        }
+                    }
+                    pixels.position(pixels.position() + dst.position() * 4);
+                    break;
+                }
+                case DataBuffer.TYPE_DOUBLE: {
+                    double[] src = ((DataBufferDouble) dataBuffer).getData(bank);
+                    DoubleBuffer dst = pixels.asDoubleBuffer();
+                    for (int y = 0; y < height; y++) {
+                        int pos = start + y * scanlineStride;
+                        if (pixelStride == 1) {
+                            dst.put(src, pos, width);
+                        } else {
+                            for (int x = 0; x < width; x++, pos += pixelStride) {
+                                dst.put(src[pos]);
+                            }
+                        }
+                    }
+                    pixels.position(pixels.position() + dst.position() * 8);
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Unsupported data type: " + dataBuffer.getDataType());
+            }
+        }
+    }
+
+    /**
+     * Create a banded data buffer from band sequential pixel data. Banks of byte rasters refer to the pixel data
+     * directly without copying, banks of other data types are decoded in bulk.
+     */
+    private static DataBuffer readPixels(int dataType, int bandSize, int numBands, byte[] bytes, int offset) {
+        if (dataType == DataBuffer.TYPE_BYTE) {
+            byte[][] banks = new byte[numBands][];
+            int[] offsets = new int[numBands];
+            for (int band = 0; band < numBands; band++) {
+                banks[band] = bytes;
+                offsets[band] = offset + band * bandSize;
+            }
+            return new DataBufferByte(banks, bandSize, offsets);
+        }
+        ByteBuffer pixels = ByteBuffer.wrap(bytes, offset, bytes.length - offset).slice().order(ByteOrder.LITTLE_ENDIAN);
+        switch (dataType) {
+            case DataBuffer.TYPE_USHORT:
+            case DataBuffer.TYPE_SHORT: {
+                short[][] banks = new short[numBands][bandSize];
+                ShortBuffer src = pixels.asShortBuffer();
+                for (short[] bank : banks) {
+                    src.get(bank);
+                }
+                return dataType == DataBuffer.TYPE_USHORT ?
+                        new DataBufferUShort(banks, bandSize) : new DataBufferShort(banks, bandSize);
+            }
+            case DataBuffer.TYPE_INT: {
+                int[][] banks = new int[numBands][bandSize];
+                IntBuffer src = pixels.asIntBuffer();
+                for (int[] bank : banks) {
+                    src.get(bank);
+                }
+                return new DataBufferInt(banks, bandSize);
+            }
+            case DataBuffer.TYPE_FLOAT: {
+                float[][] banks = new float[numBands][bandSize];
+                FloatBuffer src = pixels.asFloatBuffer();
+                for (float[] bank : banks) {
+                    src.get(bank);
+                }
+                return new DataBufferFloat(banks, bandSize);
+            }
+            case DataBuffer.TYPE_DOUBLE: {
+                double[][] banks = new double[numBands][bandSize];
+                DoubleBuffer src = pixels.asDoubleBuffer();
+                for (double[] bank : banks) {
+                    src.get(bank);
+                }
+                return new DataBufferDouble(banks, bandSize);
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported data type: " + dataType);
+        }
+    }
+
+    private static byte[] encodeCRS(CoordinateReferenceSystem crs) throws IOException {
+        if (crs == null) {
+            return new byte[] {CRS_NONE};
+        }
+        if (crs == DefaultEngineeringCRS.GENERIC_2D) {
+            return new byte[] {CRS_GENERIC_2D};
+        }
+        IdentityKey key = new IdentityKey(crs);
+        byte[] encoded = encodedObjects.get(key);
+        if (encoded == null) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bos);
+            Integer epsgCode = lookupEpsgCode(crs);
+            if (epsgCode != null) {
+                out.writeByte(CRS_EPSG);
+                out.writeInt(epsgCode);
+            } else {
+                byte[] serialized = javaSerialize(crs);
+                out.writeByte(CRS_SERIALIZED);
+                out.writeInt(serialized.length);
+                out.write(serialized);
+            }
+            out.flush();
+            encoded = bos.toByteArray();
+            encodedObjects.put(key, encoded);
+        }
+        return encoded;
+    }
+
+    /**
+     * Find the EPSG code of crs. The code is only used when decoding it in lon/lat axis order, which is how
+     * CRS are created from SRIDs in Sedona, results in a CRS that is equal to the given one.
+     */
+    private static Integer lookupEpsgCode(CoordinateReferenceSystem crs) {
+        try {
+            Integer epsgCode = CRS.lookupEpsgCode(crs, false);
+            if (epsgCode != null && crs.equals(CRS.decode("EPSG:" + epsgCode, true))) {
+                return epsgCode;
+            }
+        } catch (FactoryException e) {
+            // Fall back to Java serialization
+        }
+        return null;
+    }
+
+    private static CoordinateReferenceSystem readCRS(DataInputStream in) throws IOException, ClassNotFoundException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case CRS_NONE:
+                return null;
+            case CRS_GENERIC_2D:
+                return DefaultEngineeringCRS.GENERIC_2D;
+            case CRS_EPSG: {
+                int epsgCode = in.readInt();
+                String code = "EPSG:" + epsgCode;
+                CoordinateReferenceSystem crs = (CoordinateReferenceSystem) decodedObjects.get(code);
+                if (crs == null) {
+                    try {
+                        crs = CRS.decode(code, true);
+                    } catch (FactoryException e) {
+                        throw new IOException("Cannot decode CRS of serialized raster: " + code, e);
+                    }
+                    decodedObjects.put(code, crs);
+                }
+                return crs;
+            }
+            case CRS_SERIALIZED:
+                return (CoordinateReferenceSystem) readCachedObject(in);
+            default:
+                throw new IOException("Unknown CRS tag of serialized raster: " + tag);
+        }
+    }
+
+    private static byte[] encodeSampleDimension(GridSampleDimension sampleDimension) throws IOException {
+        IdentityKey key = new IdentityKey(sampleDimension);
+        byte[] encoded = encodedObjects.get(key);
+        if (encoded == null) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bos);
+            InternationalString description = sampleDimension.getDescription();
+            double[] noDataValues = sampleDimension.getNoDataValues();
+            if (description != null && isSameSampleDimension(sampleDimension,
+                    new GridSampleDimension(description.toString()))) {
+                out.writeByte(SAMPLE_DIMENSION_PLAIN);
+                out.writeUTF(description.toString());
+            } else if (description != null && noDataValues != null && noDataValues.length == 1
+                    && isSameSampleDimension(sampleDimension,
+                    RasterUtils.createSampleDimensionWithNoDataValue(description.toString(), noDataValues[0]))) {
+                out.writeByte(SAMPLE_DIMENSION_NODATA);
+                out.writeUTF(description.toString());
+                out.writeDouble(noDataValues[0]);
+            } else {
+                byte[] serialized = javaSerialize(sampleDimension);
+                out.writeByte(SAMPLE_DIMENSION_SERIALIZED);
+                out.writeInt(serialized.length);
+                out.write(serialized);
+            }
+            out.flush();
+            encoded = bos.toByteArray();
+            encodedObjects.put(key, encoded);
+        }
+        return encoded;
+    }
+
+    private static boolean isSameSampleDimension(GridSampleDimension sampleDimension, GridSampleDimension candidate) {
+        return sampleDimension.equals(candidate)
+                && sampleDimension.getDescription().equals(candidate.getDescription())
+                && Objects.equals(sampleDimension.getUnits(), candidate.getUnits())
+                && sampleDimension.getCategories().equals(candidate.getCategories());
+    }
+
+    private static GridSampleDimension readSampleDimension(DataInputStream in) throws IOException, ClassNotFoundException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case SAMPLE_DIMENSION_PLAIN:
+                return new GridSampleDimension(in.readUTF());
+            case SAMPLE_DIMENSION_NODATA: {
+                String description = in.readUTF();
+                return RasterUtils.createSampleDimensionWithNoDataValue(description, in.readDouble());
+            }
+            case SAMPLE_DIMENSION_SERIALIZED:
+                return (GridSampleDimension) readCachedObject(in);
+            default:
+                throw new IOException("Unknown sample dimension tag of serialized raster: " + tag);
+        }
+    }
+
+    private static void writeImageProperties(DataOutputStream out, RenderedImage image) throws IOException {
+        Map<String, Object> properties = new HashMap<>();
+        String[] names = image.getPropertyNames();
+        if (names != null) {
+            for (String name : names) {
+                properties.put(name, image.getProperty(name));
+            }
+        }
+        writeProperties(out, properties);
+    }
+
+    private static void writeCoverageProperties(DataOutputStream out, Map<?, ?> properties) throws IOException {
+        Map<String, Object> stringKeyedProperties = new HashMap<>();
+        if (properties != null) {
+            for (Map.Entry<?, ?> entry : properties.entrySet()) {
+                if (entry.getKey() instanceof String) {
+                    stringKeyedProperties.put((String) entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        writeProperties(out, stringKeyedProperties);
+    }
+
+    /**
+     * Write properties. Just like {@link DeepCopiedRenderedImage}, values of GC_NODATA are kept as single value
+     * no data containers and other values that are not serializable are dropped.
+     */
+    private static void writeProperties(DataOutputStream out, Map<String, Object> properties) throws IOException {
+        int count = 0;
+        for (Object value : properties.values()) {
+            if (value instanceof NoDataContainer || value instanceof Serializable) {
+                count++;
+            }
+        }
+        out.writeInt(count);
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof NoDataContainer) {
+                out.writeUTF(entry.getKey());
+                out.writeByte(PROPERTY_NODATA);
+                out.writeDouble(((NoDataContainer) value).getAsSingleValue());
+            } else if (value instanceof Serializable) {
+                byte[] serialized = javaSerialize(value);
+                out.writeUTF(entry.getKey());
+                out.writeByte(PROPERTY_SERIALIZED);
+                out.writeInt(serialized.length);
+                out.write(serialized);
+            }
+        }
+    }
+
+    private static Hashtable<String, Object> readProperties(DataInputStream in) throws IOException, ClassNotFoundException {
+        int count = in.readInt();
+        Hashtable<String, Object> properties = new Hashtable<>();
+        for (int k = 0; k < count; k++) {
+            String key = in.readUTF();
+            byte tag = in.readByte();
+            if (tag == PROPERTY_NODATA) {
+                properties.put(key, new NoDataContainer(in.readDouble()));
+            } else {
+                byte[] serialized = new byte[in.readInt()];
+                in.readFully(serialized);
+                properties.put(key, javaDeserialize(serialized));
+            }
+        }
+        return properties;
+    }
+
+    private static Object readCachedObject(DataInputStream in) throws IOException, ClassNotFoundException {
+        byte[] serialized = new byte[in.readInt()];
+        in.readFully(serialized);
+        ByteBuffer key = ByteBuffer.wrap(serialized);
+        Object object = decodedObjects.get(key);
+        if (object == null) {
+            object = javaDeserialize(serialized);
+            decodedObjects.put(key, object);
+        }
+        return object;
+    }
+
+    private static byte[] javaSerialize(Object object) throws IOException {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+            try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+                oos.writeObject(object);
+            }
+            return bos.toByteArray();
+        }
+    }
+
+    private static Object javaDeserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return ois.readObject();
+        }
+    }
+
+    /**
+     * Cache key comparing objects by identity. CRS and sample dimensions are usually shared by rasters derived from
+     * the same source, and comparing them by identity is much cheaper than calling equals.
+     */
+    private static final class IdentityKey {
+        private final Object object;
+
+        IdentityKey(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof IdentityKey && ((IdentityKey) other).object == object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
+
+    private static <V> Map<Object, V> createCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<Object, V>(CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, V> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        });
+    }
+
+    private static byte[] serializeLegacy(GridCoverage2D raster) throws IOException {
         // GridCoverage2D created by GridCoverage2DReaders contain references that are not serializable.
         // Wrap the RenderedImage in DeepCopiedRenderedImage to make it serializable.
         RenderedImage deepCopiedRenderedImage = null;
@@ -77,7 +899,7 @@ public class Serde {
         }
     }
 
-    public static GridCoverage2D deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+    private static GridCoverage2D deserializeLegacy(byte[] bytes) throws IOException, ClassNotFoundException {
         try (ByteArrayInputStream bis = new ByteArrayInputStream(bytes)) {
             try (ObjectInputStream ois = new ObjectInputStream(bis)) {
                 return (GridCoverage2D) ois.readObject();
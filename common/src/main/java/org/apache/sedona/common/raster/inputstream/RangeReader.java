@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sedona.common.raster.inputstream;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Random access to the bytes of a raster file. Out-db rasters only read the header and the tiles they need from
+ * the file, so implementations should make reading small ranges cheap.
+ */
+public interface RangeReader extends Closeable {
+
+    /**
+     * @return the length of the file in bytes
+     */
+    long length() throws IOException;
+
+    /**
+     * Read length bytes starting from position of the file into buffer.
+     */
+    void readFully(long position, byte[] buffer, int offset, int length) throws IOException;
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sedona.common.raster.inputstream;
+
+import java.io.IOException;
+
+/**
+ * Opens {@link RangeReader}s for paths of raster files. Factories are discovered using {@link java.util.ServiceLoader},
+ * which allows modules depending on distributed file systems to provide access to their files.
+ */
+public interface RangeReaderFactory {
+
+    /**
+     * @param path path of the raster file
+     * @return true if this factory could open the path
+     */
+    boolean accepts(String path);
+
+    RangeReader open(String path) throws IOException;
+
+    /**
+     * Called by {@link RangeReaders#open(String)} on the thread opening a raster file, whichever factory opens the
+     * file. Factories of engines running tasks on pooled threads use it to close the readers opened by a task once
+     * the task completes, see {@link org.apache.sedona.common.raster.OutDbRenderedImage#closeReaders()}.
+     */
+    default void beforeOpen() {}
+}
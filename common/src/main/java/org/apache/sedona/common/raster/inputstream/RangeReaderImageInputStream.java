@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sedona.common.raster.inputstream;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ImageInputStream reading a raster file through a {@link RangeReader}. Image readers issue lots of tiny reads when
+ * parsing headers, so small reads are served from a few cached blocks of the file, while large reads such as tiles
+ * go to the range reader directly.
+ */
+public class RangeReaderImageInputStream extends ImageInputStreamImpl {
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final int MAX_CACHED_BLOCKS = 16;
+
+    private final RangeReader rangeReader;
+    private final long length;
+    private final Map<Long, byte[]> blocks = new LinkedHashMap<Long, byte[]>(MAX_CACHED_BLOCKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            return size() > MAX_CACHED_BLOCKS;
+        }
+    };
+
+    public RangeReaderImageInputStream(RangeReader rangeReader) throws IOException {
+        this.rangeReader = rangeReader;
+        this.length = rangeReader.length();
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        bitOffset = 0;
+        if (streamPos >= length) {
+            return -1;
+        }
+        byte[] block = getBlock(streamPos / BLOCK_SIZE);
+        return block[(int) (streamPos++ % BLOCK_SIZE)] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkClosed();
+        if (b == null) {
+            throw new NullPointerException("b == null!");
+        }
+        if (off < 0 || len < 0 || off + len > b.length || off + len < 0) {
+            throw new IndexOutOfBoundsException
+                    ("off < 0 || len < 0 || off+len > b.length || off+len < 0!");
+        }
+        bitOffset = 0;
+        if (len == 0) {
+            return 0;
+        }
+        if (streamPos >= length) {
+            return -1;
+        }
+        len = (int) Math.min(len, length - streamPos);
+        if (len >= BLOCK_SIZE) {
+            rangeReader.readFully(streamPos, b, off, len);
+        } else {
+            // Only serve the remaining bytes of the current block, callers of read will ask for the rest
+            byte[] block = getBlock(streamPos / BLOCK_SIZE);
+            int blockOffset = (int) (streamPos % BLOCK_SIZE);
+            len = Math.min(len, block.length - blockOffset);
+            System.arraycopy(block, blockOffset, b, off, len);
+        }
+        streamPos += len;
+        return len;
+    }
+
+    private byte[] getBlock(long blockIndex) throws IOException {
+        byte[] block = blocks.get(blockIndex);
+        if (block == null) {
+            long position = blockIndex * BLOCK_SIZE;
+            block = new byte[(int) Math.min(BLOCK_SIZE, length - position)];
+            rangeReader.readFully(position, block, 0, block.length);
+            blocks.put(blockIndex, block);
+        }
+        return block;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public boolean isCached() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close();
+        blocks.clear();
+        rangeReader.close();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.sedona.common.raster.inputstream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+public class RangeReaders {
+    private RangeReaders() {}
+
+    private static final List<RangeReaderFactory> factories = new ArrayList<>();
+    static {
+        for (RangeReaderFactory factory : ServiceLoader.load(RangeReaderFactory.class, RangeReaders.class.getClassLoader())) {
+            factories.add(factory);
+        }
+    }
+
+    /**
+     * Open a range reader for path using the first registered factory accepting it. Local files are opened directly
+     * when no factory accepts the path.
+     * @param path path of the raster file
+     * @return the range reader
+     */
+    public static RangeReader open(String path) throws IOException {
+        for (RangeReaderFactory factory : factories) {
+            factory.beforeOpen();
+        }
+        for (RangeReaderFactory factory : factories) {
+            if (factory.accepts(path)) {
+                return factory.open(path);
+            }
+        }
+        return new LocalFileRangeReader(path);
+    }
+
+    private static class LocalFileRangeReader implements RangeReader {
+        private final RandomAccessFile file;
+
+        LocalFileRangeReader(String path) throws IOException {
+            String localPath = path.startsWith("file:") ? Paths.get(URI.create(path)).toString() : path;
+            this.file = new RandomAccessFile(localPath, "r");
+        }
+
+        @Override
+        public long length() throws IOException {
+            return file.length();
+        }
+
+        @Override
+        public synchronized void readFully(long position, byte[] buffer, int offset, int length) throws IOException {
+            if (position + length > file.length()) {
+                throw new EOFException("Reading beyond the end of file");
+            }
+            file.seek(position);
+            file.readFully(buffer, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.common.utils;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.operation.union.UnaryUnionOp;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aggregation buffer for computing the union of a large number of geometries.
+ *
+ * <p>Unioning geometries one by one into an accumulated result costs time proportional to the size of the
+ * result for every input, which is quadratic for dissolves. This buffer collects inputs into bounded batches
+ * and unions each batch at once using {@link UnaryUnionOp}, which uses cascaded union for polygons. The
+ * partial unions are then merged hierarchically: the partial union at level {@code i} covers
+ * {@code batchSize * 2^i} inputs, and two partial unions of the same level are merged into one of the next
+ * level, so every union combines geometries of similar complexity.
+ */
+public class CascadedUnionBuffer implements Serializable {
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final int batchSize;
+    private final List<Geometry> batch = new ArrayList<>();
+    // Partial union at each level, or null if the level is vacant
+    private final List<Geometry> levels = new ArrayList<>();
+
+    public CascadedUnionBuffer() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    public CascadedUnionBuffer(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size should be positive, but got " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Add a geometry to the union. Null geometries are ignored.
+     */
+    public void add(Geometry geometry) {
+        if (geometry == null) {
+            return;
+        }
+        batch.add(geometry);
+        if (batch.size() >= batchSize) {
+            Geometry partialUnion = UnaryUnionOp.union(batch);
+            batch.clear();
+            addPartialUnion(partialUnion, 0);
+        }
+    }
+
+    /**
+     * Merge the geometries added to another buffer into this buffer.
+     */
+    public void merge(CascadedUnionBuffer other) {
+        for (Geometry geometry : other.batch) {
+            add(geometry);
+        }
+        for (int level = 0; level < other.levels.size(); level++) {
+            Geometry partialUnion = other.levels.get(level);
+            if (partialUnion != null) {
+                addPartialUnion(partialUnion, level);
+            }
+        }
+    }
+
+    /**
+     * Get the union of all geometries added to this buffer.
+     *
+     * @return the union, or null if no geometry was added
+     */
+    public Geometry getResult() {
+        List<Geometry> geometries = new ArrayList<>(batch);
+        for (Geometry partialUnion : levels) {
+            if (partialUnion != null) {
+                geometries.add(partialUnion);
+            }
+        }
+        if (geometries.isEmpty()) {
+            return null;
+        }
+        return geometries.size() == 1 ? geometries.get(0) : UnaryUnionOp.union(geometries);
+    }
+
+    public void clear() {
+        batch.clear();
+        levels.clear();
+    }
+
+    private void addPartialUnion(Geometry partialUnion, int level) {
+        while (level < levels.size() && levels.get(level) != null) {
+            partialUnion = UnaryUnionOp.union(Arrays.asList(levels.get(level), partialUnion));
+            levels.set(level, null);
+            level++;
+        }
+        while (levels.size() <= level) {
+            levels.add(null);
+        }
+        levels.set(level, partialUnion);
+    }
+}
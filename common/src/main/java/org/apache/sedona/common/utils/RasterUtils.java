@@ -20,6 +20,7 @@ package org.apache.sedona.common.utils;
 
 import com.sun.media.imageioimpl.common.BogusColorSpace;
 import org.apache.sedona.common.FunctionsGeoTools;
+import org.apache.sedona.common.raster.OutDbRenderedImage;
 import org.apache.sedona.common.raster.RasterAccessors;
 import org.geotools.coverage.Category;
 import org.geotools.coverage.CoverageFactoryFinder;
@@ -43,7 +44,9 @@ import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.TransformException;
 import org.opengis.util.InternationalString;
 
+import javax.media.jai.RasterFactory;
 import java.awt.Color;
+import java.awt.Rectangle;
 import java.awt.Transparency;
 import java.awt.color.ColorSpace;
 import java.awt.geom.Point2D;
@@ -51,7 +54,9 @@ import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.ComponentColorModel;
 import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
 import java.awt.image.WritableRaster;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -128,6 +133,94 @@ public class RasterUtils {
         return gridCoverageFactory.create("genericCoverage", image, gridGeometry, bands, null, null);
     }
 
+    /**
+     * Load the pixels of an out-db raster into memory, so that accessing its pixels no longer reads from its file.
+     * @param raster The raster to load.
+     * @return A raster holding its pixels, or the raster itself if it is not an out-db raster.
+     */
+    public static GridCoverage2D loadOutDbRaster(GridCoverage2D raster) {
+        RenderedImage image = raster.getRenderedImage();
+        if (!(image instanceof OutDbRenderedImage)) {
+            return raster;
+        }
+        SampleModel sampleModel = image.getSampleModel();
+        WritableRaster data = RasterFactory.createBandedRaster(sampleModel.getDataType(), image.getWidth(), image.getHeight(),
+                sampleModel.getNumBands(), null);
+        image.copyData(data);
+        return create(data, raster.getGridGeometry(), raster.getSampleDimensions());
+    }
+
+    /**
+     * Receives the samples of a band, one block of pixels at a time.
+     */
+    @FunctionalInterface
+    public interface SampleBlockVisitor {
+        /**
+         * @param block The pixels of the block, in image coordinates.
+         * @param samples The samples of the block in row-major order. Only the first block.width * block.height
+         *                elements are valid, and the array is reused for the next block.
+         */
+        void visit(Rectangle block, double[] samples);
+    }
+
+    /**
+     * Maximum number of samples fetched at once by {@link #visitSamples(RenderedImage, Rectangle, int, SampleBlockVisitor)}
+     */
+    private static final int SAMPLE_BLOCK_SIZE = 65536;
+
+    /**
+     * Visit the samples of a band of an image, tile by tile. Only the tiles overlapping the region are fetched, so
+     * out-db rasters only read the part of their file covering the region. Large tiles are split into blocks of rows,
+     * and all blocks share one buffer, so the memory used does not grow with the size of the image.
+     * @param image The image to read.
+     * @param region The pixels to visit, in image coordinates. It is clipped to the bounds of the image.
+     * @param band The band to read, starts at 0.
+     * @param visitor The visitor receiving the blocks of samples.
+     */
+    public static void visitSamples(RenderedImage image, Rectangle region, int band, SampleBlockVisitor visitor) {
+        Rectangle bounds = region.intersection(new Rectangle(image.getMinX(), image.getMinY(), image.getWidth(), image.getHeight()));
+        if (bounds.isEmpty()) {
+            return;
+        }
+        int tileWidth = image.getTileWidth(), tileHeight = image.getTileHeight();
+        int minTileX = Math.floorDiv(bounds.x - image.getTileGridXOffset(), tileWidth);
+        int maxTileX = Math.floorDiv(bounds.x + bounds.width - 1 - image.getTileGridXOffset(), tileWidth);
+        int minTileY = Math.floorDiv(bounds.y - image.getTileGridYOffset(), tileHeight);
+        int maxTileY = Math.floorDiv(bounds.y + bounds.height - 1 - image.getTileGridYOffset(), tileHeight);
+        double[] samples = null;
+        for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
+            for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+                Raster tile = image.getTile(tileX, tileY);
+                Rectangle tileRegion = tile.getBounds().intersection(bounds);
+                if (tileRegion.isEmpty()) {
+                    continue;
+                }
+                int rowsPerBlock = Math.max(1, SAMPLE_BLOCK_SIZE / tileRegion.width);
+                if (samples == null) {
+                    samples = new double[Math.max(SAMPLE_BLOCK_SIZE, tileRegion.width)];
+                } else if (samples.length < tileRegion.width) {
+                    samples = new double[tileRegion.width];
+                }
+                int endY = tileRegion.y + tileRegion.height;
+                for (int y = tileRegion.y; y < endY; y += rowsPerBlock) {
+                    Rectangle block = new Rectangle(tileRegion.x, y, tileRegion.width, Math.min(rowsPerBlock, endY - y));
+                    tile.getSamples(block.x, block.y, block.width, block.height, band, samples);
+                    visitor.visit(block, samples);
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit all samples of a band of an image, tile by tile.
+     * @param image The image to read.
+     * @param band The band to read, starts at 0.
+     * @param visitor The visitor receiving the blocks of samples.
+     */
+    public static void visitSamples(RenderedImage image, int band, SampleBlockVisitor visitor) {
+        visitSamples(image, new Rectangle(image.getMinX(), image.getMinY(), image.getWidth(), image.getHeight()), band, visitor);
+    }
+
     /**
      * Create a sample dimension using a given sampleDimension as template, with the give no data value.
      * @param sampleDimension The sample dimension to be used as template.
@@ -240,6 +333,22 @@ public class RasterUtils {
         return Double.NaN;
     }
 
+    /**
+     * Check if the sample dimension has a no data value, found as in {@link #getNoDataValue(GridSampleDimension)}.
+     * This tells a NaN no data value apart from a missing one.
+     * @param sampleDimension The sample dimension to be processed.
+     * @return true if the sample dimension has a no data value.
+     */
+    public static boolean hasNoDataValue(GridSampleDimension sampleDimension) {
+        InternationalString noDataCategoryName = Category.NODATA.getName();
+        for (Category category : sampleDimension.getCategories()) {
+            if (category.getName().equals(noDataCategoryName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Get a GDAL-compliant affine transform from the given raster, where the grid coordinate indicates the upper left
      * corner of the pixel. PostGIS also follows GDAL convention.
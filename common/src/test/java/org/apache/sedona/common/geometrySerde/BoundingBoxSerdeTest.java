@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.common.geometrySerde;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+public class BoundingBoxSerdeTest {
+    private static final GeometryFactory gf = new GeometryFactory();
+    private static final WKTReader wktReader = new WKTReader(gf);
+
+    @Test
+    public void testPeekEnvelopeOfPoint() {
+        byte[] bytes = GeometrySerializer.serialize(gf.createPoint(new Coordinate(10, 20)));
+        Assert.assertEquals(new Envelope(10, 10, 20, 20), GeometrySerializer.peekEnvelope(bytes));
+    }
+
+    @Test
+    public void testPeekEnvelopeOfEmptyGeometry() {
+        byte[] bytes = GeometrySerializer.serialize(gf.createPolygon());
+        Assert.assertTrue(GeometrySerializer.peekEnvelope(bytes).isNull());
+        bytes = GeometrySerializer.serialize(gf.createPoint());
+        Assert.assertTrue(GeometrySerializer.peekEnvelope(bytes).isNull());
+    }
+
+    @Test
+    public void testPeekEnvelopeCoversGeometry() throws ParseException {
+        String[] wkts = {
+            "MULTIPOINT ((0.1 0.2), (3.3 -4.4))",
+            "LINESTRING (0.123456789 1.987654321, 100.5 -20.25)",
+            "POLYGON ((-179.99 -89.99, 179.99 -89.99, 179.99 89.99, -179.99 -89.99))",
+            "MULTILINESTRING ((1 2, 3 4), (-5 -6, 7 8))",
+            "MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), ((10.1 10.1, 11 10.1, 11 11, 10.1 10.1)))",
+            "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (3.3 4.4, 5.5 6.6))",
+            "LINESTRING Z (0.3 0.7 1, 1e9 -1e-9 2)"
+        };
+        for (String wkt : wkts) {
+            Geometry geometry = wktReader.read(wkt);
+            byte[] bytes = GeometrySerializer.serialize(geometry, true);
+            Envelope envelope = GeometrySerializer.peekEnvelope(bytes);
+            Assert.assertNotNull(wkt, envelope);
+            Assert.assertTrue(wkt, envelope.covers(geometry.getEnvelopeInternal()));
+            Assert.assertEquals(wkt, geometry.getEnvelopeInternal().getWidth(), envelope.getWidth(), 1e-3);
+            Assert.assertEquals(wkt, geometry.getEnvelopeInternal().getHeight(), envelope.getHeight(), 1e-3);
+            Geometry deserialized = GeometrySerializer.deserialize(bytes);
+            Assert.assertTrue(wkt, geometry.equalsExact(deserialized));
+        }
+    }
+
+    @Test
+    public void testExpandEnvelope() throws ParseException {
+        String[] wkts = {
+            "POINT (1 2)",
+            "POINT EMPTY",
+            "MULTIPOINT ((0.1 0.2), EMPTY, (3.3 -4.4))",
+            "LINESTRING Z (0.123456789 1.987654321 1, 100.5 -20.25 2)",
+            "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 2 1, 2 2, 1 1))",
+            "POLYGON EMPTY",
+            "MULTILINESTRING ((1 2, 3 4), EMPTY, (-5 -6, 7 8))",
+            "MULTIPOLYGON (EMPTY, ((0 0, 1 0, 1 1, 0 0)), ((10.1 10.1, 11 10.1, 11 11, 10.1 10.1)))",
+            "GEOMETRYCOLLECTION (POINT EMPTY, MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), EMPTY), "
+                    + "GEOMETRYCOLLECTION (MULTILINESTRING ((1 2, 3 4))), POLYGON ((5 5, 6 5, 6 6.6, 5 5)))",
+            "GEOMETRYCOLLECTION EMPTY"
+        };
+        for (boolean withBoundingBox : new boolean[] {true, false}) {
+            Envelope total = new Envelope();
+            Envelope expandedTotal = new Envelope();
+            for (String wkt : wkts) {
+                Geometry geometry = wktReader.read(wkt);
+                byte[] bytes = GeometrySerializer.serialize(geometry, withBoundingBox);
+                Envelope envelope = new Envelope();
+                GeometrySerializer.expandEnvelope(bytes, envelope);
+                Assert.assertEquals(wkt, geometry.getEnvelopeInternal(), envelope);
+                total.expandToInclude(geometry.getEnvelopeInternal());
+                GeometrySerializer.expandEnvelope(bytes, expandedTotal);
+            }
+            Assert.assertEquals(total, expandedTotal);
+        }
+    }
+
+    @Test
+    public void testBoundingBoxDisabledByDefault() throws ParseException {
+        // Older readers take the bounding box flag as part of the geometry type
+        Geometry polygon = wktReader.read("POLYGON ((0 0, 1 0, 1 1, 0 1, 0 0))");
+        byte[] bytes = GeometrySerializer.serialize(polygon);
+        Assert.assertEquals(0, bytes[0] & 0x80);
+        Assert.assertArrayEquals(GeometrySerializer.serialize(polygon, false), bytes);
+    }
+
+    @Test
+    public void testSerializeWithoutBoundingBox() throws ParseException {
+        Geometry polygon = wktReader.read("POLYGON ((0 0, 1 0, 1 1, 0 1, 0 0))");
+        polygon.setSRID(4326);
+        byte[] bytesWithBbox = GeometrySerializer.serialize(polygon, true);
+        byte[] bytesWithoutBbox = GeometrySerializer.serialize(polygon, false);
+        Assert.assertEquals(16, bytesWithBbox.length - bytesWithoutBbox.length);
+        Assert.assertNull(GeometrySerializer.peekEnvelope(bytesWithoutBbox));
+
+        // Buffers with or without bounding box are both readable
+        Geometry geom1 = GeometrySerializer.deserialize(bytesWithBbox);
+        Geometry geom2 = GeometrySerializer.deserialize(bytesWithoutBbox);
+        Assert.assertTrue(geom1 instanceof Polygon);
+        Assert.assertEquals(polygon, geom1);
+        Assert.assertEquals(polygon, geom2);
+        Assert.assertEquals(4326, geom1.getSRID());
+        Assert.assertEquals(4326, geom2.getSRID());
+    }
+
+    @Test
+    public void testNestedGeometryCollection() throws ParseException {
+        Geometry geometry = wktReader.read(
+                "GEOMETRYCOLLECTION (POLYGON ((0 0, 1 0, 1 1, 0 0)), "
+                        + "GEOMETRYCOLLECTION (MULTIPOINT ((5 5), (6 6)), LINESTRING (7 7, 8 9)))");
+        byte[] bytes = GeometrySerializer.serialize(geometry, true);
+        Assert.assertEquals(new Envelope(0, 8, 0, 9), GeometrySerializer.peekEnvelope(bytes));
+        Assert.assertEquals(geometry, GeometrySerializer.deserialize(bytes));
+    }
+}
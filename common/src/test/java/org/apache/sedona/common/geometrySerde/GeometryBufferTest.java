@@ -78,6 +78,23 @@ public class GeometryBufferTest {
         assertEquals(1, buffer.getInt(0));
     }
 
+    @Test
+    public void testPutGetFloat() {
+        GeometryBuffer buffer = GeometryBufferFactory.create(bufferType, 8);
+        buffer.putFloat(0, 1.5f);
+        buffer.putFloat(4, -2.5f);
+        assertEquals(1.5f, buffer.getFloat(0), 1e-6);
+        assertEquals(-2.5f, buffer.getFloat(4), 1e-6);
+    }
+
+    @Test
+    public void testGetDouble() {
+        GeometryBuffer buffer = GeometryBufferFactory.create(bufferType, 16);
+        buffer.putCoordinate(0, new Coordinate(1, 2));
+        assertEquals(1, buffer.getDouble(0), 1e-6);
+        assertEquals(2, buffer.getDouble(8), 1e-6);
+    }
+
     @Test
     public void testPutGetCoordinate() {
         GeometryBuffer buffer = GeometryBufferFactory.create(bufferType, 16);
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.common.geometrySerde;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
+import com.esotericsoftware.kryo.io.ByteBufferOutput;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.sedona.common.geometryObjects.Circle;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GeometrySerdeTest {
+    private static final WKTReader wktReader = new WKTReader();
+    private static final String[] WKTS = {
+        "POINT (1.3 4.5)",
+        "POINT EMPTY",
+        "MULTIPOINT ((1 1), (1.3 4.5), (5.2 999))",
+        "LINESTRING (1 1, 1.3 4.5, 5.2 999)",
+        "MULTILINESTRING ((1 1, 1.3 4.5, 5.2 999), (0 0, 0 1))",
+        "POLYGON ((0 0, 0 1, 1 1, 1 0.4, 0 0), (0.2 0.2, 0.5 0.2, 0.5 0.5, 0.2 0.5, 0.2 0.2))",
+        "MULTIPOLYGON (((0 0, 0 1, 1 1, 1 0.4, 0 0)), ((2 2, 2 3, 3 3, 2 2)))",
+        "GEOMETRYCOLLECTION (POINT (4 6), LINESTRING (4 6, 7 10))",
+        "POLYGON EMPTY"
+    };
+
+    /**
+     * Writes user data of type String compactly.
+     */
+    private static class StringUserDataSerde extends GeometrySerde {
+        @Override
+        protected boolean isCompactUserData(Object userData) {
+            return userData instanceof String;
+        }
+
+        @Override
+        protected void writeCompactUserData(Output out, Object userData) {
+            out.writeString((String) userData);
+        }
+
+        @Override
+        protected Object readCompactUserData(Input input) {
+            return input.readString();
+        }
+    }
+
+    private static Kryo createKryo(GeometrySerde serde) {
+        Kryo kryo = new Kryo();
+        for (Class<?> clazz : new Class<?>[] {Point.class, LineString.class, Polygon.class, MultiPoint.class,
+                MultiLineString.class, MultiPolygon.class, GeometryCollection.class, Circle.class, Envelope.class}) {
+            kryo.register(clazz, serde);
+        }
+        return kryo;
+    }
+
+    private static List<Object> createObjects() throws ParseException {
+        List<Object> objects = new ArrayList<>();
+        for (String wkt : WKTS) {
+            Geometry geometry = wktReader.read(wkt);
+            objects.add(geometry);
+            Geometry withUserData = wktReader.read(wkt);
+            withUserData.setUserData("user data of " + wkt);
+            objects.add(withUserData);
+            Geometry withOtherUserData = wktReader.read(wkt);
+            withOtherUserData.setUserData(42);
+            objects.add(withOtherUserData);
+        }
+        Circle circle = new Circle(wktReader.read("POINT (1 2)"), 1.5);
+        circle.setUserData("circle");
+        objects.add(circle);
+        objects.add(new Envelope(1, 2, 3, 4));
+        return objects;
+    }
+
+    private static void assertSameObjects(List<Object> expected, List<Object> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int k = 0; k < expected.size(); k++) {
+            Object expectedObject = expected.get(k);
+            Object actualObject = actual.get(k);
+            if (expectedObject instanceof Geometry) {
+                Geometry expectedGeometry = (Geometry) expectedObject;
+                Geometry actualGeometry = (Geometry) actualObject;
+                Assert.assertEquals(expectedGeometry.getClass(), actualGeometry.getClass());
+                Assert.assertTrue(expectedGeometry.equalsExact(actualGeometry));
+                Assert.assertEquals(expectedGeometry.getUserData(), actualGeometry.getUserData());
+            } else {
+                Assert.assertEquals(expectedObject, actualObject);
+            }
+        }
+    }
+
+    @After
+    public void resetGeometryBuffer() {
+        GeometryBufferFactory.toggleUnsafeGeometryBuffer(true);
+    }
+
+    @Test
+    public void testBufferedStreams() throws ParseException {
+        testBufferedStreams(createObjects());
+    }
+
+    @Test
+    public void testBufferedStreamsWithoutUnsafe() throws ParseException {
+        GeometryBufferFactory.toggleUnsafeGeometryBuffer(false);
+        testBufferedStreams(createObjects());
+    }
+
+    private void testBufferedStreams(List<Object> objects) {
+        for (GeometrySerde serde : new GeometrySerde[] {new GeometrySerde(), new StringUserDataSerde()}) {
+            Kryo kryo = createKryo(serde);
+            // Small buffers make geometries straddle buffer boundaries
+            for (int bufferSize : new int[] {16, 64, 4096}) {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                Output output = new Output(bos, bufferSize);
+                for (Object object : objects) {
+                    kryo.writeClassAndObject(output, object);
+                }
+                output.close();
+                Input input = new Input(new ByteArrayInputStream(bos.toByteArray()), bufferSize);
+                List<Object> result = new ArrayList<>();
+                for (int k = 0; k < objects.size(); k++) {
+                    result.add(kryo.readClassAndObject(input));
+                }
+                assertSameObjects(objects, result);
+            }
+        }
+    }
+
+    @Test
+    public void testGrowingOutput() throws ParseException {
+        List<Object> objects = createObjects();
+        Kryo kryo = createKryo(new GeometrySerde());
+        Output output = new Output(16, -1);
+        for (Object object : objects) {
+            kryo.writeClassAndObject(output, object);
+        }
+        Input input = new Input(output.toBytes());
+        List<Object> result = new ArrayList<>();
+        for (int k = 0; k < objects.size(); k++) {
+            result.add(kryo.readClassAndObject(input));
+        }
+        assertSameObjects(objects, result);
+    }
+
+    @Test
+    public void testByteBufferStreams() throws ParseException {
+        List<Object> objects = createObjects();
+        Kryo kryo = createKryo(new StringUserDataSerde());
+        ByteBufferOutput output = new ByteBufferOutput(4096, -1);
+        for (Object object : objects) {
+            kryo.writeClassAndObject(output, object);
+        }
+        ByteBufferInput input = new ByteBufferInput(output.toBytes());
+        List<Object> result = new ArrayList<>();
+        for (int k = 0; k < objects.size(); k++) {
+            result.add(kryo.readClassAndObject(input));
+        }
+        assertSameObjects(objects, result);
+    }
+
+    @Test
+    public void testCompactUserDataIsSmaller() throws ParseException {
+        Geometry geometry = wktReader.read("POINT (1 2)");
+        geometry.setUserData("user data");
+        Output output = new Output(256);
+        createKryo(new GeometrySerde()).writeObject(output, geometry);
+        int kryoSize = output.position();
+        output.clear();
+        createKryo(new StringUserDataSerde()).writeObject(output, geometry);
+        Assert.assertTrue(output.position() < kryoSize);
+    }
+}
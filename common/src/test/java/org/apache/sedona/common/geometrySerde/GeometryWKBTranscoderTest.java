@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.common.geometrySerde;
+
+import org.apache.sedona.common.utils.GeomUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.ByteOrderValues;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.io.WKTReader;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+public class GeometryWKBTranscoderTest {
+    private static final GeometryFactory gf = new GeometryFactory();
+    private static final WKTReader wktReader = new WKTReader(gf);
+    private static final String[] WKTS = {
+        "POINT (1 2)",
+        "POINT Z (1 2 3)",
+        "POINT EMPTY",
+        "LINESTRING (0.123456789 1.987654321, 100.5 -20.25)",
+        "LINESTRING Z (0.3 0.7 1, 1e9 -1e-9 2)",
+        "LINESTRING EMPTY",
+        "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 2 1, 2 2, 1 1))",
+        "POLYGON Z ((0 0 1, 10 0 2, 10 10 3, 0 0 1))",
+        "POLYGON EMPTY",
+        "MULTIPOINT ((0.1 0.2), (3.3 -4.4))",
+        "MULTIPOINT ((0.1 0.2), EMPTY)",
+        "MULTIPOINT Z ((1 2 3), (4 5 6))",
+        "MULTIPOINT EMPTY",
+        "MULTILINESTRING ((1 2, 3 4), (-5 -6, 7 8))",
+        "MULTILINESTRING ((1 2, 3 4), EMPTY)",
+        "MULTILINESTRING (EMPTY, (1 2, 3 4))",
+        "MULTILINESTRING EMPTY",
+        "MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), ((10 10, 11 10, 11 11, 10 10), (10.1 10.1, 10.2 10.1, 10.2 10.2, 10.1 10.1)))",
+        "MULTIPOLYGON (EMPTY, ((0 0, 1 0, 1 1, 0 0)))",
+        "MULTIPOLYGON Z (((0 0 1, 1 0 1, 1 1 1, 0 0 1)))",
+        "MULTIPOLYGON EMPTY",
+        "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (3.3 4.4, 5.5 6.6))",
+        "GEOMETRYCOLLECTION (POINT EMPTY, POLYGON ((0 0, 1 0, 1 1, 0 0)), GEOMETRYCOLLECTION (MULTIPOINT ((1 2))))",
+        "GEOMETRYCOLLECTION (POINT Z (1 2 3), LINESTRING (3 4, 5 6))",
+        "GEOMETRYCOLLECTION (POINT EMPTY)",
+        "GEOMETRYCOLLECTION EMPTY"
+    };
+
+    @After
+    public void resetBoundingBox() {
+        GeometrySerializer.toggleBoundingBox(false);
+    }
+
+    @Test
+    public void testWkbToSerde() throws ParseException {
+        GeometryWKBTranscoder transcoder = new GeometryWKBTranscoder();
+        for (boolean withBoundingBox : new boolean[] {true, false}) {
+            GeometrySerializer.toggleBoundingBox(withBoundingBox);
+            for (String wkt : WKTS) {
+                Geometry geometry = wktReader.read(wkt);
+                for (int byteOrder : new int[] {ByteOrderValues.BIG_ENDIAN, ByteOrderValues.LITTLE_ENDIAN}) {
+                    byte[] wkb = new WKBWriter(GeomUtils.getDimension(geometry), byteOrder).write(geometry);
+                    assertTranscodedFromWkb(transcoder, wkt, wkb);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSerdeToWkb() throws ParseException {
+        GeometryWKBTranscoder transcoder = new GeometryWKBTranscoder();
+        for (boolean withBoundingBox : new boolean[] {true, false}) {
+            GeometrySerializer.toggleBoundingBox(withBoundingBox);
+            for (String wkt : WKTS) {
+                Geometry geometry = wktReader.read(wkt);
+                byte[] wkb = transcoder.serdeToWkb(GeometrySerializer.serialize(geometry));
+                byte[] expected = new WKBWriter(GeomUtils.getDimension(geometry)).write(geometry);
+                Assert.assertArrayEquals(wkt, expected, wkb);
+                Assert.assertEquals(wkt, geometry.getEnvelopeInternal(), transcoder.getEnvelope());
+                Assert.assertEquals(wkt, geometry.getGeometryType(), transcoder.getGeometryType());
+                Assert.assertEquals(wkt, GeomUtils.getDimension(geometry) == 3, transcoder.hasZ());
+            }
+        }
+    }
+
+    @Test
+    public void testWkbWithSrid() throws ParseException {
+        GeometryWKBTranscoder transcoder = new GeometryWKBTranscoder();
+        for (String wkt : WKTS) {
+            Geometry geometry = wktReader.read(wkt);
+            geometry.setSRID(4326);
+            byte[] wkb = new WKBWriter(GeomUtils.getDimension(geometry), true).write(geometry);
+            assertTranscodedFromWkb(transcoder, wkt, wkb);
+            Assert.assertEquals(wkt, 4326, GeometrySerializer.deserialize(transcoder.wkbToSerde(wkb)).getSRID());
+        }
+    }
+
+    @Test
+    public void testWkbWithMeasures() throws ParseException {
+        GeometryWKBTranscoder transcoder = new GeometryWKBTranscoder();
+        // Measures are read as Z ordinates by WKBReader
+        String[] hexes = {
+            // ISO POINT M, POINT ZM, LINESTRING M
+            "01D1070000000000000000F03F00000000000000400000000000000840",
+            "01B90B0000000000000000F03F000000000000004000000000000008400000000000001040",
+            "01D207000002000000000000000000F03F0000000000000040000000000000084000000000000010400000000000001440"
+                    + "0000000000001840",
+            // EWKB POINT M, POINT ZM
+            "0101000040000000000000F03F00000000000000400000000000000840",
+            "01010000C0000000000000F03F000000000000004000000000000008400000000000001040"
+        };
+        for (String hex : hexes) {
+            assertTranscodedFromWkb(transcoder, hex, WKBReader.hexToBytes(hex));
+        }
+    }
+
+    @Test
+    public void testInvalidRingsAndLineStrings() {
+        GeometryWKBTranscoder transcoder = new GeometryWKBTranscoder();
+        // Unclosed rings, rings with less than 4 coordinates and line strings with a single coordinate are
+        // fixed in the same way as WKBReader does
+        double[][] rings = {{0, 0, 1, 0, 1, 1, 0, 1}, {0, 0, 1, 0, 1, 1}, {1, 2, 3, 4}, {1, 2}, {0, 0, 1, 0, 1, 1, 0, 0}};
+        for (double[] ring : rings) {
+            int numCoordinates = ring.length / 2;
+            ByteBuffer buffer = ByteBuffer.allocate(13 + ring.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put((byte) 1).putInt(3).putInt(1).putInt(numCoordinates);
+            for (double ordinate : ring) {
+                buffer.putDouble(ordinate);
+            }
+            assertTranscodedFromWkb(transcoder, Arrays.toString(ring), buffer.array());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(25).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte) 1).putInt(2).putInt(1).putDouble(1).putDouble(2);
+        assertTranscodedFromWkb(transcoder, "LINESTRING (1 2)", buffer.array());
+    }
+
+    @Test
+    public void testWkbEnvelope() throws ParseException {
+        GeometryWKBTranscoder transcoder = new GeometryWKBTranscoder();
+        for (String wkt : WKTS) {
+            Geometry geometry = wktReader.read(wkt);
+            geometry.setSRID(4326);
+            for (int byteOrder : new int[] {ByteOrderValues.BIG_ENDIAN, ByteOrderValues.LITTLE_ENDIAN}) {
+                byte[] wkb = new WKBWriter(GeomUtils.getDimension(geometry), byteOrder, true).write(geometry);
+                Assert.assertEquals(wkt, geometry.getEnvelopeInternal(), transcoder.wkbEnvelope(wkb));
+                Assert.assertEquals(wkt, geometry.getGeometryType(), transcoder.getGeometryType());
+            }
+        }
+        byte[] wkb = new WKBWriter().write(wktReader.read("LINESTRING (1 2, 3 4)"));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> transcoder.wkbEnvelope(Arrays.copyOf(wkb, wkb.length - 1)));
+    }
+
+    @Test
+    public void testMalformedWkb() throws ParseException {
+        GeometryWKBTranscoder transcoder = new GeometryWKBTranscoder();
+        byte[] wkb = new WKBWriter().write(wktReader.read("LINESTRING (1 2, 3 4)"));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> transcoder.wkbToSerde(Arrays.copyOf(wkb, wkb.length - 1)));
+        // A multi point containing a line string
+        byte[] multiPoint = new WKBWriter().write(wktReader.read("MULTIPOINT ((1 2))"));
+        byte[] malformed = new byte[9 + wkb.length];
+        System.arraycopy(multiPoint, 0, malformed, 0, 9);
+        System.arraycopy(wkb, 0, malformed, 9, wkb.length);
+        Assert.assertThrows(IllegalArgumentException.class, () -> transcoder.wkbToSerde(malformed));
+    }
+
+    private static void assertTranscodedFromWkb(GeometryWKBTranscoder transcoder, String message, byte[] wkb) {
+        Geometry geometry;
+        try {
+            geometry = new WKBReader().read(wkb);
+        } catch (ParseException e) {
+            throw new AssertionError(message, e);
+        }
+        byte[] serde = transcoder.wkbToSerde(wkb);
+        Assert.assertArrayEquals(message, GeometrySerializer.serialize(geometry), serde);
+        Assert.assertEquals(message, geometry.getEnvelopeInternal(), transcoder.getEnvelope());
+        Assert.assertEquals(message, geometry.getGeometryType(), transcoder.getGeometryType());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.common.geometrySerde;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateFilter;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+public class LazyDeserializationTest {
+    private static final GeometryFactory gf = new GeometryFactory();
+    private static final WKTReader wktReader = new WKTReader(gf);
+
+    @Test
+    public void testLazyDeserializationMatchesEager() throws ParseException {
+        String[] wkts = {
+            "POINT (1 2)",
+            "POINT EMPTY",
+            "POINT Z (1 2 3)",
+            "POINT M (1 2 3)",
+            "POINT ZM (1 2 3 4)",
+            "LINESTRING (0 0, 1 1, 2 3)",
+            "LINESTRING ZM (0 0 1 2, 1 1 3 4)",
+            "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 2 1, 2 2, 1 1))",
+            "POLYGON EMPTY",
+            "MULTIPOINT ((0 0), EMPTY, (3 4))",
+            "MULTILINESTRING ((1 2, 3 4), (-5 -6, 7 8))",
+            "MULTIPOLYGON (((0 0, 1 0, 1 1, 0 0)), ((10 10, 11 10, 11 11, 10 10)))",
+            "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (3 4, 5 6), GEOMETRYCOLLECTION (POINT (7 8)))"
+        };
+        for (String wkt : wkts) {
+            Geometry geometry = wktReader.read(wkt);
+            geometry.setSRID(4326);
+            byte[] bytes = GeometrySerializer.serialize(geometry);
+            Geometry eager = GeometrySerializer.deserialize(bytes);
+            Geometry lazy = GeometrySerializer.deserializeLazily(bytes);
+            Assert.assertEquals(wkt, eager.getGeometryType(), lazy.getGeometryType());
+            Assert.assertEquals(wkt, eager.getSRID(), lazy.getSRID());
+            Assert.assertEquals(wkt, eager.getNumPoints(), lazy.getNumPoints());
+            Assert.assertEquals(wkt, eager.getNumGeometries(), lazy.getNumGeometries());
+            Assert.assertEquals(wkt, eager.isEmpty(), lazy.isEmpty());
+            Assert.assertEquals(wkt, eager.getEnvelopeInternal(), lazy.getEnvelopeInternal());
+            Assert.assertTrue(wkt, eager.equalsExact(lazy));
+            Assert.assertArrayEquals(wkt, eager.getCoordinates(), lazy.getCoordinates());
+        }
+    }
+
+    @Test
+    public void testLazyCoordinateSequence() throws ParseException {
+        Geometry geometry = wktReader.read("LINESTRING ZM (0 1 2 3, 4 5 6 7)");
+        byte[] bytes = GeometrySerializer.serialize(geometry);
+        CoordinateSequence seq = ((LineString) GeometrySerializer.deserializeLazily(bytes)).getCoordinateSequence();
+        Assert.assertEquals(2, seq.size());
+        Assert.assertEquals(4, seq.getDimension());
+        Assert.assertEquals(1, seq.getMeasures());
+        Assert.assertEquals(4, seq.getX(1), 0);
+        Assert.assertEquals(5, seq.getY(1), 0);
+        Assert.assertEquals(6, seq.getZ(1), 0);
+        Assert.assertEquals(7, seq.getM(1), 0);
+        Assert.assertThrows(UnsupportedOperationException.class, () -> seq.setOrdinate(0, 0, 10));
+
+        CoordinateSequence copy = seq.copy();
+        copy.setOrdinate(0, 0, 10);
+        Assert.assertEquals(10, copy.getX(0), 0);
+        Assert.assertEquals(0, seq.getX(0), 0);
+    }
+
+    @Test
+    public void testLazyPointAccessors() {
+        Point point = gf.createPoint(new Coordinate(1.5, 2.5, 3.5));
+        Point lazy = (Point) GeometrySerializer.deserializeLazily(GeometrySerializer.serialize(point));
+        Assert.assertEquals(1.5, lazy.getX(), 0);
+        Assert.assertEquals(2.5, lazy.getY(), 0);
+        Assert.assertEquals(3.5, lazy.getCoordinate().getZ(), 0);
+    }
+
+    @Test
+    public void testLazyGeometryCanBeCopied() throws ParseException {
+        Geometry geometry = wktReader.read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0))");
+        Geometry lazy = GeometrySerializer.deserializeLazily(GeometrySerializer.serialize(geometry));
+        Geometry copy = lazy.copy();
+        copy.apply((CoordinateFilter) c -> c.x += 1);
+        copy.geometryChanged();
+        Assert.assertEquals(1, copy.getEnvelopeInternal().getMinX(), 0);
+        Assert.assertEquals(0, lazy.getEnvelopeInternal().getMinX(), 0);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.common.index;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.sedona.common.geometrySerde.SpatialIndexSerde;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PackedRTreeTest
+{
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+
+    @Test
+    public void testQueryMatchesBruteForce()
+    {
+        for (int numItems : new int[] {0, 1, 15, 16, 17, 300, 5000}) {
+            List<Geometry> geometries = generateGeometries(numItems, 42);
+            PackedRTree tree = new PackedRTree();
+            for (Geometry geometry : geometries) {
+                tree.insert(geometry.getEnvelopeInternal(), geometry);
+            }
+            assertEquals(numItems, tree.size());
+            Random random = new Random(7);
+            for (int i = 0; i < 100; i++) {
+                Envelope window = randomEnvelope(random, 40);
+                assertEquals(bruteForce(geometries, window), new HashSet<>(tree.query(window)));
+            }
+        }
+    }
+
+    @Test
+    public void testMergeMatchesBruteForce()
+    {
+        for (int numItems : new int[] {0, 1, 17, 300, 5000}) {
+            List<Geometry> geometries = generateGeometries(numItems, 5);
+            geometries.sort(Comparator.comparingDouble(geometry -> geometry.getEnvelopeInternal().centre().x));
+            List<PackedRTree> trees = new ArrayList<>();
+            int numSlices = 7;
+            for (int slice = 0; slice < numSlices; slice++) {
+                PackedRTree tree = new PackedRTree();
+                for (Geometry geometry : geometries.subList(numItems * slice / numSlices, numItems * (slice + 1) / numSlices)) {
+                    tree.insert(geometry.getEnvelopeInternal(), geometry);
+                }
+                trees.add(tree);
+            }
+            PackedRTree merged = PackedRTree.merge(PackedRTree.DEFAULT_NODE_CAPACITY, trees);
+            assertTrue(merged.isBuilt());
+            assertEquals(numItems, merged.size());
+            Random random = new Random(13);
+            for (int i = 0; i < 100; i++) {
+                Envelope window = randomEnvelope(random, 40);
+                assertEquals(bruteForce(geometries, window), new HashSet<>(merged.query(window)));
+            }
+        }
+    }
+
+    @Test
+    public void testQueryWithVisitor()
+    {
+        List<Geometry> geometries = generateGeometries(1000, 1);
+        PackedRTree tree = new PackedRTree(4);
+        for (Geometry geometry : geometries) {
+            tree.insert(geometry.getEnvelopeInternal(), geometry);
+        }
+        Envelope window = new Envelope(-50, 50, -20, 20);
+        Set<Object> visited = new HashSet<>();
+        tree.query(window, visited::add);
+        assertEquals(bruteForce(geometries, window), visited);
+    }
+
+    @Test
+    public void testNullEnvelopesAreSkipped()
+    {
+        PackedRTree tree = new PackedRTree();
+        tree.insert(new Envelope(), geometryFactory.createPoint());
+        tree.insert(new Envelope(0, 1, 0, 1), geometryFactory.toGeometry(new Envelope(0, 1, 0, 1)));
+        assertEquals(1, tree.size());
+        assertEquals(1, tree.query(new Envelope(-1, 2, -1, 2)).size());
+        assertTrue(tree.query(new Envelope()).isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInsertAfterBuild()
+    {
+        PackedRTree tree = new PackedRTree();
+        tree.insert(new Envelope(0, 1, 0, 1), geometryFactory.toGeometry(new Envelope(0, 1, 0, 1)));
+        tree.build();
+        tree.insert(new Envelope(0, 1, 0, 1), geometryFactory.toGeometry(new Envelope(0, 1, 0, 1)));
+    }
+
+    @Test
+    public void testKryoSerde()
+    {
+        Kryo kryo = new Kryo();
+        kryo.register(PackedRTree.class, new SpatialIndexSerde());
+        for (int numItems : new int[] {0, 1, 1000}) {
+            List<Geometry> geometries = generateGeometries(numItems, 3);
+            PackedRTree tree = new PackedRTree();
+            for (Geometry geometry : geometries) {
+                tree.insert(geometry.getEnvelopeInternal(), geometry);
+            }
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            Output output = new Output(outputStream);
+            kryo.writeClassAndObject(output, tree);
+            output.close();
+            PackedRTree deserialized = (PackedRTree) kryo.readClassAndObject(new Input(outputStream.toByteArray()));
+            assertEquals(numItems, deserialized.size());
+            Random random = new Random(11);
+            for (int i = 0; i < 20; i++) {
+                Envelope window = randomEnvelope(random, 60);
+                assertEquals(new HashSet<>(tree.query(window)), new HashSet<>(deserialized.query(window)));
+            }
+        }
+    }
+
+    private List<Geometry> generateGeometries(int numItems, long seed)
+    {
+        Random random = new Random(seed);
+        List<Geometry> geometries = new ArrayList<>();
+        for (int i = 0; i < numItems; i++) {
+            geometries.add(geometryFactory.toGeometry(randomEnvelope(random, 5)));
+        }
+        return geometries;
+    }
+
+    private static Envelope randomEnvelope(Random random, double maxSize)
+    {
+        double x = random.nextDouble() * 360 - 180;
+        double y = random.nextDouble() * 180 - 90;
+        return new Envelope(x, x + random.nextDouble() * maxSize, y, y + random.nextDouble() * maxSize);
+    }
+
+    private static Set<Object> bruteForce(List<Geometry> geometries, Envelope window)
+    {
+        Set<Object> result = new HashSet<>();
+        for (Geometry geometry : geometries) {
+            if (geometry.getEnvelopeInternal().intersects(window)) {
+                result.add(geometry);
+            }
+        }
+        return result;
+    }
+}
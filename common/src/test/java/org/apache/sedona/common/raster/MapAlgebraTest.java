@@ -25,6 +25,7 @@ import org.junit.Test;
 import org.opengis.referencing.FactoryException;
 
 import java.awt.image.DataBuffer;
+import java.io.IOException;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
@@ -33,6 +34,38 @@ import static org.junit.Assert.assertTrue;
 
 public class MapAlgebraTest extends RasterTestBase
 {
+    @Test
+    public void testAddBandAsArrayTiledRaster()
+            throws IOException
+    {
+        GridCoverage2D raster = RasterConstructors.fromGeoTiffPath(resourceFolder + "raster/test1.tiff");
+        int width = RasterAccessors.getWidth(raster);
+        int height = RasterAccessors.getHeight(raster);
+        double[] band1 = MapAlgebra.bandAsArray(raster, 1);
+        double[] band2 = new double[width * height];
+        for (int i = 0; i < band2.length; i++) {
+            band2[i] = i % 256;
+        }
+
+        // Original bands are copied tile by tile
+        GridCoverage2D appended = MapAlgebra.addBandFromArray(raster, band2);
+        assertEquals(2, RasterAccessors.numBands(appended));
+        // The copy keeps the location of the original image and its grid geometry
+        assertEquals(raster.getRenderedImage().getMinX(), appended.getRenderedImage().getMinX());
+        assertEquals(raster.getRenderedImage().getMinY(), appended.getRenderedImage().getMinY());
+        assertEquals(raster.getGridGeometry(), appended.getGridGeometry());
+        Assert.assertArrayEquals(band1, MapAlgebra.bandAsArray(appended, 1), 0);
+        Assert.assertArrayEquals(band2, MapAlgebra.bandAsArray(appended, 2), 0);
+
+        GridCoverage2D replaced = MapAlgebra.addBandFromArray(appended, band1, 2);
+        assertEquals(2, RasterAccessors.numBands(replaced));
+        assertEquals(raster.getRenderedImage().getMinX(), replaced.getRenderedImage().getMinX());
+        assertEquals(raster.getRenderedImage().getMinY(), replaced.getRenderedImage().getMinY());
+        assertEquals(raster.getGridGeometry(), replaced.getGridGeometry());
+        Assert.assertArrayEquals(band1, MapAlgebra.bandAsArray(replaced, 1), 0);
+        Assert.assertArrayEquals(band1, MapAlgebra.bandAsArray(replaced, 2), 0);
+    }
+
     @Test
     public void testAddBandAsArrayAppend()
             throws FactoryException
@@ -19,11 +19,23 @@
 
 package org.apache.sedona.common.raster;
 
+import org.apache.sedona.common.Constructors;
 import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.geometry.DirectPosition2D;
+import org.geotools.geometry.Envelope2D;
 import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.metadata.spatial.PixelOrientation;
 import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.operation.MathTransform2D;
+import org.opengis.referencing.operation.TransformException;
 
+import java.awt.image.Raster;
 import java.io.IOException;
+import java.util.Locale;
 
 import static org.junit.Assert.*;
 
@@ -184,6 +196,111 @@ public class RasterBandAccessorsTest extends RasterTestBase {
         assertEquals(max, result[5], 0.1d);
     }
 
+    @Test
+    public void testCountAndSummaryStatsOfTiledRaster() throws IOException {
+        // Out-db rasters are read tile by tile, and the results should match the ones of the in-memory raster
+        String path = resourceFolder + "raster/test1.tiff";
+        GridCoverage2D raster = rasterFromGeoTiff(path);
+        GridCoverage2D tiledRaster = RasterConstructors.fromGeoTiffPath(path);
+        assertTrue(tiledRaster.getRenderedImage().getNumXTiles() > 1);
+        assertEquals(RasterBandAccessors.getCount(raster, 1, false), RasterBandAccessors.getCount(tiledRaster, 1, false));
+        assertEquals(RasterBandAccessors.getCount(raster), RasterBandAccessors.getCount(tiledRaster));
+        assertArrayEquals(RasterBandAccessors.getSummaryStats(raster, 1, false), RasterBandAccessors.getSummaryStats(tiledRaster, 1, false), 1e-6);
+        assertArrayEquals(RasterBandAccessors.getSummaryStats(raster), RasterBandAccessors.getSummaryStats(tiledRaster), 1e-6);
+    }
+
+    @Test
+    public void testZonalStats() throws FactoryException, ParseException, TransformException {
+        GridCoverage2D emptyRaster = RasterConstructors.makeEmptyRaster(1, 4, 4, 0, 4, 1);
+        double[] values = new double[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1;
+        }
+        GridCoverage2D raster = MapAlgebra.addBandFromArray(emptyRaster, values, 1, 14d);
+
+        // Covers the pixels holding 9, 10, 13 and 14, 14 being the no data value
+        Geometry zone = Constructors.geomFromWKT("POLYGON ((0 0, 2 0, 2 2, 0 2, 0 0))", 0);
+        assertEquals(3, RasterBandAccessors.getZonalStats(raster, zone, 1, "count"), 1e-9);
+        assertEquals(32, RasterBandAccessors.getZonalStats(raster, zone, 1, "sum"), 1e-9);
+        assertEquals(32 / 3.0, RasterBandAccessors.getZonalStats(raster, zone, 1, "mean"), 1e-9);
+        assertEquals(9, RasterBandAccessors.getZonalStats(raster, zone, 1, "min"), 1e-9);
+        assertEquals(13, RasterBandAccessors.getZonalStats(raster, zone, 1, "MAX"), 1e-9);
+        assertEquals(4, RasterBandAccessors.getZonalStats(raster, zone, 1, "count", false), 1e-9);
+        assertEquals(11.5, RasterBandAccessors.getZonalStats(raster, zone, 1, "mean", false), 1e-9);
+        assertEquals(Math.sqrt(4.25), RasterBandAccessors.getZonalStats(raster, zone, 1, "stddev", false), 1e-9);
+        assertArrayEquals(new Long[] {0L, 0L, 2L, 1L}, RasterBandAccessors.getZonalHistogram(raster, zone, 1, 4, 0, 16));
+
+        // Pixels in holes are not covered
+        zone = Constructors.geomFromWKT("POLYGON ((0 0, 4 0, 4 4, 0 4, 0 0), (1 1, 3 1, 3 3, 1 3, 1 1))", 0);
+        assertEquals(12, RasterBandAccessors.getZonalStats(raster, zone, 1, "count", false), 1e-9);
+        assertEquals(136 - 6 - 7 - 10 - 11, RasterBandAccessors.getZonalStats(raster, zone, 1, "sum", false), 1e-9);
+
+        // Pixels covered by overlapping polygons are counted once
+        zone = Constructors.geomFromWKT("MULTIPOLYGON (((0 0, 2 0, 2 2, 0 2, 0 0)), ((1 0, 3 0, 3 2, 1 2, 1 0)))", 0);
+        assertEquals(6, RasterBandAccessors.getZonalStats(raster, zone, 1, "count", false), 1e-9);
+        assertEquals(9 + 10 + 11 + 13 + 14 + 15, RasterBandAccessors.getZonalStats(raster, zone, 1, "sum", false), 1e-9);
+
+        // Zones outside the raster cover no pixel
+        zone = Constructors.geomFromWKT("POLYGON ((10 10, 11 10, 11 11, 10 10))", 0);
+        assertEquals(0, RasterBandAccessors.getZonalStats(raster, zone, 1, "count"), 1e-9);
+        assertNull(RasterBandAccessors.getZonalStats(raster, zone, 1, "mean"));
+
+        Geometry point = Constructors.geomFromWKT("POINT (1 1)", 0);
+        assertThrows(IllegalArgumentException.class, () -> RasterBandAccessors.getZonalStats(raster, point, 1, "count"));
+        Geometry polygon = Constructors.geomFromWKT("POLYGON ((0 0, 2 0, 2 2, 0 2, 0 0))", 0);
+        assertThrows(IllegalArgumentException.class, () -> RasterBandAccessors.getZonalStats(raster, polygon, 1, "median"));
+    }
+
+    @Test
+    public void testZonalStatsWithNaNNoDataValue() throws FactoryException, ParseException, TransformException {
+        GridCoverage2D emptyRaster = RasterConstructors.makeEmptyRaster(1, 4, 4, 0, 4, 1);
+        double[] values = new double[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1;
+        }
+        values[12] = Double.NaN;
+        GridCoverage2D raster = MapAlgebra.addBandFromArray(emptyRaster, values, 2, Double.NaN);
+
+        // Covers the pixels holding 9, 10, NaN and 14, NaN being the no data value
+        Geometry zone = Constructors.geomFromWKT("POLYGON ((0 0, 2 0, 2 2, 0 2, 0 0))", 0);
+        assertEquals(3, RasterBandAccessors.getZonalStats(raster, zone, 2, "count"), 1e-9);
+        assertEquals(33, RasterBandAccessors.getZonalStats(raster, zone, 2, "sum"), 1e-9);
+        assertEquals(14, RasterBandAccessors.getZonalStats(raster, zone, 2, "max"), 1e-9);
+        assertEquals(4, RasterBandAccessors.getZonalStats(raster, zone, 2, "count", false), 1e-9);
+        assertTrue(Double.isNaN(RasterBandAccessors.getZonalStats(raster, zone, 2, "sum", false)));
+        assertArrayEquals(new Long[] {0L, 0L, 2L, 1L}, RasterBandAccessors.getZonalHistogram(raster, zone, 2, 4, 0, 16));
+    }
+
+    @Test
+    public void testZonalStatsOfTiledRaster() throws IOException, ParseException, TransformException {
+        String path = resourceFolder + "raster/test1.tiff";
+        GridCoverage2D raster = rasterFromGeoTiff(path);
+        GridCoverage2D tiledRaster = RasterConstructors.fromGeoTiffPath(path);
+        Envelope2D envelope = raster.getEnvelope2D();
+        double x0 = envelope.getMinX(), y0 = envelope.getMinY(), w = envelope.getWidth(), h = envelope.getHeight();
+        Geometry zone = Constructors.geomFromWKT(String.format(Locale.ROOT, "POLYGON ((%f %f, %f %f, %f %f, %f %f))",
+                x0 + 0.13 * w, y0 + 0.21 * h, x0 + 0.87 * w, y0 + 0.42 * h, x0 + 0.36 * w, y0 + 0.93 * h,
+                x0 + 0.13 * w, y0 + 0.21 * h), 0);
+
+        // A pixel is covered when its center lies in the zone
+        MathTransform2D gridToCRS = raster.getGridGeometry().getGridToCRS2D(PixelOrientation.CENTER);
+        Raster data = raster.getRenderedImage().getData();
+        double count = 0, sum = 0;
+        for (int y = 0; y < data.getHeight(); y++) {
+            for (int x = 0; x < data.getWidth(); x++) {
+                DirectPosition center = gridToCRS.transform(new DirectPosition2D(x, y), null);
+                if (zone.contains(zone.getFactory().createPoint(new Coordinate(center.getOrdinate(0), center.getOrdinate(1))))) {
+                    count++;
+                    sum += data.getSampleDouble(x, y, 0);
+                }
+            }
+        }
+        assertTrue(count > 0);
+        assertEquals(count, RasterBandAccessors.getZonalStats(tiledRaster, zone, 1, "count", false), 1e-9);
+        assertEquals(sum, RasterBandAccessors.getZonalStats(tiledRaster, zone, 1, "sum", false), 1e-6);
+        assertEquals(sum, RasterBandAccessors.getZonalStats(raster, zone, 1, "sum", false), 1e-6);
+    }
+
     @Test
     public void testCountWithEmptyRaster() throws FactoryException {
         // With each parameter and excludeNoDataValue as true
@@ -19,10 +19,15 @@ import org.junit.Test;
 import org.locationtech.jts.geom.Geometry;
 import org.opengis.referencing.FactoryException;
 
+import java.awt.Rectangle;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class RasterConstructorsTest
         extends RasterTestBase {
@@ -55,6 +60,72 @@ public class RasterConstructorsTest
         assertEquals(4, gridCoverage2D.getNumSampleDimensions());
     }
 
+    @Test
+    public void fromGeoTiffPath() throws IOException, ClassNotFoundException {
+        String path = resourceFolder + "raster/test1.tiff";
+        GridCoverage2D expected = RasterConstructors.fromGeoTiff(Files.readAllBytes(Paths.get(path)));
+        GridCoverage2D raster = RasterConstructors.fromGeoTiffPath(path);
+        assertTrue(raster.getRenderedImage() instanceof OutDbRenderedImage);
+        assertEquals(expected.getEnvelope2D(), raster.getEnvelope2D());
+        assertEquals(expected.getNumSampleDimensions(), raster.getNumSampleDimensions());
+        assertEquals(expected.getRenderedImage().getTileWidth(), raster.getRenderedImage().getTileWidth());
+        Rectangle region = new Rectangle(200, 300, 100, 100);
+        assertArrayEquals(expected.getRenderedImage().getData(region).getSamples(200, 300, 100, 100, 0, (double[]) null),
+                raster.getRenderedImage().getData(region).getSamples(200, 300, 100, 100, 0, (double[]) null), 0);
+
+        // Serialized out-db rasters refer to the file instead of holding the pixels
+        byte[] bytes = Serde.serialize(raster);
+        assertTrue(bytes.length < 1024);
+        GridCoverage2D deserialized = Serde.deserialize(bytes);
+        assertTrue(deserialized.getRenderedImage() instanceof OutDbRenderedImage);
+        assertEquals(expected.getEnvelope2D(), deserialized.getEnvelope2D());
+        assertArrayEquals(expected.getRenderedImage().getData().getSamples(0, 0, 512, 517, 0, (double[]) null),
+                deserialized.getRenderedImage().getData().getSamples(0, 0, 512, 517, 0, (double[]) null), 0);
+
+        // Files are opened again after the readers of this thread are closed
+        OutDbRenderedImage.closeReaders();
+        deserialized = Serde.deserialize(bytes);
+        assertArrayEquals(expected.getRenderedImage().getData(region).getSamples(200, 300, 100, 100, 0, (double[]) null),
+                deserialized.getRenderedImage().getData(region).getSamples(200, 300, 100, 100, 0, (double[]) null), 0);
+    }
+
+    @Test
+    public void generateTiles() throws IOException {
+        String path = resourceFolder + "raster/test1.tiff";
+        GridCoverage2D raster = RasterConstructors.fromGeoTiff(Files.readAllBytes(Paths.get(path)));
+        GridCoverage2D outDbRaster = RasterConstructors.fromGeoTiffPath(path);
+        RasterConstructors.Tile[] tiles = RasterConstructors.generateTiles(raster, 200, 300);
+        RasterConstructors.Tile[] outDbTiles = RasterConstructors.generateTiles(outDbRaster, 200, 300);
+        assertEquals(6, tiles.length);
+        assertEquals(6, outDbTiles.length);
+        double[] expected = raster.getRenderedImage().getData().getSamples(0, 0, 512, 517, 0, (double[]) null);
+        for (int k = 0; k < tiles.length; k++) {
+            RasterConstructors.Tile tile = tiles[k];
+            RasterConstructors.Tile outDbTile = outDbTiles[k];
+            assertEquals(tile.getTileX(), outDbTile.getTileX());
+            assertEquals(tile.getTileY(), outDbTile.getTileY());
+            assertTrue(outDbTile.getCoverage().getRenderedImage() instanceof OutDbRenderedImage);
+            int x0 = tile.getTileX() * 200;
+            int y0 = tile.getTileY() * 300;
+            int width = Math.min(200, 512 - x0);
+            int height = Math.min(300, 517 - y0);
+            for (GridCoverage2D coverage : new GridCoverage2D[] {tile.getCoverage(), outDbTile.getCoverage()}) {
+                assertEquals(width, RasterAccessors.getWidth(coverage));
+                assertEquals(height, RasterAccessors.getHeight(coverage));
+                assertEquals(RasterAccessors.getUpperLeftX(raster) + x0 * RasterAccessors.getScaleX(raster),
+                        RasterAccessors.getUpperLeftX(coverage), 1e-6);
+                assertEquals(RasterAccessors.getUpperLeftY(raster) + y0 * RasterAccessors.getScaleY(raster),
+                        RasterAccessors.getUpperLeftY(coverage), 1e-6);
+                double[] samples = coverage.getRenderedImage().getData().getSamples(0, 0, width, height, 0, (double[]) null);
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        assertEquals(expected[(y0 + y) * 512 + x0 + x], samples[y * width + x], 0);
+                    }
+                }
+            }
+        }
+    }
+
     @Test
     public void makeEmptyRaster() throws FactoryException {
         double upperLeftX = 0;
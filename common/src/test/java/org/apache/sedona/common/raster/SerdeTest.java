@@ -26,10 +26,14 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.opengis.geometry.DirectPosition;
 import org.opengis.geometry.Envelope;
+import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.operation.TransformException;
 
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
 import java.io.IOException;
+import java.util.Arrays;
 
 import static org.junit.Assert.assertNotNull;
 
@@ -57,6 +61,72 @@ public class SerdeTest extends RasterTestBase {
         assertSameCoverage(multiBandRaster, raster);
     }
 
+    @Test
+    public void testRoundtripSerdeDataTypes() throws IOException, ClassNotFoundException {
+        int[] dataTypes = {DataBuffer.TYPE_BYTE, DataBuffer.TYPE_USHORT, DataBuffer.TYPE_SHORT,
+                DataBuffer.TYPE_INT, DataBuffer.TYPE_FLOAT, DataBuffer.TYPE_DOUBLE};
+        for (int dataType : dataTypes) {
+            GridCoverage2D expected = createRandomRaster(dataType, 20, 30, 10, 20, 1, 3, "EPSG:3857");
+            GridCoverage2D raster = Serde.deserialize(Serde.serialize(expected));
+            assertSameCoverage(expected, raster);
+            assertSamePixels(expected, raster);
+            raster = Serde.deserialize(Serde.serialize(raster));
+            assertSamePixels(expected, raster);
+        }
+    }
+
+    @Test
+    public void testRoundtripSerdeCompressedRaster() throws IOException, ClassNotFoundException {
+        GridCoverage2D expected = createRandomRaster(DataBuffer.TYPE_DOUBLE, 40, 40, 10, 20, 1, 2, "EPSG:4326");
+        GridCoverage2D raster = Serde.deserialize(Serde.serialize(expected, true));
+        assertSameCoverage(expected, raster);
+        assertSamePixels(expected, raster);
+    }
+
+    @Test
+    public void testDeserializeTruncatedRaster() throws IOException {
+        GridCoverage2D expected = createRandomRaster(DataBuffer.TYPE_DOUBLE, 40, 40, 10, 20, 1, 2, "EPSG:4326");
+        for (boolean compress : new boolean[] {false, true}) {
+            byte[] bytes = Serde.serialize(expected, compress);
+            byte[] truncated = Arrays.copyOf(bytes, bytes.length - 16);
+            Assert.assertThrows(IOException.class, () -> Serde.deserialize(truncated));
+        }
+    }
+
+    @Test
+    public void testRoundtripSerdeEmptyRaster() throws IOException, ClassNotFoundException, FactoryException {
+        GridCoverage2D expected = RasterConstructors.makeEmptyRaster(2, "b", 10, 8, 100, 200, 2, -3, 0.5, 0.25, 4326);
+        expected = RasterBandEditors.setBandNoDataValue(expected, 1, 255);
+        byte[] bytes = Serde.serialize(expected);
+        // Rasters created by Sedona are serialized in the compact layout rather than by ObjectOutputStream
+        Assert.assertNotEquals((byte) 0xAC, bytes[0]);
+        GridCoverage2D raster = Serde.deserialize(bytes);
+        assertSameCoverage(expected, raster);
+        assertSamePixels(expected, raster);
+        Assert.assertEquals(4326, RasterAccessors.srid(raster));
+        Assert.assertEquals(-3, RasterAccessors.getScaleY(raster), 1e-9);
+        Assert.assertEquals(0.5, RasterAccessors.getSkewX(raster), 1e-9);
+        Assert.assertEquals(255, RasterBandAccessors.getBandNoDataValue(raster, 1), 1e-9);
+        Assert.assertNull(RasterBandAccessors.getBandNoDataValue(raster, 2));
+
+        expected = RasterConstructors.makeEmptyRaster(1, 10, 8, 100, 200, 2);
+        raster = Serde.deserialize(Serde.serialize(expected));
+        Assert.assertEquals(0, RasterAccessors.srid(raster));
+        assertSameCoverage(expected, raster);
+    }
+
+    private void assertSamePixels(GridCoverage2D expected, GridCoverage2D actual) {
+        Raster expectedData = expected.getRenderedImage().getData();
+        Raster actualData = actual.getRenderedImage().getData();
+        Assert.assertEquals(expectedData.getDataBuffer().getDataType(), actualData.getDataBuffer().getDataType());
+        Assert.assertEquals(expectedData.getNumBands(), actualData.getNumBands());
+        for (int b = 0; b < expectedData.getNumBands(); b++) {
+            double[] expectedSamples = expectedData.getSamples(0, 0, expectedData.getWidth(), expectedData.getHeight(), b, (double[]) null);
+            double[] actualSamples = actualData.getSamples(0, 0, actualData.getWidth(), actualData.getHeight(), b, (double[]) null);
+            Assert.assertArrayEquals(expectedSamples, actualSamples, 0);
+        }
+    }
+
     private void assertSameCoverage(GridCoverage2D expected, GridCoverage2D actual) {
         Assert.assertEquals(expected.getNumSampleDimensions(), actual.getNumSampleDimensions());
         Envelope expectedEnvelope = expected.getEnvelope();
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.common.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CascadedUnionBufferTest {
+    private static final GeometryFactory gf = new GeometryFactory();
+
+    @Test
+    public void testUnion() {
+        List<Geometry> squares = createOverlappingSquares(100);
+        Geometry expected = unionOneByOne(squares);
+        for (int batchSize : new int[] {1, 3, 7, 256}) {
+            CascadedUnionBuffer buffer = new CascadedUnionBuffer(batchSize);
+            squares.forEach(buffer::add);
+            buffer.add(null);
+            Assert.assertTrue(expected.equalsTopo(buffer.getResult()));
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        List<Geometry> squares = createOverlappingSquares(100);
+        Geometry expected = unionOneByOne(squares);
+        CascadedUnionBuffer left = new CascadedUnionBuffer(4);
+        CascadedUnionBuffer right = new CascadedUnionBuffer(4);
+        for (int k = 0; k < squares.size(); k++) {
+            (k % 3 == 0 ? left : right).add(squares.get(k));
+        }
+        left.merge(right);
+        Assert.assertTrue(expected.equalsTopo(left.getResult()));
+        left.merge(new CascadedUnionBuffer());
+        Assert.assertTrue(expected.equalsTopo(left.getResult()));
+    }
+
+    @Test
+    public void testEmptyBuffer() {
+        CascadedUnionBuffer buffer = new CascadedUnionBuffer(2);
+        Assert.assertNull(buffer.getResult());
+        Geometry square = createOverlappingSquares(1).get(0);
+        buffer.add(square);
+        Assert.assertSame(square, buffer.getResult());
+        buffer.clear();
+        Assert.assertNull(buffer.getResult());
+    }
+
+    private static List<Geometry> createOverlappingSquares(int count) {
+        List<Geometry> squares = new ArrayList<>();
+        for (int k = 0; k < count; k++) {
+            double x = (k % 10) * 0.75;
+            double y = (k / 10) * 0.75;
+            squares.add(gf.toGeometry(new Envelope(x, x + 1, y, y + 1)));
+        }
+        return squares;
+    }
+
+    private static Geometry unionOneByOne(List<Geometry> geometries) {
+        Geometry result = geometries.get(0);
+        for (int k = 1; k < geometries.size(); k++) {
+            result = result.union(geometries.get(k));
+        }
+        return result;
+    }
+}
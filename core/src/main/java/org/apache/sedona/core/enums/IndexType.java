@@ -38,7 +38,12 @@ public enum IndexType
     /**
      * The rtree.
      */
-    RTREE;
+    RTREE,
+
+    /**
+     * The rtree packed into flat arrays. It is smaller and faster to serialize than the rtree.
+     */
+    PACKED_RTREE;
 
     /**
      * Gets the index type.
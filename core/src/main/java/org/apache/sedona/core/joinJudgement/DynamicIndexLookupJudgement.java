@@ -20,6 +20,7 @@
 package org.apache.sedona.core.joinJudgement;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.sedona.common.index.PackedRTree;
 import org.apache.sedona.core.enums.IndexType;
 import org.apache.sedona.core.enums.JoinBuildSide;
 import org.apache.sedona.core.monitoring.Metric;
@@ -48,6 +49,7 @@ public class DynamicIndexLookupJudgement<T extends Geometry, U extends Geometry>
      */
     public DynamicIndexLookupJudgement(
             SpatialPredicate spatialPredicate,
+            int preparedGeometryCacheSize,
             IndexType indexType,
             JoinBuildSide joinBuildSide,
             Metric buildCount,
@@ -55,7 +57,7 @@ public class DynamicIndexLookupJudgement<T extends Geometry, U extends Geometry>
             Metric resultCount,
             Metric candidateCount)
     {
-        super(spatialPredicate, buildCount, streamCount, resultCount, candidateCount);
+        super(spatialPredicate, preparedGeometryCacheSize, buildCount, streamCount, resultCount, candidateCount);
         this.indexType = indexType;
         this.joinBuildSide = joinBuildSide;
     }
@@ -135,6 +137,8 @@ public class DynamicIndexLookupJudgement<T extends Geometry, U extends Geometry>
                 return new STRtree();
             case QUADTREE:
                 return new Quadtree();
+            case PACKED_RTREE:
+                return new PackedRTree();
             default:
                 throw new IllegalArgumentException("Unsupported index type: " + indexType);
         }
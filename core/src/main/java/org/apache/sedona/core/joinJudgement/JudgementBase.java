@@ -28,6 +28,9 @@ import org.apache.sedona.core.spatialOperator.SpatialPredicate;
 import org.apache.sedona.core.spatialOperator.SpatialPredicateEvaluators;
 import org.apache.spark.TaskContext;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Lineal;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
 import org.locationtech.jts.index.SpatialIndex;
 
 import java.io.Serializable;
@@ -41,6 +44,9 @@ import java.util.NoSuchElementException;
  * <p>
  * Provides `match` method to test whether a given pair of geometries satisfies join condition.
  * <p>
+ * When a prepared geometry cache size is given, polygonal and lineal geometries on the build side are
+ * prepared and cached per partition, so that a build side geometry matching many stream side geometries
+ * is analyzed only once.
  */
 abstract class JudgementBase<T extends Geometry, U extends Geometry>
         implements Serializable
@@ -48,7 +54,10 @@ abstract class JudgementBase<T extends Geometry, U extends Geometry>
     private static final Logger log = LogManager.getLogger(JudgementBase.class);
 
     private final SpatialPredicate spatialPredicate;
+    private final int preparedGeometryCacheSize;
     private transient SpatialPredicateEvaluators.SpatialPredicateEvaluator evaluator;
+    private transient SpatialPredicateEvaluators.SpatialPredicateEvaluator inverseEvaluator;
+    private transient PreparedGeometryCache preparedGeometries;
     protected final Metric buildCount;
     protected final Metric streamCount;
     protected final Metric resultCount;
@@ -64,14 +73,18 @@ abstract class JudgementBase<T extends Geometry, U extends Geometry>
     /**
      *
      * @param spatialPredicate spatial predicate as join condition
+     * @param preparedGeometryCacheSize max number of prepared build side geometries cached per partition,
+     *                                  0 disables prepared geometries
      * @param buildCount num of geometries in build side
      * @param streamCount num of geometries in stream side
      * @param resultCount num of join results
      * @param candidateCount num of candidate pairs to be refined by their real geometries
      */
-    protected JudgementBase(SpatialPredicate spatialPredicate, Metric buildCount, Metric streamCount, Metric resultCount, Metric candidateCount)
+    protected JudgementBase(SpatialPredicate spatialPredicate, int preparedGeometryCacheSize, Metric buildCount,
+            Metric streamCount, Metric resultCount, Metric candidateCount)
     {
         this.spatialPredicate = spatialPredicate;
+        this.preparedGeometryCacheSize = preparedGeometryCacheSize;
         this.buildCount = buildCount;
         this.streamCount = streamCount;
         this.resultCount = resultCount;
@@ -89,11 +102,24 @@ abstract class JudgementBase<T extends Geometry, U extends Geometry>
     protected void initPartition()
     {
         evaluator = SpatialPredicateEvaluators.create(spatialPredicate);
+        inverseEvaluator = SpatialPredicateEvaluators.create(SpatialPredicate.inverse(spatialPredicate));
+        if (preparedGeometryCacheSize > 0) {
+            preparedGeometries = new PreparedGeometryCache(preparedGeometryCacheSize);
+        }
     }
 
-    private boolean match(Geometry left, Geometry right)
+    /**
+     * Tests whether a pair of build side and stream side geometries satisfies the join condition.
+     * Polygonal and lineal build side geometries are evaluated as prepared geometries when
+     * prepared geometries are enabled. Other geometries gain little from being prepared.
+     */
+    private boolean match(Geometry buildShape, Geometry streamShape, boolean buildLeft)
     {
-        return evaluator.eval(left, right);
+        if (preparedGeometries != null && (buildShape instanceof Polygonal || buildShape instanceof Lineal)) {
+            PreparedGeometry prepared = preparedGeometries.get(buildShape);
+            return buildLeft ? evaluator.eval(prepared, streamShape) : inverseEvaluator.eval(prepared, streamShape);
+        }
+        return buildLeft ? evaluator.eval(buildShape, streamShape) : evaluator.eval(streamShape, buildShape);
     }
 
     /**
@@ -218,23 +244,23 @@ abstract class JudgementBase<T extends Geometry, U extends Geometry>
             shapeCnt++;
             streamCount.add(1);
             final Geometry streamShape = streamShapes.next();
-            final List candidates = spatialIndex.query(streamShape.getEnvelopeInternal());
-            for (Object candidate : candidates) {
+            // Visit candidates directly instead of collecting them into a list first
+            spatialIndex.query(streamShape.getEnvelopeInternal(), candidate -> {
                 candidateCount.add(1);
                 final Geometry buildShape = (Geometry) candidate;
                 if (buildLeft) {
-                    if (match(buildShape, streamShape)) {
+                    if (match(buildShape, streamShape, true)) {
                         batch.add(Pair.of((U) buildShape, (T) streamShape));
                         resultCount.add(1);
                     }
                 }
                 else {
-                    if (match(streamShape, buildShape)) {
+                    if (match(buildShape, streamShape, false)) {
                         batch.add(Pair.of((U) streamShape, (T) buildShape));
                         resultCount.add(1);
                     }
                 }
-            }
+            });
             logMilestone(shapeCnt, 100 * 1000, "Streaming shapes");
             if (!batch.isEmpty()) {
                 return true;
@@ -276,7 +302,7 @@ abstract class JudgementBase<T extends Geometry, U extends Geometry>
             for (Object candidate : buildShapes) {
                 candidateCount.add(1);
                 final Geometry buildShape = (Geometry) candidate;
-                if (match(streamShape, buildShape)) {
+                if (match(buildShape, streamShape, false)) {
                     batch.add(Pair.of((U) streamShape, (T) buildShape));
                     resultCount.add(1);
                 }
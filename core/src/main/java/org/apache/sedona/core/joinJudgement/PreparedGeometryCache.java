@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.core.joinJudgement;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache of prepared geometries keyed by geometry identity.
+ * <p>
+ * Geometries on the build side of a join are long-lived objects which are tested against many
+ * geometries on the stream side. Preparing them once and reusing the prepared geometry avoids
+ * re-analyzing the same geometry for every candidate pair. Keys are compared by reference, so
+ * looking up a geometry never computes its hash code or compares coordinates.
+ * <p>
+ * This class is not thread safe.
+ */
+public class PreparedGeometryCache
+{
+    private final PreparedGeometryFactory factory = new PreparedGeometryFactory();
+    private final Map<IdentityKey, PreparedGeometry> cache;
+
+    /**
+     * @param capacity max number of prepared geometries kept in the cache
+     */
+    public PreparedGeometryCache(final int capacity)
+    {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of prepared geometry cache must be positive: " + capacity);
+        }
+        this.cache = new LinkedHashMap<IdentityKey, PreparedGeometry>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<IdentityKey, PreparedGeometry> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the prepared geometry of the given geometry, preparing it if it is not cached.
+     *
+     * @param geometry geometry to prepare
+     * @return prepared geometry
+     */
+    public PreparedGeometry get(Geometry geometry)
+    {
+        IdentityKey key = new IdentityKey(geometry);
+        PreparedGeometry prepared = cache.get(key);
+        if (prepared == null) {
+            prepared = factory.create(geometry);
+            cache.put(key, prepared);
+        }
+        return prepared;
+    }
+
+    public int size()
+    {
+        return cache.size();
+    }
+
+    private static final class IdentityKey
+    {
+        private final Geometry geometry;
+
+        IdentityKey(Geometry geometry)
+        {
+            this.geometry = geometry;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode(geometry);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof IdentityKey && ((IdentityKey) obj).geometry == geometry;
+        }
+    }
+}
@@ -39,12 +39,13 @@ public class RightIndexLookupJudgement<T extends Geometry, U extends Geometry>
      * @see JudgementBase
      */
     public RightIndexLookupJudgement(SpatialPredicate spatialPredicate,
+            int preparedGeometryCacheSize,
             Metric buildCount,
             Metric streamCount,
             Metric resultCount,
             Metric candidateCount)
     {
-        super(spatialPredicate, buildCount, streamCount, resultCount, candidateCount);
+        super(spatialPredicate, preparedGeometryCacheSize, buildCount, streamCount, resultCount, candidateCount);
     }
 
     @Override
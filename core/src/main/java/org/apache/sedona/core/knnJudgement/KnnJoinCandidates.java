@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.core.knnJudgement;
+
+import org.locationtech.jts.geom.Geometry;
+import scala.Tuple2;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The k nearest neighbour candidates of one query geometry, sorted by ascending distance.
+ * Candidates found in different partitions are merged with {@link #merge(KnnJoinCandidates, int)}.
+ */
+public class KnnJoinCandidates<U extends Geometry, T extends Geometry>
+        implements Serializable
+{
+    private final int partitionId;
+    private final U query;
+    private final List<T> neighbours;
+    private final double[] distances;
+
+    private KnnJoinCandidates(int partitionId, U query, List<T> neighbours, double[] distances)
+    {
+        this.partitionId = partitionId;
+        this.query = query;
+        this.neighbours = neighbours;
+        this.distances = distances;
+    }
+
+    /**
+     * Creates the candidates of a query from the result of a local nearest neighbour search.
+     *
+     * @param partitionId the partition where the search ran
+     * @param query the query geometry
+     * @param candidates the geometries returned by the local search, in any order
+     * @param k the number of neighbours to keep
+     */
+    @SuppressWarnings("unchecked")
+    public static <U extends Geometry, T extends Geometry> KnnJoinCandidates<U, T> create(int partitionId, U query, Object[] candidates, int k)
+    {
+        Integer[] order = new Integer[candidates.length];
+        double[] candidateDistances = new double[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            order[i] = i;
+            candidateDistances[i] = query.distance((Geometry) candidates[i]);
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(candidateDistances[a], candidateDistances[b]));
+        int size = Math.min(k, candidates.length);
+        List<T> neighbours = new ArrayList<>(size);
+        double[] distances = new double[size];
+        for (int i = 0; i < size; i++) {
+            neighbours.add((T) candidates[order[i]]);
+            distances[i] = candidateDistances[order[i]];
+        }
+        return new KnnJoinCandidates<>(partitionId, query, neighbours, distances);
+    }
+
+    public int getPartitionId()
+    {
+        return partitionId;
+    }
+
+    public U getQuery()
+    {
+        return query;
+    }
+
+    public List<T> getNeighbours()
+    {
+        return neighbours;
+    }
+
+    /**
+     * Returns the distance to the k-th nearest candidate, or positive infinity if fewer than k candidates
+     * were found. Partitions farther away than this distance cannot contribute a closer neighbour.
+     */
+    public double kthDistance(int k)
+    {
+        return distances.length < k ? Double.POSITIVE_INFINITY : distances[k - 1];
+    }
+
+    /**
+     * Merges two sorted candidate lists of the same query and keeps the k nearest ones.
+     */
+    public KnnJoinCandidates<U, T> merge(KnnJoinCandidates<U, T> other, int k)
+    {
+        int size = Math.min(k, distances.length + other.distances.length);
+        List<T> mergedNeighbours = new ArrayList<>(size);
+        double[] mergedDistances = new double[size];
+        int i = 0;
+        int j = 0;
+        for (int n = 0; n < size; n++) {
+            if (j >= other.distances.length || (i < distances.length && distances[i] <= other.distances[j])) {
+                mergedNeighbours.add(neighbours.get(i));
+                mergedDistances[n] = distances[i++];
+            }
+            else {
+                mergedNeighbours.add(other.neighbours.get(j));
+                mergedDistances[n] = other.distances[j++];
+            }
+        }
+        return new KnnJoinCandidates<>(partitionId, query, mergedNeighbours, mergedDistances);
+    }
+
+    public List<Tuple2<U, T>> toPairs()
+    {
+        List<Tuple2<U, T>> pairs = new ArrayList<>(neighbours.size());
+        for (T neighbour : neighbours) {
+            pairs.add(new Tuple2<>(query, neighbour));
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.core.knnJudgement;
+
+import org.apache.spark.TaskContext;
+import org.apache.spark.api.java.function.FlatMapFunction2;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.index.SpatialIndex;
+import org.locationtech.jts.index.strtree.GeometryItemDistance;
+import org.locationtech.jts.index.strtree.STRtree;
+import scala.Tuple2;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * Finds the k nearest neighbours of each query geometry of a partition in the R-tree of the
+ * co-located partition of the object dataset. Queries are keyed by a unique id so that the candidates
+ * found in different partitions can be merged afterwards.
+ */
+public class KnnJoinJudgement<U extends Geometry, T extends Geometry>
+        implements FlatMapFunction2<Iterator<Tuple2<Integer, Tuple2<Long, U>>>, Iterator<SpatialIndex>, Tuple2<Long, KnnJoinCandidates<U, T>>>, Serializable
+{
+    private final int k;
+
+    public KnnJoinJudgement(int k)
+    {
+        this.k = k;
+    }
+
+    @Override
+    public Iterator<Tuple2<Long, KnnJoinCandidates<U, T>>> call(Iterator<Tuple2<Integer, Tuple2<Long, U>>> queries, Iterator<SpatialIndex> indexes)
+            throws Exception
+    {
+        if (!queries.hasNext() || !indexes.hasNext()) {
+            return Collections.emptyIterator();
+        }
+        SpatialIndex index = indexes.next();
+        if (!(index instanceof STRtree)) {
+            throw new Exception("[KnnJoinJudgement][Call] Only RTree index supports KNN search.");
+        }
+        final STRtree tree = (STRtree) index;
+        final int partitionId = TaskContext.getPartitionId();
+        final GeometryItemDistance itemDistance = new GeometryItemDistance();
+        return new Iterator<Tuple2<Long, KnnJoinCandidates<U, T>>>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return queries.hasNext();
+            }
+
+            @Override
+            public Tuple2<Long, KnnJoinCandidates<U, T>> next()
+            {
+                Tuple2<Long, U> query = queries.next()._2();
+                Object[] candidates = tree.isEmpty() ? new Object[0]
+                        : tree.nearestNeighbour(query._2().getEnvelopeInternal(), query._2(), itemDistance, k);
+                return new Tuple2<>(query._1(), KnnJoinCandidates.create(partitionId, query._2(), candidates, k));
+            }
+        };
+    }
+}
@@ -74,7 +74,7 @@ public class KnnJudgementUsingIndex<U extends Geometry, T extends Geometry>
             localK = ((STRtree) treeIndex).nearestNeighbour(queryCenter.getEnvelopeInternal(), queryCenter, new GeometryItemDistance(), k);
         }
         else {
-            throw new Exception("[KnnJudgementUsingIndex][Call] QuadTree index doesn't support KNN search.");
+            throw new Exception("[KnnJudgementUsingIndex][Call] Only RTree index supports KNN search.");
         }
         List<T> result = new ArrayList();
         for (int i = 0; i < localK.length; i++) {
@@ -24,6 +24,7 @@ import org.apache.log4j.Logger;
 import org.apache.sedona.common.geometryObjects.Circle;
 import org.apache.sedona.common.geometrySerde.GeometrySerde;
 import org.apache.sedona.common.geometrySerde.SpatialIndexSerde;
+import org.apache.sedona.common.index.PackedRTree;
 import org.apache.spark.serializer.KryoRegistrator;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.GeometryCollection;
@@ -45,7 +46,7 @@ public class SedonaKryoRegistrator
     @Override
     public void registerClasses(Kryo kryo)
     {
-        GeometrySerde serializer = new GeometrySerde();
+        GeometrySerde serializer = new SparkGeometrySerde();
         SpatialIndexSerde indexSerializer = new SpatialIndexSerde(serializer);
 
         log.info("Registering custom serializers for geometry types");
@@ -62,5 +63,6 @@ public class SedonaKryoRegistrator
         // TODO: Replace the default serializer with default spatial index serializer
         kryo.register(Quadtree.class, indexSerializer);
         kryo.register(STRtree.class, indexSerializer);
+        kryo.register(PackedRTree.class, indexSerializer);
     }
 }
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.core.serde;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.apache.sedona.common.geometrySerde.GeometrySerde;
+import org.apache.spark.sql.catalyst.expressions.UnsafeRow;
+import org.apache.spark.unsafe.Platform;
+
+/**
+ * Geometry serializer which writes {@link UnsafeRow} user data compactly. Spatial joins in Spark SQL
+ * attach the row of each geometry as its user data, these rows are written as the number of fields,
+ * the size and the bytes of the row, without Kryo class registrations.
+ */
+public class SparkGeometrySerde
+        extends GeometrySerde
+{
+    @Override
+    protected boolean isCompactUserData(Object userData)
+    {
+        return userData instanceof UnsafeRow;
+    }
+
+    @Override
+    protected void writeCompactUserData(Output out, Object userData)
+    {
+        UnsafeRow row = (UnsafeRow) userData;
+        int sizeInBytes = row.getSizeInBytes();
+        out.writeInt(row.numFields(), true);
+        out.writeInt(sizeInBytes, true);
+        Object baseObject = row.getBaseObject();
+        if (baseObject instanceof byte[]) {
+            int offset = (int) (row.getBaseOffset() - Platform.BYTE_ARRAY_OFFSET);
+            out.writeBytes((byte[]) baseObject, offset, sizeInBytes);
+        }
+        else {
+            out.writeBytes(row.getBytes());
+        }
+    }
+
+    @Override
+    protected Object readCompactUserData(Input input)
+    {
+        int numFields = input.readInt(true);
+        int sizeInBytes = input.readInt(true);
+        UnsafeRow row = new UnsafeRow(numFields);
+        row.pointTo(input.readBytes(sizeInBytes), sizeInBytes);
+        return row;
+    }
+}
@@ -27,21 +27,28 @@ import org.apache.sedona.common.utils.GeomUtils;
 import org.apache.sedona.core.enums.IndexType;
 import org.apache.sedona.core.enums.JoinBuildSide;
 import org.apache.sedona.core.joinJudgement.*;
+import org.apache.sedona.core.knnJudgement.KnnJoinCandidates;
+import org.apache.sedona.core.knnJudgement.KnnJoinJudgement;
 import org.apache.sedona.core.monitoring.Metric;
 import org.apache.sedona.core.monitoring.Metrics;
 import org.apache.sedona.core.spatialPartitioning.SpatialPartitioner;
 import org.apache.sedona.core.spatialRDD.CircleRDD;
 import org.apache.sedona.core.spatialRDD.SpatialRDD;
+import org.apache.sedona.core.spatialRddTool.IndexBuilder;
 import org.apache.spark.SparkContext;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.api.java.function.Function2;
 import org.apache.spark.api.java.function.PairFunction;
+import org.apache.spark.broadcast.Broadcast;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.index.SpatialIndex;
 import scala.Tuple2;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
@@ -549,13 +556,13 @@ public class JoinQuery
         if (joinParams.useIndex) {
             if (rightRDD.indexedRDD != null) {
                 final RightIndexLookupJudgement judgement =
-                        new RightIndexLookupJudgement(joinParams.spatialPredicate,
+                        new RightIndexLookupJudgement(joinParams.spatialPredicate, joinParams.preparedGeometryCacheSize,
                                 buildCount, streamCount, resultCount, candidateCount);
                 joinResult = leftRDD.spatialPartitionedRDD.zipPartitions(rightRDD.indexedRDD, judgement);
             }
             else if (leftRDD.indexedRDD != null) {
                 final LeftIndexLookupJudgement judgement =
-                        new LeftIndexLookupJudgement(joinParams.spatialPredicate,
+                        new LeftIndexLookupJudgement(joinParams.spatialPredicate, joinParams.preparedGeometryCacheSize,
                                 buildCount, streamCount, resultCount, candidateCount);
                 joinResult = leftRDD.indexedRDD.zipPartitions(rightRDD.spatialPartitionedRDD, judgement);
             }
@@ -564,6 +571,7 @@ public class JoinQuery
                 DynamicIndexLookupJudgement judgement =
                         new DynamicIndexLookupJudgement(
                                 joinParams.spatialPredicate,
+                                joinParams.preparedGeometryCacheSize,
                                 joinParams.indexType,
                                 joinParams.joinBuildSide,
                                 buildCount, streamCount, resultCount, candidateCount);
@@ -571,7 +579,7 @@ public class JoinQuery
             }
         }
         else {
-            NestedLoopJudgement judgement = new NestedLoopJudgement(joinParams.spatialPredicate,
+            NestedLoopJudgement judgement = new NestedLoopJudgement(joinParams.spatialPredicate, joinParams.preparedGeometryCacheSize,
                     buildCount, streamCount, resultCount, candidateCount);
             joinResult = rightRDD.spatialPartitionedRDD.zipPartitions(leftRDD.spatialPartitionedRDD, judgement);
         }
@@ -580,19 +588,138 @@ public class JoinQuery
                 .mapToPair((PairFunction<Pair<U, T>, U, T>) pair -> new Tuple2<>(pair.getKey(), pair.getValue()));
     }
 
+    /**
+     * Distributed k nearest neighbour join. For every geometry of queryRDD, finds its k nearest geometries in objectRDD.
+     * <p>
+     * objectRDD must have a spatial partitioner, for example computed by {@link SpatialRDD#calc_partitioner}. Each object
+     * is placed in exactly one partition, and each query first searches the partition it falls into. The distance to its
+     * k-th candidate bounds the search radius: the query is then sent only to the other partitions whose data extent is
+     * within that radius, and all candidates are merged to the final k neighbours.
+     * <p>
+     * Queries and objects outside the extent covered by the partitioner start in the partition whose grid is the
+     * nearest. Empty geometries have no distance to other geometries: empty queries have no neighbours and empty
+     * objects are never a neighbour.
+     * <p>
+     * The result is not computed nor cached by this method. Only the extents of the partitions are computed here.
+     * The intermediate RDDs are reached through the lineage of the result and rebuilt from shuffle outputs, so nothing
+     * is left cached on executors. Callers evaluating the result several times should persist it themselves.
+     *
+     * @param queryRDD the query geometries
+     * @param objectRDD the geometries to search, spatially partitioned
+     * @param k the number of neighbours of each query
+     * @return (query, neighbour) pairs, at most k per query
+     * @throws Exception the exception
+     */
+    public static <U extends Geometry, T extends Geometry> JavaPairRDD<U, T> knnJoin(SpatialRDD<U> queryRDD, SpatialRDD<T> objectRDD, final int k)
+            throws Exception
+    {
+        if (k <= 0) {
+            throw new IllegalArgumentException("[JoinQuery] k must be positive, got " + k);
+        }
+        verifyCRSMatch(objectRDD, queryRDD);
+        final SpatialPartitioner partitioner = objectRDD.getPartitioner();
+        if (partitioner == null) {
+            throw new IllegalArgumentException("[JoinQuery] objectRDD must be spatially partitioned before kNN join.");
+        }
+
+        // One copy of every object, so that neighbours found in different partitions are never duplicates
+        final JavaRDD<T> partitionedObjects = objectRDD.rawSpatialRDD
+                .filter(object -> !object.isEmpty())
+                .mapToPair(object -> new Tuple2<>(knnPartition(partitioner, object), object))
+                .partitionBy(partitioner)
+                .values();
+        final JavaRDD<SpatialIndex> indexRDD = partitionedObjects.mapPartitions(new IndexBuilder<T>(IndexType.RTREE));
+        final List<Envelope> partitionExtents = partitionedObjects.mapPartitions(objects -> {
+            Envelope extent = new Envelope();
+            while (objects.hasNext()) {
+                extent.expandToInclude(objects.next().getEnvelopeInternal());
+            }
+            return Collections.singletonList(extent.isNull() ? null : extent).iterator();
+        }).collect();
+        final Broadcast<List<Envelope>> extents =
+                new JavaSparkContext(objectRDD.rawSpatialRDD.context()).broadcast(partitionExtents);
+
+        // Round 1: search the partition each query falls into
+        final JavaRDD<Tuple2<Long, KnnJoinCandidates<U, T>>> localCandidates = queryRDD.rawSpatialRDD
+                .filter(query -> !query.isEmpty())
+                .zipWithUniqueId()
+                .mapToPair(query -> new Tuple2<>(knnPartition(partitioner, query._1()), new Tuple2<>(query._2(), query._1())))
+                .partitionBy(partitioner)
+                .zipPartitions(indexRDD, new KnnJoinJudgement<U, T>(k));
+
+        // Round 2: search the other partitions that may hold a closer neighbour than the k-th local candidate
+        final JavaRDD<Tuple2<Long, KnnJoinCandidates<U, T>>> remoteCandidates = localCandidates
+                .flatMapToPair(candidates -> {
+                    U query = candidates._2().getQuery();
+                    Envelope queryEnvelope = query.getEnvelopeInternal();
+                    double radius = candidates._2().kthDistance(k);
+                    List<Envelope> partitionEnvelopes = extents.value();
+                    List<Tuple2<Integer, Tuple2<Long, U>>> targets = new ArrayList<>();
+                    for (int i = 0; i < partitionEnvelopes.size(); i++) {
+                        Envelope extent = partitionEnvelopes.get(i);
+                        if (i != candidates._2().getPartitionId() && extent != null && queryEnvelope.distance(extent) <= radius) {
+                            targets.add(new Tuple2<>(i, new Tuple2<>(candidates._1(), query)));
+                        }
+                    }
+                    return targets.iterator();
+                })
+                .partitionBy(partitioner)
+                .zipPartitions(indexRDD, new KnnJoinJudgement<U, T>(k));
+
+        return JavaPairRDD.fromJavaRDD(localCandidates.union(remoteCandidates))
+                .reduceByKey((a, b) -> a.merge(b, k))
+                .flatMapToPair(candidates -> candidates._2().toPairs().iterator());
+    }
+
+    /**
+     * The partition a query or an object of a kNN join starts in: the partition the partitioner places it in, or the
+     * partition with the nearest grid if the partitioner places it nowhere, e.g. outside of the partitioned extent.
+     */
+    private static int knnPartition(SpatialPartitioner partitioner, Geometry geometry)
+            throws Exception
+    {
+        Iterator<Tuple2<Integer, Geometry>> placements = partitioner.placeObject(geometry);
+        if (placements.hasNext()) {
+            return placements.next()._1();
+        }
+        Envelope envelope = geometry.getEnvelopeInternal();
+        List<Envelope> grids = partitioner.getGrids();
+        int nearest = 0;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < grids.size(); i++) {
+            double distance = grids.get(i).distance(envelope);
+            if (distance < nearestDistance) {
+                nearest = i;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
     public static final class JoinParams
     {
+        public static final int DEFAULT_PREPARED_GEOMETRY_CACHE_SIZE = 10000;
+
         public final boolean useIndex;
         public final SpatialPredicate spatialPredicate;
         public final IndexType indexType;
         public final JoinBuildSide joinBuildSide;
+        // Max number of prepared build side geometries cached per partition, 0 disables prepared geometries
+        public final int preparedGeometryCacheSize;
 
-        public JoinParams(boolean useIndex, SpatialPredicate spatialPredicate, IndexType polygonIndexType, JoinBuildSide joinBuildSide)
+        public JoinParams(boolean useIndex, SpatialPredicate spatialPredicate, IndexType polygonIndexType, JoinBuildSide joinBuildSide,
+                int preparedGeometryCacheSize)
         {
             this.useIndex = useIndex;
             this.spatialPredicate = spatialPredicate;
             this.indexType = polygonIndexType;
             this.joinBuildSide = joinBuildSide;
+            this.preparedGeometryCacheSize = preparedGeometryCacheSize;
+        }
+
+        public JoinParams(boolean useIndex, SpatialPredicate spatialPredicate, IndexType polygonIndexType, JoinBuildSide joinBuildSide)
+        {
+            this(useIndex, spatialPredicate, polygonIndexType, joinBuildSide, DEFAULT_PREPARED_GEOMETRY_CACHE_SIZE);
         }
 
         public JoinParams(boolean useIndex, SpatialPredicate spatialPredicate)
@@ -19,18 +19,25 @@
 
 package org.apache.sedona.core.spatialOperator;
 
+import org.apache.commons.collections.iterators.FilterIterator;
 import org.apache.sedona.common.FunctionsGeoTools;
 import org.apache.sedona.core.knnJudgement.GeometryDistanceComparator;
 import org.apache.sedona.core.knnJudgement.KnnJudgement;
 import org.apache.sedona.core.knnJudgement.KnnJudgementUsingIndex;
 import org.apache.sedona.core.spatialRDD.SpatialRDD;
 import org.apache.spark.api.java.JavaRDD;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
 import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.operation.TransformException;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 // TODO: Auto-generated Javadoc
 
@@ -62,6 +69,10 @@ public class KNNQuery
             }
         }
 
+        if (SpatialPartitionPruning.canPrune(spatialRDD, useIndex)) {
+            return prunedSpatialKnnQuery(spatialRDD, queryCenter, k, useIndex);
+        }
+
         if (useIndex) {
             if (spatialRDD.indexedRawRDD == null) {
                 throw new NullPointerException("Need to invoke buildIndex() first, indexedRDDNoId is null");
@@ -78,4 +89,97 @@ public class KNNQuery
             return result;
         }
     }
+
+    /**
+     * Runs the knn query on the partitions of spatialPartitionedRDD (or indexedRDD) in ascending order of their
+     * distance to the query. Partitions are searched in growing batches until k candidates are found, then only
+     * the remaining partitions within the distance of the k-th candidate are searched.
+     */
+    private static <U extends Geometry, T extends Geometry> List<T> prunedSpatialKnnQuery(SpatialRDD<T> spatialRDD, U queryCenter, int k, boolean useIndex)
+    {
+        final List<Envelope> grids = spatialRDD.getPartitioner().getGrids();
+        final Envelope queryEnvelope = queryCenter.getEnvelopeInternal();
+        Integer[] order = new Integer[grids.size()];
+        double[] partitionDistances = new double[grids.size()];
+        int numContaining = 0;
+        for (int i = 0; i < grids.size(); i++) {
+            order[i] = i;
+            partitionDistances[i] = grids.get(i).distance(queryEnvelope);
+            if (partitionDistances[i] == 0) {
+                numContaining++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(partitionDistances[a], partitionDistances[b]));
+
+        GeometryDistanceComparator comparator = new GeometryDistanceComparator(queryCenter, true);
+        Set<Integer> searched = new HashSet<>();
+        List<T> result = new ArrayList<>();
+        while (searched.size() < order.length) {
+            Set<Integer> batch = new HashSet<>();
+            boolean bounded = result.size() >= k;
+            if (bounded) {
+                double radius = queryCenter.distance(result.get(k - 1));
+                for (int i = searched.size(); i < order.length && partitionDistances[order[i]] <= radius; i++) {
+                    batch.add(order[i]);
+                }
+            }
+            else {
+                int end = searched.isEmpty() ? Math.max(1, numContaining) : Math.min(order.length, searched.size() * 2);
+                for (int i = searched.size(); i < end; i++) {
+                    batch.add(order[i]);
+                }
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<T> candidates = new ArrayList<>(result);
+            candidates.addAll(searchPartitions(spatialRDD, queryCenter, k, useIndex, grids, searched, batch));
+            candidates.sort(comparator);
+            result = new ArrayList<>(candidates.subList(0, Math.min(k, candidates.size())));
+            searched.addAll(batch);
+            if (bounded) {
+                // The radius only shrinks, so every partition that may hold a closer neighbour has been searched
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the local k nearest neighbours in each partition of the batch. A geometry stored in several partitions
+     * is reported only by the first partition of the batch that contains it, and not at all if it was stored in an
+     * already searched partition.
+     */
+    private static <U extends Geometry, T extends Geometry> List<T> searchPartitions(SpatialRDD<T> spatialRDD, U queryCenter, int k, boolean useIndex,
+            final List<Envelope> grids, Set<Integer> searched, final Set<Integer> batch)
+    {
+        final Set<Integer> searchedBefore = new HashSet<>(searched);
+        JavaRDD<T> localResults;
+        if (useIndex) {
+            localResults = spatialRDD.indexedRDD.mapPartitions(new KnnJudgementUsingIndex(queryCenter, k));
+        }
+        else {
+            localResults = spatialRDD.spatialPartitionedRDD.mapPartitions(new KnnJudgement(queryCenter, k));
+        }
+        localResults = localResults.mapPartitionsWithIndex((partitionId, geometries) ->
+                new FilterIterator(geometries, geometry -> {
+                    if (geometry instanceof Point) {
+                        // Points are stored in exactly one partition
+                        return true;
+                    }
+                    Envelope envelope = ((Geometry) geometry).getEnvelopeInternal();
+                    for (int i : searchedBefore) {
+                        if (grids.get(i).intersects(envelope)) {
+                            return false;
+                        }
+                    }
+                    for (int i : batch) {
+                        if (i < partitionId && grids.get(i).intersects(envelope)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }), true);
+        return SpatialPartitionPruning.prune(localResults, batch).collect();
+    }
 }
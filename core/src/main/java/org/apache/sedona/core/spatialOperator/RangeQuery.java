@@ -19,7 +19,9 @@
 
 package org.apache.sedona.core.spatialOperator;
 
+import org.apache.commons.collections.iterators.FilterIterator;
 import org.apache.sedona.common.FunctionsGeoTools;
+import org.apache.sedona.common.utils.HalfOpenRectangle;
 import org.apache.sedona.core.rangeJudgement.RangeFilter;
 import org.apache.sedona.core.rangeJudgement.RangeFilterUsingIndex;
 import org.apache.sedona.core.spatialRDD.SpatialRDD;
@@ -28,8 +30,11 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
 
 import java.io.Serializable;
+import java.util.List;
+import java.util.Set;
 
 // TODO: Auto-generated Javadoc
 
@@ -58,6 +63,10 @@ public class RangeQuery
             queryGeometry = (U) FunctionsGeoTools.transform(originalQueryGeometry, spatialRDD.getSourceEpsgCode(), spatialRDD.getTargetEpgsgCode());
         }
 
+        if (SpatialPartitionPruning.canPrune(spatialRDD, useIndex)) {
+            return prunedSpatialRangeQuery(spatialRDD, queryGeometry, spatialPredicate, useIndex);
+        }
+
         if (useIndex == true) {
             if (spatialRDD.indexedRawRDD == null) {
                 throw new Exception("[RangeQuery][SpatialRangeQuery] Index doesn't exist. Please build index on rawSpatialRDD.");
@@ -69,6 +78,48 @@ public class RangeQuery
         }
     }
 
+    /**
+     * Runs the range query only on the partitions of spatialPartitionedRDD (or indexedRDD) whose extent intersects
+     * the query window. A geometry stored in several partitions is reported only by the partition that contains
+     * the reference point of the intersection of its envelope and the query window. This also holds for point
+     * query windows, which unlike the points of a join side are not assigned to a single partition.
+     */
+    private static <U extends Geometry, T extends Geometry> JavaRDD<T> prunedSpatialRangeQuery(SpatialRDD<T> spatialRDD, U queryGeometry, SpatialPredicate spatialPredicate, boolean useIndex)
+    {
+        final List<Envelope> grids = spatialRDD.getPartitioner().getGrids();
+        Set<Integer> partitionIds = SpatialPartitionPruning.partitionsIntersecting(grids, queryGeometry.getEnvelopeInternal());
+        JavaRDD<T> results;
+        if (useIndex) {
+            results = spatialRDD.indexedRDD.mapPartitions(new RangeFilterUsingIndex(queryGeometry, spatialPredicate));
+        }
+        else {
+            results = spatialRDD.spatialPartitionedRDD.filter(new RangeFilter(queryGeometry, spatialPredicate));
+        }
+        results = results.mapPartitionsWithIndex((partitionId, geometries) -> {
+            HalfOpenRectangle extent = new HalfOpenRectangle(grids.get(partitionId));
+            return new FilterIterator(geometries, geometry -> !isDuplicate(queryGeometry, (Geometry) geometry, extent));
+        }, true);
+        return SpatialPartitionPruning.prune(results, partitionIds);
+    }
+
+    /**
+     * Checks if a match of the query window should be left to another partition. Points of the RDD are stored
+     * in exactly one partition. Any other geometry is reported by the partition holding the reference point, even
+     * when the query window is a point.
+     */
+    private static boolean isDuplicate(Geometry queryGeometry, Geometry geometry, HalfOpenRectangle extent)
+    {
+        if (geometry instanceof Point) {
+            return false;
+        }
+        Envelope intersection = queryGeometry.getEnvelopeInternal().intersection(geometry.getEnvelopeInternal());
+        if (intersection.isNull()) {
+            return false;
+        }
+        Point referencePoint = geometry.getFactory().createPoint(new Coordinate(intersection.getMinX(), intersection.getMinY()));
+        return !extent.contains(referencePoint);
+    }
+
     /**
      * Spatial range query. Return objects in SpatialRDD are covered/intersected by queryWindow/Envelope
      *
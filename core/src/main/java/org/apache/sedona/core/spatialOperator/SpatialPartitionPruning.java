@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.core.spatialOperator;
+
+import org.apache.sedona.core.spatialPartitioning.KDBTreePartitioner;
+import org.apache.sedona.core.spatialPartitioning.QuadTreePartitioner;
+import org.apache.sedona.core.spatialPartitioning.SpatialPartitioner;
+import org.apache.sedona.core.spatialRDD.SpatialRDD;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.rdd.PartitionPruningRDD;
+import org.locationtech.jts.geom.Envelope;
+import scala.runtime.AbstractFunction1;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Helpers to run spatial queries only on the partitions of a spatially partitioned RDD whose extent
+ * can contain matches.
+ * <p>
+ * Pruning is only done for KDB-tree and quad-tree partitioners: their partition extents do not overlap,
+ * and every geometry is stored in each partition whose extent it touches. The dataset boundary must also
+ * lie within the partition extents, otherwise the partitioned RDD may have dropped some geometries.
+ */
+final class SpatialPartitionPruning
+{
+    private SpatialPartitionPruning()
+    {
+    }
+
+    static boolean canPrune(SpatialRDD<?> spatialRDD, boolean useIndex)
+    {
+        if (useIndex ? spatialRDD.indexedRDD == null : spatialRDD.spatialPartitionedRDD == null) {
+            return false;
+        }
+        SpatialPartitioner partitioner = spatialRDD.getPartitioner();
+        if (!(partitioner instanceof KDBTreePartitioner) && !(partitioner instanceof QuadTreePartitioner)) {
+            return false;
+        }
+        Envelope boundary = spatialRDD.boundaryEnvelope;
+        if (boundary == null) {
+            return false;
+        }
+        Envelope extent = new Envelope();
+        for (Envelope grid : partitioner.getGrids()) {
+            extent.expandToInclude(grid);
+        }
+        // Partition extents are half-open at the top and right
+        return extent.covers(boundary) && boundary.getMaxX() < extent.getMaxX() && boundary.getMaxY() < extent.getMaxY();
+    }
+
+    static Set<Integer> partitionsIntersecting(List<Envelope> grids, Envelope envelope)
+    {
+        Set<Integer> partitionIds = new HashSet<>();
+        for (int i = 0; i < grids.size(); i++) {
+            if (grids.get(i).intersects(envelope)) {
+                partitionIds.add(i);
+            }
+        }
+        return partitionIds;
+    }
+
+    /**
+     * Returns an RDD which only computes the given partitions of rdd. Partition indices are not preserved,
+     * so any per-partition logic that depends on the partition id has to be applied to rdd beforehand.
+     */
+    static <T> JavaRDD<T> prune(JavaRDD<T> rdd, Set<Integer> partitionIds)
+    {
+        return PartitionPruningRDD.create(rdd.rdd(), new PartitionFilter(partitionIds)).toJavaRDD();
+    }
+
+    private static final class PartitionFilter
+            extends AbstractFunction1<Object, Object>
+            implements Serializable
+    {
+        private final Set<Integer> partitionIds;
+
+        PartitionFilter(Set<Integer> partitionIds)
+        {
+            this.partitionIds = partitionIds;
+        }
+
+        @Override
+        public Object apply(Object partitionId)
+        {
+            return partitionIds.contains(partitionId);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.core.spatialPartitioning;
+
+import org.apache.sedona.core.joinJudgement.DedupParams;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import scala.Tuple2;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A partitioner which splits some partitions of a KDB-tree or quad-tree partitioner further, using a KDB-tree
+ * built over the extent of each of these partitions. The partitions of this partitioner are the partitions
+ * of the base partitioner in the same order, where each split partition is replaced by its sub-partitions.
+ * The extents of all partitions still do not overlap and cover the extent of the base partitioner.
+ */
+public class SkewAwarePartitioner
+        extends SpatialPartitioner
+{
+    private final SpatialPartitioner basePartitioner;
+    // Id of the first partition of this partitioner for each partition of the base partitioner
+    private final int[] firstPartitionIds;
+    // Trees splitting the partitions of the base partitioner, null for partitions that are not split
+    private final KDB[] splitTrees;
+
+    /**
+     * @param basePartitioner a KDB-tree or quad-tree partitioner
+     * @param splitTrees trees keyed by the id of the partition of the base partitioner they split. The extent of
+     * each tree must be the extent of that partition.
+     */
+    public SkewAwarePartitioner(SpatialPartitioner basePartitioner, Map<Integer, KDB> splitTrees)
+    {
+        super(basePartitioner.getGridType(), buildGrids(basePartitioner, splitTrees));
+        this.basePartitioner = basePartitioner;
+        int numBasePartitions = basePartitioner.getGrids().size();
+        this.firstPartitionIds = new int[numBasePartitions];
+        this.splitTrees = new KDB[numBasePartitions];
+        int partitionId = 0;
+        for (int i = 0; i < numBasePartitions; i++) {
+            firstPartitionIds[i] = partitionId;
+            KDB tree = splitTrees.get(i);
+            if (tree == null) {
+                partitionId++;
+            }
+            else {
+                this.splitTrees[i] = tree;
+                partitionId += tree.fetchLeafZones().size();
+                tree.dropElements();
+            }
+        }
+    }
+
+    private static List<Envelope> buildGrids(SpatialPartitioner basePartitioner, Map<Integer, KDB> splitTrees)
+    {
+        List<Envelope> baseGrids = basePartitioner.getGrids();
+        List<Envelope> grids = new ArrayList<>();
+        for (int i = 0; i < baseGrids.size(); i++) {
+            KDB tree = splitTrees.get(i);
+            if (tree == null) {
+                grids.add(baseGrids.get(i));
+            }
+            else {
+                tree.assignLeafIds();
+                grids.addAll(tree.fetchLeafZones());
+            }
+        }
+        return grids;
+    }
+
+    public SpatialPartitioner getBasePartitioner()
+    {
+        return basePartitioner;
+    }
+
+    @Override
+    public Iterator<Tuple2<Integer, Geometry>> placeObject(Geometry spatialObject)
+            throws Exception
+    {
+        Iterator<Tuple2<Integer, Geometry>> basePlacements = basePartitioner.placeObject(spatialObject);
+        Set<Tuple2<Integer, Geometry>> result = new HashSet<>();
+        while (basePlacements.hasNext()) {
+            int baseId = basePlacements.next()._1();
+            KDB tree = splitTrees[baseId];
+            if (tree == null) {
+                result.add(new Tuple2<>(firstPartitionIds[baseId], spatialObject));
+            }
+            else {
+                Iterator<Tuple2<Integer, Geometry>> placements = tree.placeObject(spatialObject);
+                while (placements.hasNext()) {
+                    result.add(new Tuple2<>(firstPartitionIds[baseId] + placements.next()._1(), spatialObject));
+                }
+            }
+        }
+        return result.iterator();
+    }
+
+    @Nullable
+    @Override
+    public DedupParams getDedupParams()
+    {
+        return basePartitioner.getDedupParams() == null ? null : new DedupParams(grids);
+    }
+
+    @Override
+    public int numPartitions()
+    {
+        return grids.size();
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.core.spatialPartitioning;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.apache.sedona.core.spatialRDD.SpatialRDD;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import scala.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Splits the partitions of a spatial partitioner in which a join of two SpatialRDDs would evaluate many more
+ * candidate pairs than in the average partition.
+ * <p>
+ * The number of geometries of each side placed in each partition is counted, and the number of candidate pairs
+ * of a partition is estimated as the product of both counts. Each partition whose estimate exceeds skewFactor
+ * times the average is split into at most maxSplits sub-partitions by a KDB-tree built from a sample of both
+ * sides in that partition. Only KDB-tree and quad-tree partitioners are split: their partitions do not overlap,
+ * so every sub-partition still gets all geometries it needs.
+ */
+public class SkewAwarePartitioning
+{
+    private static final Logger log = LogManager.getLogger(SkewAwarePartitioning.class);
+
+    // Number of geometries sampled from each side per sub-partition of a split partition
+    private static final int SAMPLES_PER_SPLIT = 100;
+
+    private final SpatialPartitioner partitioner;
+    private final String report;
+
+    public <U extends Geometry, T extends Geometry> SkewAwarePartitioning(SpatialPartitioner basePartitioner,
+            SpatialRDD<U> leftRDD, SpatialRDD<T> rightRDD, double skewFactor, int maxSplits)
+    {
+        if (!(basePartitioner instanceof KDBTreePartitioner) && !(basePartitioner instanceof QuadTreePartitioner)) {
+            this.partitioner = basePartitioner;
+            this.report = "Skew handling only supports KDB-tree and quad-tree partitioning, partitions are not split";
+            log.info("[SkewAwarePartitioning] " + report);
+            return;
+        }
+
+        List<Envelope> grids = basePartitioner.getGrids();
+        long[] leftCounts = countPerPartition(basePartitioner, leftRDD, grids.size());
+        long[] rightCounts = countPerPartition(basePartitioner, rightRDD, grids.size());
+        double[] costs = new double[grids.size()];
+        double totalCost = 0;
+        for (int i = 0; i < grids.size(); i++) {
+            costs[i] = (double) leftCounts[i] * rightCounts[i];
+            totalCost += costs[i];
+        }
+        double averageCost = totalCost / grids.size();
+
+        // Splitting both sides of a partition n ways in each dimension divides its candidate pairs by about n^2
+        Map<Integer, Integer> numSplits = new HashMap<>();
+        Map<Integer, Double> leftRates = new HashMap<>();
+        Map<Integer, Double> rightRates = new HashMap<>();
+        for (int i = 0; i < grids.size(); i++) {
+            if (averageCost > 0 && costs[i] > skewFactor * averageCost) {
+                int n = (int) Math.min(maxSplits, Math.ceil(Math.sqrt(costs[i] / averageCost)));
+                if (n >= 2) {
+                    numSplits.put(i, n);
+                    leftRates.put(i, Math.min(1.0, (double) SAMPLES_PER_SPLIT * n / leftCounts[i]));
+                    rightRates.put(i, Math.min(1.0, (double) SAMPLES_PER_SPLIT * n / rightCounts[i]));
+                }
+            }
+        }
+
+        if (numSplits.isEmpty()) {
+            this.partitioner = basePartitioner;
+            this.report = "Candidate pairs per partition: " + describe(costs) + ", no partition is skewed";
+            log.info("[SkewAwarePartitioning] " + report);
+            return;
+        }
+
+        Map<Integer, List<Envelope>> leftSamples = samplePerPartition(basePartitioner, leftRDD, leftRates);
+        Map<Integer, List<Envelope>> rightSamples = samplePerPartition(basePartitioner, rightRDD, rightRates);
+        Map<Integer, KDB> splitTrees = new HashMap<>();
+        List<Double> estimatedCosts = new ArrayList<>();
+        for (int i = 0; i < grids.size(); i++) {
+            Integer n = numSplits.get(i);
+            if (n == null) {
+                estimatedCosts.add(costs[i]);
+                continue;
+            }
+            Envelope extent = grids.get(i);
+            List<Envelope> left = clip(leftSamples.getOrDefault(i, Collections.emptyList()), extent);
+            List<Envelope> right = clip(rightSamples.getOrDefault(i, Collections.emptyList()), extent);
+            // A KDB-tree of l levels has at most 2^l leaves, so use the deepest tree with at most n leaves
+            int levels = 31 - Integer.numberOfLeadingZeros(n);
+            KDB tree = new KDB(Math.max(1, (left.size() + right.size()) >> levels), levels, extent);
+            for (Envelope sample : left) {
+                tree.insert(sample);
+            }
+            for (Envelope sample : right) {
+                tree.insert(sample);
+            }
+            tree.assignLeafIds();
+            splitTrees.put(i, tree);
+
+            // Scale the share of samples of each sub-partition to the counts of the partition
+            int numLeaves = tree.fetchLeafZones().size();
+            double[] leftShares = sampleShares(tree, left, numLeaves);
+            double[] rightShares = sampleShares(tree, right, numLeaves);
+            for (int leaf = 0; leaf < numLeaves; leaf++) {
+                estimatedCosts.add(leftShares[leaf] * leftCounts[i] * rightShares[leaf] * rightCounts[i]);
+            }
+        }
+
+        this.partitioner = new SkewAwarePartitioner(basePartitioner, splitTrees);
+        double[] after = new double[estimatedCosts.size()];
+        for (int i = 0; i < after.length; i++) {
+            after[i] = estimatedCosts.get(i);
+        }
+        this.report = "Split " + numSplits.size() + " skewed partitions. Candidate pairs per partition before: " + describe(costs)
+                + ", after (estimated): " + describe(after);
+        log.info("[SkewAwarePartitioning] " + report);
+    }
+
+    public SpatialPartitioner getPartitioner()
+    {
+        return partitioner;
+    }
+
+    /**
+     * @return a description of the distribution of candidate pairs per partition before and after splitting
+     */
+    public String getReport()
+    {
+        return report;
+    }
+
+    private static <T extends Geometry> long[] countPerPartition(final SpatialPartitioner partitioner, SpatialRDD<T> spatialRDD, final int numPartitions)
+    {
+        return spatialRDD.rawSpatialRDD.mapPartitions(geometries -> {
+            long[] counts = new long[numPartitions];
+            while (geometries.hasNext()) {
+                Iterator<Tuple2<Integer, T>> placements = partitioner.placeObject(geometries.next());
+                while (placements.hasNext()) {
+                    counts[placements.next()._1()]++;
+                }
+            }
+            return Collections.singletonList(counts).iterator();
+        }).fold(new long[numPartitions], (a, b) -> {
+            long[] sum = new long[numPartitions];
+            for (int i = 0; i < numPartitions; i++) {
+                sum[i] = a[i] + b[i];
+            }
+            return sum;
+        });
+    }
+
+    private static <T extends Geometry> Map<Integer, List<Envelope>> samplePerPartition(final SpatialPartitioner partitioner, SpatialRDD<T> spatialRDD,
+            final Map<Integer, Double> rates)
+    {
+        List<Tuple2<Integer, Envelope>> samples = spatialRDD.rawSpatialRDD.mapPartitionsWithIndex((index, geometries) -> {
+            Random random = new Random(index);
+            List<Tuple2<Integer, Envelope>> result = new ArrayList<>();
+            while (geometries.hasNext()) {
+                T geometry = geometries.next();
+                Iterator<Tuple2<Integer, T>> placements = partitioner.placeObject(geometry);
+                while (placements.hasNext()) {
+                    int partitionId = placements.next()._1();
+                    Double rate = rates.get(partitionId);
+                    if (rate != null && random.nextDouble() < rate) {
+                        result.add(new Tuple2<>(partitionId, geometry.getEnvelopeInternal()));
+                    }
+                }
+            }
+            return result.iterator();
+        }, false).collect();
+
+        Map<Integer, List<Envelope>> samplesPerPartition = new HashMap<>();
+        for (Tuple2<Integer, Envelope> sample : samples) {
+            samplesPerPartition.computeIfAbsent(sample._1(), k -> new ArrayList<>()).add(sample._2());
+        }
+        return samplesPerPartition;
+    }
+
+    private static List<Envelope> clip(List<Envelope> envelopes, Envelope extent)
+    {
+        // KDB inserts an envelope into the child containing its lower left corner
+        List<Envelope> clipped = new ArrayList<>(envelopes.size());
+        for (Envelope envelope : envelopes) {
+            clipped.add(envelope.intersection(extent));
+        }
+        return clipped;
+    }
+
+    private static double[] sampleShares(KDB tree, List<Envelope> samples, int numLeaves)
+    {
+        double[] shares = new double[numLeaves];
+        if (samples.isEmpty()) {
+            return shares;
+        }
+        for (Envelope sample : samples) {
+            for (KDB leaf : tree.findLeafNodes(sample)) {
+                shares[leaf.getLeafId()] += 1.0 / samples.size();
+            }
+        }
+        return shares;
+    }
+
+    private static String describe(double[] costs)
+    {
+        double[] sorted = costs.clone();
+        Arrays.sort(sorted);
+        if (sorted.length == 0) {
+            return "no partitions";
+        }
+        return String.format("partitions=%d, min=%.0f, median=%.0f, p95=%.0f, max=%.0f", sorted.length, sorted[0],
+                sorted[sorted.length / 2], sorted[(int) Math.min(sorted.length - 1, Math.ceil(0.95 * sorted.length) - 1)],
+                sorted[sorted.length - 1]);
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.sedona.core.spatialRddTool;
 
+import org.apache.sedona.common.index.PackedRTree;
 import org.apache.sedona.core.enums.IndexType;
 import org.apache.spark.api.java.function.FlatMapFunction;
 import org.locationtech.jts.geom.Envelope;
@@ -49,6 +50,9 @@ public final class IndexBuilder<T extends Geometry>
         if (indexType == IndexType.RTREE) {
             spatialIndex = new STRtree();
         }
+        else if (indexType == IndexType.PACKED_RTREE) {
+            spatialIndex = new PackedRTree();
+        }
         else {
             spatialIndex = new Quadtree();
         }
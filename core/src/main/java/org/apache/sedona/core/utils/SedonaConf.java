@@ -60,6 +60,18 @@ public class SedonaConf
 
     private SpatialJoinOptimizationMode spatialJoinOptimizationMode;
 
+    private int preparedGeometryCacheSize;
+
+    private boolean joinSkewEnabled;
+
+    private double joinSkewFactor;
+
+    private int joinSkewMaxSplits;
+
+    // Parameters for GeoParquet
+
+    private boolean geoParquetRecordFilterEnabled;
+
     public static SedonaConf fromActiveSession() {
         return new SedonaConf(SparkSession.active().conf());
     }
@@ -83,6 +95,13 @@ public class SedonaConf
         );
         this.spatialJoinOptimizationMode = SpatialJoinOptimizationMode.getSpatialJoinOptimizationMode(
                 runtimeConfig.get("sedona.join.optimizationmode", "nonequi"));
+        boolean usePreparedGeometry = Boolean.parseBoolean(runtimeConfig.get("sedona.join.preparedgeometry", "true"));
+        this.preparedGeometryCacheSize = usePreparedGeometry ?
+                Integer.parseInt(runtimeConfig.get("sedona.join.preparedgeometry.cachesize", "10000")) : 0;
+        this.joinSkewEnabled = Boolean.parseBoolean(runtimeConfig.get("sedona.join.skew.enabled", "false"));
+        this.joinSkewFactor = Double.parseDouble(runtimeConfig.get("sedona.join.skew.factor", "4.0"));
+        this.joinSkewMaxSplits = Integer.parseInt(runtimeConfig.get("sedona.join.skew.maxsplits", "64"));
+        this.geoParquetRecordFilterEnabled = Boolean.parseBoolean(runtimeConfig.get("sedona.geoparquet.recordfilter", "false"));
     }
 
     public boolean getUseIndex()
@@ -162,4 +181,31 @@ public class SedonaConf
     public SpatialJoinOptimizationMode getSpatialJoinOptimizationMode() {
         return spatialJoinOptimizationMode;
     }
+
+    /**
+     * @return max number of prepared geometries cached per partition in spatial joins, 0 if prepared
+     * geometries are disabled
+     */
+    public int getPreparedGeometryCacheSize() {
+        return preparedGeometryCacheSize;
+    }
+
+    public boolean getJoinSkewEnabled() {
+        return joinSkewEnabled;
+    }
+
+    /**
+     * @return a partition is split when its estimated number of candidate pairs exceeds this factor times the average
+     */
+    public double getJoinSkewFactor() {
+        return joinSkewFactor;
+    }
+
+    public int getJoinSkewMaxSplits() {
+        return joinSkewMaxSplits;
+    }
+
+    public boolean getGeoParquetRecordFilterEnabled() {
+        return geoParquetRecordFilterEnabled;
+    }
 }
@@ -25,14 +25,18 @@ import com.esotericsoftware.kryo.io.Output;
 import org.apache.sedona.common.utils.GeomUtils;
 import org.apache.sedona.common.geometryObjects.Circle;
 import org.apache.sedona.common.geometrySerde.GeometrySerde;
+import org.apache.sedona.core.serde.SparkGeometrySerde;
+import org.apache.spark.sql.catalyst.expressions.UnsafeRow;
 import org.junit.Test;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.io.ParseException;
 import org.locationtech.jts.io.WKTReader;
 
 import java.io.ByteArrayOutputStream;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class GeometrySerdeTest
@@ -72,6 +76,26 @@ public class GeometrySerdeTest
         assertTrue(GeomUtils.equalsExactGeom(circle, serde(circle)));
     }
 
+    @Test
+    public void testUnsafeRowUserData()
+            throws Exception
+    {
+        Kryo kryo = new Kryo();
+        kryo.register(Polygon.class, new SparkGeometrySerde());
+        Geometry geometry = parseWkt("POLYGON ((0 0, 0 1, 1 1, 1 0.4, 0 0))");
+        UnsafeRow row = new UnsafeRow(2);
+        row.pointTo(new byte[24], 24);
+        row.setLong(0, 42L);
+        row.setDouble(1, 4.2);
+        geometry.setUserData(row);
+
+        Output output = new Output(256);
+        kryo.writeObject(output, geometry);
+        Geometry result = kryo.readObject(new Input(output.toBytes()), Polygon.class);
+        assertTrue(GeomUtils.equalsExactGeom(geometry, result));
+        assertEquals(row, result.getUserData());
+    }
+
     private Geometry parseWkt(String wkt)
             throws ParseException
     {
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.core.joinJudgement;
+
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PreparedGeometryCacheTest
+{
+    private static final GeometryFactory factory = new GeometryFactory();
+
+    private static Geometry square(double x)
+    {
+        return factory.toGeometry(new Envelope(x, x + 1, 0, 1));
+    }
+
+    @Test
+    public void testReusePreparedGeometry()
+    {
+        PreparedGeometryCache cache = new PreparedGeometryCache(10);
+        Geometry polygon = square(0);
+        PreparedGeometry prepared = cache.get(polygon);
+        assertSame(polygon, prepared.getGeometry());
+        assertSame(prepared, cache.get(polygon));
+        assertTrue(prepared.contains(factory.createPoint(new Coordinate(0.5, 0.5))));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testKeyedByIdentity()
+    {
+        PreparedGeometryCache cache = new PreparedGeometryCache(10);
+        Geometry polygon = square(0);
+        Geometry equalPolygon = square(0);
+        assertNotSame(cache.get(polygon), cache.get(equalPolygon));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed()
+    {
+        PreparedGeometryCache cache = new PreparedGeometryCache(2);
+        Geometry first = square(0);
+        Geometry second = square(1);
+        Geometry third = square(2);
+        PreparedGeometry preparedFirst = cache.get(first);
+        cache.get(second);
+        // Touch the first geometry so that the second one becomes the eldest entry
+        assertSame(preparedFirst, cache.get(first));
+        cache.get(third);
+        assertEquals(2, cache.size());
+        assertSame(preparedFirst, cache.get(first));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveCapacity()
+    {
+        new PreparedGeometryCache(0);
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.sedona.core.spatialOperator;
 import org.apache.sedona.core.TestBase;
 import org.apache.sedona.core.enums.GridType;
 import org.apache.sedona.core.enums.IndexType;
+import org.apache.sedona.core.spatialPartitioning.SkewAwarePartitioning;
 import org.apache.sedona.core.spatialRDD.CircleRDD;
 import org.apache.sedona.core.spatialRDD.LineStringRDD;
 import org.apache.sedona.core.spatialRDD.PointRDD;
@@ -393,6 +394,58 @@ public class JoinQueryCorrectnessChecker
         verifyJoinResults(resultNoIndex);
     }
 
+    /**
+     * Test overlapped polygon join correctness when skewed partitions are split.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testOverlappedPolygonJoinCorrectnessWithSkewHandling()
+            throws Exception
+    {
+        PolygonRDD windowRDD = new PolygonRDD(sc.parallelize(testPolygonWindowSet));
+        PolygonRDD objectRDD = new PolygonRDD(sc.parallelize(testOverlappedPolygonSet));
+        prepareSkewAwareRDDs(objectRDD, windowRDD);
+
+        List<Tuple2<Polygon, List<Polygon>>> result = JoinQuery.SpatialJoinQuery(objectRDD, windowRDD, true, true).collect();
+        verifyJoinResults(result);
+
+        List<Tuple2<Polygon, List<Polygon>>> resultNoIndex = JoinQuery.SpatialJoinQuery(objectRDD, windowRDD, false, true).collect();
+        verifyJoinResults(resultNoIndex);
+    }
+
+    /**
+     * Test on boundary point join correctness when skewed partitions are split.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testOnBoundaryPointJoinCorrectnessWithSkewHandling()
+            throws Exception
+    {
+        PolygonRDD windowRDD = new PolygonRDD(sc.parallelize(testPolygonWindowSet));
+        PointRDD objectRDD = new PointRDD(sc.parallelize(testOnBoundaryPointSet));
+        prepareSkewAwareRDDs(objectRDD, windowRDD);
+
+        List<Tuple2<Polygon, List<Point>>> result = JoinQuery.SpatialJoinQuery(objectRDD, windowRDD, true, false).collect();
+        verifyJoinResults(result);
+
+        List<Tuple2<Polygon, List<Point>>> resultNoIndex = JoinQuery.SpatialJoinQuery(objectRDD, windowRDD, false, false).collect();
+        verifyJoinResults(resultNoIndex);
+    }
+
+    private <T extends Geometry, U extends Geometry> void prepareSkewAwareRDDs(SpatialRDD<T> objectRDD,
+            SpatialRDD<U> windowRDD)
+            throws Exception
+    {
+        objectRDD.calc_partitioner(gridType, 4);
+        SkewAwarePartitioning skewAwarePartitioning = new SkewAwarePartitioning(objectRDD.getPartitioner(), objectRDD, windowRDD, 0.5, 4);
+        assertTrue(skewAwarePartitioning.getPartitioner().numPartitions() >= objectRDD.getPartitioner().numPartitions());
+        objectRDD.spatialPartitioning(skewAwarePartitioning.getPartitioner());
+        objectRDD.buildIndex(IndexType.RTREE, true);
+        windowRDD.spatialPartitioning(skewAwarePartitioning.getPartitioner());
+    }
+
     private <U extends Geometry, T extends Geometry> void verifyJoinResults(List<Tuple2<U, List<T>>> result)
     {
         assertEquals(200, result.size());
@@ -21,17 +21,22 @@ package org.apache.sedona.core.spatialOperator;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.sedona.common.enums.FileDataSplitter;
+import org.apache.sedona.core.enums.GridType;
 import org.apache.sedona.core.enums.IndexType;
 import org.apache.sedona.core.knnJudgement.GeometryDistanceComparator;
 import org.apache.sedona.core.spatialRDD.PointRDD;
+import org.apache.sedona.core.spatialRDD.SpatialRDD;
 import org.apache.spark.SparkConf;
+import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaSparkContext;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
+import scala.Tuple2;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -40,6 +45,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
 // TODO: Auto-generated Javadoc
 
 /**
@@ -243,4 +251,93 @@ public class PointKnnTest
             assert result.size() == 1;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test that the distributed kNN join finds the same neighbours as a kNN query per query point.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testKnnJoinCorrectness()
+            throws Exception
+    {
+        PointRDD pointRDD = new PointRDD(sc, InputLocation, offset, splitter, false);
+        pointRDD.analyze();
+        pointRDD.calc_partitioner(GridType.KDBTREE, numPartitions);
+        Envelope boundary = pointRDD.boundaryEnvelope;
+        GeometryFactory geometryFactory = new GeometryFactory();
+        List<Point> queries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            double ratio = i / 9.0;
+            queries.add(geometryFactory.createPoint(new Coordinate(
+                    boundary.getMinX() + ratio * boundary.getWidth(), boundary.getMinY() + ratio * boundary.getHeight())));
+        }
+        SpatialRDD<Point> queryRDD = new SpatialRDD<>();
+        queryRDD.setRawSpatialRDD(sc.parallelize(queries));
+
+        List<Tuple2<Point, Point>> result = JoinQuery.knnJoin(queryRDD, pointRDD, topK).collect();
+        assertEquals(queries.size() * topK, result.size());
+        for (Point query : queries) {
+            List<Double> expected = new ArrayList<>();
+            for (Point neighbour : KNNQuery.SpatialKnnQuery(pointRDD, query, topK, false)) {
+                expected.add(query.distance(neighbour));
+            }
+            List<Double> actual = new ArrayList<>();
+            for (Tuple2<Point, Point> pair : result) {
+                if (pair._1().equalsExact(query)) {
+                    actual.add(query.distance(pair._2()));
+                }
+            }
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+        }
+    }
+
+    /**
+     * Test that queries outside of the extent of the objects find their neighbours, and that empty queries have none.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testKnnJoinQueriesOutsideObjectExtent()
+            throws Exception
+    {
+        PointRDD pointRDD = new PointRDD(sc, InputLocation, offset, splitter, false);
+        pointRDD.analyze();
+        pointRDD.calc_partitioner(GridType.KDBTREE, numPartitions);
+        Envelope boundary = pointRDD.boundaryEnvelope;
+        GeometryFactory geometryFactory = new GeometryFactory();
+        List<Point> queries = new ArrayList<>();
+        queries.add(geometryFactory.createPoint(new Coordinate(boundary.getMaxX() + boundary.getWidth(), boundary.getMaxY() + boundary.getHeight())));
+        queries.add(geometryFactory.createPoint(new Coordinate(boundary.getMinX() - 10, boundary.getMinY() + boundary.getHeight() / 2)));
+        queries.add(geometryFactory.createPoint(new Coordinate(boundary.getMaxX(), boundary.getMaxY())));
+        Point emptyQuery = geometryFactory.createPoint();
+        List<Point> allQueries = new ArrayList<>(queries);
+        allQueries.add(emptyQuery);
+        SpatialRDD<Point> queryRDD = new SpatialRDD<>();
+        queryRDD.setRawSpatialRDD(sc.parallelize(allQueries));
+
+        JavaPairRDD<Point, Point> resultRDD = JoinQuery.knnJoin(queryRDD, pointRDD, topK);
+        List<Tuple2<Point, Point>> result = resultRDD.collect();
+        assertEquals(queries.size() * topK, result.size());
+        for (Tuple2<Point, Point> pair : result) {
+            assertFalse(pair._1().isEmpty());
+        }
+        for (Point query : queries) {
+            List<Double> expected = new ArrayList<>();
+            for (Point neighbour : KNNQuery.SpatialKnnQuery(pointRDD, query, topK, false)) {
+                expected.add(query.distance(neighbour));
+            }
+            List<Double> actual = new ArrayList<>();
+            for (Tuple2<Point, Point> pair : result) {
+                if (pair._1().equalsExact(query)) {
+                    actual.add(query.distance(pair._2()));
+                }
+            }
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+        }
+    }
+}
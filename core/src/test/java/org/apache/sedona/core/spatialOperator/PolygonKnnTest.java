@@ -21,6 +21,7 @@ package org.apache.sedona.core.spatialOperator;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.sedona.common.enums.FileDataSplitter;
+import org.apache.sedona.core.enums.GridType;
 import org.apache.sedona.core.enums.IndexType;
 import org.apache.sedona.core.knnJudgement.GeometryDistanceComparator;
 import org.apache.sedona.core.spatialRDD.PolygonRDD;
@@ -41,6 +42,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 
+import static org.junit.Assert.assertEquals;
+
 /**
  * @author Arizona State University DataSystems Lab
  */
@@ -233,4 +236,29 @@ public class PolygonKnnTest
         }
         assert difference == 0;
     }
-}
\ No newline at end of file
+
+    /**
+     * Test that spatial knn query on a spatially partitioned RDD returns the same neighbours as a full scan.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testSpatialKnnQueryOnPartitionedRDD()
+            throws Exception
+    {
+        PolygonRDD polygonRDD = new PolygonRDD(sc, InputLocation, splitter, true);
+        List<Polygon> expected = KNNQuery.SpatialKnnQuery(polygonRDD, queryPoint, topK, false);
+        polygonRDD.analyze();
+        polygonRDD.spatialPartitioning(GridType.QUADTREE, numPartitions);
+        List<Polygon> resultNoIndex = KNNQuery.SpatialKnnQuery(polygonRDD, queryPoint, topK, false);
+        polygonRDD.buildIndex(IndexType.RTREE, true);
+        List<Polygon> resultWithIndex = KNNQuery.SpatialKnnQuery(polygonRDD, queryPoint, topK, true);
+        assertEquals(expected.size(), resultNoIndex.size());
+        assertEquals(expected.size(), resultWithIndex.size());
+        for (int i = 0; i < expected.size(); i++) {
+            double distance = queryPoint.distance(expected.get(i));
+            assertEquals(distance, queryPoint.distance(resultNoIndex.get(i)), 0);
+            assertEquals(distance, queryPoint.distance(resultWithIndex.get(i)), 0);
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.sedona.core.spatialOperator;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.sedona.common.enums.FileDataSplitter;
+import org.apache.sedona.core.enums.GridType;
 import org.apache.sedona.core.enums.IndexType;
 import org.apache.sedona.core.spatialRDD.PolygonRDD;
 import org.apache.spark.SparkConf;
@@ -30,12 +31,17 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 // TODO: Auto-generated Javadoc
 
@@ -187,4 +193,51 @@ public class PolygonRangeTest
         }
         assert RangeQuery.SpatialRangeQuery(spatialRDD, queryEnvelope, false, true).take(10).get(1).getUserData().toString() != null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Test spatial range query on a spatially partitioned RDD, which only scans the partitions overlapping the query window.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testSpatialRangeQueryOnPartitionedRDD()
+            throws Exception
+    {
+        PolygonRDD spatialRDD = new PolygonRDD(sc, InputLocation, splitter, true);
+        spatialRDD.analyze();
+        spatialRDD.spatialPartitioning(GridType.KDBTREE, numPartitions);
+        assertEquals(704, RangeQuery.SpatialRangeQuery(spatialRDD, queryEnvelope, false, false).count());
+        spatialRDD.buildIndex(IndexType.RTREE, true);
+        assertEquals(704, RangeQuery.SpatialRangeQuery(spatialRDD, queryEnvelope, false, true).count());
+    }
+
+    /**
+     * Test spatial range query with a point query window on a spatially partitioned RDD. A polygon crossing
+     * a partition boundary is stored in several partitions, but has to be reported only once.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void testSpatialRangeQueryWithPointOnPartitionedRDD()
+            throws Exception
+    {
+        PolygonRDD spatialRDD = new PolygonRDD(sc, InputLocation, splitter, true);
+        spatialRDD.analyze();
+        spatialRDD.spatialPartitioning(GridType.KDBTREE, numPartitions);
+        Polygon polygon = null;
+        for (Map.Entry<Polygon, Long> entry : spatialRDD.spatialPartitionedRDD.countByValue().entrySet()) {
+            if (entry.getValue() > 1) {
+                polygon = entry.getKey();
+                break;
+            }
+        }
+        assertNotNull(polygon);
+        Point queryPoint = polygon.getInteriorPoint();
+
+        long expected = spatialRDD.rawSpatialRDD.filter(geometry -> geometry.intersects(queryPoint)).count();
+        assertTrue(expected > 0);
+        assertEquals(expected, RangeQuery.SpatialRangeQuery(spatialRDD, queryPoint, true, false).count());
+        spatialRDD.buildIndex(IndexType.RTREE, true);
+        assertEquals(expected, RangeQuery.SpatialRangeQuery(spatialRDD, queryPoint, true, true).count());
+    }
+}
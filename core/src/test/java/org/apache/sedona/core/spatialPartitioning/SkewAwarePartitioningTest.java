@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.core.spatialPartitioning;
+
+import org.apache.sedona.core.TestBase;
+import org.apache.sedona.core.spatialOperator.JoinQuery;
+import org.apache.sedona.core.spatialPartitioning.quadtree.QuadRectangle;
+import org.apache.sedona.core.spatialPartitioning.quadtree.StandardQuadTree;
+import org.apache.sedona.core.spatialRDD.PointRDD;
+import org.apache.sedona.core.spatialRDD.PolygonRDD;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import scala.Tuple2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SkewAwarePartitioningTest
+        extends TestBase
+{
+    private static final GeometryFactory factory = new GeometryFactory();
+
+    // The base partitions are the 16 cells of 25 x 25 of a quad-tree over (0, 0, 100, 100)
+    private static final Envelope hotCell = new Envelope(0, 25, 0, 25);
+
+    private static List<Point> points;
+    private static List<Polygon> windows;
+
+    @BeforeClass
+    public static void onceExecutedBeforeAll()
+    {
+        initialize(SkewAwarePartitioningTest.class.getName());
+        Random random = new Random(42);
+        points = new ArrayList<>();
+        windows = new ArrayList<>();
+        // 625 points and 25 windows in every cell
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 100; j++) {
+                points.add(factory.createPoint(new Coordinate(i + 0.5, j + 0.5)));
+            }
+        }
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 20; j++) {
+                windows.add(box(i * 5 + 0.2, j * 5 + 0.2, 1));
+            }
+        }
+        // Many more points and windows in the hot cell
+        for (int i = 0; i < 10000; i++) {
+            points.add(factory.createPoint(new Coordinate(1 + random.nextDouble() * 23, 1 + random.nextDouble() * 23)));
+        }
+        for (int i = 0; i < 400; i++) {
+            windows.add(box(1 + random.nextDouble() * 22, 1 + random.nextDouble() * 22, 1));
+        }
+    }
+
+    @AfterClass
+    public static void TearDown()
+    {
+        sc.stop();
+    }
+
+    @Test
+    public void testSplitHotPartition()
+            throws Exception
+    {
+        int maxSplits = 3;
+        PointRDD pointRDD = new PointRDD(sc.parallelize(points, 4));
+        PolygonRDD windowRDD = new PolygonRDD(sc.parallelize(windows, 4));
+        SpatialPartitioner basePartitioner = createBasePartitioner();
+
+        SpatialPartitioner partitioner = new SkewAwarePartitioning(basePartitioner, pointRDD, windowRDD, 4.0, maxSplits).getPartitioner();
+        assertTrue(partitioner instanceof SkewAwarePartitioner);
+
+        // Only the hot cell is split, into at most maxSplits partitions which cover it
+        int numHotPartitions = 0;
+        double hotArea = 0;
+        for (Envelope grid : partitioner.getGrids()) {
+            if (hotCell.covers(grid)) {
+                numHotPartitions++;
+                hotArea += grid.getArea();
+            }
+            else {
+                assertFalse(hotCell.intersection(grid).getArea() > 0);
+            }
+        }
+        assertTrue(numHotPartitions >= 2);
+        assertTrue(numHotPartitions <= maxSplits);
+        assertEquals(hotCell.getArea(), hotArea, 1e-9);
+        assertEquals(basePartitioner.numPartitions() - 1 + numHotPartitions, partitioner.numPartitions());
+
+        // The join result does not change
+        List<String> expected = join(pointRDD, windowRDD, basePartitioner);
+        List<String> actual = join(pointRDD, windowRDD, partitioner);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testNoSkew()
+            throws Exception
+    {
+        PointRDD pointRDD = new PointRDD(sc.parallelize(points.subList(0, 10000), 4));
+        PolygonRDD windowRDD = new PolygonRDD(sc.parallelize(windows.subList(0, 400), 4));
+        SpatialPartitioner basePartitioner = createBasePartitioner();
+        SpatialPartitioner partitioner = new SkewAwarePartitioning(basePartitioner, pointRDD, windowRDD, 4.0, 64).getPartitioner();
+        assertSame(basePartitioner, partitioner);
+    }
+
+    private static SpatialPartitioner createBasePartitioner()
+    {
+        StandardQuadTree<Geometry> tree = new StandardQuadTree<>(new QuadRectangle(0, 0, 100, 100), 0, 1, 2);
+        tree.forceGrowUp(2);
+        tree.assignPartitionIds();
+        return new QuadTreePartitioner(tree);
+    }
+
+    private static List<String> join(PointRDD pointRDD, PolygonRDD windowRDD, SpatialPartitioner partitioner)
+            throws Exception
+    {
+        pointRDD.spatialPartitioning(partitioner);
+        windowRDD.spatialPartitioning(partitioner);
+        List<String> pairs = new ArrayList<>();
+        for (Tuple2<Polygon, Point> pair : JoinQuery.SpatialJoinQueryFlat(pointRDD, windowRDD, false, true).collect()) {
+            pairs.add(pair._1().toText() + " " + pair._2().toText());
+        }
+        pairs.sort(String::compareTo);
+        return pairs;
+    }
+
+    private static Polygon box(double x, double y, double size)
+    {
+        return (Polygon) factory.toGeometry(new Envelope(x, x + size, y, y + size));
+    }
+}
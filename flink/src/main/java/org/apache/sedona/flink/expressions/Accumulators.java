@@ -14,6 +14,7 @@
 package org.apache.sedona.flink.expressions;
 
 import org.apache.flink.table.annotation.DataTypeHint;
+import org.apache.sedona.common.utils.CascadedUnionBuffer;
 import org.locationtech.jts.geom.Geometry;
 
 /**
@@ -38,6 +39,11 @@ public class Accumulators {
         public Geometry geom;
     }
 
+    public static class AccGeometryUnion {
+        @DataTypeHint(value = "RAW", bridgedTo = CascadedUnionBuffer.class)
+        public CascadedUnionBuffer buffer = new CascadedUnionBuffer();
+    }
+
     public static class AccGeometry2 {
         public Geometry geom1;
         public Geometry geom2;
@@ -137,29 +137,25 @@ public class Aggregators {
     }
 
 
-    // Compute the Union boundary of numbers of geometries
-    //
+    // Compute the Union boundary of numbers of geometries. Geometries are collected in bounded batches and
+    // unioned hierarchically instead of being unioned into the result one by one.
     @DataTypeHint(value = "RAW", bridgedTo = Geometry.class)
-    public static class ST_Union_Aggr extends AggregateFunction<Geometry, Accumulators.AccGeometry> {
+    public static class ST_Union_Aggr extends AggregateFunction<Geometry, Accumulators.AccGeometryUnion> {
 
         @Override
-        public Accumulators.AccGeometry createAccumulator() {
-            return new Accumulators.AccGeometry();
+        public Accumulators.AccGeometryUnion createAccumulator() {
+            return new Accumulators.AccGeometryUnion();
         }
 
         @Override
         @DataTypeHint(value = "RAW", bridgedTo = Geometry.class)
-        public Geometry getValue(Accumulators.AccGeometry acc) {
-            return acc.geom;
+        public Geometry getValue(Accumulators.AccGeometryUnion acc) {
+            return acc.buffer.getResult();
         }
 
-        public void accumulate(Accumulators.AccGeometry acc,
+        public void accumulate(Accumulators.AccGeometryUnion acc,
                                @DataTypeHint(value = "RAW", bridgedTo = Geometry.class) Object o) {
-            if (acc.geom == null){
-                acc.geom = (Geometry) o;
-            } else {
-                acc.geom = acc.geom.union((Geometry) o);
-            }
+            acc.buffer.add((Geometry) o);
         }
 
         /**
@@ -168,27 +164,20 @@ public class Aggregators {
          * @param acc
          * @param o
          */
-        public void retract(Accumulators.AccGeometry acc,
+        public void retract(Accumulators.AccGeometryUnion acc,
                             @DataTypeHint(value = "RAW", bridgedTo = Geometry.class) Object o) {
             Geometry geometry = (Geometry) o;
             assert (false);
         }
 
-        public void merge (Accumulators.AccGeometry acc, Iterable < Accumulators.AccGeometry > it){
-            for (Accumulators.AccGeometry a : it) {
-                    if (acc.geom == null){
-    //      make accumulate equal to acc
-                        acc.geom = a.geom;
-                    } else {
-                        acc.geom = acc.geom.union(a.geom);
-                    }
-                }
+        public void merge(Accumulators.AccGeometryUnion acc, Iterable<Accumulators.AccGeometryUnion> it) {
+            for (Accumulators.AccGeometryUnion a : it) {
+                acc.buffer.merge(a.buffer);
+            }
         }
 
-        public void resetAccumulator (Accumulators.AccGeometry acc){
-            acc.geom = null;
+        public void resetAccumulator(Accumulators.AccGeometryUnion acc) {
+            acc.buffer.clear();
         }
     }
 }
-
-
@@ -26,6 +26,7 @@ from sedona.utils.decorators import require
 class IndexType(Enum):
     QUADTREE = "QUADTREE"
     RTREE = "RTREE"
+    PACKED_RTREE = "PACKED_RTREE"
 
     @classmethod
     def from_string(cls, index: str):
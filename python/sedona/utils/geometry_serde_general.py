@@ -206,12 +206,14 @@ def deserialize(buffer: bytes) -> Optional[BaseGeometry]:
     if buffer is None:
         return None
     preamble_byte = buffer[0]
-    geom_type = (preamble_byte >> 4) & 0x0F
+    geom_type = (preamble_byte >> 4) & 0x07
     coord_type = (preamble_byte >> 1) & 0x07
+    # The highest bit indicates that a bounding box of 4 floats follows the 8-byte header
+    header_size = 24 if (preamble_byte & 0x80) != 0 else 8
     num_coords = struct.unpack_from('i', buffer, 4)[0]
     if num_coords > len(buffer):
         raise ValueError('num_coords cannot be larger than buffer size')
-    geom_buffer = GeometryBuffer(buffer, coord_type, 8, num_coords)
+    geom_buffer = GeometryBuffer(buffer, coord_type, header_size, num_coords)
     if geom_type == GeometryTypeID.POINT:
         geom = deserialize_point(geom_buffer)
     elif geom_type == GeometryTypeID.LINESTRING:
@@ -522,8 +524,8 @@ def deserialize_geometry_collection(geom_buffer: GeometryBuffer) -> GeometryColl
     if num_geometries == 0:
         return wkt_loads("GEOMETRYCOLLECTION EMPTY")
     geometries = []
-    geom_end_offset = 8
-    buffer = geom_buffer.buffer[8:]
+    geom_end_offset = geom_buffer.coords_offset
+    buffer = geom_buffer.buffer[geom_end_offset:]
     for k in range(0, num_geometries):
         geom, offset = deserialize(buffer)
         geometries.append(geom)
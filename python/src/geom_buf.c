@@ -216,10 +216,16 @@ SedonaErrorCode read_geom_buf_header(const char *buf, int buf_size,
   if (buf_size < 8) {
     return SEDONA_INCOMPLETE_BUFFER;
   }
-  unsigned int preamble = (unsigned int)buf[0];
+  unsigned int preamble = (unsigned char)buf[0];
   int srid = 0;
-  int geom_type_id = preamble >> 4;
+  int geom_type_id = (preamble >> 4) & 0x07;
   int coord_type = (preamble & 0x0F) >> 1;
+  /* The highest bit of preamble indicates that a bounding box of 4 floats
+   * follows the 8-byte header. */
+  int header_size = ((preamble & 0x80) != 0) ? 24 : 8;
+  if (buf_size < header_size) {
+    return SEDONA_INCOMPLETE_BUFFER;
+  }
   if ((preamble & 0x01) != 0) {
     srid = (((unsigned int)buf[1]) << 16) | (((unsigned int)buf[2]) << 8) |
            ((unsigned int)buf[3]);
@@ -237,7 +243,7 @@ SedonaErrorCode read_geom_buf_header(const char *buf, int buf_size,
 
   int bytes_per_coord = get_bytes_per_coordinate(coord_type);
   if (geom_type_id != GEOMETRYCOLLECTION) {
-    if (8 + num_coords * bytes_per_coord > buf_size) {
+    if (header_size + num_coords * bytes_per_coord > buf_size) {
       return SEDONA_INCOMPLETE_BUFFER;
     }
 
@@ -252,7 +258,7 @@ SedonaErrorCode read_geom_buf_header(const char *buf, int buf_size,
     cs_info->has_m = has_m;
 
     geom_buf->buf = (void *)buf;
-    geom_buf->buf_coord = (double *)(buf + 8);
+    geom_buf->buf_coord = (double *)(buf + header_size);
     geom_buf->buf_coord_end = geom_buf->buf_coord + num_coords * dims;
     geom_buf->buf_int = (int *)geom_buf->buf_coord_end;
     geom_buf->buf_int_end = (int *)(buf + buf_size);
@@ -264,7 +270,7 @@ SedonaErrorCode read_geom_buf_header(const char *buf, int buf_size,
 
     /* geom_buf contains a series of serialized geometries. buf_coord is the
      * beginning of its first child geometry, and buf_int is unused. */
-    const void *buf_coord = buf + 8;
+    const void *buf_coord = buf + header_size;
     geom_buf->buf = (void *)buf;
     geom_buf->buf_coord = (double *)(buf_coord);
     geom_buf->buf_coord_end = (double *)buf_coord;
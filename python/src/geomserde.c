@@ -581,8 +581,9 @@ static SedonaErrorCode sedona_deserialize_geometrycollection(
     return SEDONA_ALLOC_ERROR;
   }
 
-  const char *buf = (const char *)geom_buf->buf + 8;
-  int remaining_size = geom_buf->buf_size - 8;
+  const char *buf = (const char *)geom_buf->buf_coord;
+  int remaining_size =
+      geom_buf->buf_size - (int)(buf - (const char *)geom_buf->buf);
   for (int k = 0; k < num_geoms; k++) {
     GEOSGeometry *child_geom = NULL;
     int bytes_read = 0;
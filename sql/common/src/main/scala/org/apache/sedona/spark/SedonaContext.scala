@@ -22,6 +22,7 @@ import org.apache.sedona.core.serde.SedonaKryoRegistrator
 import org.apache.sedona.sql.UDF.UdfRegistrator
 import org.apache.sedona.sql.UDT.UdtRegistrator
 import org.apache.spark.serializer.KryoSerializer
+import org.apache.spark.sql.sedona_sql.optimization.SpatialClusteringForGeoParquet
 import org.apache.spark.sql.sedona_sql.optimization.SpatialFilterPushDownForGeoParquet
 import org.apache.spark.sql.sedona_sql.strategy.join.JoinQueryDetector
 import org.apache.spark.sql.{SQLContext, SparkSession}
@@ -44,6 +45,9 @@ object SedonaContext {
     if (!sparkSession.experimental.extraOptimizations.exists(_.isInstanceOf[SpatialFilterPushDownForGeoParquet])) {
       sparkSession.experimental.extraOptimizations ++= Seq(new SpatialFilterPushDownForGeoParquet(sparkSession))
     }
+    if (!sparkSession.experimental.extraOptimizations.exists(_.isInstanceOf[SpatialClusteringForGeoParquet])) {
+      sparkSession.experimental.extraOptimizations ++= Seq(new SpatialClusteringForGeoParquet(sparkSession))
+    }
     UdtRegistrator.registerAll()
     UdfRegistrator.registerAll(sparkSession)
     sparkSession
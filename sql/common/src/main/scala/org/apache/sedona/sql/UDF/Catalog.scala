@@ -60,6 +60,7 @@ object Catalog {
     function[ST_CoveredBy](),
     function[ST_Dimension](),
     function[ST_Disjoint](),
+    function[ST_KNN](),
     function[ST_Distance](),
     function[ST_3DDistance](),
     function[ST_ConcaveHull](false),
@@ -197,6 +198,8 @@ object Catalog {
     function[RS_MapAlgebra](null),
     function[RS_FromArcInfoAsciiGrid](),
     function[RS_FromGeoTiff](),
+    function[RS_FromGeoTiffPath](),
+    function[RS_TileExplode](),
     function[RS_MakeEmptyRaster](),
     function[RS_Envelope](),
     function[RS_NumBands](),
@@ -226,6 +229,8 @@ object Catalog {
     function[RS_PixelAsCentroid](),
     function[RS_Count](),
     function[RS_SummaryStats](),
+    function[RS_ZonalStats](),
+    function[RS_ZonalHistogram](),
     function[RS_ConvexHull](),
     function[RS_RasterToWorldCoordX](),
     function[RS_RasterToWorldCoordY](),
@@ -236,12 +241,12 @@ object Catalog {
     function[RS_WorldToRasterCoordY](),
     function[RS_BandNoDataValue](),
     function[RS_BandPixelType](),
-    function[RS_MinConvexHull]()
+    function[RS_MinConvexHull](),
+    function[ST_Envelope_Aggr]()
   )
 
-  val aggregateExpressions: Seq[Aggregator[Geometry, Geometry, Geometry]] = Seq(
+  val aggregateExpressions: Seq[Aggregator[Geometry, _, Geometry]] = Seq(
     new ST_Union_Aggr,
-    new ST_Envelope_Aggr,
     new ST_Intersection_Aggr
   )
 
@@ -19,13 +19,33 @@
 package org.apache.sedona.sql.utils
 
 import org.apache.sedona.common.geometrySerde
-import org.locationtech.jts.geom.Geometry
+import org.apache.spark.SparkEnv
+import org.locationtech.jts.geom.{Envelope, Geometry}
 
 /**
   * SerDe using the WKB reader and writer objects
   */
 object GeometrySerializer {
 
+  /**
+    * Static Spark conf enabling the bounding box header of serialized geometries. Geometries written with the header
+    * cannot be read by Sedona versions older than 1.5.0, so it is disabled by default. It is read once per JVM, so it
+    * must be set when the application starts.
+    */
+  val BOUNDING_BOX_CONF = "spark.sedona.serde.boundingbox"
+
+  @volatile private var boundingBoxConfigured = false
+
+  private def configureBoundingBox(): Unit = {
+    if (!boundingBoxConfigured) {
+      val env = SparkEnv.get
+      if (env != null) {
+        geometrySerde.GeometrySerializer.toggleBoundingBox(env.conf.getBoolean(BOUNDING_BOX_CONF, defaultValue = false))
+        boundingBoxConfigured = true
+      }
+    }
+  }
+
   /**
     * Given a geometry returns array of bytes
     *
@@ -33,6 +53,7 @@ object GeometrySerializer {
     * @return Array of bites represents this geometry
     */
   def serialize(geometry: Geometry): Array[Byte] = {
+    configureBoundingBox()
     geometrySerde.GeometrySerializer.serialize(geometry)
   }
 
@@ -45,4 +66,34 @@ object GeometrySerializer {
   def deserialize(value: Array[Byte]): Geometry = {
     geometrySerde.GeometrySerializer.deserialize(value)
   }
+
+  /**
+    * Given array of bytes returns a read-only geometry backed by these bytes
+    *
+    * @param value Array of bytes represents a geometry
+    * @return JTS geometry which must not be modified
+    */
+  def deserializeLazily(value: Array[Byte]): Geometry = {
+    geometrySerde.GeometrySerializer.deserializeLazily(value)
+  }
+
+  /**
+    * Given array of bytes returns the envelope of the geometry without deserializing it
+    *
+    * @param value Array of bytes represents a geometry
+    * @return envelope of the geometry, or null if it is not available without deserialization
+    */
+  def peekEnvelope(value: Array[Byte]): Envelope = {
+    geometrySerde.GeometrySerializer.peekEnvelope(value)
+  }
+
+  /**
+    * Given array of bytes expands the envelope with the exact coordinates of the geometry without deserializing it
+    *
+    * @param value Array of bytes represents a geometry
+    * @param envelope envelope to expand
+    */
+  def expandEnvelope(value: Array[Byte], envelope: Envelope): Unit = {
+    geometrySerde.GeometrySerializer.expandEnvelope(value, envelope)
+  }
 }
@@ -21,17 +21,37 @@ import org.json4s.jackson.JsonMethods.parse
  */
 case class CRSMetaData()
 
+/**
+ * A case class that holds the paths of the bbox covering column of a geometry column. Each path is the list of
+ * field names leading to a double typed leaf column, e.g. `["geometry_bbox", "xmin"]`.
+ */
+case class BBoxCovering(
+  xmin: Seq[String],
+  ymin: Seq[String],
+  xmax: Seq[String],
+  ymax: Seq[String])
+
+/**
+ * A case class that holds the covering metadata of a geometry column. Covering columns store simple per-row
+ * approximations of the geometries, so that the Parquet row group statistics of these columns can be used to
+ * skip row groups.
+ * @param bbox Paths of the bounding box columns.
+ */
+case class Covering(bbox: BBoxCovering)
+
 /**
  * A case class that holds the metadata of geometry column in GeoParquet metadata
  * @param encoding Name of the geometry encoding format. Currently only "WKB" is supported
  * @param geometryTypes The geometry types of all geometries, or an empty array if they are not known.
  * @param bbox Bounding Box of the geometries in the file, formatted according to RFC 7946, section 5.
+ * @param covering Optional covering columns of this geometry column.
  */
 case class GeometryFieldMetaData(
   encoding: String,
   geometryTypes: Seq[String],
   bbox: Seq[Double],
-  crs: Option[CRSMetaData] = None)
+  crs: Option[CRSMetaData] = None,
+  covering: Option[Covering] = None)
 
 /**
  * A case class that holds the metadata of GeoParquet file
@@ -50,6 +70,18 @@ object GeoParquetMetaData {
   // for more details.
   val VERSION = "1.0.0-beta.1"
 
+  /**
+   * Write option for adding a bbox covering column `<geometry column>_bbox` for each geometry column. The covering
+   * column is a struct of xmin, ymin, xmax and ymax, whose row group statistics are used for pruning row groups
+   * when reading the file with spatial filters.
+   */
+  val GEOPARQUET_COVERING_KEY = "geoparquet.covering"
+
+  /**
+   * Suffix of the name of bbox covering columns written by Sedona.
+   */
+  val COVERING_COLUMN_SUFFIX = "_bbox"
+
   def parseKeyValueMetaData(keyValueMetaData: java.util.Map[String, String]): Option[GeoParquetMetaData] = {
     Option(keyValueMetaData.get("geo")).map { geo =>
       implicit val formats: org.json4s.Formats = org.json4s.DefaultFormats
@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.spark.sql.execution.datasources.parquet
+
+import org.apache.parquet.schema.GroupType
+import org.apache.sedona.core.spatialOperator.SpatialPredicate
+import org.apache.spark.sql.execution.datasources.parquet.GeoParquetSpatialFilter.{AndFilter, LeafFilter, OrFilter}
+import org.apache.spark.sql.internal.SQLConf
+import org.apache.spark.sql.sedona_sql.UDT.GeometryUDT
+import org.apache.spark.sql.types.StructType
+import org.locationtech.jts.geom.Envelope
+
+import scala.collection.JavaConverters._
+
+/**
+ * Record level filter derived from a [[GeoParquetSpatialFilter]]. The GeoParquet row converter fills in the
+ * envelopes of the filtered geometry columns of each record, and skips records failing this filter before
+ * decoding the geometries and building the rows. Envelopes of null geometries are null, which never satisfy
+ * any leaf filter.
+ *
+ * The spatial filter is a necessary condition of the filter it was derived from, and the envelope of a geometry
+ * intersects (covers) the envelope of the query window whenever the geometry intersects (covers) the query
+ * window, so records skipped by this filter will never be selected by the downstream `ST_*` predicates.
+ *
+ * Only the parquet-mr row reader applies this filter. The vectorized reader is disabled for scans this filter
+ * applies to when `sedona.geoparquet.recordfilter` is enabled, see [[GeoParquetRecordFilter.isApplicable]].
+ *
+ * @param filter spatial filter pushed down to the GeoParquet data source
+ * @param schema Catalyst schema of the rows to be read
+ * @param fileSchema Parquet schema of the columns to be read, in the order they are stored in the file
+ */
+class GeoParquetRecordFilter private (filter: GeoParquetSpatialFilter, schema: StructType, fileSchema: GroupType) {
+
+  /**
+   * Ordinals of filtered geometry columns in the rows to be read.
+   */
+  val ordinals: Array[Int] = GeoParquetRecordFilter.filteredColumns(filter)
+    .flatMap(name => schema.getFieldIndex(name))
+    .filter(ordinal => schema(ordinal).dataType.isInstanceOf[GeometryUDT])
+    .distinct
+    .toArray
+
+  /**
+   * Envelopes of filtered geometry columns of the current record, in the same order as [[ordinals]]. The row
+   * converter should update these envelopes or set them to null before calling [[evaluate]].
+   */
+  val envelopes: Array[Envelope] = Array.fill(ordinals.length)(new Envelope())
+
+  private val predicate: () => Boolean = compile(filter)
+
+  // parquet-mr assembles records column by column in the order of the file schema, so the filter could be
+  // evaluated as soon as the last filtered geometry column of a record has been read.
+  private val lastFilteredColumnPosition: Int =
+    ordinals.map(ordinal => fieldPosition(schema(ordinal).name)).foldLeft(-1)(math.max)
+
+  /**
+   * Check if the given field of a record is read after all the filtered geometry columns. Such fields do not
+   * need to be converted for records failing this filter.
+   */
+  def isReadAfterFilteredColumns(fieldName: String): Boolean =
+    fieldPosition(fieldName) > lastFilteredColumnPosition
+
+  private def fieldPosition(fieldName: String): Int = {
+    val resolver = SQLConf.get.resolver
+    val position = fileSchema.getFields.asScala.indexWhere(field => resolver(field.getName, fieldName))
+    if (position < 0) Int.MinValue else position
+  }
+
+  /**
+   * Evaluate the filter against the envelopes of the current record.
+   *
+   * @return false if the current record could be skipped
+   */
+  def evaluate(): Boolean = predicate()
+
+  private def compile(filter: GeoParquetSpatialFilter): () => Boolean = filter match {
+    case AndFilter(left, right) =>
+      val leftPredicate = compile(left)
+      val rightPredicate = compile(right)
+      () => leftPredicate() && rightPredicate()
+    case OrFilter(left, right) =>
+      val leftPredicate = compile(left)
+      val rightPredicate = compile(right)
+      () => leftPredicate() || rightPredicate()
+    case LeafFilter(columnName, predicateType, queryWindow) =>
+      val k = schema.getFieldIndex(columnName).map(ordinals.indexOf(_)).getOrElse(-1)
+      val windowEnvelope = queryWindow.getEnvelopeInternal
+      if (k < 0) {
+        () => true
+      } else {
+        val envelope = envelopes(k)
+        predicateType match {
+          case SpatialPredicate.COVERS => () => !envelope.isNull && envelope.covers(windowEnvelope)
+          case SpatialPredicate.INTERSECTS => () => !envelope.isNull && envelope.intersects(windowEnvelope)
+          case _ => () => true
+        }
+      }
+    case _ => () => true
+  }
+}
+
+object GeoParquetRecordFilter {
+
+  /**
+   * Create a record filter for reading rows of the given schema.
+   *
+   * @return the record filter, or None if the spatial filter does not reference any geometry column in the schema
+   */
+  def apply(filter: GeoParquetSpatialFilter, schema: StructType, fileSchema: GroupType): Option[GeoParquetRecordFilter] = {
+    val recordFilter = new GeoParquetRecordFilter(filter, schema, fileSchema)
+    if (recordFilter.ordinals.isEmpty) None else Some(recordFilter)
+  }
+
+  /**
+   * Check if a record filter could be derived from the spatial filter for reading rows of the given schema.
+   */
+  def isApplicable(filter: GeoParquetSpatialFilter, schema: StructType): Boolean =
+    filteredColumns(filter).exists { name =>
+      schema.getFieldIndex(name).exists(ordinal => schema(ordinal).dataType.isInstanceOf[GeometryUDT])
+    }
+
+  private def filteredColumns(filter: GeoParquetSpatialFilter): Seq[String] = filter match {
+    case AndFilter(left, right) => filteredColumns(left) ++ filteredColumns(right)
+    case OrFilter(left, right) => filteredColumns(left) ++ filteredColumns(right)
+    case LeafFilter(columnName, _, _) => Seq(columnName)
+    case _ => Seq.empty
+  }
+}
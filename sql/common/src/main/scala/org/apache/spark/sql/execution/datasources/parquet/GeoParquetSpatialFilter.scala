@@ -13,6 +13,12 @@
  */
 package org.apache.spark.sql.execution.datasources.parquet
 
+import org.apache.parquet.filter2.predicate.FilterApi
+import org.apache.parquet.filter2.predicate.FilterPredicate
+import org.apache.parquet.filter2.predicate.Operators.DoubleColumn
+import org.apache.parquet.schema.MessageType
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName
+import org.apache.parquet.schema.Type.Repetition
 import org.apache.sedona.core.spatialOperator.SpatialPredicate
 import org.locationtech.jts.geom.Envelope
 import org.locationtech.jts.geom.Geometry
@@ -65,4 +71,62 @@ object GeoParquetSpatialFilter {
       }
     }
   }
+
+  /**
+   * Converts a spatial filter to a Parquet filter predicate on the bbox covering columns of the filtered geometry
+   * columns. Parquet evaluates the predicate against the row group statistics of the covering columns, so that row
+   * groups containing no geometry that could satisfy the spatial filter are skipped.
+   *
+   * @param filter        spatial filter to convert
+   * @param columns       geometry column metadata of the GeoParquet file
+   * @param parquetSchema Parquet schema of the GeoParquet file
+   * @return the Parquet filter predicate, or None if the filter could not be converted, e.g. when the filtered
+   *         geometry column has no bbox covering
+   */
+  def toParquetFilter(
+    filter: GeoParquetSpatialFilter,
+    columns: Map[String, GeometryFieldMetaData],
+    parquetSchema: MessageType): Option[FilterPredicate] = filter match {
+    case AndFilter(left, right) =>
+      (toParquetFilter(left, columns, parquetSchema) ++ toParquetFilter(right, columns, parquetSchema))
+        .reduceOption(FilterApi.and)
+    case OrFilter(left, right) =>
+      for {
+        leftPredicate <- toParquetFilter(left, columns, parquetSchema)
+        rightPredicate <- toParquetFilter(right, columns, parquetSchema)
+      } yield FilterApi.or(leftPredicate, rightPredicate)
+    case LeafFilter(columnName, predicateType, queryWindow) =>
+      columns.get(columnName).flatMap(_.covering).map(_.bbox).flatMap { bbox =>
+        val paths = Seq(bbox.xmin, bbox.ymin, bbox.xmax, bbox.ymax)
+        if (!paths.forall(isDoubleColumn(parquetSchema, _))) None else {
+          val Seq(xmin, ymin, xmax, ymax) = paths.map(path => FilterApi.doubleColumn(path.mkString(".")))
+          val env = queryWindow.getEnvelopeInternal
+          def ltEq(column: DoubleColumn, value: Double) =
+            FilterApi.ltEq(column, java.lang.Double.valueOf(value))
+          def gtEq(column: DoubleColumn, value: Double) =
+            FilterApi.gtEq(column, java.lang.Double.valueOf(value))
+          predicateType match {
+            case SpatialPredicate.COVERS =>
+              // The bbox of a geometry covering the query window must cover the envelope of the query window
+              Some(FilterApi.and(
+                FilterApi.and(ltEq(xmin, env.getMinX), gtEq(xmax, env.getMaxX)),
+                FilterApi.and(ltEq(ymin, env.getMinY), gtEq(ymax, env.getMaxY))))
+            case SpatialPredicate.INTERSECTS =>
+              Some(FilterApi.and(
+                FilterApi.and(ltEq(xmin, env.getMaxX), gtEq(xmax, env.getMinX)),
+                FilterApi.and(ltEq(ymin, env.getMaxY), gtEq(ymax, env.getMinY))))
+            case _ => None
+          }
+        }
+      }
+  }
+
+  private def isDoubleColumn(parquetSchema: MessageType, path: Seq[String]): Boolean = {
+    // Column paths are passed to parquet as dot separated strings, so field names containing dots are not supported
+    path.nonEmpty && !path.exists(_.contains(".")) && parquetSchema.containsPath(path.toArray) && {
+      val columnType = parquetSchema.getType(path: _*)
+      columnType.isPrimitive && !columnType.isRepetition(Repetition.REPEATED) &&
+        columnType.asPrimitiveType().getPrimitiveTypeName == PrimitiveTypeName.DOUBLE
+    }
+  }
 }
@@ -0,0 +1,168 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.spark.sql.execution.datasources.parquet
+
+import org.apache.hadoop.mapreduce.InputSplit
+import org.apache.hadoop.mapreduce.RecordReader
+import org.apache.hadoop.mapreduce.TaskAttemptContext
+import org.apache.sedona.common.geometrySerde.GeometryWKBTranscoder
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.execution.vectorized.OffHeapColumnVector
+import org.apache.spark.sql.execution.vectorized.OnHeapColumnVector
+import org.apache.spark.sql.execution.vectorized.WritableColumnVector
+import org.apache.spark.sql.sedona_sql.UDT.GeometryUDT
+import org.apache.spark.sql.types.AtomicType
+import org.apache.spark.sql.types.BinaryType
+import org.apache.spark.sql.types.DataType
+import org.apache.spark.sql.types.StructType
+import org.apache.spark.sql.vectorized.ColumnVector
+import org.apache.spark.sql.vectorized.ColumnarBatch
+
+import java.time.ZoneId
+import java.util.TimeZone
+
+/**
+ * A columnar GeoParquet reader. Spark's [[VectorizedParquetRecordReader]] decodes all columns, reading geometry
+ * columns as plain binary columns holding WKB. The WKB values of each batch are then converted to Sedona's
+ * serialized geometry format, so that the resulting batches can be consumed by whole-stage codegen like batches of
+ * any other Parquet scan.
+ *
+ * @param reader           the underlying vectorized reader
+ * @param geometryOrdinals ordinals of geometry columns in the requested schema
+ * @param useOffHeap       whether to allocate the converted geometry columns off heap
+ * @param capacity         maximum number of rows of a batch
+ */
+class GeoParquetVectorizedReader(
+  reader: VectorizedParquetRecordReader,
+  geometryOrdinals: Array[Int],
+  useOffHeap: Boolean,
+  capacity: Int) extends RecordReader[Void, AnyRef] {
+
+  private val wkbTranscoder = new GeometryWKBTranscoder()
+
+  private val geometryColumns: Array[WritableColumnVector] = geometryOrdinals.map { _ =>
+    if (useOffHeap) new OffHeapColumnVector(capacity, BinaryType) else new OnHeapColumnVector(capacity, BinaryType)
+  }
+
+  override def initialize(split: InputSplit, context: TaskAttemptContext): Unit = {
+    reader.initialize(split, context)
+  }
+
+  /**
+   * Initializes the underlying reader and makes it return batches with the partition columns appended.
+   */
+  def initialize(
+    split: InputSplit,
+    context: TaskAttemptContext,
+    partitionSchema: StructType,
+    partitionValues: InternalRow): Unit = {
+    reader.initialize(split, context)
+    reader.initBatch(partitionSchema, partitionValues)
+    reader.enableReturningBatches()
+  }
+
+  override def nextKeyValue(): Boolean = reader.nextKeyValue()
+
+  override def getCurrentKey: Void = null
+
+  override def getCurrentValue: AnyRef = reader.getCurrentValue match {
+    case batch: ColumnarBatch => convert(batch)
+    case value => value
+  }
+
+  override def getProgress: Float = reader.getProgress
+
+  override def close(): Unit = {
+    reader.close()
+    geometryColumns.foreach(_.close())
+  }
+
+  private def convert(batch: ColumnarBatch): ColumnarBatch = {
+    val numRows = batch.numRows()
+    val columns = Array.tabulate[ColumnVector](batch.numCols())(batch.column)
+    var k = 0
+    while (k < geometryOrdinals.length) {
+      val ordinal = geometryOrdinals(k)
+      val wkbColumn = columns(ordinal)
+      val geometryColumn = geometryColumns(k)
+      geometryColumn.reset()
+      var i = 0
+      while (i < numRows) {
+        if (wkbColumn.isNullAt(i)) {
+          geometryColumn.putNull(i)
+        } else {
+          geometryColumn.putByteArray(i, wkbTranscoder.wkbToSerde(wkbColumn.getBinary(i)))
+        }
+        i += 1
+      }
+      columns(ordinal) = geometryColumn
+      k += 1
+    }
+    val result = new ColumnarBatch(columns)
+    result.setNumRows(numRows)
+    result
+  }
+}
+
+object GeoParquetVectorizedReader {
+
+  // Key of the time zone used for rebasing datetime values in Parquet key-value metadata
+  private val SPARK_TIMEZONE_METADATA_KEY = "org.apache.spark.timeZone"
+
+  def isBatchReadSupported(dataType: DataType): Boolean = dataType match {
+    case _: AtomicType => true
+    case _: GeometryUDT => true
+    case _ => false
+  }
+
+  /**
+   * The schema requested from [[VectorizedParquetRecordReader]], with geometry columns read as WKB binary columns.
+   */
+  def toVectorizedReadSchema(schema: StructType): StructType = StructType(schema.map { field =>
+    if (field.dataType.isInstanceOf[GeometryUDT]) field.copy(dataType = BinaryType) else field
+  })
+
+  def geometryOrdinals(schema: StructType): Array[Int] = schema.fields.zipWithIndex.collect {
+    case (field, ordinal) if field.dataType.isInstanceOf[GeometryUDT] => ordinal
+  }
+
+  def rebaseTimeZone(keyValueMetaData: java.util.Map[String, String]): String =
+    Option(keyValueMetaData.get(SPARK_TIMEZONE_METADATA_KEY)).getOrElse(TimeZone.getDefault.getID)
+
+  /**
+   * Creates a [[VectorizedParquetRecordReader]]. The constructor of this class differs among the Spark versions
+   * supported by this module, so it is looked up by its number of parameters.
+   */
+  def createVectorizedReader(
+    convertTz: ZoneId,
+    datetimeRebaseMode: String,
+    datetimeRebaseTz: String,
+    int96RebaseMode: String,
+    int96RebaseTz: String,
+    useOffHeap: Boolean,
+    capacity: Int): VectorizedParquetRecordReader = {
+    val constructors = classOf[VectorizedParquetRecordReader].getConstructors
+    def construct(args: AnyRef*): Option[VectorizedParquetRecordReader] =
+      constructors.find { c =>
+        c.getParameterCount == args.length && c.getParameterTypes.head == classOf[ZoneId]
+      }.map(_.newInstance(args: _*).asInstanceOf[VectorizedParquetRecordReader])
+    val offHeap = java.lang.Boolean.valueOf(useOffHeap)
+    val batchSize = Integer.valueOf(capacity)
+    construct(convertTz, datetimeRebaseMode, datetimeRebaseTz, int96RebaseMode, int96RebaseTz, offHeap, batchSize)
+      .orElse(construct(convertTz, datetimeRebaseMode, int96RebaseMode, offHeap, batchSize))
+      .orElse(construct(convertTz, datetimeRebaseMode, offHeap, batchSize))
+      .getOrElse(throw new UnsupportedOperationException(
+        "Cannot find a supported constructor of VectorizedParquetRecordReader"))
+  }
+}
@@ -18,9 +18,19 @@
  */
 package org.apache.spark.sql.sedona_sql.expressions
 
+import org.apache.sedona.common.utils.CascadedUnionBuffer
+import org.apache.sedona.sql.utils.GeometrySerializer
+import org.apache.spark.sql.{Encoder, Encoders}
+import org.apache.spark.sql.catalyst.InternalRow
 import org.apache.spark.sql.catalyst.encoders.ExpressionEncoder
+import org.apache.spark.sql.catalyst.expressions.{ExpectsInputTypes, Expression}
+import org.apache.spark.sql.catalyst.expressions.aggregate.{ImperativeAggregate, TypedImperativeAggregate}
 import org.apache.spark.sql.expressions.Aggregator
-import org.locationtech.jts.geom.{Coordinate, Geometry, GeometryFactory}
+import org.apache.spark.sql.sedona_sql.UDT.GeometryUDT
+import org.apache.spark.sql.types.{AbstractDataType, DataType}
+import org.locationtech.jts.geom.{Coordinate, Envelope, Geometry, GeometryFactory}
+
+import java.nio.ByteBuffer
 
 /**
   * traits for creating Aggregate Function
@@ -51,104 +61,115 @@ trait TraitSTAggregateExec {
 }
 
 /**
-  * Return the polygon union of all Polygon in the given column
+  * Return the polygon union of all Polygon in the given column. Input geometries are collected in bounded batches
+  * and unioned hierarchically by [[CascadedUnionBuffer]], instead of being unioned into the result one by one.
   */
-class ST_Union_Aggr extends Aggregator[Geometry, Geometry, Geometry] with TraitSTAggregateExec {
+class ST_Union_Aggr extends Aggregator[Geometry, CascadedUnionBuffer, Geometry] {
 
-  def reduce(buffer: Geometry, input: Geometry): Geometry = {
-    if (buffer.equalsExact(initialGeometry)) input
-    else buffer.union(input)
+  def zero: CascadedUnionBuffer = new CascadedUnionBuffer()
+
+  def reduce(buffer: CascadedUnionBuffer, input: Geometry): CascadedUnionBuffer = {
+    buffer.add(input)
+    buffer
   }
 
-  def merge(buffer1: Geometry, buffer2: Geometry): Geometry = {
-    if (buffer1.equals(initialGeometry)) buffer2
-    else if (buffer2.equals(initialGeometry)) buffer1
-    else buffer1.union(buffer2)
+  def merge(buffer1: CascadedUnionBuffer, buffer2: CascadedUnionBuffer): CascadedUnionBuffer = {
+    buffer1.merge(buffer2)
+    buffer1
   }
 
+  def finish(reduction: CascadedUnionBuffer): Geometry = reduction.getResult
+
+  def bufferEncoder: Encoder[CascadedUnionBuffer] = Encoders.kryo[CascadedUnionBuffer]
 
+  def outputEncoder: ExpressionEncoder[Geometry] = ExpressionEncoder[Geometry]()
 }
 
 
 /**
-  * Return the envelope boundary of the entire column
+  * Return the envelope boundary of the entire column. The aggregation buffer is a mutable [[Envelope]] expanded
+  * with the coordinates read straight from the serialized geometries, so no geometry is deserialized or created
+  * until the final result is evaluated.
   */
-class ST_Envelope_Aggr extends Aggregator[Geometry, Geometry, Geometry] with TraitSTAggregateExec {
+case class ST_Envelope_Aggr(
+    inputExpressions: Seq[Expression],
+    mutableAggBufferOffset: Int = 0,
+    inputAggBufferOffset: Int = 0)
+  extends TypedImperativeAggregate[Envelope] with ExpectsInputTypes {
 
-  def reduce(buffer: Geometry, input: Geometry): Geometry = {
-    val accumulateEnvelope = buffer.getEnvelopeInternal
-    val newEnvelope = input.getEnvelopeInternal
-    val coordinates: Array[Coordinate] = new Array[Coordinate](5)
-    var minX = 0.0
-    var minY = 0.0
-    var maxX = 0.0
-    var maxY = 0.0
-    if (accumulateEnvelope.equals(initialGeometry.getEnvelopeInternal)) {
-      // Found the accumulateEnvelope is the initial value
-      minX = newEnvelope.getMinX
-      minY = newEnvelope.getMinY
-      maxX = newEnvelope.getMaxX
-      maxY = newEnvelope.getMaxY
-    }
-    else if (newEnvelope.equals(initialGeometry.getEnvelopeInternal)) {
-      minX = accumulateEnvelope.getMinX
-      minY = accumulateEnvelope.getMinY
-      maxX = accumulateEnvelope.getMaxX
-      maxY = accumulateEnvelope.getMaxY
-    }
-    else {
-      minX = Math.min(accumulateEnvelope.getMinX, newEnvelope.getMinX)
-      minY = Math.min(accumulateEnvelope.getMinY, newEnvelope.getMinY)
-      maxX = Math.max(accumulateEnvelope.getMaxX, newEnvelope.getMaxX)
-      maxY = Math.max(accumulateEnvelope.getMaxY, newEnvelope.getMaxY)
+  def this(inputExpressions: Seq[Expression]) = this(inputExpressions, 0, 0)
+
+  override def children: Seq[Expression] = inputExpressions
+
+  override def nullable: Boolean = true
+
+  override def dataType: DataType = GeometryUDT
+
+  override def inputTypes: Seq[AbstractDataType] = Seq(GeometryUDT)
+
+  override def createAggregationBuffer(): Envelope = new Envelope()
+
+  override def update(buffer: Envelope, input: InternalRow): Envelope = {
+    val value = inputExpressions.head.eval(input)
+    if (value != null) {
+      GeometrySerializer.expandEnvelope(value.asInstanceOf[Array[Byte]], buffer)
     }
-    coordinates(0) = new Coordinate(minX, minY)
-    coordinates(1) = new Coordinate(minX, maxY)
-    coordinates(2) = new Coordinate(maxX, maxY)
-    coordinates(3) = new Coordinate(maxX, minY)
-    coordinates(4) = coordinates(0)
-    val geometryFactory = new GeometryFactory()
-    geometryFactory.createPolygon(coordinates)
+    buffer
+  }
 
+  override def merge(buffer: Envelope, input: Envelope): Envelope = {
+    buffer.expandToInclude(input)
+    buffer
   }
 
-  def merge(buffer1: Geometry, buffer2: Geometry): Geometry = {
-    val leftEnvelope = buffer1.getEnvelopeInternal
-    val rightEnvelope = buffer2.getEnvelopeInternal
-    val coordinates: Array[Coordinate] = new Array[Coordinate](5)
-    var minX = 0.0
-    var minY = 0.0
-    var maxX = 0.0
-    var maxY = 0.0
-    if (leftEnvelope.equals(initialGeometry.getEnvelopeInternal)) {
-      minX = rightEnvelope.getMinX
-      minY = rightEnvelope.getMinY
-      maxX = rightEnvelope.getMaxX
-      maxY = rightEnvelope.getMaxY
+  override def eval(buffer: Envelope): Any = {
+    if (buffer.isNull) null else {
+      val coordinates = Array(
+        new Coordinate(buffer.getMinX, buffer.getMinY),
+        new Coordinate(buffer.getMinX, buffer.getMaxY),
+        new Coordinate(buffer.getMaxX, buffer.getMaxY),
+        new Coordinate(buffer.getMaxX, buffer.getMinY),
+        new Coordinate(buffer.getMinX, buffer.getMinY))
+      GeometrySerializer.serialize(ST_Envelope_Aggr.geometryFactory.createPolygon(coordinates))
     }
-    else if (rightEnvelope.equals(initialGeometry.getEnvelopeInternal)) {
-      minX = leftEnvelope.getMinX
-      minY = leftEnvelope.getMinY
-      maxX = leftEnvelope.getMaxX
-      maxY = leftEnvelope.getMaxY
-    }
-    else {
-      minX = Math.min(leftEnvelope.getMinX, rightEnvelope.getMinX)
-      minY = Math.min(leftEnvelope.getMinY, rightEnvelope.getMinY)
-      maxX = Math.max(leftEnvelope.getMaxX, rightEnvelope.getMaxX)
-      maxY = Math.max(leftEnvelope.getMaxY, rightEnvelope.getMaxY)
+  }
+
+  override def serialize(buffer: Envelope): Array[Byte] = {
+    // Null envelopes are serialized as empty arrays
+    if (buffer.isNull) Array.emptyByteArray else {
+      ByteBuffer.allocate(32)
+        .putDouble(buffer.getMinX)
+        .putDouble(buffer.getMinY)
+        .putDouble(buffer.getMaxX)
+        .putDouble(buffer.getMaxY)
+        .array()
     }
+  }
 
-    coordinates(0) = new Coordinate(minX, minY)
-    coordinates(1) = new Coordinate(minX, maxY)
-    coordinates(2) = new Coordinate(maxX, maxY)
-    coordinates(3) = new Coordinate(maxX, minY)
-    coordinates(4) = coordinates(0)
-    val geometryFactory = new GeometryFactory()
-    geometryFactory.createPolygon(coordinates)
+  override def deserialize(storageFormat: Array[Byte]): Envelope = {
+    if (storageFormat.isEmpty) new Envelope() else {
+      val bytes = ByteBuffer.wrap(storageFormat)
+      val minX = bytes.getDouble(0)
+      val minY = bytes.getDouble(8)
+      val maxX = bytes.getDouble(16)
+      val maxY = bytes.getDouble(24)
+      new Envelope(minX, maxX, minY, maxY)
+    }
   }
 
+  override def withNewMutableAggBufferOffset(newMutableAggBufferOffset: Int): ImperativeAggregate =
+    copy(mutableAggBufferOffset = newMutableAggBufferOffset)
+
+  override def withNewInputAggBufferOffset(newInputAggBufferOffset: Int): ImperativeAggregate =
+    copy(inputAggBufferOffset = newInputAggBufferOffset)
+
+  protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
+    copy(inputExpressions = newChildren)
+  }
+}
 
+object ST_Envelope_Aggr {
+  private val geometryFactory = new GeometryFactory()
 }
 
 /**
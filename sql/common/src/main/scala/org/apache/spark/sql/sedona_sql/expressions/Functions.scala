@@ -21,7 +21,7 @@ package org.apache.spark.sql.sedona_sql.expressions
 import org.apache.sedona.common.{Functions, FunctionsGeoTools}
 import org.apache.sedona.common.sphere.{Haversine, Spheroid}
 import org.apache.spark.sql.catalyst.InternalRow
-import org.apache.spark.sql.catalyst.expressions.codegen.CodegenFallback
+import org.apache.spark.sql.catalyst.expressions.codegen.{CodegenContext, CodegenFallback, ExprCode}
 import org.apache.spark.sql.catalyst.expressions.{Expression, Generator}
 import org.apache.spark.sql.catalyst.util.ArrayData
 import org.apache.spark.sql.sedona_sql.UDT.GeometryUDT
@@ -41,6 +41,9 @@ import java.lang
 case class ST_Distance(inputExpressions: Seq[Expression])
   extends InferredExpression(Functions.distance _) {
 
+  override protected def doGenCode(ctx: CodegenContext, ev: ExprCode): ExprCode =
+    genGeometryFunctionCall(ctx, ev, "org.apache.sedona.common.Functions.distance")
+
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
   }
@@ -48,7 +51,7 @@ case class ST_Distance(inputExpressions: Seq[Expression])
 
 
 case class ST_YMax(inputExpressions: Seq[Expression])
-  extends InferredExpression(Functions.yMax _) {
+  extends InferredExpression(InferrableFunction.lazyGeometry(Functions.yMax _)) {
 
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
@@ -56,7 +59,7 @@ case class ST_YMax(inputExpressions: Seq[Expression])
 }
 
 case class ST_YMin(inputExpressions: Seq[Expression])
-  extends InferredExpression(Functions.yMin _) {
+  extends InferredExpression(InferrableFunction.lazyGeometry(Functions.yMin _)) {
 
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
@@ -129,7 +132,7 @@ case class ST_ConvexHull(inputExpressions: Seq[Expression])
   * @param inputExpressions
   */
 case class ST_NPoints(inputExpressions: Seq[Expression])
-  extends InferredExpression(Functions.nPoints _) {
+  extends InferredExpression(InferrableFunction.lazyGeometry(Functions.nPoints _)) {
 
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
@@ -184,6 +187,9 @@ case class ST_Envelope(inputExpressions: Seq[Expression])
 case class ST_Length(inputExpressions: Seq[Expression])
   extends InferredExpression(Functions.length _) {
 
+  override protected def doGenCode(ctx: CodegenContext, ev: ExprCode): ExprCode =
+    genGeometryFunctionCall(ctx, ev, "org.apache.sedona.common.Functions.length")
+
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
   }
@@ -197,6 +203,9 @@ case class ST_Length(inputExpressions: Seq[Expression])
 case class ST_Area(inputExpressions: Seq[Expression])
   extends InferredExpression(Functions.area _) {
 
+  override protected def doGenCode(ctx: CodegenContext, ev: ExprCode): ExprCode =
+    genGeometryFunctionCall(ctx, ev, "org.apache.sedona.common.Functions.area")
+
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
   }
@@ -344,7 +353,7 @@ case class ST_AsEWKB(inputExpressions: Seq[Expression])
 }
 
 case class ST_SRID(inputExpressions: Seq[Expression])
-  extends InferredExpression(Functions.getSRID _) {
+  extends InferredExpression(InferrableFunction.lazyGeometry(Functions.getSRID _)) {
 
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
@@ -360,7 +369,7 @@ case class ST_SetSRID(inputExpressions: Seq[Expression])
 }
 
 case class ST_GeometryType(inputExpressions: Seq[Expression])
-  extends InferredExpression(Functions.geometryType _) {
+  extends InferredExpression(InferrableFunction.lazyGeometry(Functions.geometryType _)) {
 
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
@@ -391,7 +400,10 @@ case class ST_Azimuth(inputExpressions: Seq[Expression])
 }
 
 case class ST_X(inputExpressions: Seq[Expression])
-  extends InferredExpression(Functions.x _) {
+  extends InferredExpression(InferrableFunction.lazyGeometry(Functions.x _)) {
+
+  override protected def doGenCode(ctx: CodegenContext, ev: ExprCode): ExprCode =
+    genGeometryFunctionCall(ctx, ev, "org.apache.sedona.common.Functions.x", lazyGeometry = true, nullableResult = true)
 
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
@@ -400,7 +412,10 @@ case class ST_X(inputExpressions: Seq[Expression])
 
 
 case class ST_Y(inputExpressions: Seq[Expression])
-  extends InferredExpression(Functions.y _) {
+  extends InferredExpression(InferrableFunction.lazyGeometry(Functions.y _)) {
+
+  override protected def doGenCode(ctx: CodegenContext, ev: ExprCode): ExprCode =
+    genGeometryFunctionCall(ctx, ev, "org.apache.sedona.common.Functions.y", lazyGeometry = true, nullableResult = true)
 
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
@@ -408,7 +423,7 @@ case class ST_Y(inputExpressions: Seq[Expression])
 }
 
 case class ST_Z(inputExpressions: Seq[Expression])
-  extends InferredExpression(Functions.z _) {
+  extends InferredExpression(InferrableFunction.lazyGeometry(Functions.z _)) {
 
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
@@ -635,7 +650,7 @@ object ST_IsRing {
   * @param inputExpressions Geometry
   */
 case class ST_NumGeometries(inputExpressions: Seq[Expression])
-  extends InferredExpression(Functions.numGeometries _) {
+  extends InferredExpression(InferrableFunction.lazyGeometry(Functions.numGeometries _)) {
 
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
@@ -854,7 +869,7 @@ case class ST_AsKML(inputExpressions: Seq[Expression])
  * @param inputExpressions
  */
 case class ST_IsEmpty(inputExpressions: Seq[Expression])
-  extends InferredExpression(Functions.isEmpty _) {
+  extends InferredExpression(InferrableFunction.lazyGeometry(Functions.isEmpty _)) {
 
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
@@ -867,7 +882,7 @@ case class ST_IsEmpty(inputExpressions: Seq[Expression])
  * @param inputExpressions
  */
 case class ST_XMax(inputExpressions: Seq[Expression])
-  extends InferredExpression(Functions.xMax _) {
+  extends InferredExpression(InferrableFunction.lazyGeometry(Functions.xMax _)) {
 
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
@@ -880,7 +895,7 @@ case class ST_XMax(inputExpressions: Seq[Expression])
  * @param inputExpressions
  */
 case class ST_XMin(inputExpressions: Seq[Expression])
-  extends InferredExpression(Functions.xMin _) {
+  extends InferredExpression(InferrableFunction.lazyGeometry(Functions.xMin _)) {
 
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
@@ -20,7 +20,9 @@ package org.apache.spark.sql.sedona_sql.expressions
 
 import org.apache.spark.sql.catalyst.InternalRow
 import org.apache.spark.sql.catalyst.expressions.{Expression, ImplicitCastInputTypes}
-import org.apache.spark.sql.catalyst.expressions.codegen.CodegenFallback
+import org.apache.sedona.common.geometrySerde
+import org.apache.spark.sql.catalyst.expressions.codegen.{CodeGenerator, CodegenContext, CodegenFallback, ExprCode}
+import org.apache.spark.sql.catalyst.expressions.codegen.Block._
 import org.apache.spark.sql.catalyst.util.ArrayData
 import org.apache.spark.sql.sedona_sql.UDT.{GeometryUDT, RasterUDT}
 import org.apache.spark.sql.types.{AbstractDataType, BinaryType, BooleanType, DataType, DataTypes, DoubleType, IntegerType, LongType, StringType}
@@ -69,6 +71,58 @@ abstract class InferredExpression(fSeq: InferrableFunction *)
 
   override def eval(input: InternalRow): Any = f.serializer(evaluator(input))
   override def evalWithoutSerialization(input: InternalRow): Any = evaluator(input)
+
+  /**
+   * Generate code calling a static Java method on geometries deserialized from the values of the children, so
+   * that the children are compiled into the generated code and primitive results are not boxed. Subclasses
+   * wrapping a static method whose arguments are all geometries can implement `doGenCode` with this method.
+   * The result is null if any argument is null. When a child is [[SerdeAware]], the interpreted path is used
+   * instead, since it gets the geometry from the child without serializing and deserializing it.
+   *
+   * @param method fully qualified name of the static method
+   * @param lazyGeometry whether the geometries are deserialized lazily, see [[InferrableFunction.lazyGeometry]]
+   * @param nullableResult whether the method returns a boxed value which may be null
+   */
+  protected def genGeometryFunctionCall(
+    ctx: CodegenContext,
+    ev: ExprCode,
+    method: String,
+    lazyGeometry: Boolean = false,
+    nullableResult: Boolean = false): ExprCode = {
+    if (inputExpressions.exists(_.isInstanceOf[SerdeAware])) {
+      super[CodegenFallback].doGenCode(ctx, ev)
+    } else {
+      val serializer = classOf[geometrySerde.GeometrySerializer].getName
+      val deserialize = if (lazyGeometry) "deserializeLazily" else "deserialize"
+      val args = inputExpressions.map(_.genCode(ctx))
+      val call = args.map(arg => s"$serializer.$deserialize(${arg.value})").mkString(s"$method(", ", ", ")")
+      val assignResult = if (nullableResult) {
+        val result = ctx.freshName("result")
+        s"""
+           |${CodeGenerator.boxedType(dataType)} $result = $call;
+           |if ($result != null) {
+           |  ${ev.isNull} = false;
+           |  ${ev.value} = $result;
+           |}""".stripMargin
+      } else {
+        s"""
+           |${ev.isNull} = false;
+           |${ev.value} = $call;""".stripMargin
+      }
+      // Arguments after a null argument are not evaluated
+      val evaluate = args.foldRight(assignResult) { (arg, inner) =>
+        s"""
+           |${arg.code}
+           |if (!${arg.isNull}) {
+           |  $inner
+           |}""".stripMargin
+      }
+      ev.copy(code = code"""
+        boolean ${ev.isNull} = true;
+        ${CodeGenerator.javaType(dataType)} ${ev.value} = ${CodeGenerator.defaultValue(dataType)};
+        $evaluate""")
+    }
+  }
 }
 
 // This is a compile time type shield for the types we are able to infer. Anything
@@ -261,4 +315,18 @@ object InferrableFunction {
     })
   }
 
+  /**
+   * A variant of unary inferred expression which reads its geometry argument lazily. Coordinates of the
+   * geometry passed to the function are not copied out of the serialized bytes, which makes accessors
+   * touching only a few coordinates or the geometry type much cheaper. The function must not modify the
+   * geometry.
+   * @param f Function to be wrapped as a catalyst expression.
+   * @param typeTag Type tag of the function.
+   * @tparam R Return type of the function.
+   * @return InferrableFunction.
+   */
+  def lazyGeometry[R: InferrableType](f: Geometry => R)(implicit typeTag: TypeTag[Geometry => R]): InferrableFunction = {
+    InferrableFunctionConverter.inferrableFunction1(f).copy(
+      argExtractorBuilders = Seq(expr => input => expr.toGeometryView(input)))
+  }
 }
@@ -21,11 +21,13 @@ package org.apache.spark.sql.sedona_sql.expressions
 import org.apache.sedona.common.Predicates
 import org.apache.sedona.sql.utils.GeometrySerializer
 import org.apache.spark.sql.catalyst.InternalRow
-import org.apache.spark.sql.catalyst.expressions.codegen.CodegenFallback
+import org.apache.spark.sql.catalyst.expressions.codegen.{CodegenContext, CodegenFallback, ExprCode}
+import org.apache.spark.sql.catalyst.expressions.codegen.Block._
 import org.apache.spark.sql.catalyst.expressions.{ExpectsInputTypes, Expression, NullIntolerant}
 import org.apache.spark.sql.sedona_sql.UDT.GeometryUDT
-import org.apache.spark.sql.types.{AbstractDataType, BooleanType, DataType}
+import org.apache.spark.sql.types.{AbstractDataType, BooleanType, DataType, IntegerType}
 import org.locationtech.jts.geom.Geometry
+import org.locationtech.jts.geom.prep.{PreparedGeometry, PreparedGeometryFactory}
 
 abstract class ST_Predicate extends Expression
   with FoldableExpression
@@ -53,14 +55,103 @@ abstract class ST_Predicate extends Expression
       if (rightArray == null) {
         null
       } else {
-        val leftGeometry = GeometrySerializer.deserialize(leftArray)
-        val rightGeometry = GeometrySerializer.deserialize(rightArray)
-        evalGeom(leftGeometry, rightGeometry)
+        evalSerialized(leftArray, rightArray)
       }
     }
   }
 
+  /**
+    * Evaluate this predicate on two non-null serialized geometries. This is called by both the interpreted and
+    * the generated code.
+    */
+  final def evalSerialized(leftArray: Array[Byte], rightArray: Array[Byte]): Boolean = {
+    if (resultOfDisjointEnvelopes.isDefined && isEnvelopeDisjoint(leftArray, rightArray)) {
+      resultOfDisjointEnvelopes.get
+    } else {
+      preparedConstant match {
+        case Some((prepared, true)) =>
+          evalPrepared(prepared, GeometrySerializer.deserialize(rightArray), preparedIsLeft = true)
+        case Some((prepared, false)) =>
+          evalPrepared(prepared, GeometrySerializer.deserialize(leftArray), preparedIsLeft = false)
+        case None =>
+          val leftGeometry = GeometrySerializer.deserialize(leftArray)
+          val rightGeometry = GeometrySerializer.deserialize(rightArray)
+          evalGeom(leftGeometry, rightGeometry)
+      }
+    }
+  }
+
+  /**
+    * The prepared geometry of the argument which is a constant, such as the query window of a range query,
+    * and whether it is the left argument. The constant is deserialized and prepared once per task instead of
+    * being deserialized for every row. This is None when no argument or both arguments are constants, or when
+    * the constant is null.
+    */
+  @transient private lazy val preparedConstant: Option[(PreparedGeometry, Boolean)] = {
+    val constantIndex = inputExpressions.indexWhere(_.foldable)
+    if (constantIndex < 0 || inputExpressions.count(_.foldable) > 1) {
+      None
+    } else {
+      inputExpressions(constantIndex).eval() match {
+        case array: Array[Byte] =>
+          val geometry = GeometrySerializer.deserialize(array)
+          Some((PreparedGeometryFactory.prepare(geometry), constantIndex == 0))
+        case _ => None
+      }
+    }
+  }
+
+  /**
+    * The children are compiled into the generated code, and the predicate is evaluated on the serialized geometries
+    * without boxing the result. The right child is not evaluated if the left child is null, the same as [[eval]].
+    */
+  override protected def doGenCode(ctx: CodegenContext, ev: ExprCode): ExprCode = {
+    val predicate = ctx.addReferenceObj("predicate", this)
+    val left = inputExpressions(0).genCode(ctx)
+    val right = inputExpressions(1).genCode(ctx)
+    ev.copy(code = code"""
+      ${left.code}
+      boolean ${ev.isNull} = ${left.isNull};
+      boolean ${ev.value} = false;
+      if (!${ev.isNull}) {
+        ${right.code}
+        ${ev.isNull} = ${right.isNull};
+        if (!${ev.isNull}) {
+          ${ev.value} = $predicate.evalSerialized(${left.value}, ${right.value});
+        }
+      }""")
+  }
+
+  /**
+    * The result of this predicate when the envelopes of two non-empty geometries are disjoint, or None if
+    * the result cannot be decided by envelopes alone.
+    */
+  protected def resultOfDisjointEnvelopes: Option[Boolean] = Some(false)
+
+  private def isEnvelopeDisjoint(leftArray: Array[Byte], rightArray: Array[Byte]): Boolean = {
+    val leftEnvelope = GeometrySerializer.peekEnvelope(leftArray)
+    if (leftEnvelope == null || leftEnvelope.isNull) {
+      false
+    } else {
+      val rightEnvelope = GeometrySerializer.peekEnvelope(rightArray)
+      rightEnvelope != null && !rightEnvelope.isNull && !leftEnvelope.intersects(rightEnvelope)
+    }
+  }
+
   def evalGeom(leftGeometry: Geometry, rightGeometry: Geometry): Boolean
+
+  /**
+    * Evaluate this predicate when one of the arguments is a prepared constant. Predicates which have
+    * an optimized evaluation on [[PreparedGeometry]] override this method, others evaluate on the
+    * geometry wrapped by `prepared`.
+    *
+    * @param prepared the prepared constant argument
+    * @param other the other argument
+    * @param preparedIsLeft whether the prepared constant is the left argument of this predicate
+    */
+  protected def evalPrepared(prepared: PreparedGeometry, other: Geometry, preparedIsLeft: Boolean): Boolean = {
+    if (preparedIsLeft) evalGeom(prepared.getGeometry, other) else evalGeom(other, prepared.getGeometry)
+  }
 }
 
 /**
@@ -69,12 +160,16 @@ abstract class ST_Predicate extends Expression
   * @param inputExpressions
   */
 case class ST_Contains(inputExpressions: Seq[Expression])
-  extends ST_Predicate with CodegenFallback {
+  extends ST_Predicate {
 
   override def evalGeom(leftGeometry: Geometry, rightGeometry: Geometry): Boolean = {
     Predicates.contains(leftGeometry, rightGeometry)
   }
 
+  override protected def evalPrepared(prepared: PreparedGeometry, other: Geometry, preparedIsLeft: Boolean): Boolean = {
+    if (preparedIsLeft) prepared.contains(other) else prepared.within(other)
+  }
+
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
   }
@@ -86,12 +181,16 @@ case class ST_Contains(inputExpressions: Seq[Expression])
   * @param inputExpressions
   */
 case class ST_Intersects(inputExpressions: Seq[Expression])
-  extends ST_Predicate with CodegenFallback {
+  extends ST_Predicate {
 
   override def evalGeom(leftGeometry: Geometry, rightGeometry: Geometry): Boolean = {
     Predicates.intersects(leftGeometry, rightGeometry)
   }
 
+  override protected def evalPrepared(prepared: PreparedGeometry, other: Geometry, preparedIsLeft: Boolean): Boolean = {
+    prepared.intersects(other)
+  }
+
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
   }
@@ -103,12 +202,16 @@ case class ST_Intersects(inputExpressions: Seq[Expression])
   * @param inputExpressions
   */
 case class ST_Within(inputExpressions: Seq[Expression])
-  extends ST_Predicate with CodegenFallback {
+  extends ST_Predicate {
 
   override def evalGeom(leftGeometry: Geometry, rightGeometry: Geometry): Boolean = {
     Predicates.within(leftGeometry, rightGeometry)
   }
 
+  override protected def evalPrepared(prepared: PreparedGeometry, other: Geometry, preparedIsLeft: Boolean): Boolean = {
+    if (preparedIsLeft) prepared.within(other) else prepared.contains(other)
+  }
+
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
   }
@@ -120,12 +223,16 @@ case class ST_Within(inputExpressions: Seq[Expression])
   * @param inputExpressions
   */
 case class ST_Covers(inputExpressions: Seq[Expression])
-  extends ST_Predicate with CodegenFallback {
+  extends ST_Predicate {
 
   override def evalGeom(leftGeometry: Geometry, rightGeometry: Geometry): Boolean = {
     Predicates.covers(leftGeometry, rightGeometry)
   }
 
+  override protected def evalPrepared(prepared: PreparedGeometry, other: Geometry, preparedIsLeft: Boolean): Boolean = {
+    if (preparedIsLeft) prepared.covers(other) else prepared.coveredBy(other)
+  }
+
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
   }
@@ -137,12 +244,16 @@ case class ST_Covers(inputExpressions: Seq[Expression])
   * @param inputExpressions
   */
 case class ST_CoveredBy(inputExpressions: Seq[Expression])
-  extends ST_Predicate with CodegenFallback {
+  extends ST_Predicate {
 
   override def evalGeom(leftGeometry: Geometry, rightGeometry: Geometry): Boolean = {
     Predicates.coveredBy(leftGeometry, rightGeometry)
   }
 
+  override protected def evalPrepared(prepared: PreparedGeometry, other: Geometry, preparedIsLeft: Boolean): Boolean = {
+    if (preparedIsLeft) prepared.coveredBy(other) else prepared.covers(other)
+  }
+
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
   }
@@ -154,7 +265,7 @@ case class ST_CoveredBy(inputExpressions: Seq[Expression])
   * @param inputExpressions
   */
 case class ST_Crosses(inputExpressions: Seq[Expression])
-  extends ST_Predicate with CodegenFallback {
+  extends ST_Predicate {
 
   override def evalGeom(leftGeometry: Geometry, rightGeometry: Geometry): Boolean = {
     Predicates.crosses(leftGeometry, rightGeometry)
@@ -172,7 +283,7 @@ case class ST_Crosses(inputExpressions: Seq[Expression])
   * @param inputExpressions
   */
 case class ST_Overlaps(inputExpressions: Seq[Expression])
-  extends ST_Predicate with CodegenFallback {
+  extends ST_Predicate {
 
   override def evalGeom(leftGeometry: Geometry, rightGeometry: Geometry): Boolean = {
     Predicates.overlaps(leftGeometry, rightGeometry)
@@ -189,7 +300,7 @@ case class ST_Overlaps(inputExpressions: Seq[Expression])
   * @param inputExpressions
   */
 case class ST_Touches(inputExpressions: Seq[Expression])
-  extends ST_Predicate with CodegenFallback {
+  extends ST_Predicate {
 
   override def evalGeom(leftGeometry: Geometry, rightGeometry: Geometry): Boolean = {
     Predicates.touches(leftGeometry, rightGeometry)
@@ -206,7 +317,7 @@ case class ST_Touches(inputExpressions: Seq[Expression])
   * @param inputExpressions
   */
 case class ST_Equals(inputExpressions: Seq[Expression])
-  extends ST_Predicate with CodegenFallback {
+  extends ST_Predicate {
 
   override def evalGeom(leftGeometry: Geometry, rightGeometry: Geometry): Boolean = {
     // Returns GeometryCollection object
@@ -224,12 +335,18 @@ case class ST_Equals(inputExpressions: Seq[Expression])
  * @param inputExpressions
  */
 case class ST_Disjoint(inputExpressions: Seq[Expression])
-  extends ST_Predicate with CodegenFallback {
+  extends ST_Predicate {
+
+  override protected def resultOfDisjointEnvelopes: Option[Boolean] = Some(true)
 
   override def evalGeom(leftGeometry: Geometry, rightGeometry: Geometry): Boolean = {
     Predicates.disjoint(leftGeometry, rightGeometry)
   }
 
+  override protected def evalPrepared(prepared: PreparedGeometry, other: Geometry, preparedIsLeft: Boolean): Boolean = {
+    prepared.disjoint(other)
+  }
+
   protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
     copy(inputExpressions = newChildren)
   }
@@ -241,7 +358,7 @@ case class ST_Disjoint(inputExpressions: Seq[Expression])
  * @param inputExpressions
  */
 case class ST_OrderingEquals(inputExpressions: Seq[Expression])
-  extends ST_Predicate with CodegenFallback {
+  extends ST_Predicate {
 
   override def evalGeom(leftGeometry: Geometry, rightGeometry: Geometry): Boolean = {
     Predicates.orderingEquals(leftGeometry, rightGeometry)
@@ -251,3 +368,32 @@ case class ST_OrderingEquals(inputExpressions: Seq[Expression])
     copy(inputExpressions = newChildren)
   }
 }
+
+/**
+  * Test if rightGeometry is one of the k nearest neighbours of leftGeometry. This predicate is only defined
+  * as the condition of an inner join, which is planned as a distributed k nearest neighbour join.
+  *
+  * @param inputExpressions query geometry, object geometry and k
+  */
+case class ST_KNN(inputExpressions: Seq[Expression])
+  extends Expression with ExpectsInputTypes with CodegenFallback {
+
+  override def toString: String = s" **${this.getClass.getName}**  "
+
+  override def nullable: Boolean = false
+
+  override def inputTypes: Seq[AbstractDataType] = Seq(GeometryUDT, GeometryUDT, IntegerType)
+
+  override def dataType: DataType = BooleanType
+
+  override def children: Seq[Expression] = inputExpressions
+
+  override def eval(inputRow: InternalRow): Any = {
+    throw new UnsupportedOperationException("ST_KNN can only be used as the join condition of an inner join " +
+      "between two relations, with a constant k")
+  }
+
+  protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
+    copy(inputExpressions = newChildren)
+  }
+}
@@ -41,6 +41,21 @@ object implicits {
       }
     }
 
+    /**
+     * Evaluate the expression as a read-only geometry. Coordinates of the returned geometry are read
+     * directly from the serialized bytes instead of being copied, so the geometry must not be modified.
+     */
+    def toGeometryView(input: InternalRow): Geometry = {
+      if (inputExpression.isInstanceOf[SerdeAware]) {
+        inputExpression.asInstanceOf[SerdeAware].evalWithoutSerialization(input).asInstanceOf[Geometry]
+      } else {
+        inputExpression.eval(input).asInstanceOf[Array[Byte]] match {
+          case binary: Array[Byte] => GeometrySerializer.deserializeLazily(binary)
+          case _ => null
+        }
+      }
+    }
+
     def toGeometryArray(input: InternalRow): Array[Geometry] = {
       inputExpression match {
         case aware: SerdeAware =>
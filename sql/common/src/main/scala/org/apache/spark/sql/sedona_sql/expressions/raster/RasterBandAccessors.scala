@@ -51,3 +51,16 @@ case class RS_BandPixelType(inputExpressions: Seq[Expression]) extends InferredE
   }
 }
 
+
+case class RS_ZonalStats(inputExpressions: Seq[Expression]) extends InferredExpression(
+  inferrableFunction4(RasterBandAccessors.getZonalStats), inferrableFunction5(RasterBandAccessors.getZonalStats)) {
+  protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
+    copy(inputExpressions = newChildren)
+  }
+}
+
+case class RS_ZonalHistogram(inputExpressions: Seq[Expression]) extends InferredExpression(inferrableFunction6(RasterBandAccessors.getZonalHistogram)) {
+  protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
+    copy(inputExpressions = newChildren)
+  }
+}
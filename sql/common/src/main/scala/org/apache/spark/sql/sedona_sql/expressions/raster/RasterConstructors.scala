@@ -19,9 +19,18 @@
 package org.apache.spark.sql.sedona_sql.expressions.raster
 
 import org.apache.sedona.common.raster.RasterConstructors
-import org.apache.spark.sql.catalyst.expressions.Expression
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.catalyst.analysis.TypeCheckResult
+import org.apache.spark.sql.catalyst.analysis.TypeCheckResult.TypeCheckFailure
+import org.apache.spark.sql.catalyst.expressions.codegen.CodegenFallback
+import org.apache.spark.sql.catalyst.expressions.{Expression, Generator, ImplicitCastInputTypes}
+import org.apache.spark.sql.sedona_sql.UDT.RasterUDT
 import org.apache.spark.sql.sedona_sql.expressions.InferrableFunctionConverter._
 import org.apache.spark.sql.sedona_sql.expressions.InferredExpression
+import org.apache.spark.sql.sedona_sql.expressions.raster.implicits.{RasterEnhancer, RasterInputExpressionEnhancer}
+import org.apache.spark.sql.types.{AbstractDataType, IntegerType, StructType}
+
+import scala.collection.JavaConverters._
 
 case class RS_FromArcInfoAsciiGrid(inputExpressions: Seq[Expression])
   extends InferredExpression(RasterConstructors.fromArcInfoAsciiGrid _) {
@@ -42,6 +51,16 @@ case class RS_FromGeoTiff(inputExpressions: Seq[Expression])
   }
 }
 
+case class RS_FromGeoTiffPath(inputExpressions: Seq[Expression])
+  extends InferredExpression(RasterConstructors.fromGeoTiffPath _) {
+
+  override def foldable: Boolean = false
+
+  protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
+    copy(inputExpressions = newChildren)
+  }
+}
+
 case class RS_MakeEmptyRaster(inputExpressions: Seq[Expression])
   extends InferredExpression(
     inferrableFunction6(RasterConstructors.makeEmptyRaster), inferrableFunction7(RasterConstructors.makeEmptyRaster),
@@ -53,3 +72,41 @@ case class RS_MakeEmptyRaster(inputExpressions: Seq[Expression])
     copy(inputExpressions = newChildren)
   }
 }
+
+case class RS_TileExplode(children: Seq[Expression])
+  extends Generator with ImplicitCastInputTypes with CodegenFallback {
+
+  override def inputTypes: Seq[AbstractDataType] = Seq(RasterUDT, IntegerType, IntegerType)
+
+  override def checkInputDataTypes(): TypeCheckResult = {
+    if (children.length != 3) {
+      TypeCheckFailure(s"RS_TileExplode takes a raster, a tile width and a tile height, got ${children.length} arguments")
+    } else {
+      super.checkInputDataTypes()
+    }
+  }
+
+  override def eval(input: InternalRow): TraversableOnce[InternalRow] = {
+    val raster = children.head.toRaster(input)
+    val tileWidth = children(1).eval(input)
+    val tileHeight = children(2).eval(input)
+    if (raster == null || tileWidth == null || tileHeight == null) {
+      return Iterator.empty
+    }
+    // Tiles are generated and serialized one at a time as the rows are consumed
+    RasterConstructors.generateTileIterator(raster, tileWidth.asInstanceOf[Int], tileHeight.asInstanceOf[Int]).asScala.map { tile =>
+      InternalRow(tile.getTileX, tile.getTileY, tile.getCoverage.serialize)
+    }
+  }
+
+  override def elementSchema: StructType = {
+    new StructType()
+      .add("x", IntegerType, nullable = false)
+      .add("y", IntegerType, nullable = false)
+      .add("tile", RasterUDT, nullable = false)
+  }
+
+  protected def withNewChildrenInternal(newChildren: IndexedSeq[Expression]) = {
+    copy(children = newChildren)
+  }
+}
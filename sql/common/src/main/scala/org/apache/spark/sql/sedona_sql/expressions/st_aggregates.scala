@@ -24,14 +24,10 @@ import org.apache.spark.sql.functions.{col, udaf}
 
 object st_aggregates extends DataFrameAPI {
   def ST_Envelope_Aggr(geometry: Column): Column = {
-    val aggrFunc = udaf(new ST_Envelope_Aggr)
-    aggrFunc(geometry)
+    Column(new ST_Envelope_Aggr(Seq(geometry.expr)).toAggregateExpression())
   }
 
-  def ST_Envelope_Aggr(geometry: String): Column = {
-    val aggrFunc = udaf(new ST_Envelope_Aggr)
-    aggrFunc(col(geometry))
-  }
+  def ST_Envelope_Aggr(geometry: String): Column = ST_Envelope_Aggr(col(geometry))
 
   def ST_Intersection_Aggr(geometry: Column): Column = {
     val aggrFunc = udaf(new ST_Intersection_Aggr)
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.spark.sql.sedona_sql.io.raster
+
+import org.apache.hadoop.conf.Configuration
+import org.apache.hadoop.fs.{FSDataInputStream, FileSystem, Path}
+import org.apache.sedona.common.raster.OutDbRenderedImage
+import org.apache.sedona.common.raster.inputstream.{RangeReader, RangeReaderFactory}
+import org.apache.spark.{SparkEnv, TaskContext}
+import org.apache.spark.deploy.SparkHadoopUtil
+
+import scala.util.Try
+
+/**
+ * Opens raster files of out-db rasters on any file system supported by Hadoop. The Hadoop configuration is derived
+ * from the Spark configuration, so file systems configured using spark.hadoop.* options are accessible from executors.
+ * Paths with a scheme are accepted when Hadoop has a file system for the scheme. Paths without scheme are resolved
+ * against the default file system (fs.defaultFS) like other Spark paths when running in Spark, and are left to the
+ * local file fallback of [[org.apache.sedona.common.raster.inputstream.RangeReaders]] otherwise.
+ *
+ * The TIFF readers of out-db rasters opened by a task are closed when the task completes, whichever factory opened
+ * their files.
+ */
+class HadoopRangeReaderFactory extends RangeReaderFactory {
+  override def accepts(path: String): Boolean = {
+    Try(new Path(path).toUri.getScheme).toOption.exists {
+      case null => SparkEnv.get != null
+      case scheme => Try(FileSystem.getFileSystemClass(scheme, HadoopRangeReaderFactory.hadoopConf)).isSuccess
+    }
+  }
+
+  override def beforeOpen(): Unit = HadoopRangeReaderFactory.closeReadersOnTaskCompletion()
+
+  override def open(path: String): RangeReader = {
+    val hadoopPath = new Path(path)
+    val fs = hadoopPath.getFileSystem(HadoopRangeReaderFactory.hadoopConf)
+    new HadoopRangeReader(fs.open(hadoopPath), fs.getFileStatus(hadoopPath).getLen)
+  }
+}
+
+object HadoopRangeReaderFactory {
+  private lazy val hadoopConf: Configuration = {
+    val env = SparkEnv.get
+    if (env != null) SparkHadoopUtil.get.newConfiguration(env.conf) else new Configuration()
+  }
+
+  // The task of the current thread whose completion closes the readers of the thread. Task completion listeners
+  // run on the thread of the task, which owns the readers.
+  private val listeningTask = new ThreadLocal[TaskContext]
+
+  private def closeReadersOnTaskCompletion(): Unit = {
+    val taskContext = TaskContext.get()
+    if (taskContext != null && (listeningTask.get() ne taskContext)) {
+      listeningTask.set(taskContext)
+      taskContext.addTaskCompletionListener[Unit] { _ =>
+        listeningTask.remove()
+        OutDbRenderedImage.closeReaders()
+      }
+    }
+  }
+}
+
+private class HadoopRangeReader(in: FSDataInputStream, fileLength: Long) extends RangeReader {
+  override def length(): Long = fileLength
+
+  override def readFully(position: Long, buffer: Array[Byte], offset: Int, length: Int): Unit = {
+    // Positioned reads do not move the stream, and issue ranged requests on object stores
+    in.readFully(position, buffer, offset, length)
+  }
+
+  override def close(): Unit = in.close()
+}
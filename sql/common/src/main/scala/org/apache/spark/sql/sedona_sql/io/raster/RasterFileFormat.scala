@@ -20,15 +20,24 @@
 
 package org.apache.spark.sql.sedona_sql.io.raster
 
+import org.apache.hadoop.conf.Configuration
 import org.apache.hadoop.fs.{FileStatus, Path}
 import org.apache.hadoop.mapreduce.{Job, TaskAttemptContext}
+import org.apache.sedona.common.raster.RasterConstructors
+import org.apache.sedona.common.utils.RasterUtils
 import org.apache.spark.sql.SparkSession
 import org.apache.spark.sql.catalyst.InternalRow
-import org.apache.spark.sql.execution.datasources.{FileFormat, OutputWriter, OutputWriterFactory}
-import org.apache.spark.sql.sources.DataSourceRegister
-import org.apache.spark.sql.types.StructType
+import org.apache.spark.sql.catalyst.expressions.GenericInternalRow
+import org.apache.spark.sql.execution.datasources.{FileFormat, OutputWriter, OutputWriterFactory, PartitionedFile}
+import org.apache.spark.sql.sedona_sql.UDT.RasterUDT
+import org.apache.spark.sql.sources.{DataSourceRegister, Filter}
+import org.apache.spark.sql.types.{IntegerType, StringType, StructField, StructType}
+import org.apache.spark.unsafe.types.UTF8String
+import org.apache.spark.util.SerializableConfiguration
+import org.geotools.coverage.grid.GridCoverage2D
 
 import java.io.IOException
+import java.net.URI
 import java.nio.file.Paths
 import java.util.UUID
 
@@ -38,8 +47,49 @@ private[spark] class RasterFileFormat extends FileFormat with DataSourceRegister
                             sparkSession: SparkSession,
                             options: Map[String, String],
                             files: Seq[FileStatus]): Option[StructType] = {
-    throw new UnsupportedOperationException("Please use 'binaryFile' data source to reading raster files")
-    None
+    Some(RasterFileFormat.readSchema)
+  }
+
+  /**
+   * GeoTIFF files are split into tiles, and tiles of a file are spread evenly over the byte ranges of the file.
+   * Large files are therefore split into multiple partitions like other file formats.
+   */
+  override def isSplitable(sparkSession: SparkSession, options: Map[String, String], path: Path): Boolean = {
+    new RasterOptions(options).retile
+  }
+
+  override def buildReader(
+                            sparkSession: SparkSession,
+                            dataSchema: StructType,
+                            partitionSchema: StructType,
+                            requiredSchema: StructType,
+                            filters: Seq[Filter],
+                            options: Map[String, String],
+                            hadoopConf: Configuration): PartitionedFile => Iterator[InternalRow] = {
+    val rasterOptions = new RasterOptions(options)
+    val fieldNames = requiredSchema.fieldNames
+    fieldNames.filterNot(RasterFileFormat.readSchema.fieldNames.contains).foreach { fieldName =>
+      throw new IllegalArgumentException(
+        s"Unknown column $fieldName of the raster data source, the columns are rast, path, x and y")
+    }
+    val broadcastedHadoopConf =
+      sparkSession.sparkContext.broadcast(new SerializableConfiguration(hadoopConf))
+    (file: PartitionedFile) => {
+      val filePath = new Path(new URI(file.filePath.toString))
+      val fileLength = filePath.getFileSystem(broadcastedHadoopConf.value.value).getFileStatus(filePath).getLen
+      // Tiles are generated and serialized one at a time as the rows are consumed
+      RasterFileFormat.readTiles(filePath.toString, fileLength, file.start, file.length, rasterOptions)
+        .map { case (tileX, tileY, tile) =>
+          val values = fieldNames.map {
+            case "rast" => RasterUDT.serialize(if (rasterOptions.outDb) tile else RasterUtils.loadOutDbRaster(tile))
+            case "path" => UTF8String.fromString(filePath.toString)
+            case "x" => tileX
+            case "y" => tileY
+            case _ => null
+          }
+          new GenericInternalRow(values)
+        }
+    }
   }
 
   override def prepareWrite(
@@ -76,6 +126,47 @@ private[spark] class RasterFileFormat extends FileFormat with DataSourceRegister
 
 }
 
+private[spark] object RasterFileFormat {
+  val readSchema: StructType = StructType(Seq(
+    StructField("rast", RasterUDT, nullable = false),
+    StructField("path", StringType, nullable = false),
+    StructField("x", IntegerType, nullable = false),
+    StructField("y", IntegerType, nullable = false)))
+
+  private val defaultTileSize = 256
+
+  /**
+   * Get out-db tiles of a GeoTIFF file owned by the byte range [start, start + length) of the file. Only the header
+   * of the file is read here, pixels of tiles are read when they are loaded.
+   */
+  def readTiles(path: String, fileLength: Long, start: Long, length: Long,
+                options: RasterOptions): Iterator[(Int, Int, GridCoverage2D)] = {
+    val raster = RasterConstructors.fromGeoTiffPath(path)
+    if (!options.retile) {
+      return if (start == 0) Iterator((0, 0, raster)) else Iterator.empty
+    }
+
+    // Use the internal tiling of the file by default, so that each tile is read from one tile of the file
+    val image = raster.getRenderedImage
+    val isTiled = image.getTileWidth < image.getWidth || image.getTileHeight < image.getHeight
+    val tileWidth = options.tileWidth.getOrElse(if (isTiled) image.getTileWidth else defaultTileSize)
+    val tileHeight = options.tileHeight.getOrElse(if (isTiled) image.getTileHeight else defaultTileSize)
+    val numTilesX = (image.getWidth + tileWidth - 1) / tileWidth
+    val numTilesY = (image.getHeight + tileHeight - 1) / tileHeight
+    val numTiles = numTilesX.toLong * numTilesY
+    val end = start + length
+    (0L until numTiles).iterator.filter { k =>
+      // Tile k is owned by the split containing byte offset k * fileLength / numTiles of the file
+      val offset = k * fileLength / numTiles
+      offset >= start && offset < end
+    }.map { k =>
+      val tileX = (k % numTilesX).toInt
+      val tileY = (k / numTilesX).toInt
+      (tileX, tileY, RasterConstructors.generateTile(raster, tileWidth, tileHeight, tileX, tileY))
+    }
+  }
+}
+
 // class for writing raster images
 private class RasterFileWriter(savePath: String,
                                rasterOptions: RasterOptions,
@@ -29,4 +29,11 @@ private[io] class RasterOptions(@transient private val parameters: CaseInsensiti
   val rasterPathField = parameters.get("pathField")
   // Column of the raster image itself
   val rasterField = parameters.get("rasterField")
+  // Split rasters into tiles when reading
+  val retile = parameters.getOrElse("retile", "true").toBoolean
+  // Size of tiles in pixels, defaults to the internal tile size of the file
+  val tileWidth = parameters.get("tileWidth").map(_.toInt)
+  val tileHeight = parameters.get("tileHeight").map(_.toInt)
+  // Keep the pixels of tiles in the file instead of reading them, see RS_FromGeoTiffPath
+  val outDb = parameters.getOrElse("outDb", "false").toBoolean
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.spark.sql.sedona_sql.optimization
+
+import org.apache.sedona.common.geometrySerde.GeometrySerializer
+import org.apache.sedona.core.spatialPartitioning.HilbertPartitioning
+import org.apache.spark.sql.SparkSession
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.catalyst.expressions.Alias
+import org.apache.spark.sql.catalyst.expressions.Ascending
+import org.apache.spark.sql.catalyst.expressions.Attribute
+import org.apache.spark.sql.catalyst.expressions.BinaryExpression
+import org.apache.spark.sql.catalyst.expressions.CreateStruct
+import org.apache.spark.sql.catalyst.expressions.Expression
+import org.apache.spark.sql.catalyst.expressions.ScalarSubquery
+import org.apache.spark.sql.catalyst.expressions.SortOrder
+import org.apache.spark.sql.catalyst.expressions.aggregate.Max
+import org.apache.spark.sql.catalyst.expressions.aggregate.Min
+import org.apache.spark.sql.catalyst.expressions.codegen.CodegenFallback
+import org.apache.spark.sql.catalyst.plans.logical.Aggregate
+import org.apache.spark.sql.catalyst.plans.logical.LogicalPlan
+import org.apache.spark.sql.catalyst.plans.logical.Project
+import org.apache.spark.sql.catalyst.plans.logical.Sort
+import org.apache.spark.sql.catalyst.rules.Rule
+import org.apache.spark.sql.execution.datasources.InsertIntoHadoopFsRelationCommand
+import org.apache.spark.sql.execution.datasources.parquet.GeoParquetFileFormatBase
+import org.apache.spark.sql.sedona_sql.UDT.GeometryUDT
+import org.apache.spark.sql.sedona_sql.expressions.ST_XMax
+import org.apache.spark.sql.sedona_sql.expressions.ST_XMin
+import org.apache.spark.sql.sedona_sql.expressions.ST_YMax
+import org.apache.spark.sql.sedona_sql.expressions.ST_YMin
+import org.apache.spark.sql.types.DataType
+import org.apache.spark.sql.types.IntegerType
+
+/**
+ * Sorts the rows written to GeoParquet files along a space-filling curve when the `spatialClustering` write option
+ * is set, for example `df.write.format("geoparquet").option("spatialClustering", "hilbert")`. Rows are range
+ * partitioned and sorted by the curve key of the center of their geometry envelopes, so that each output file and
+ * each row group covers a compact region. This makes the bboxes in the GeoParquet metadata tight enough for
+ * [[SpatialFilterPushDownForGeoParquet]] to prune files.
+ *
+ * The curve is computed on the first geometry column of the written dataframe, over the extent of that column. The
+ * extent is computed by a scalar subquery, so the input of the write is evaluated one more time.
+ */
+class SpatialClusteringForGeoParquet(sparkSession: SparkSession) extends Rule[LogicalPlan] {
+  import SpatialClusteringForGeoParquet._
+
+  override def apply(plan: LogicalPlan): LogicalPlan = plan transform {
+    case command: InsertIntoHadoopFsRelationCommand
+      if command.fileFormat.isInstanceOf[GeoParquetFileFormatBase] && clusteringCurve(command.options).isDefined =>
+      val curve = clusteringCurve(command.options).get
+      // Drop the option so that the command won't be rewritten again
+      val options = command.options.filterNot { case (key, _) => key.equalsIgnoreCase(SPATIAL_CLUSTERING_KEY) }
+      command.copy(query = cluster(command.query, curve, command.partitionColumns), options = options)
+  }
+
+  private def cluster(query: LogicalPlan, curve: String, partitionColumns: Seq[Attribute]): LogicalPlan = {
+    val geometry = query.output.find(_.dataType.isInstanceOf[GeometryUDT]).getOrElse {
+      throw new IllegalArgumentException(
+        s"Option $SPATIAL_CLUSTERING_KEY requires a geometry column in the written dataframe")
+    }
+    val extent = Aggregate(Nil, Seq(Alias(CreateStruct(Seq(
+      Min(ST_XMin(Seq(geometry))).toAggregateExpression(),
+      Min(ST_YMin(Seq(geometry))).toAggregateExpression(),
+      Max(ST_XMax(Seq(geometry))).toAggregateExpression(),
+      Max(ST_YMax(Seq(geometry))).toAggregateExpression())), "extent")()), query)
+    val key = Alias(SpatialClusteringKey(geometry, ScalarSubquery(extent), curve), "__spatial_clustering_key")()
+    // Keep rows of the same output partition together, otherwise the writer would sort them again by the
+    // partition columns.
+    val ordering = (partitionColumns :+ key.toAttribute).map(SortOrder(_, Ascending))
+    Project(query.output, Sort(ordering, global = true, Project(query.output :+ key, query)))
+  }
+}
+
+object SpatialClusteringForGeoParquet {
+  val SPATIAL_CLUSTERING_KEY = "spatialClustering"
+  val HILBERT = "hilbert"
+  val ZORDER = "zorder"
+
+  private def clusteringCurve(options: Map[String, String]): Option[String] = {
+    options.collectFirst { case (key, value) if key.equalsIgnoreCase(SPATIAL_CLUSTERING_KEY) => value.toLowerCase }
+      .map { curve =>
+        if (curve != HILBERT && curve != ZORDER) {
+          throw new IllegalArgumentException(
+            s"Unsupported $SPATIAL_CLUSTERING_KEY: $curve, should be one of $HILBERT and $ZORDER")
+        }
+        curve
+      }
+  }
+}
+
+/**
+ * Position of the center of the envelope of a geometry on a space-filling curve over the given extent. The extent
+ * is a struct of xmin, ymin, xmax and ymax. Returns null for null and empty geometries.
+ */
+case class SpatialClusteringKey(geometry: Expression, extent: Expression, curve: String)
+  extends BinaryExpression with CodegenFallback {
+
+  // Resolution of the grid on each axis, the same one HilbertPartitioning uses
+  private val gridResolution = Short.MaxValue
+
+  override def left: Expression = geometry
+
+  override def right: Expression = extent
+
+  override def dataType: DataType = IntegerType
+
+  override def nullable: Boolean = true
+
+  override protected def nullSafeEval(geometryValue: Any, extentValue: Any): Any = {
+    val extentRow = extentValue.asInstanceOf[InternalRow]
+    val bytes = geometryValue.asInstanceOf[Array[Byte]]
+    val envelope = Option(GeometrySerializer.peekEnvelope(bytes))
+      .getOrElse(GeometryUDT.deserialize(bytes).getEnvelopeInternal)
+    if (envelope.isNull || extentRow.anyNull) null else {
+      val centre = envelope.centre()
+      val x = gridLocation(extentRow.getDouble(0), centre.x, extentRow.getDouble(2))
+      val y = gridLocation(extentRow.getDouble(1), centre.y, extentRow.getDouble(3))
+      curve match {
+        case SpatialClusteringForGeoParquet.HILBERT => HilbertPartitioning.computeHValue(gridResolution + 1, x, y)
+        case _ => interleave(x, y)
+      }
+    }
+  }
+
+  private def gridLocation(axisMin: Double, axisLocation: Double, axisMax: Double): Int = {
+    // Envelopes peeked from the serialized geometries are rounded outwards, so their centers may fall slightly
+    // outside of the extent
+    val location = HilbertPartitioning.locationMapping(axisMin, axisLocation, axisMax)
+    math.min(math.max(location, 0), gridResolution)
+  }
+
+  private def interleave(x: Int, y: Int): Int = {
+    var z = 0
+    var i = 0
+    while (i < 15) {
+      z |= ((x >> i) & 1) << (2 * i)
+      z |= ((y >> i) & 1) << (2 * i + 1)
+      i += 1
+    }
+    z
+  }
+
+  protected def withNewChildrenInternal(newLeft: Expression, newRight: Expression): Expression =
+    copy(geometry = newLeft, extent = newRight)
+}
@@ -18,8 +18,10 @@
  */
 package org.apache.spark.sql.sedona_sql.strategy.join
 
+import org.apache.sedona.core.joinJudgement.PreparedGeometryCache
 import org.apache.sedona.core.spatialOperator.{SpatialPredicate, SpatialPredicateEvaluators}
 import org.apache.sedona.core.spatialOperator.SpatialPredicateEvaluators.SpatialPredicateEvaluator
+import org.apache.sedona.core.utils.SedonaConf
 import org.apache.sedona.sql.utils.{GeometrySerializer, RasterSerializer}
 
 import scala.collection.JavaConverters._
@@ -35,11 +37,9 @@ import org.apache.spark.sql.execution.{RowIterator, SparkPlan}
 import org.apache.spark.sql.sedona_sql.UDT.RasterUDT
 import org.apache.spark.sql.sedona_sql.execution.SedonaBinaryExecNode
 import org.locationtech.jts.geom.Geometry
-import org.locationtech.jts.geom.prep.{PreparedGeometry, PreparedGeometryFactory}
 import org.locationtech.jts.index.SpatialIndex
 
 import java.util.Collections
-import scala.collection.mutable
 
 case class BroadcastIndexJoinExec(
   left: SparkPlan,
@@ -126,34 +126,45 @@ case class BroadcastIndexJoinExec(
     SpatialPredicateEvaluators.create(SpatialPredicate.inverse(spatialPredicate))
   }
 
-  private def innerJoin(streamIter: Iterator[(Geometry, UnsafeRow)], index: Broadcast[SpatialIndex]): Iterator[InternalRow] = {
-    val factory = new PreparedGeometryFactory()
-    val preparedGeometries = new mutable.HashMap[Geometry, PreparedGeometry]
+  /**
+   * Create a function evaluating the spatial predicate on an index candidate and a stream side geometry.
+   * Candidates are prepared and kept in a bounded cache keyed by identity, so that a candidate matching
+   * many stream side geometries is prepared only once per partition.
+   */
+  private def createMatcher(preparedGeometryCacheSize: Int): (Geometry, Geometry) => Boolean = {
+    if (preparedGeometryCacheSize > 0) {
+      val preparedGeometries = new PreparedGeometryCache(preparedGeometryCacheSize)
+      (candidate, geom) => evaluator.eval(preparedGeometries.get(candidate), geom)
+    } else {
+      (candidate, geom) => evaluator.eval(candidate, geom)
+    }
+  }
+
+  private def innerJoin(streamIter: Iterator[(Geometry, UnsafeRow)], index: Broadcast[SpatialIndex],
+                        preparedGeometryCacheSize: Int): Iterator[InternalRow] = {
+    val matches = createMatcher(preparedGeometryCacheSize)
     val joinedRow = new JoinedRow
     streamIter.flatMap { case (geom, row) =>
       joinedRow.withLeft(row)
       index.value.query(geom.getEnvelopeInternal)
         .iterator.asScala.asInstanceOf[Iterator[Geometry]]
-        .filter(candidate => evaluator.eval(preparedGeometries.getOrElseUpdate(candidate, { factory.create(candidate) }), geom))
+        .filter(candidate => matches(candidate, geom))
         .map(candidate => joinedRow.withRight(candidate.getUserData.asInstanceOf[UnsafeRow]))
         .filter(boundCondition)
     }
   }
 
   private def semiJoin(
-    streamIter: Iterator[(Geometry, UnsafeRow)], index: Broadcast[SpatialIndex]
+    streamIter: Iterator[(Geometry, UnsafeRow)], index: Broadcast[SpatialIndex], preparedGeometryCacheSize: Int
   ): Iterator[InternalRow] = {
-    val factory = new PreparedGeometryFactory()
-    val preparedGeometries = new mutable.HashMap[Geometry, PreparedGeometry]
+    val matches = createMatcher(preparedGeometryCacheSize)
     val joinedRow = new JoinedRow
     streamIter.flatMap { case (geom, row) =>
       val left = row
       joinedRow.withLeft(left)
       val anyMatches = index.value.query(geom.getEnvelopeInternal)
         .iterator.asScala.asInstanceOf[Iterator[Geometry]]
-        .filter(candidate => evaluator.eval(preparedGeometries.getOrElseUpdate(candidate, {
-          factory.create(candidate)
-        }), geom))
+        .filter(candidate => matches(candidate, geom))
         .map(candidate => joinedRow.withRight(candidate.getUserData.asInstanceOf[UnsafeRow]))
         .exists(boundCondition)
 
@@ -166,19 +177,16 @@ case class BroadcastIndexJoinExec(
   }
 
   private def antiJoin(
-    streamIter: Iterator[(Geometry, UnsafeRow)], index: Broadcast[SpatialIndex]
+    streamIter: Iterator[(Geometry, UnsafeRow)], index: Broadcast[SpatialIndex], preparedGeometryCacheSize: Int
   ): Iterator[InternalRow] = {
-    val factory = new PreparedGeometryFactory()
-    val preparedGeometries = new mutable.HashMap[Geometry, PreparedGeometry]
+    val matches = createMatcher(preparedGeometryCacheSize)
     val joinedRow = new JoinedRow
     streamIter.flatMap { case (geom, row) =>
       val left = row
       joinedRow.withLeft(row)
       val anyMatches = (if (geom == null) Collections.EMPTY_LIST else index.value.query(geom.getEnvelopeInternal))
         .iterator.asScala.asInstanceOf[Iterator[Geometry]]
-        .filter(candidate => evaluator.eval(preparedGeometries.getOrElseUpdate(candidate, {
-          factory.create(candidate)
-        }), geom))
+        .filter(candidate => matches(candidate, geom))
         .map(candidate => joinedRow.withRight(candidate.getUserData.asInstanceOf[UnsafeRow]))
         .exists(boundCondition)
 
@@ -191,10 +199,9 @@ case class BroadcastIndexJoinExec(
   }
 
   private def outerJoin(
-    streamIter: Iterator[(Geometry, UnsafeRow)], index: Broadcast[SpatialIndex]
+    streamIter: Iterator[(Geometry, UnsafeRow)], index: Broadcast[SpatialIndex], preparedGeometryCacheSize: Int
   ): Iterator[InternalRow] = {
-    val factory = new PreparedGeometryFactory()
-    val preparedGeometries = new mutable.HashMap[Geometry, PreparedGeometry]
+    val matches = createMatcher(preparedGeometryCacheSize)
     val joinedRow = new JoinedRow
     val nullRow = new GenericInternalRow(broadcast.output.length)
 
@@ -202,9 +209,7 @@ case class BroadcastIndexJoinExec(
       joinedRow.withLeft(row)
       val candidates = (if (geom == null) Collections.EMPTY_LIST else index.value.query(geom.getEnvelopeInternal))
         .iterator.asScala.asInstanceOf[Iterator[Geometry]]
-        .filter(candidate => evaluator.eval(preparedGeometries.getOrElseUpdate(candidate, {
-          factory.create(candidate)
-        }), geom))
+        .filter(candidate => matches(candidate, geom))
 
       new RowIterator {
         private var found = false
@@ -234,19 +239,20 @@ case class BroadcastIndexJoinExec(
     val streamResultsRaw = streamed.execute().asInstanceOf[RDD[UnsafeRow]]
 
     val broadcastIndex = broadcast.executeBroadcast[SpatialIndex]()
+    val preparedGeometryCacheSize = SedonaConf.fromActiveSession.getPreparedGeometryCacheSize
 
     val streamShapes = createStreamShapes(streamResultsRaw, boundStreamShape)
 
     streamShapes.mapPartitions { streamedIter =>
       val joinedIter = joinType match {
         case _: InnerLike =>
-          innerJoin(streamedIter, broadcastIndex)
+          innerJoin(streamedIter, broadcastIndex, preparedGeometryCacheSize)
         case LeftSemi =>
-          semiJoin(streamedIter, broadcastIndex)
+          semiJoin(streamedIter, broadcastIndex, preparedGeometryCacheSize)
         case LeftAnti =>
-          antiJoin(streamedIter, broadcastIndex)
+          antiJoin(streamedIter, broadcastIndex, preparedGeometryCacheSize)
         case LeftOuter | RightOuter =>
-          outerJoin(streamedIter, broadcastIndex)
+          outerJoin(streamedIter, broadcastIndex, preparedGeometryCacheSize)
         case x: Any =>
           throw new IllegalArgumentException(s"BroadcastIndexJoinExec should not take $x as the JoinType")
       }
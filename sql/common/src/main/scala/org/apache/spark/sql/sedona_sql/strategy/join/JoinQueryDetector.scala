@@ -50,6 +50,8 @@ case class JoinQueryDetection(
   * Plans `DistanceJoinExec` for inner joins on spatial relationship ST_Distance(a, b) < r.
   *
   * Plans `BroadcastIndexJoinExec` for inner joins on spatial relationships with a broadcast hint.
+  *
+  * Plans `KNNJoinExec` for inner joins on ST_KNN(a, b, k).
   */
 class JoinQueryDetector(sparkSession: SparkSession) extends Strategy {
 
@@ -94,7 +96,23 @@ class JoinQueryDetector(sparkSession: SparkSession) extends Strategy {
     Some(JoinQueryDetection(left, right, leftShape, rightShape, SpatialPredicate.INTERSECTS, false, Some(condition)))
   }
 
+  /**
+   * Find the ST_KNN conjunct of a join condition, and the conjunction of the other conjuncts. Conditions with more
+   * than one ST_KNN conjunct are not supported.
+   */
+  private def getKNNJoinDetection(condition: Option[Expression]): Option[(ST_KNN, Option[Expression])] = {
+    val predicates = condition.map(splitConjunctivePredicates).getOrElse(Nil)
+    predicates.collect { case knn: ST_KNN => knn } match {
+      case Seq(knn) => Some((knn, predicates.filterNot(_ eq knn).reduceOption(And)))
+      case _ => None
+    }
+  }
+
   def apply(plan: LogicalPlan): Seq[SparkPlan] = plan match {
+    // ST_KNN cannot be evaluated row by row, so it is planned regardless of the join optimization mode
+    case Join(left, right, joinType, condition, _) if getKNNJoinDetection(condition).isDefined =>
+      val (knn, extraCondition) = getKNNJoinDetection(condition).get
+      planKNNJoin(left, right, knn, joinType, extraCondition)
     case Join(left, right, joinType, condition, JoinHint(leftHint, rightHint)) if optimizationEnabled(left, right, condition) => {
       var broadcastLeft = leftHint.exists(_.strategy.contains(BROADCAST))
       var broadcastRight = rightHint.exists(_.strategy.contains(BROADCAST))
@@ -317,6 +335,37 @@ class JoinQueryDetector(sparkSession: SparkSession) extends Strategy {
     }
   }
 
+  private def planKNNJoin(
+    left: LogicalPlan,
+    right: LogicalPlan,
+    knn: ST_KNN,
+    joinType: JoinType,
+    extraCondition: Option[Expression]): Seq[SparkPlan] = {
+
+    if (joinType != Inner) {
+      logInfo("KNN join is only supported for inner joins")
+      return Nil
+    }
+
+    val Seq(a, b, k) = knn.inputExpressions
+    if (!k.foldable) {
+      logInfo("KNN join with a k that is not a constant is not supported")
+      return Nil
+    }
+
+    matchExpressionsToPlans(a, b, left, right) match {
+      case Some((_, _, false)) =>
+        logInfo("Planning KNN join, query geometries on the left relation")
+        KNNJoinExec(planLater(left), planLater(right), a, b, k, queryOnLeft = true, extraCondition) :: Nil
+      case Some((_, _, true)) =>
+        logInfo("Planning KNN join, query geometries on the right relation")
+        KNNJoinExec(planLater(left), planLater(right), b, a, k, queryOnLeft = false, extraCondition) :: Nil
+      case None =>
+        logInfo("KNN join for ST_KNN with arguments not aligned with join relations is not supported")
+        Nil
+    }
+  }
+
   private def planDistanceJoin(
     left: LogicalPlan,
     right: LogicalPlan,
@@ -19,12 +19,14 @@
 package org.apache.spark.sql.sedona_sql.strategy.join
 
 import org.apache.sedona.common.sphere.Haversine
-import org.locationtech.jts.geom.{Envelope, Geometry}
+import org.locationtech.jts.geom.{Envelope, Geometry, GeometryFactory}
 
 /**
  * Utility functions for generating geometries for spatial join.
  */
 object JoinedGeometry {
+  private val geometryFactory = new GeometryFactory()
+
   /**
    * Convert the given geometry to an envelope expanded by distance.
    * @param geom the geometry to expand
@@ -33,15 +35,25 @@ object JoinedGeometry {
    * @return the expanded envelope
    */
   def geometryToExpandedEnvelope(geom: Geometry, distance: Double, isGeography: Boolean): Geometry = {
-    val envelope = geom.getEnvelopeInternal.copy()
+    envelopeToExpandedEnvelope(geom.getEnvelopeInternal, distance, isGeography)
+  }
+
+  /**
+   * Convert the given envelope of a geometry to an envelope expanded by distance.
+   * @param envelope the envelope to expand
+   * @param distance the distance to expand
+   * @param isGeography whether the geometry is on a sphere
+   * @return the expanded envelope
+   */
+  def envelopeToExpandedEnvelope(envelope: Envelope, distance: Double, isGeography: Boolean): Geometry = {
     val expandedEnvelope = if (isGeography) {
-      expandEnvelopeForGeography(envelope, distance)
+      expandEnvelopeForGeography(envelope.copy(), distance)
     } else {
       val newEnvelope = envelope.copy()
       newEnvelope.expandBy(distance)
       newEnvelope
     }
-    geom.getFactory.toGeometry(expandedEnvelope)
+    geometryFactory.toGeometry(expandedEnvelope)
   }
 
   /**
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.spark.sql.sedona_sql.strategy.join
+
+import org.apache.sedona.core.spatialOperator.JoinQuery
+import org.apache.sedona.core.utils.SedonaConf
+import org.apache.spark.internal.Logging
+import org.apache.spark.rdd.RDD
+import org.apache.spark.sql.catalyst.InternalRow
+import org.apache.spark.sql.catalyst.expressions.codegen.GenerateUnsafeRowJoiner
+import org.apache.spark.sql.catalyst.expressions.{Attribute, BindReferences, Expression, Predicate, UnsafeRow}
+import org.apache.spark.sql.execution.SparkPlan
+import org.apache.spark.sql.sedona_sql.execution.SedonaBinaryExecNode
+import org.locationtech.jts.geom.Geometry
+
+/**
+  * ST_KNN(query, object, k) - object is one of the k nearest neighbours of query
+  *
+  * The object side is spatially partitioned and indexed, and each query is searched in the partition it falls
+  * into first, then only in the partitions that may hold a closer neighbour. See [[JoinQuery.knnJoin]].
+  *
+  * @param left       left side of the join
+  * @param right      right side of the join
+  * @param leftShape  expression for the geometry of the left side
+  * @param rightShape expression for the geometry of the right side
+  * @param k          number of neighbours, must be foldable
+  * @param queryOnLeft true if the query geometries are on the left side
+  * @param extraCondition extra join condition other than ST_KNN
+  */
+case class KNNJoinExec(left: SparkPlan,
+                       right: SparkPlan,
+                       leftShape: Expression,
+                       rightShape: Expression,
+                       k: Expression,
+                       queryOnLeft: Boolean,
+                       extraCondition: Option[Expression] = None)
+  extends SedonaBinaryExecNode
+    with TraitJoinQueryBase
+    with Logging {
+
+  override def output: Seq[Attribute] = left.output ++ right.output
+
+  override protected def doExecute(): RDD[InternalRow] = {
+    val boundLeftShape = BindReferences.bindReference(leftShape, left.output)
+    val boundRightShape = BindReferences.bindReference(rightShape, right.output)
+
+    // Rows without geometry have no neighbours and are never a neighbour
+    val leftResultsRaw = left.execute().asInstanceOf[RDD[UnsafeRow]].filter(row => boundLeftShape.eval(row) != null)
+    val rightResultsRaw = right.execute().asInstanceOf[RDD[UnsafeRow]].filter(row => boundRightShape.eval(row) != null)
+
+    val leftShapes = toSpatialRDD(leftResultsRaw, boundLeftShape)
+    val rightShapes = toSpatialRDD(rightResultsRaw, boundRightShape)
+    val (queryShapes, objectShapes) = if (queryOnLeft) (leftShapes, rightShapes) else (rightShapes, leftShapes)
+
+    val numNeighbours = k.eval().asInstanceOf[Int]
+    val sedonaConf = SedonaConf.fromActiveSession
+    objectShapes.analyze()
+
+    val matchesRDD: RDD[(Geometry, Geometry)] = if (objectShapes.approximateTotalCount > 0) {
+      val numPartitions = if (sedonaConf.getFallbackPartitionNum != -1) {
+        sedonaConf.getFallbackPartitionNum
+      } else {
+        // The partitioner needs at least two samples per partition
+        math.max(1, math.min(objectShapes.rawSpatialRDD.partitions.size().toLong, objectShapes.approximateTotalCount / 2).toInt)
+      }
+      objectShapes.calc_partitioner(sedonaConf.getJoinGridType, numPartitions)
+      JoinQuery.knnJoin(queryShapes, objectShapes, numNeighbours).rdd
+    } else {
+      sparkContext.parallelize(Seq[(Geometry, Geometry)]())
+    }
+
+    matchesRDD.mapPartitions { iter =>
+      val joiner = GenerateUnsafeRowJoiner.create(left.schema, right.schema)
+      val joined = iter.map { case (query, neighbour) =>
+        val (l, r) = if (queryOnLeft) (query, neighbour) else (neighbour, query)
+        joiner.join(l.getUserData.asInstanceOf[UnsafeRow], r.getUserData.asInstanceOf[UnsafeRow])
+      }
+
+      extraCondition match {
+        case Some(condition) =>
+          val boundCondition = Predicate.create(condition, output)
+          joined.filter(row => boundCondition.eval(row))
+        case None => joined
+      }
+    }
+  }
+
+  protected def withNewChildrenInternal(newLeft: SparkPlan, newRight: SparkPlan): SparkPlan = {
+    copy(left = newLeft, right = newRight)
+  }
+}
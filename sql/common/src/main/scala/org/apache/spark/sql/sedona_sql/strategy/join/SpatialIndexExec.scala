@@ -19,14 +19,22 @@
 package org.apache.spark.sql.sedona_sql.strategy.join
 
 import scala.jdk.CollectionConverters._
+import org.apache.sedona.common.index.PackedRTree
 import org.apache.sedona.core.enums.IndexType
+import org.apache.sedona.core.spatialRddTool.IndexBuilder
+import org.apache.spark.RangePartitioner
 import org.apache.spark.broadcast.Broadcast
 import org.apache.spark.internal.Logging
 import org.apache.spark.rdd.RDD
 import org.apache.spark.sql.catalyst.InternalRow
 import org.apache.spark.sql.catalyst.expressions.{Attribute, BindReferences, Expression, UnsafeRow}
-import org.apache.spark.sql.execution.SparkPlan
+import org.apache.spark.sql.execution.{SQLExecution, SparkPlan}
+import org.apache.spark.sql.execution.metric.SQLMetrics
 import org.apache.spark.sql.sedona_sql.execution.SedonaUnaryExecNode
+import org.locationtech.jts.geom.Geometry
+import org.locationtech.jts.index.SpatialIndex
+
+import java.util.concurrent.TimeUnit
 
 
 case class SpatialIndexExec(child: SparkPlan,
@@ -40,7 +48,13 @@ case class SpatialIndexExec(child: SparkPlan,
     with Logging {
 
   override def output: Seq[Attribute] = child.output
-  
+
+  override lazy val metrics = Map(
+    "numGeometries" -> SQLMetrics.createMetric(sparkContext, "number of indexed geometries"),
+    "collectTime" -> SQLMetrics.createTimingMetric(sparkContext, "time to build partition indexes and collect"),
+    "buildTime" -> SQLMetrics.createTimingMetric(sparkContext, "time to build index on driver"),
+    "broadcastTime" -> SQLMetrics.createTimingMetric(sparkContext, "time to broadcast"))
+
   override protected def doExecute(): RDD[InternalRow] = {
     throw new UnsupportedOperationException(
       "SpatialIndex does not support the execute() code path.")
@@ -48,7 +62,7 @@ case class SpatialIndexExec(child: SparkPlan,
 
   override protected[sql] def doExecuteBroadcast[T](): Broadcast[T] = {
     val boundShape = BindReferences.bindReference(shape, child.output)
-    val resultRaw = child.execute().asInstanceOf[RDD[UnsafeRow]].coalesce(1)
+    val resultRaw = child.execute().asInstanceOf[RDD[UnsafeRow]]
     val spatialRDD = distance match {
       case Some(distanceExpression) => toExpandedEnvelopeRDD(resultRaw, boundShape, BindReferences.bindReference(distanceExpression, child.output), isGeography)
       case None => if (isRasterPredicate) {
@@ -58,8 +72,51 @@ case class SpatialIndexExec(child: SparkPlan,
       }
     }
 
-    spatialRDD.buildIndex(indexType, false)
-    sparkContext.broadcast(spatialRDD.indexedRawRDD.take(1).asScala.head).asInstanceOf[Broadcast[T]]
+    val geometries = spatialRDD.rawSpatialRDD.rdd
+    val beforeCollect = System.nanoTime()
+    val (index, numGeometries, beforeBuild) = indexType match {
+      case IndexType.QUADTREE =>
+        // Quadtrees depend on the insertion of every item and cannot be merged, so they are built on the driver.
+        val collected = geometries.collect()
+        val beforeBuild = System.nanoTime()
+        (new IndexBuilder[Geometry](indexType).call(collected.iterator.asJava).next(), collected.length, beforeBuild)
+      case _ =>
+        val partitionTrees = buildPartitionTrees(geometries).collect()
+        val beforeBuild = System.nanoTime()
+        val tree = PackedRTree.merge(PackedRTree.DEFAULT_NODE_CAPACITY, partitionTrees.toList.asJava)
+        (tree, tree.size(), beforeBuild)
+    }
+    val beforeBroadcast = System.nanoTime()
+    val broadcasted = sparkContext.broadcast[SpatialIndex](index)
+    val afterBroadcast = System.nanoTime()
+
+    longMetric("numGeometries") += numGeometries
+    longMetric("collectTime") += TimeUnit.NANOSECONDS.toMillis(beforeBuild - beforeCollect)
+    longMetric("buildTime") += TimeUnit.NANOSECONDS.toMillis(beforeBroadcast - beforeBuild)
+    longMetric("broadcastTime") += TimeUnit.NANOSECONDS.toMillis(afterBroadcast - beforeBroadcast)
+    val executionId = sparkContext.getLocalProperty(SQLExecution.EXECUTION_ID_KEY)
+    SQLMetrics.postDriverMetricUpdates(sparkContext, executionId, metrics.values.toSeq)
+
+    broadcasted.asInstanceOf[Broadcast[T]]
+  }
+
+  /**
+   * Builds R-trees of vertical slices of the geometries in parallel, the Sort-Tile-Recursive packing of the whole
+   * index being done in each slice. Geometries are range partitioned by the x of their envelope centers, so the
+   * trees collected in partition order could be merged by building only their upper levels.
+   */
+  private def buildPartitionTrees(geometries: RDD[Geometry]): RDD[PackedRTree] = {
+    val byCenterX = geometries.map { geometry =>
+      val envelope = geometry.getEnvelopeInternal
+      (if (envelope.isNull) 0.0 else (envelope.getMinX + envelope.getMaxX) / 2, geometry)
+    }
+    val numSlices = math.max(byCenterX.getNumPartitions, 1)
+    byCenterX.partitionBy(new RangePartitioner(numSlices, byCenterX)).mapPartitions { iter =>
+      val tree = new PackedRTree()
+      iter.foreach { case (_, geometry) => tree.insert(geometry.getEnvelopeInternal, geometry) }
+      tree.build()
+      Iterator.single(tree)
+    }
   }
 
   protected def withNewChildInternal(newChild: SparkPlan): SparkPlan = {
@@ -18,6 +18,7 @@
  */
 package org.apache.spark.sql.sedona_sql.strategy.join
 
+import org.apache.sedona.core.spatialPartitioning.SkewAwarePartitioning
 import org.apache.sedona.core.spatialRDD.SpatialRDD
 import org.apache.sedona.core.utils.SedonaConf
 import org.apache.sedona.sql.utils.{GeometrySerializer, RasterSerializer}
@@ -84,9 +85,12 @@ trait TraitJoinQueryBase {
     spatialRdd.setRawSpatialRDD(
       rdd
         .map { x =>
-          val shape = GeometrySerializer.deserialize(shapeExpression.eval(x).asInstanceOf[Array[Byte]])
+          // Only the envelope is needed here, read it from the serialized geometry when possible
+          val shapeBytes = shapeExpression.eval(x).asInstanceOf[Array[Byte]]
+          val envelope = Option(GeometrySerializer.peekEnvelope(shapeBytes))
+            .getOrElse(GeometrySerializer.deserialize(shapeBytes).getEnvelopeInternal)
           val distance = boundRadius.eval(x).asInstanceOf[Double]
-          val expandedEnvelope = JoinedGeometry.geometryToExpandedEnvelope(shape, distance, isGeography)
+          val expandedEnvelope = JoinedGeometry.envelopeToExpandedEnvelope(envelope, distance, isGeography)
           expandedEnvelope.setUserData(x.copy)
           expandedEnvelope
         }
@@ -97,8 +101,16 @@ trait TraitJoinQueryBase {
   def doSpatialPartitioning(dominantShapes: SpatialRDD[Geometry], followerShapes: SpatialRDD[Geometry],
                             numPartitions: Integer, sedonaConf: SedonaConf): Unit = {
     if (dominantShapes.approximateTotalCount > 0) {
-      dominantShapes.spatialPartitioning(sedonaConf.getJoinGridType, numPartitions)
-      followerShapes.spatialPartitioning(dominantShapes.getPartitioner)
+      if (sedonaConf.getJoinSkewEnabled) {
+        dominantShapes.calc_partitioner(sedonaConf.getJoinGridType, numPartitions)
+        val partitioner = new SkewAwarePartitioning(dominantShapes.getPartitioner, dominantShapes, followerShapes,
+          sedonaConf.getJoinSkewFactor, sedonaConf.getJoinSkewMaxSplits).getPartitioner
+        dominantShapes.spatialPartitioning(partitioner)
+        followerShapes.spatialPartitioning(partitioner)
+      } else {
+        dominantShapes.spatialPartitioning(sedonaConf.getJoinGridType, numPartitions)
+        followerShapes.spatialPartitioning(dominantShapes.getPartitioner)
+      }
     }
   }
 }
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sedona.sql
+
+import org.apache.spark.sql.functions.expr
+import org.apache.spark.sql.sedona_sql.strategy.join.KNNJoinExec
+import org.locationtech.jts.geom.Geometry
+
+class KnnJoinSuite extends TestBaseScala {
+
+  describe("Sedona-SQL KNN join") {
+
+    def checkNeighbours(queries: Seq[Geometry], points: Seq[Geometry], result: Seq[(Geometry, Geometry)], k: Int): Unit = {
+      assert(result.length == queries.length * k)
+      queries.foreach { query =>
+        val multiplicity = queries.count(_.equalsExact(query))
+        val nearest = points.map(query.distance).sorted.take(k)
+        val expected = Seq.fill(multiplicity)(nearest).flatten.sorted
+        val actual = result.filter(_._1.equalsExact(query)).map { case (q, p) => q.distance(p) }.sorted
+        assert(actual == expected)
+      }
+    }
+
+    it("Passed ST_KNN join finds the k nearest neighbours of each query") {
+      val queryDf = buildPolygonDf.selectExpr("ST_Centroid(polygonshape) as queryshape").limit(20).cache().repartition(2)
+      val pointDf = buildPointDf.repartition(4)
+
+      val knnDf = queryDf.alias("queryDf").join(pointDf.alias("pointDf"),
+        expr("ST_KNN(queryDf.queryshape, pointDf.pointshape, 5)"))
+      assert(knnDf.queryExecution.sparkPlan.collect { case p: KNNJoinExec => p }.size === 1)
+
+      val queries = queryDf.collect().map(_.getAs[Geometry](0)).toSeq
+      val points = pointDf.collect().map(_.getAs[Geometry](0)).toSeq
+      val result = knnDf.collect().map(row => (row.getAs[Geometry](0), row.getAs[Geometry](1))).toSeq
+      checkNeighbours(queries, points, result, 5)
+    }
+
+    it("Passed ST_KNN join with query geometries on the right side") {
+      val queryDf = buildPolygonDf.selectExpr("ST_Centroid(polygonshape) as queryshape").limit(10).cache()
+      val pointDf = buildPointDf.repartition(3)
+
+      val knnDf = pointDf.alias("pointDf").join(queryDf.alias("queryDf"),
+        expr("ST_KNN(queryDf.queryshape, pointDf.pointshape, 3)"))
+      assert(knnDf.queryExecution.sparkPlan.collect { case p: KNNJoinExec => p }.size === 1)
+
+      val queries = queryDf.collect().map(_.getAs[Geometry](0)).toSeq
+      val points = pointDf.collect().map(_.getAs[Geometry](0)).toSeq
+      val result = knnDf.collect().map(row => (row.getAs[Geometry](1), row.getAs[Geometry](0))).toSeq
+      checkNeighbours(queries, points, result, 3)
+    }
+
+    it("Passed ST_KNN join with several extra conditions") {
+      val queryDf = buildPolygonDf.selectExpr("ST_Centroid(polygonshape) as queryshape").limit(20).cache()
+      val pointDf = buildPointDf.repartition(3)
+      val allQueries = queryDf.collect().map(_.getAs[Geometry](0)).toSeq
+      val threshold = allQueries.map(_.getCoordinate.x).sorted.apply(allQueries.length / 2)
+
+      // Parsed as And(And(ST_KNN, x), y)
+      val knnDf = queryDf.alias("queryDf").join(pointDf.alias("pointDf"),
+        expr(s"ST_KNN(queryDf.queryshape, pointDf.pointshape, 4) AND " +
+          s"ST_Distance(queryDf.queryshape, pointDf.pointshape) >= 0 AND ST_X(queryDf.queryshape) < $threshold"))
+      assert(knnDf.queryExecution.sparkPlan.collect { case p: KNNJoinExec => p }.size === 1)
+
+      val queries = allQueries.filter(_.getCoordinate.x < threshold)
+      assert(queries.nonEmpty && queries.length < allQueries.length)
+      val points = pointDf.collect().map(_.getAs[Geometry](0)).toSeq
+      val result = knnDf.collect().map(row => (row.getAs[Geometry](0), row.getAs[Geometry](1))).toSeq
+      checkNeighbours(queries, points, result, 4)
+    }
+  }
+}
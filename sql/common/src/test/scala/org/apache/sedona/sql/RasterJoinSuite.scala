@@ -18,7 +18,7 @@
  */
 package org.apache.sedona.sql
 
-import org.apache.sedona.common.raster.{RasterConstructors, RasterPredicates}
+import org.apache.sedona.common.raster.{RasterBandAccessors, RasterConstructors, RasterPredicates}
 import org.apache.spark.sql.DataFrame
 import org.apache.spark.sql.sedona_sql.strategy.join.{BroadcastIndexJoinExec, RangeJoinExec}
 import org.geotools.coverage.grid.GridCoverage2D
@@ -228,6 +228,29 @@ class RasterJoinSuite extends TestBaseScala with TableDrivenPropertyChecks {
     }
   }
 
+  describe("zonal statistics of joined rasters and geometries") {
+    it("RS_ZonalStats over RS_Intersects join") {
+      val zones = geometries.filter { case (geom, _) => geom.getDimension == 2 && geom.getSRID > 0 }
+      val expected = rasters.flatMap { case (rast, rastId) =>
+        zones.flatMap { case (geom, geomId) =>
+          if (RasterPredicates.rsIntersects(rast, geom)) {
+            Some((rastId, geomId, RasterBandAccessors.getZonalStats(rast, geom, 1, "count").doubleValue()))
+          } else {
+            None
+          }
+        }
+      }.sorted
+      val result = sparkSession.sql(
+        """SELECT df1.id, df2.id, RS_ZonalStats(df1.rast, df2.geom, 1, 'count')
+          |FROM df1 JOIN df2 ON RS_Intersects(df1.rast, df2.geom)
+          |WHERE ST_Dimension(df2.geom) = 2 AND ST_SRID(df2.geom) > 0""".stripMargin)
+      assert(isUsingOptimizedSpatialJoin(result))
+      val actual = result.collect().map(row => (row.getInt(0), row.getInt(1), row.getDouble(2))).sorted
+      assert(actual.exists(_._3 > 0))
+      assert(actual === expected)
+    }
+  }
+
   private def prepareTempViewsForTestData(): Unit = {
     import sparkSession.implicits._
     rasters.toDF("rast", "id").createOrReplaceTempView("df1")
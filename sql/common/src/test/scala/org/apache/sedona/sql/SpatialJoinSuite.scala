@@ -172,6 +172,40 @@ class SpatialJoinSuite extends TestBaseScala with TableDrivenPropertyChecks {
     }
   }
 
+  describe("Spatial join in Sedona SQL should split skewed partitions when sedona.join.skew.enabled = true") {
+    val joinConditions = Table("join condition",
+      "ST_Contains(df1.geom, df2.geom)",
+      "ST_Intersects(df1.geom, df2.geom)",
+      "ST_Distance(df1.geom, df2.geom) < 1.0"
+    )
+
+    forAll (joinConditions) { joinCondition =>
+      it(s"should join two dataframes with $joinCondition and skew handling") {
+        withSkewHandling("0.5", "4") {
+          prepareTempViewsForTestData()
+          val result = sparkSession.sql(s"SELECT df1.id, df2.id FROM df1 JOIN df2 ON $joinCondition")
+          assert(isUsingOptimizedSpatialJoin(result))
+          val expected = buildExpectedResult(joinCondition)
+          verifyResult(expected, result)
+        }
+      }
+    }
+  }
+
+  private def withSkewHandling(factor: String, maxSplits: String)(body: => Unit) : Unit = {
+    val keys = Seq("sedona.join.skew.enabled", "sedona.join.skew.factor", "sedona.join.skew.maxsplits")
+    val oldValues = keys.map(key => sparkSession.conf.getOption(key))
+    try {
+      keys.zip(Seq("true", factor, maxSplits)).foreach { case (key, value) => sparkSession.conf.set(key, value) }
+      body
+    } finally {
+      keys.zip(oldValues).foreach {
+        case (key, Some(value)) => sparkSession.conf.set(key, value)
+        case (key, None) => sparkSession.conf.unset(key)
+      }
+    }
+  }
+
   private def withOptimizationMode(mode: String)(body: => Unit) : Unit = {
     val oldOptimizationMode = sparkSession.conf.get("sedona.join.optimizationmode", "nonequi")
     try {
@@ -19,6 +19,8 @@
 
 package org.apache.sedona.sql
 
+import org.apache.spark.sql.functions.expr
+import org.apache.spark.sql.sedona_sql.expressions.st_aggregates
 import org.locationtech.jts.geom.{Coordinate, Geometry, GeometryFactory}
 
 class aggregateFunctionTestScala extends TestBaseScala {
@@ -42,6 +44,22 @@ class aggregateFunctionTestScala extends TestBaseScala {
       assert(boundary.take(1)(0).get(0) == geometryFactory.createPolygon(coordinates))
     }
 
+    it("Passed ST_Envelope_aggr with groups, nulls and empty geometries") {
+      import sparkSession.implicits._
+      val df = Seq(
+        (1, "LINESTRING (0.1 0.2, 3 4)"),
+        (1, "GEOMETRYCOLLECTION (POINT (-1 2), POLYGON ((5 5, 6 5, 6 6, 5 5)))"),
+        (1, null),
+        (2, "POINT EMPTY"),
+        (2, null)
+      ).toDF("id", "wkt").selectExpr("id", "IF(wkt IS NULL, NULL, ST_GeomFromText(wkt)) AS geom")
+      val result = df.groupBy("id").agg(expr("ST_Envelope_Aggr(geom)")).orderBy("id").collect()
+      assert(result(0).getAs[Geometry](1).toText == "POLYGON ((-1 0.2, -1 6, 6 6, 6 0.2, -1 0.2))")
+      assert(result(1).isNullAt(1))
+      val envelope = df.where("id = 1").agg(st_aggregates.ST_Envelope_Aggr("geom")).first().getAs[Geometry](0)
+      assert(envelope.toText == "POLYGON ((-1 0.2, -1 6, 6 6, 6 0.2, -1 0.2))")
+    }
+
     it("Passed ST_Union_aggr") {
 
       var polygonCsvDf = sparkSession.read.format("csv").option("delimiter", ",").option("header", "false").load(unionPolygonInputLocation)
@@ -52,6 +70,24 @@ class aggregateFunctionTestScala extends TestBaseScala {
       assert(union.take(1)(0).get(0).asInstanceOf[Geometry].getArea == 10100)
     }
 
+    it("Passed ST_Union_aggr with groups, nulls and empty input") {
+      import sparkSession.implicits._
+      val df = Seq(
+        (1, "POLYGON ((0 0, 2 0, 2 2, 0 2, 0 0))"),
+        (1, null),
+        (1, "POLYGON ((1 1, 3 1, 3 3, 1 3, 1 1))"),
+        (2, null)
+      ).toDF("id", "wkt").selectExpr("id", "IF(wkt IS NULL, NULL, ST_GeomFromText(wkt)) AS geom")
+      df.createOrReplaceTempView("union_input")
+      val result = sparkSession.sql("select id, ST_Union_Aggr(geom) from union_input group by id order by id").collect()
+      assert(result(0).getAs[Geometry](1).getArea == 7)
+      // Groups of null geometries and empty inputs have no union
+      assert(result(1).isNullAt(1))
+      val empty = sparkSession.sql("select ST_Union_Aggr(geom) from union_input where id = 3").collect()
+      assert(empty.length == 1)
+      assert(empty(0).isNullAt(0))
+    }
+
     it("Passed ST_Intersection_aggr") {
 
       val twoPolygonsAsWktDf = sparkSession.read.textFile(intersectionPolygonInputLocation).toDF("polygon_wkt")
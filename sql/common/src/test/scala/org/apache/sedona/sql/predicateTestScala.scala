@@ -263,5 +263,53 @@ class predicateTestScala extends TestBaseScala {
         assert(predicate(missing :: missing :: Nil).eval(EmptyRow) == null)
       }
     }
+
+    it("Passed predicates with a constant geometry argument") {
+      val window = "POLYGON ((2 2, 6 2, 6 6, 2 6, 2 2))"
+      val df = sparkSession.sql(
+        s"""SELECT ST_GeomFromWKT(wkt) AS geom, ST_GeomFromWKT(window_wkt) AS query_window FROM VALUES
+          |('POINT (1 1)', '$window'), ('POINT (3 3)', '$window'), ('POINT (2 4)', '$window'),
+          |('POINT EMPTY', '$window'), ('LINESTRING (0 0, 4 4)', '$window'), ('LINESTRING (3 3, 5 5)', '$window'),
+          |('POLYGON ((2 2, 6 2, 6 6, 2 6, 2 2))', '$window'), ('POLYGON ((3 3, 4 3, 4 4, 3 4, 3 3))', '$window'),
+          |(NULL, '$window') AS t(wkt, window_wkt)""".stripMargin)
+      Seq("ST_Contains", "ST_Intersects", "ST_Within", "ST_Covers", "ST_CoveredBy", "ST_Crosses",
+        "ST_Overlaps", "ST_Touches", "ST_Equals", "ST_Disjoint", "ST_OrderingEquals").foreach { predicate =>
+        Seq(("query_window", "geom"), ("geom", "query_window")).foreach { case (left, right) =>
+          val constant = s"$predicate(${left.replace("query_window", s"ST_GeomFromWKT('$window')")}, " +
+            s"${right.replace("query_window", s"ST_GeomFromWKT('$window')")})"
+          val expected = df.selectExpr(s"$predicate($left, $right)").collect().toSeq
+          assert(df.selectExpr(constant).collect().toSeq == expected, constant)
+        }
+      }
+    }
+
+    it("Passed generated code of predicates and geometry functions") {
+      val df = sparkSession.sql(
+        """SELECT ST_GeomFromWKT(wkt) AS geom FROM VALUES
+          |('POINT (1 1)'), ('POINT (5 5)'), ('POINT EMPTY'), ('LINESTRING (0 0, 4 4)'),
+          |('POLYGON ((2 2, 6 2, 6 6, 2 6, 2 2))'), (NULL) AS t(wkt)""".stripMargin)
+      val queries = Seq(
+        "ST_Intersects(geom, ST_PolygonFromEnvelope(0.0, 0.0, 3.0, 3.0))",
+        "ST_Contains(ST_PolygonFromEnvelope(0.0, 0.0, 3.0, 3.0), geom)",
+        "ST_Within(geom, ST_Buffer(ST_Point(0.0, 0.0), 2.0))",
+        "ST_Distance(geom, ST_Point(0.0, 0.0)) <= 2.0",
+        "ST_X(geom) < 3.0 OR ST_Y(geom) IS NULL",
+        "ST_Area(geom) > 0.0 OR ST_Length(geom) > 0.0")
+
+      def evaluate(wholeStage: String, factoryMode: String): Seq[Seq[Long]] = {
+        sparkSession.conf.set("spark.sql.codegen.wholeStage", wholeStage)
+        sparkSession.conf.set("spark.sql.codegen.factoryMode", factoryMode)
+        try {
+          queries.map(query => Seq(df.where(query).count(), df.where(s"NOT ($query)").count()))
+        } finally {
+          sparkSession.conf.unset("spark.sql.codegen.wholeStage")
+          sparkSession.conf.unset("spark.sql.codegen.factoryMode")
+        }
+      }
+
+      val interpreted = evaluate("false", "NO_CODEGEN")
+      assert(evaluate("true", "CODEGEN_ONLY") == interpreted)
+      assert(interpreted.head == Seq(3, 2))
+    }
   }
 }
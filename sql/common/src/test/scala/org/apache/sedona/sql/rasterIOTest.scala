@@ -40,6 +40,39 @@ class rasterIOTest extends TestBaseScala with BeforeAndAfter with GivenWhenThen
       assert(rasterDf.count() == rasterCount)
     }
 
+    it("should read geotiff as tiles using raster source") {
+      val rasterDf = sparkSession.read.format("raster").load(rasterdatalocation + "test1.tiff")
+      // test1.tiff is a 512 * 517 GeoTIFF with 256 * 256 internal tiles
+      assert(rasterDf.count() == 6)
+      val tiles = rasterDf.selectExpr("x", "y", "RS_Width(rast)", "RS_Height(rast)").collect()
+        .map(row => (row.getInt(0), row.getInt(1)) -> (row.getInt(2), row.getInt(3))).toMap
+      assert(tiles((0, 0)) == (256, 256))
+      assert(tiles((1, 2)) == (256, 5))
+
+      // Tiles cover the raster and have the same pixel values
+      val raster = sparkSession.read.format("binaryFile").load(rasterdatalocation + "test1.tiff")
+        .selectExpr("RS_FromGeoTiff(content) as raster")
+      val point = "ST_Point(-13077301.685, 4002565.802)"
+      val expected = raster.selectExpr(s"RS_Value(raster, $point)").first().getDouble(0)
+      val actual = rasterDf.where(s"RS_Intersects(rast, ST_SetSRID($point, 3857))").selectExpr(s"RS_Value(rast, $point)").first().getDouble(0)
+      assert(actual == expected)
+
+      val outDbDf = sparkSession.read.format("raster").option("tileWidth", "100").option("tileHeight", "200")
+        .option("outDb", "true").load(rasterdatalocation + "test1.tiff")
+      assert(outDbDf.count() == 18)
+      assert(outDbDf.selectExpr("sum(RS_Width(rast) * RS_Height(rast))").first().getLong(0) == 512 * 517)
+      assert(outDbDf.where(s"RS_Intersects(rast, ST_SetSRID($point, 3857))").selectExpr(s"RS_Value(rast, $point)").first().getDouble(0) == expected)
+    }
+
+    it("should reject unknown columns when reading geotiff as tiles") {
+      val rasterDf = sparkSession.read.format("raster").schema("rast binary, path string, x int, y int, size long")
+        .load(rasterdatalocation + "test1.tiff")
+      val exception = intercept[IllegalArgumentException] {
+        rasterDf.select("x", "size").collect()
+      }
+      assert(exception.getMessage.contains("size"))
+    }
+
     it("should read and write geotiff using given options") {
       var rasterDf = sparkSession.read.format("binaryFile").load(rasterdatalocation)
       val rasterCount = rasterDf.count()
@@ -20,6 +20,7 @@ package org.apache.sedona.sql
 
 import org.apache.sedona.common.raster.MapAlgebra
 import org.apache.sedona.common.utils.RasterUtils
+import org.apache.spark.sql.AnalysisException
 import org.apache.spark.sql.functions.{collect_list, expr}
 import org.geotools.coverage.grid.GridCoverage2D
 import org.junit.Assert.{assertEquals, assertNull}
@@ -234,6 +235,44 @@ class rasteralgebraTest extends TestBaseScala with BeforeAndAfter with GivenWhen
       assert(result.isInstanceOf[GridCoverage2D])
     }
 
+    it("Passed RS_FromGeoTiffPath reading pixels on demand") {
+      val df = sparkSession.read.format("binaryFile").load(resourceFolder + "raster/test1.tiff")
+        .selectExpr("RS_FromGeoTiff(content) as raster", "RS_FromGeoTiffPath(path) as outdb_raster")
+        .repartition(2)
+      val result = df.selectExpr(
+        "RS_Value(outdb_raster, ST_Point(-13077301.685, 4002565.802))",
+        "RS_Envelope(raster) = RS_Envelope(outdb_raster)",
+        "RS_SRID(raster) = RS_SRID(outdb_raster)",
+        "RS_BandAsArray(raster, 1) = RS_BandAsArray(outdb_raster, 1)",
+        "length(RS_AsGeoTiff(outdb_raster)) > 0").first()
+      assert(result.getDouble(0) == 255d)
+      assert(result.getBoolean(1))
+      assert(result.getBoolean(2))
+      assert(result.getBoolean(3))
+      assert(result.getBoolean(4))
+    }
+
+    it("Passed RS_TileExplode") {
+      val df = sparkSession.read.format("binaryFile").load(resourceFolder + "raster/test1.tiff")
+        .selectExpr("RS_FromGeoTiff(content) as raster")
+      val tiles = df.selectExpr("RS_TileExplode(raster, 200, 300)")
+      assert(tiles.columns.sameElements(Array("x", "y", "tile")))
+      assert(tiles.count() == 6)
+      val row = tiles.where("x = 2 and y = 1").selectExpr("RS_Width(tile)", "RS_Height(tile)", "RS_UpperLeftX(tile)").first()
+      assert(row.getInt(0) == 112)
+      assert(row.getInt(1) == 217)
+      val upperLeftX = df.selectExpr("RS_UpperLeftX(raster) + 400 * RS_ScaleX(raster)").first().getDouble(0)
+      assert(Math.abs(row.getDouble(2) - upperLeftX) < 1e-6)
+
+      // Tile sizes must be integers
+      intercept[AnalysisException] {
+        df.selectExpr("RS_TileExplode(raster, true, 300)")
+      }
+      intercept[AnalysisException] {
+        df.selectExpr("RS_TileExplode(raster, 200)")
+      }
+    }
+
     it("Passed RS_FromArcInfoAsciiGrid should handle null values") {
       val result = sparkSession.sql("select RS_FromArcInfoAsciiGrid(null)").first().get(0)
       assert(result == null)
@@ -747,6 +786,19 @@ class rasteralgebraTest extends TestBaseScala with BeforeAndAfter with GivenWhen
       assertEquals(255.0, actual(5), 0.1d)
     }
 
+    it("Passed RS_ZonalStats and RS_ZonalHistogram") {
+      val df = sparkSession.sql(
+        """SELECT RS_AddBandFromArray(RS_MakeEmptyRaster(1, 4, 4, 0, 4, 1), array(1D, 2D, 3D, 4D, 5D, 6D, 7D, 8D, 9D, 10D, 11D, 12D, 13D, 14D, 15D, 16D), 1, 14D) AS raster,
+          |ST_GeomFromWKT('POLYGON ((0 0, 2 0, 2 2, 0 2, 0 0))') AS zone""".stripMargin)
+      val row = df.selectExpr("RS_ZonalStats(raster, zone, 1, 'count')", "RS_ZonalStats(raster, zone, 1, 'mean', false)",
+        "RS_ZonalHistogram(raster, zone, 1, 4, 0, 16)").first()
+      assertEquals(3.0, row.getDouble(0), 1e-9)
+      assertEquals(11.5, row.getDouble(1), 1e-9)
+      assert(row.getSeq[Long](2) == Seq(0L, 0L, 2L, 1L))
+      val outside = df.selectExpr("RS_ZonalStats(raster, ST_GeomFromWKT('POLYGON ((10 10, 11 10, 11 11, 10 10))'), 1, 'mean')").first()
+      assert(outside.isNullAt(0))
+    }
+
     it("Passed RS_PixelAsPoint with raster") {
       val widthInPixel = 5
       val heightInPixel = 10
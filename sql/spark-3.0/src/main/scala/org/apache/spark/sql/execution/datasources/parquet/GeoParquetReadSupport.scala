@@ -54,7 +54,8 @@ class GeoParquetReadSupport (
                               override val convertTz: Option[ZoneId],
                               enableVectorizedReader: Boolean,
                               datetimeRebaseMode: LegacyBehaviorPolicy.Value,
-                              int96RebaseMode: LegacyBehaviorPolicy.Value)
+                              int96RebaseMode: LegacyBehaviorPolicy.Value,
+                              spatialFilter: Option[GeoParquetSpatialFilter] = None)
   extends ParquetReadSupport with Logging {
   private var catalystRequestedSchema: StructType = _
 
@@ -120,11 +121,13 @@ class GeoParquetReadSupport (
     val parquetRequestedSchema = readContext.getRequestedSchema
     new GeoParquetRecordMaterializer(
       parquetRequestedSchema,
+      fileSchema,
       GeoParquetReadSupport.expandUDT(catalystRequestedSchema),
       new GeoParquetToSparkSchemaConverter(keyValueMetaData, conf),
       convertTz,
       datetimeRebaseMode,
-      int96RebaseMode)
+      int96RebaseMode,
+      spatialFilter)
   }
 }
 
@@ -28,6 +28,7 @@ import org.apache.spark.sql.types.StructType
  * A [[RecordMaterializer]] for Catalyst rows.
  *
  * @param parquetSchema Parquet schema of the records to be read
+ * @param fileSchema Parquet schema of the file, which gives the order in which the columns are read
  * @param catalystSchema Catalyst schema of the rows to be constructed
  * @param schemaConverter A Parquet-Catalyst schema converter that helps initializing row converters
  * @param convertTz the optional time zone to convert to int96 data
@@ -35,14 +36,18 @@ import org.apache.spark.sql.types.StructType
  *                           Gregorian calendar: mode + optional original time zone
  * @param int96RebaseSpec the specification of rebasing INT96 timestamp from Julian to Proleptic
  *                        Gregorian calendar
+ * @param spatialFilter the optional spatial filter pushed down to the data source. Records whose geometries
+ *                      could not satisfy the filter are skipped without being converted to rows.
  */
 class GeoParquetRecordMaterializer(
                                     parquetSchema: MessageType,
+                                    fileSchema: MessageType,
                                     catalystSchema: StructType,
                                     schemaConverter: GeoParquetToSparkSchemaConverter,
                                     convertTz: Option[ZoneId],
                                     datetimeRebaseMode: LegacyBehaviorPolicy.Value,
-                                    int96RebaseMode: LegacyBehaviorPolicy.Value)
+                                    int96RebaseMode: LegacyBehaviorPolicy.Value,
+                                    spatialFilter: Option[GeoParquetSpatialFilter] = None)
   extends RecordMaterializer[InternalRow] {
   private val rootConverter = new GeoParquetRowConverter(
     schemaConverter,
@@ -51,9 +56,12 @@ class GeoParquetRecordMaterializer(
     convertTz,
     datetimeRebaseMode,
     int96RebaseMode,
-    NoopUpdater)
+    NoopUpdater,
+    spatialFilter.flatMap(GeoParquetRecordFilter(_, catalystSchema, fileSchema)))
 
-  override def getCurrentRecord: InternalRow = rootConverter.currentRecord
+  // Parquet-mr skips the current record when the materializer returns null
+  override def getCurrentRecord: InternalRow =
+    if (rootConverter.isCurrentRecordSkipped) null else rootConverter.currentRecord
 
   override def getRootConverter: GroupConverter = rootConverter
 }
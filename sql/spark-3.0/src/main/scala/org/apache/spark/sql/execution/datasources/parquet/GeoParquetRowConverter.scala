@@ -22,6 +22,7 @@ import org.apache.parquet.io.api.{Binary, Converter, GroupConverter, PrimitiveCo
 import org.apache.parquet.schema.OriginalType.LIST
 import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName._
 import org.apache.parquet.schema.{GroupType, OriginalType, Type}
+import org.apache.sedona.common.geometrySerde.GeometryWKBTranscoder
 import org.apache.spark.internal.Logging
 import org.apache.spark.sql.catalyst.InternalRow
 import org.apache.spark.sql.catalyst.expressions._
@@ -31,11 +32,11 @@ import org.apache.spark.sql.internal.SQLConf.LegacyBehaviorPolicy
 import org.apache.spark.sql.sedona_sql.UDT.GeometryUDT
 import org.apache.spark.sql.types._
 import org.apache.spark.unsafe.types.UTF8String
-import org.locationtech.jts.io.WKBReader
 
 import java.math.{BigDecimal, BigInteger}
 import java.time.{ZoneId, ZoneOffset}
 import scala.collection.JavaConverters._
+import scala.collection.mutable
 import scala.collection.mutable.ArrayBuffer
 
 /**
@@ -76,6 +77,10 @@ import scala.collection.mutable.ArrayBuffer
  * @param int96RebaseMode the mode of rebasing INT96 timestamp from Julian to Proleptic Gregorian
  *                           calendar
  * @param updater An updater which propagates converted field values to the parent container
+ * @param recordFilter optional filter evaluated against the envelopes of geometry columns of each record. The
+ *                     geometries referenced by the filter are decoded only when the record passes the filter,
+ *                     otherwise the record is marked as skipped. Fields read after the filtered geometry
+ *                     columns are not converted for skipped records. Only applicable to the root converter.
  */
 private[parquet] class GeoParquetRowConverter(
                                             schemaConverter: GeoParquetToSparkSchemaConverter,
@@ -84,7 +89,8 @@ private[parquet] class GeoParquetRowConverter(
                                             convertTz: Option[ZoneId],
                                             datetimeRebaseMode: LegacyBehaviorPolicy.Value,
                                             int96RebaseMode: LegacyBehaviorPolicy.Value,
-                                            updater: ParentContainerUpdater)
+                                            updater: ParentContainerUpdater,
+                                            recordFilter: Option[GeoParquetRecordFilter] = None)
   extends ParquetGroupConverter(updater) with Logging {
 
   assert(
@@ -134,6 +140,22 @@ private[parquet] class GeoParquetRowConverter(
    */
   def currentRecord: InternalRow = currentRow
 
+  private[this] val wkbTranscoder = new GeometryWKBTranscoder()
+
+  // WKB of the filtered geometry columns of the current record, decoded after the record passes the record filter
+  private[this] val filteredWkbs = new Array[Array[Byte]](recordFilter.map(_.ordinals.length).getOrElse(0))
+
+  private[this] var skipCurrentRecord = false
+
+  // Whether the record filter has been evaluated against the current record
+  private[this] var recordFilterEvaluated = false
+
+  /**
+   * Whether the current record failed the record filter. The content of [[currentRecord]] is incomplete
+   * in this case and the record should be skipped.
+   */
+  def isCurrentRecordSkipped: Boolean = skipCurrentRecord
+
   private val dateRebaseFunc = GeoDataSourceUtils.creteDateRebaseFuncInRead(
     datetimeRebaseMode, "Parquet")
 
@@ -156,14 +178,40 @@ private[parquet] class GeoParquetRowConverter(
       val fieldIndex = catalystFieldNameToIndex(parquetField.getName)
       val catalystField = catalystType(fieldIndex)
       // Converted field value should be set to the `fieldIndex`-th cell of `currentRow`
-      newConverter(parquetField, catalystField.dataType, new RowUpdater(currentRow, fieldIndex))
+      val fieldUpdater = new RowUpdater(currentRow, fieldIndex)
+      val filteredIndex = recordFilter.map(_.ordinals.indexOf(fieldIndex)).getOrElse(-1)
+      if (filteredIndex >= 0) {
+        newFilteredGeometryConverter(recordFilter.get, filteredIndex, fieldUpdater)
+      } else {
+        newConverter(parquetField, catalystField.dataType, fieldUpdater)
+      }
     }.toArray
   }
 
   // Updaters for each field.
   private[this] val fieldUpdaters: Array[ParentContainerUpdater] = fieldConverters.map(_.updater)
 
-  override def getConverter(fieldIndex: Int): Converter = fieldConverters(fieldIndex)
+  // Converters handed to parquet-mr. Parquet-mr reads the columns of a record in the order of the file schema,
+  // so the record filter could be evaluated by the time the first field after the filtered geometry columns is
+  // read. Such fields are not converted for records failing the filter.
+  private[this] val recordConverters: Array[Converter] = recordFilter match {
+    case Some(filter) =>
+      parquetType.getFields.asScala.zip(fieldConverters).map { case (parquetField, converter) =>
+        if (filter.isReadAfterFilteredColumns(parquetField.getName)) newSkippableConverter(converter)
+        else converter: Converter
+      }.toArray
+    case None => fieldConverters.map(converter => converter: Converter)
+  }
+
+  override def getConverter(fieldIndex: Int): Converter = recordConverters(fieldIndex)
+
+  private def isCurrentRecordRejected: Boolean = {
+    if (!recordFilterEvaluated) {
+      skipCurrentRecord = !recordFilter.get.evaluate()
+      recordFilterEvaluated = true
+    }
+    skipCurrentRecord
+  }
 
   override def end(): Unit = {
     var i = 0
@@ -171,6 +219,18 @@ private[parquet] class GeoParquetRowConverter(
       fieldUpdaters(i).end()
       i += 1
     }
+    recordFilter.foreach { filter =>
+      if (!isCurrentRecordRejected) {
+        i = 0
+        while (i < filteredWkbs.length) {
+          val wkb = filteredWkbs(i)
+          if (wkb != null) {
+            currentRow(filter.ordinals(i)) = wkbTranscoder.wkbToSerde(wkb)
+          }
+          i += 1
+        }
+      }
+    }
     updater.set(currentRow)
   }
 
@@ -186,6 +246,70 @@ private[parquet] class GeoParquetRowConverter(
       fieldUpdaters(i).start()
       i += 1
     }
+    recordFilter.foreach { filter =>
+      i = 0
+      while (i < filteredWkbs.length) {
+        filteredWkbs(i) = null
+        filter.envelopes(i).setToNull()
+        i += 1
+      }
+      skipCurrentRecord = false
+      recordFilterEvaluated = false
+    }
+  }
+
+  /**
+   * Creates a converter for a geometry column referenced by the record filter. Only the envelope of the
+   * geometry is computed when reading the value, the geometry is decoded in [[end()]].
+   */
+  private def newFilteredGeometryConverter(
+                                            filter: GeoParquetRecordFilter,
+                                            filteredIndex: Int,
+                                            updater: ParentContainerUpdater): Converter with HasParentContainerUpdater = {
+    new ParquetPrimitiveConverter(updater) {
+      override def addBinary(value: Binary): Unit = {
+        val wkb = value.getBytes
+        filteredWkbs(filteredIndex) = wkb
+        filter.envelopes(filteredIndex).init(wkbTranscoder.wkbEnvelope(wkb))
+      }
+    }
+  }
+
+  /**
+   * Wraps a field converter to ignore the values of records failing the record filter. Dictionaries are always
+   * passed on since they are shared by all the records of a column chunk.
+   */
+  private def newSkippableConverter(converter: Converter): Converter = {
+    if (converter.isPrimitive) {
+      val primitiveConverter = converter.asPrimitiveConverter()
+      new PrimitiveConverter {
+        override def hasDictionarySupport: Boolean = primitiveConverter.hasDictionarySupport
+        override def setDictionary(dictionary: Dictionary): Unit = primitiveConverter.setDictionary(dictionary)
+        override def addValueFromDictionary(dictionaryId: Int): Unit =
+          if (!isCurrentRecordRejected) primitiveConverter.addValueFromDictionary(dictionaryId)
+        override def addBinary(value: Binary): Unit =
+          if (!isCurrentRecordRejected) primitiveConverter.addBinary(value)
+        override def addBoolean(value: Boolean): Unit =
+          if (!isCurrentRecordRejected) primitiveConverter.addBoolean(value)
+        override def addDouble(value: Double): Unit =
+          if (!isCurrentRecordRejected) primitiveConverter.addDouble(value)
+        override def addFloat(value: Float): Unit =
+          if (!isCurrentRecordRejected) primitiveConverter.addFloat(value)
+        override def addInt(value: Int): Unit =
+          if (!isCurrentRecordRejected) primitiveConverter.addInt(value)
+        override def addLong(value: Long): Unit =
+          if (!isCurrentRecordRejected) primitiveConverter.addLong(value)
+      }
+    } else {
+      val groupConverter = converter.asGroupConverter()
+      new GroupConverter {
+        private[this] val childConverters = mutable.HashMap.empty[Int, Converter]
+        override def getConverter(fieldIndex: Int): Converter =
+          childConverters.getOrElseUpdate(fieldIndex, newSkippableConverter(groupConverter.getConverter(fieldIndex)))
+        override def start(): Unit = if (!isCurrentRecordRejected) groupConverter.start()
+        override def end(): Unit = if (!isCurrentRecordRejected) groupConverter.end()
+      }
+    }
   }
 
   /**
@@ -203,10 +327,10 @@ private[parquet] class GeoParquetRowConverter(
 
       case GeometryUDT =>
         new ParquetPrimitiveConverter(updater) {
+          private val wkbTranscoder = new GeometryWKBTranscoder()
+
           override def addBinary(value: Binary): Unit = {
-            val wkbReader = new WKBReader()
-            val geom = wkbReader.read(value.getBytes)
-            updater.set(GeometryUDT.serialize(geom))
+            updater.set(wkbTranscoder.wkbToSerde(value.getBytes))
           }
         }
 
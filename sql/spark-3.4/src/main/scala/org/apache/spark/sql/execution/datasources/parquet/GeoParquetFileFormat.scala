@@ -24,6 +24,7 @@ import org.apache.parquet.hadoop.ParquetOutputFormat.JobSummaryLevel
 import org.apache.parquet.hadoop._
 import org.apache.parquet.hadoop.codec.CodecConfig
 import org.apache.parquet.hadoop.util.ContextUtil
+import org.apache.sedona.core.utils.SedonaConf
 import org.apache.spark.TaskContext
 import org.apache.spark.internal.Logging
 import org.apache.spark.sql._
@@ -138,6 +139,10 @@ class GeoParquetFileFormat(val spatialFilter: Option[GeoParquetSpatialFilter])
 
     conf.set(ParquetOutputFormat.WRITE_SUPPORT_CLASS, classOf[GeoParquetWriteSupport].getName)
 
+    options.get(GeoParquetMetaData.GEOPARQUET_COVERING_KEY).foreach { covering =>
+      conf.set(GeoParquetMetaData.GEOPARQUET_COVERING_KEY, covering)
+    }
+
     new OutputWriterFactory {
       override def newInstance(
         path: String,
@@ -187,24 +192,29 @@ class GeoParquetFileFormat(val spatialFilter: Option[GeoParquetSpatialFilter])
       SQLConf.PARQUET_INT96_AS_TIMESTAMP.key,
       sparkSession.sessionState.conf.isParquetINT96AsTimestamp)
 
-    val broadcastedHadoopConf =
-      sparkSession.sparkContext.broadcast(new SerializableConfiguration(hadoopConf))
-
     // TODO: if you move this into the closure it reverts to the default values.
     // If true, enable using the custom RecordReader for parquet. This only works for
-    // a subset of the types (no complex types).
+    // a subset of the types (no complex types). Geometry columns are converted batch by batch, so the
+    // vectorized reader is only used when returning batches.
     val resultSchema = StructType(partitionSchema.fields ++ requiredSchema.fields)
+    val enableVectorizedReader: Boolean = supportBatch(sparkSession, resultSchema)
+    if (enableVectorizedReader) {
+      // The vectorized reader reads geometry columns as WKB binary columns
+      hadoopConf.set(
+        ParquetReadSupport.SPARK_ROW_REQUESTED_SCHEMA,
+        GeoParquetVectorizedReader.toVectorizedReadSchema(requiredSchema).json)
+    }
+    val geometryOrdinals = GeoParquetVectorizedReader.geometryOrdinals(requiredSchema)
+
+    val broadcastedHadoopConf =
+      sparkSession.sparkContext.broadcast(new SerializableConfiguration(hadoopConf))
+
     val sqlConf = sparkSession.sessionState.conf
     val enableOffHeapColumnVector = sqlConf.offHeapColumnVectorEnabled
-    val enableVectorizedReader: Boolean =
-      sqlConf.parquetVectorizedReaderEnabled &&
-        resultSchema.forall(_.dataType.isInstanceOf[AtomicType])
     val enableRecordFilter: Boolean = sqlConf.parquetRecordFilterEnabled
     val timestampConversion: Boolean = sqlConf.isParquetINT96TimestampConversion
     val capacity = sqlConf.parquetVectorizedReaderBatchSize
     val enableParquetFilterPushDown: Boolean = sqlConf.parquetFilterPushDown
-    // Whole stage codegen (PhysicalRDD) is able to deal with batches directly
-    val returningBatch = supportBatch(sparkSession, resultSchema)
     val pushDownDate = sqlConf.parquetFilterPushDownDate
     val pushDownTimestamp = sqlConf.parquetFilterPushDownTimestamp
     val pushDownDecimal = sqlConf.parquetFilterPushDownDecimal
@@ -251,9 +261,22 @@ class GeoParquetFileFormat(val spatialFilter: Option[GeoParquetSpatialFilter])
       }
 
       // Prune file scans using pushed down spatial filters and per-column bboxes in geoparquet metadata
-      val shouldScanFile = GeoParquetMetaData.parseKeyValueMetaData(footerFileMetaData.getKeyValueMetaData).forall {
+      val geoParquetMetaData = GeoParquetMetaData.parseKeyValueMetaData(footerFileMetaData.getKeyValueMetaData)
+      val shouldScanFile = geoParquetMetaData.forall {
         metadata => spatialFilter.forall(_.evaluate(metadata.columns))
       }
+
+      // Prune row groups using pushed down spatial filters and the statistics of bbox covering columns
+      val spatialPushed = if (enableParquetFilterPushDown) {
+        for {
+          metadata <- geoParquetMetaData
+          filter <- spatialFilter
+          predicate <- GeoParquetSpatialFilter.toParquetFilter(filter, metadata.columns, footerFileMetaData.getSchema)
+        } yield predicate
+      } else {
+        None
+      }
+      val rowGroupFilter = (pushed ++ spatialPushed).reduceOption(FilterApi.and)
       if (!shouldScanFile) {
         // The entire file is pruned so that we don't need to scan this file.
         Seq.empty[InternalRow].iterator
@@ -285,40 +308,60 @@ class GeoParquetFileFormat(val spatialFilter: Option[GeoParquetSpatialFilter])
 
         // Try to push down filters when filter push-down is enabled.
         // Notice: This push-down is RowGroups level, not individual records.
-        if (pushed.isDefined) {
-          ParquetInputFormat.setFilterPredicate(hadoopAttemptContext.getConfiguration, pushed.get)
+        // Spatial predicates on covering columns are only used for pruning row groups, since covering columns
+        // are usually not part of the requested schema.
+        if (rowGroupFilter.isDefined) {
+          ParquetInputFormat.setFilterPredicate(hadoopAttemptContext.getConfiguration, rowGroupFilter.get)
         }
         val taskContext = Option(TaskContext.get())
         if (enableVectorizedReader) {
-          logWarning(s"GeoParquet currently does not support vectorized reader. Falling back to parquet-mr")
-        }
-        logDebug(s"Falling back to parquet-mr")
-        // ParquetRecordReader returns InternalRow
-        val readSupport = new GeoParquetReadSupport(
-          convertTz,
-          enableVectorizedReader = false,
-          datetimeRebaseMode,
-          int96RebaseMode)
-        val reader = if (pushed.isDefined && enableRecordFilter) {
-          val parquetFilter = FilterCompat.get(pushed.get, null)
-          new ParquetRecordReader[InternalRow](readSupport, parquetFilter)
+          val rebaseTimeZone = GeoParquetVectorizedReader.rebaseTimeZone(footerFileMetaData.getKeyValueMetaData)
+          val useOffHeap = enableOffHeapColumnVector && taskContext.isDefined
+          val vectorizedReader = GeoParquetVectorizedReader.createVectorizedReader(
+            convertTz.orNull,
+            datetimeRebaseMode.toString,
+            rebaseTimeZone,
+            int96RebaseMode.toString,
+            rebaseTimeZone,
+            useOffHeap,
+            capacity)
+          val reader = new GeoParquetVectorizedReader(vectorizedReader, geometryOrdinals, useOffHeap, capacity)
+          val iter = new RecordReaderIterator(reader)
+          // SPARK-23457 Register a task completion listener before `initialization`.
+          taskContext.foreach(_.addTaskCompletionListener[Unit](_ => iter.close()))
+          // The vectorized reader appends the partition columns to each batch
+          reader.initialize(split, hadoopAttemptContext, partitionSchema, file.partitionValues)
+          iter.asInstanceOf[Iterator[InternalRow]]
         } else {
-          new ParquetRecordReader[InternalRow](readSupport)
-        }
-        val iter = new RecordReaderIterator[InternalRow](reader)
-        // SPARK-23457 Register a task completion listener before `initialization`.
-        taskContext.foreach(_.addTaskCompletionListener[Unit](_ => iter.close()))
-        reader.initialize(split, hadoopAttemptContext)
+          logDebug(s"Falling back to parquet-mr")
+          // ParquetRecordReader returns InternalRow
+          val readSupport = new GeoParquetReadSupport(
+            convertTz,
+            enableVectorizedReader = false,
+            datetimeRebaseMode,
+            int96RebaseMode,
+            spatialFilter)
+          val reader = if (pushed.isDefined && enableRecordFilter) {
+            val parquetFilter = FilterCompat.get(pushed.get, null)
+            new ParquetRecordReader[InternalRow](readSupport, parquetFilter)
+          } else {
+            new ParquetRecordReader[InternalRow](readSupport)
+          }
+          val iter = new RecordReaderIterator[InternalRow](reader)
+          // SPARK-23457 Register a task completion listener before `initialization`.
+          taskContext.foreach(_.addTaskCompletionListener[Unit](_ => iter.close()))
+          reader.initialize(split, hadoopAttemptContext)
 
-        val fullSchema = requiredSchema.toAttributes ++ partitionSchema.toAttributes
-        val unsafeProjection = GenerateUnsafeProjection.generate(fullSchema, fullSchema)
+          val fullSchema = requiredSchema.toAttributes ++ partitionSchema.toAttributes
+          val unsafeProjection = GenerateUnsafeProjection.generate(fullSchema, fullSchema)
 
-        if (partitionSchema.length == 0) {
-          // There is no partition columns
-          iter.map(unsafeProjection)
-        } else {
-          val joinedRow = new JoinedRow()
-          iter.map(d => unsafeProjection(joinedRow(d, file.partitionValues)))
+          if (partitionSchema.length == 0) {
+            // There is no partition columns
+            iter.map(unsafeProjection)
+          } else {
+            val joinedRow = new JoinedRow()
+            iter.map(d => unsafeProjection(joinedRow(d, file.partitionValues)))
+          }
         }
       }
     }
@@ -326,7 +369,17 @@ class GeoParquetFileFormat(val spatialFilter: Option[GeoParquetSpatialFilter])
 
   override def supportDataType(dataType: DataType): Boolean = super.supportDataType(dataType)
 
-  override def supportBatch(sparkSession: SparkSession, schema: StructType): Boolean = false
+  override def supportBatch(sparkSession: SparkSession, schema: StructType): Boolean = {
+    val conf = sparkSession.sessionState.conf
+    // Scans with a spatial filter pushed down are read row by row when record level filtering is enabled, so that
+    // records failing the filter are skipped before their geometries are decoded
+    val recordFilterEnabled = new SedonaConf(sparkSession.conf).getGeoParquetRecordFilterEnabled &&
+      spatialFilter.exists(GeoParquetRecordFilter.isApplicable(_, schema))
+    conf.parquetVectorizedReaderEnabled && conf.wholeStageEnabled &&
+      schema.length <= conf.wholeStageMaxNumFields &&
+      schema.forall(field => GeoParquetVectorizedReader.isBatchReadSupported(field.dataType)) &&
+      !recordFilterEnabled
+  }
 }
 
 object GeoParquetFileFormat extends Logging {
@@ -53,7 +53,8 @@ import scala.collection.JavaConverters._
 class GeoParquetReadSupport (override val convertTz: Option[ZoneId],
                              enableVectorizedReader: Boolean,
                              datetimeRebaseMode: LegacyBehaviorPolicy.Value,
-                             int96RebaseMode: LegacyBehaviorPolicy.Value)
+                             int96RebaseMode: LegacyBehaviorPolicy.Value,
+                             spatialFilter: Option[GeoParquetSpatialFilter] = None)
   extends ParquetReadSupport with Logging {
   private var catalystRequestedSchema: StructType = _
 
@@ -121,11 +122,13 @@ class GeoParquetReadSupport (override val convertTz: Option[ZoneId],
     val parquetRequestedSchema = readContext.getRequestedSchema
     new GeoParquetRecordMaterializer(
       parquetRequestedSchema,
+      fileSchema,
       GeoParquetReadSupport.expandUDT(catalystRequestedSchema),
       new GeoParquetToSparkSchemaConverter(keyValueMetaData, conf),
       convertTz,
       datetimeRebaseMode,
-      int96RebaseMode)
+      int96RebaseMode,
+      spatialFilter)
   }
 }
 
@@ -23,7 +23,10 @@ import org.apache.parquet.hadoop.api.WriteSupport.FinalizedWriteContext
 import org.apache.parquet.hadoop.api.WriteSupport.WriteContext
 import org.apache.parquet.io.api.Binary
 import org.apache.parquet.io.api.RecordConsumer
-import org.apache.sedona.common.utils.GeomUtils
+import org.apache.parquet.schema.MessageType
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName
+import org.apache.parquet.schema.Types
+import org.apache.sedona.common.geometrySerde.GeometryWKBTranscoder
 import org.apache.spark.SPARK_VERSION_SHORT
 import org.apache.spark.internal.Logging
 import org.apache.spark.sql.SPARK_VERSION_METADATA_KEY
@@ -37,9 +40,9 @@ import org.apache.spark.sql.sedona_sql.UDT.GeometryUDT
 import org.apache.spark.sql.types._
 import org.json4s.DefaultFormats
 import org.json4s.Extraction
+import org.json4s.JNull
 import org.json4s.jackson.compactJson
-import org.locationtech.jts.geom.Geometry
-import org.locationtech.jts.io.WKBWriter
+import org.locationtech.jts.geom.Envelope
 
 import java.nio.ByteBuffer
 import java.nio.ByteOrder
@@ -106,6 +109,17 @@ class GeoParquetWriteSupport extends WriteSupport[InternalRow] with Logging {
   // fields in nested structures.
   private val geometryColumnInfoMap: mutable.Map[Int, GeometryColumnInfo] = mutable.Map.empty
 
+  // Ordinals and names of the geometry columns having a bbox covering column. Covering columns are appended to the
+  // end of the Parquet schema in this order.
+  private var coveringColumnOrdinals: Array[Int] = Array.empty
+  private var coveringColumnNames: Array[String] = Array.empty
+
+  // Envelopes of the geometries in the row being written, indexed by the ordinal of the geometry column
+  private var geometryEnvelopes: Array[Envelope] = _
+
+  // Converts geometries to WKB and computes their envelopes without materializing JTS geometries
+  private val wkbTranscoder = new GeometryWKBTranscoder()
+
   override def init(configuration: Configuration): WriteContext = {
     val schemaString = configuration.get(ParquetWriteSupport.SPARK_ROW_SCHEMA)
     this.schema = StructType.fromString(schemaString)
@@ -121,6 +135,7 @@ class GeoParquetWriteSupport extends WriteSupport[InternalRow] with Logging {
       SQLConf.ParquetOutputTimestampType.withName(configuration.get(key))
     }
 
+    this.geometryEnvelopes = Array.fill(schema.length)(new Envelope())
     this.rootFieldWriters = schema.zipWithIndex.map { case (field, ordinal) =>
       makeWriter(field.dataType, Some(ordinal))
     }.toArray[ValueWriter]
@@ -129,7 +144,21 @@ class GeoParquetWriteSupport extends WriteSupport[InternalRow] with Logging {
       throw new RuntimeException("No geometry column found in the schema")
     }
 
-    val messageType = new SparkToParquetSchemaConverter(configuration).convert(schema)
+    if (configuration.getBoolean(GeoParquetMetaData.GEOPARQUET_COVERING_KEY, false)) {
+      val coveringColumns = geometryColumnInfoMap.keys.toSeq.sorted.map { ordinal =>
+        (ordinal, schema.fields(ordinal).name + GeoParquetMetaData.COVERING_COLUMN_SUFFIX)
+      }.filter { case (_, coveringColumnName) =>
+        val conflict = schema.fieldNames.contains(coveringColumnName)
+        if (conflict) {
+          logWarning(s"Not writing bbox covering column $coveringColumnName since the schema already has this column")
+        }
+        !conflict
+      }
+      this.coveringColumnOrdinals = coveringColumns.map(_._1).toArray
+      this.coveringColumnNames = coveringColumns.map(_._2).toArray
+    }
+
+    val messageType = withCoveringColumns(new SparkToParquetSchemaConverter(configuration).convert(schema))
     val metadata = Map(
       SPARK_VERSION_METADATA_KEY -> SPARK_VERSION_SHORT,
       ParquetReadSupport.SPARK_METADATA_KEY -> schemaString
@@ -172,11 +201,21 @@ class GeoParquetWriteSupport extends WriteSupport[InternalRow] with Logging {
         val bbox = if (geometryTypes.nonEmpty) {
           Seq(columnInfo.bbox.minX, columnInfo.bbox.minY, columnInfo.bbox.maxX, columnInfo.bbox.maxY)
         } else Seq(0.0, 0.0, 0.0, 0.0)
-        columnName -> GeometryFieldMetaData("WKB", geometryTypes, bbox)
+        val covering = coveringColumnOrdinals.indexOf(ordinal) match {
+          case -1 => None
+          case k =>
+            val name = coveringColumnNames(k)
+            Some(Covering(BBoxCovering(Seq(name, "xmin"), Seq(name, "ymin"), Seq(name, "xmax"), Seq(name, "ymax"))))
+        }
+        columnName -> GeometryFieldMetaData("WKB", geometryTypes, bbox, covering = covering)
       }.toMap
       val geoParquetMetadata = GeoParquetMetaData(Some(GeoParquetMetaData.VERSION), primaryColumn, columns)
       implicit val formats: org.json4s.Formats = DefaultFormats.preservingEmptyValues
-      val geoParquetMetadataJson = compactJson(Extraction.decompose(geoParquetMetadata).underscoreKeys)
+      val geoParquetMetadataJson = compactJson(Extraction.decompose(geoParquetMetadata).underscoreKeys.removeField {
+        // covering is optional, omit it instead of writing null
+        case ("covering", JNull) => true
+        case _ => false
+      })
       metadata.put("geo", geoParquetMetadataJson)
     }
     new FinalizedWriteContext(metadata)
@@ -185,6 +224,42 @@ class GeoParquetWriteSupport extends WriteSupport[InternalRow] with Logging {
   override def write(row: InternalRow): Unit = {
     consumeMessage {
       writeFields(row, schema, rootFieldWriters)
+      writeCoveringFields()
+    }
+  }
+
+  private def withCoveringColumns(messageType: MessageType): MessageType = {
+    if (coveringColumnNames.isEmpty) messageType else {
+      val coveringFields = coveringColumnNames.map { name =>
+        Types.optionalGroup()
+          .required(PrimitiveTypeName.DOUBLE).named("xmin")
+          .required(PrimitiveTypeName.DOUBLE).named("ymin")
+          .required(PrimitiveTypeName.DOUBLE).named("xmax")
+          .required(PrimitiveTypeName.DOUBLE).named("ymax")
+          .named(name)
+      }
+      new MessageType(messageType.getName, (messageType.getFields.asScala ++ coveringFields).asJava)
+    }
+  }
+
+  private def writeCoveringFields(): Unit = {
+    var i = 0
+    while (i < coveringColumnOrdinals.length) {
+      val ordinal = coveringColumnOrdinals(i)
+      val env = geometryEnvelopes(ordinal)
+      // Null and empty geometries don't have a bbox
+      if (!env.isNull) {
+        consumeField(coveringColumnNames(i), schema.length + i) {
+          consumeGroup {
+            consumeField("xmin", 0)(recordConsumer.addDouble(env.getMinX))
+            consumeField("ymin", 1)(recordConsumer.addDouble(env.getMinY))
+            consumeField("xmax", 2)(recordConsumer.addDouble(env.getMaxX))
+            consumeField("ymax", 3)(recordConsumer.addDouble(env.getMaxY))
+          }
+        }
+      }
+      env.setToNull()
+      i += 1
     }
   }
 
@@ -287,12 +362,11 @@ class GeoParquetWriteSupport extends WriteSupport[InternalRow] with Logging {
           case None => null
         }
         (row: SpecializedGetters, ordinal: Int) => {
-          val serializedGeometry = row.getBinary(ordinal)
-          val geom = GeometryUDT.deserialize(serializedGeometry)
-          val wkbWriter = new WKBWriter(GeomUtils.getDimension(geom))
-          recordConsumer.addBinary(Binary.fromReusedByteArray(wkbWriter.write(geom)))
+          val wkb = wkbTranscoder.serdeToWkb(row.getBinary(ordinal))
+          recordConsumer.addBinary(Binary.fromReusedByteArray(wkb))
           if (geometryColumnInfo != null) {
-            geometryColumnInfo.update(geom)
+            geometryColumnInfo.update(wkbTranscoder)
+            geometryEnvelopes(ordinal).init(wkbTranscoder.getEnvelope)
           }
         }
 
@@ -541,15 +615,11 @@ object GeoParquetWriteSupport {
     // that are present in the column.
     val seenGeometryTypes: mutable.Set[String] = mutable.Set.empty
 
-    def update(geom: Geometry): Unit = {
-      bbox.update(geom)
+    def update(transcoder: GeometryWKBTranscoder): Unit = {
+      bbox.update(transcoder.getEnvelope)
       // In case of 3D geometries, a " Z" suffix gets added (e.g. ["Point Z"]).
-      val hasZ = {
-        val coordinate = geom.getCoordinate
-        if (coordinate != null) !coordinate.getZ.isNaN else false
-      }
-      val geometryType = if (!hasZ) geom.getGeometryType else geom.getGeometryType + " Z"
-      seenGeometryTypes.add(geometryType)
+      val geometryType = transcoder.getGeometryType
+      seenGeometryTypes.add(if (!transcoder.hasZ) geometryType else geometryType + " Z")
     }
   }
 
@@ -558,8 +628,7 @@ object GeoParquetWriteSupport {
     var minY: Double = Double.PositiveInfinity,
     var maxX: Double = Double.NegativeInfinity,
     var maxY: Double = Double.NegativeInfinity) {
-    def update(geom: Geometry): Unit = {
-      val env = geom.getEnvelopeInternal
+    def update(env: Envelope): Unit = {
       minX = math.min(minX, env.getMinX)
       minY = math.min(minY, env.getMinY)
       maxX = math.max(maxX, env.getMaxX)
@@ -21,6 +21,8 @@ package org.apache.sedona.sql
 import org.apache.commons.io.FileUtils
 import org.apache.hadoop.conf.Configuration
 import org.apache.hadoop.fs.Path
+import org.apache.parquet.filter2.compat.FilterCompat
+import org.apache.parquet.filter2.compat.RowGroupFilter
 import org.apache.parquet.hadoop.ParquetFileReader
 import org.apache.parquet.hadoop.util.HadoopInputFile
 import org.apache.sedona.sql.GeoParquetSpatialFilterPushDownSuite.generateTestData
@@ -32,6 +34,7 @@ import org.apache.spark.sql.execution.FileSourceScanExec
 import org.apache.spark.sql.execution.datasources.parquet.GeoParquetFileFormat
 import org.apache.spark.sql.execution.datasources.parquet.GeoParquetMetaData
 import org.apache.spark.sql.execution.datasources.parquet.GeoParquetSpatialFilter
+import org.apache.spark.sql.internal.SQLConf
 import org.locationtech.jts.geom.Coordinate
 import org.locationtech.jts.geom.Geometry
 import org.locationtech.jts.geom.GeometryFactory
@@ -39,6 +42,7 @@ import org.scalatest.prop.TableDrivenPropertyChecks
 
 import java.io.File
 import java.nio.file.Files
+import scala.collection.JavaConverters._
 
 class GeoParquetSpatialFilterPushDownSuite extends TestBaseScala with TableDrivenPropertyChecks {
 
@@ -144,6 +148,87 @@ class GeoParquetSpatialFilterPushDownSuite extends TestBaseScala with TableDrive
     it("Mixed spatial filter with other filter") {
       testFilter("id < 10 AND ST_Intersects(geom, ST_GeomFromText('POLYGON ((5 -5, 15 -5, 15 5, 5 5, 5 -5))'))", Seq(1, 3))
     }
+
+    it("Prune row groups using bbox covering columns") {
+      val coveringDir = tempDir + "/geoparquet_covering"
+      val pointsDf = sparkSession.range(0, 1000)
+        .selectExpr("id", "ST_Point(CAST(id AS DOUBLE), CAST(id AS DOUBLE)) AS geom")
+      // Use a tiny row group size so that the file is written as multiple row groups
+      pointsDf.coalesce(1).write
+        .option(GeoParquetMetaData.GEOPARQUET_COVERING_KEY, "true")
+        .option("parquet.block.size", "1024")
+        .format("geoparquet")
+        .save(coveringDir)
+      val coveringDf = sparkSession.read.format("geoparquet").load(coveringDir)
+      assert(!coveringDf.columns.contains("geom_bbox"))
+
+      val dfFiltered = coveringDf.where(
+        "ST_Intersects(geom, ST_GeomFromText('POLYGON ((-1 -1, 49.5 -1, 49.5 49.5, -1 49.5, -1 -1))'))")
+      assert(dfFiltered.count() == 50)
+      val spatialFilter = getPushedDownSpatialFilter(dfFiltered)
+      assert(spatialFilter.isDefined)
+
+      val parquetFile = new File(coveringDir).listFiles().filter(_.getName.endsWith(".parquet")).head
+      val reader = ParquetFileReader.open(HadoopInputFile.fromPath(new Path(parquetFile.getPath), new Configuration()))
+      try {
+        val footer = reader.getFooter
+        val schema = footer.getFileMetaData.getSchema
+        val metadata = GeoParquetMetaData.parseKeyValueMetaData(footer.getFileMetaData.getKeyValueMetaData).get
+        assert(metadata.columns("geom").covering.isDefined)
+        val rowGroups = footer.getBlocks
+        assert(rowGroups.size() > 1)
+        val predicate = GeoParquetSpatialFilter.toParquetFilter(spatialFilter.get, metadata.columns, schema)
+        assert(predicate.isDefined)
+        val preservedRowGroups = RowGroupFilter.filterRowGroups(FilterCompat.get(predicate.get), rowGroups, schema)
+        assert(preservedRowGroups.size() < rowGroups.size())
+        assert(preservedRowGroups.asScala.map(_.getRowCount).sum >= 50)
+      } finally {
+        reader.close()
+      }
+    }
+
+    it("Skip records failing the spatial filter when reading rows") {
+      val pointsDir = tempDir + "/geoparquet_points"
+      val pointsDf = sparkSession.range(0, 1000)
+        .selectExpr("id", "IF(id % 100 = 0, NULL, ST_Point(CAST(id AS DOUBLE), CAST(id AS DOUBLE))) AS geom",
+          "CAST(id AS STRING) AS name", "ARRAY(id, id + 1) AS ids")
+      pointsDf.coalesce(1).write.format("geoparquet").save(pointsDir)
+      val condition = "ST_Intersects(geom, ST_GeomFromText('POLYGON ((-1 -1, 49.5 -1, 49.5 49.5, -1 49.5, -1 -1))'))"
+      for (vectorized <- Seq(true, false); recordFilter <- Seq(true, false)) {
+        sparkSession.conf.set(SQLConf.PARQUET_VECTORIZED_READER_ENABLED.key, vectorized)
+        sparkSession.conf.set("sedona.geoparquet.recordfilter", recordFilter)
+        try {
+          // Columns stored after the geometry column are only converted for records passing the filter
+          val dfFiltered = sparkSession.read.format("geoparquet").load(pointsDir).where(condition)
+            .select("id", "name")
+          val actualResult = dfFiltered.orderBy("id").collect()
+          val expectedResult = pointsDf.where(condition).orderBy("id").select("id", "name").collect()
+          assert(actualResult.length == 49)
+          assert(expectedResult sameElements actualResult)
+
+          // The vectorized reader is only replaced by the row reader when record level filtering is enabled
+          val scan = dfFiltered.queryExecution.executedPlan.collectFirst { case scan: FileSourceScanExec => scan }
+          assert(scan.isDefined && scan.get.supportsColumnar == (vectorized && !recordFilter))
+          dfFiltered.collect()
+          if (scan.get.supportsColumnar) {
+            assert(scan.get.metrics("numOutputRows").value > 49)
+          } else {
+            // Only records whose envelopes intersect with the query window were converted to rows
+            assert(scan.get.metrics("numOutputRows").value == 49)
+          }
+        } finally {
+          sparkSession.conf.unset(SQLConf.PARQUET_VECTORIZED_READER_ENABLED.key)
+          sparkSession.conf.unset("sedona.geoparquet.recordfilter")
+        }
+      }
+
+      // Nested columns stored after the geometry column
+      val actualResult = sparkSession.read.format("geoparquet").load(pointsDir).where(condition)
+        .orderBy("id").select("id", "ids").collect()
+      val expectedResult = pointsDf.where(condition).orderBy("id").select("id", "ids").collect()
+      assert(actualResult.length == 49)
+      assert(expectedResult sameElements actualResult)
+    }
   }
 
   /**
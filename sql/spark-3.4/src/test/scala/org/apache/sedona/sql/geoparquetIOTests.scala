@@ -26,7 +26,10 @@ import org.apache.parquet.hadoop.util.HadoopInputFile
 import org.apache.spark.SparkException
 import org.apache.spark.sql.Row
 import org.apache.spark.sql.SaveMode
+import org.apache.spark.sql.execution.FileSourceScanExec
+import org.apache.spark.sql.execution.datasources.parquet.GeoParquetMetaData
 import org.apache.spark.sql.functions.col
+import org.apache.spark.sql.internal.SQLConf
 import org.apache.spark.sql.sedona_sql.UDT.GeometryUDT
 import org.apache.spark.sql.sedona_sql.expressions.st_constructors.ST_Point
 import org.apache.spark.sql.sedona_sql.expressions.st_predicates.ST_Intersects
@@ -179,11 +182,76 @@ class geoparquetIOTests extends TestBaseScala with BeforeAndAfterAll {
       assert(e.getMessage.contains("does not contain valid geo metadata"))
     }
 
+    it("GeoParquet save with spatial clustering") {
+      // A 40 x 25 grid of points
+      val df = sparkSession.range(0, 1000)
+        .selectExpr("id", "ST_Point(CAST(id % 40 AS DOUBLE), CAST(FLOOR(id / 40) AS DOUBLE)) AS geom")
+      val totalArea = 39.0 * 24.0
+      Seq("hilbert", "zorder").foreach { curve =>
+        val path = geoparquetoutputlocation + s"/gp_clustered_$curve.parquet"
+        df.write.format("geoparquet")
+          .option("spatialClustering", curve)
+          .option("maxRecordsPerFile", "100")
+          .mode(SaveMode.Overwrite)
+          .save(path)
+        val df2 = sparkSession.read.format("geoparquet").load(path)
+        assert(df2.count() == 1000)
+        assert(df2.columns sameElements df.columns)
+
+        val parquetFiles = new File(path).listFiles().filter(_.getName.endsWith(".parquet"))
+        assert(parquetFiles.length >= 10)
+        val bboxAreas = parquetFiles.map { file =>
+          val reader = ParquetFileReader.open(HadoopInputFile.fromPath(new Path(file.getPath), new Configuration()))
+          val bbox = try {
+            val metadata = reader.getFooter.getFileMetaData.getKeyValueMetaData
+            GeoParquetMetaData.parseKeyValueMetaData(metadata).get.columns("geom").bbox
+          } finally {
+            reader.close()
+          }
+          (bbox(2) - bbox(0)) * (bbox(3) - bbox(1))
+        }
+        // Without clustering, every file would cover almost the entire extent
+        assert(bboxAreas.sum / bboxAreas.length < 0.5 * totalArea)
+      }
+    }
+
+    it("GeoParquet save should reject unknown spatial clustering curves") {
+      val df = sparkSession.range(0, 10).selectExpr("id", "ST_Point(CAST(id AS DOUBLE), CAST(0 AS DOUBLE)) AS geom")
+      intercept[IllegalArgumentException] {
+        df.write.format("geoparquet")
+          .option("spatialClustering", "peano")
+          .mode(SaveMode.Overwrite)
+          .save(geoparquetoutputlocation + "/gp_clustered_invalid.parquet")
+      }
+    }
+
     it("GeoParquet load with spatial predicates") {
       val df = sparkSession.read.format("geoparquet").load(geoparquetdatalocation1)
       val rows = df.where(ST_Intersects(ST_Point(35.174722, -6.552465), col("geometry"))).collect()
       assert(rows.length == 1)
       assert(rows(0).getAs[String]("name") == "Tanzania")
     }
+
+    it("GeoParquet load with vectorized reader") {
+      def readExample(vectorized: Boolean): (Boolean, Array[Row]) = {
+        sparkSession.conf.set(SQLConf.PARQUET_VECTORIZED_READER_ENABLED.key, vectorized.toString)
+        try {
+          val df = sparkSession.read.format("geoparquet").load(geoparquetdatalocation1)
+            .where("pop_est > 1000000")
+            .select("name", "geometry")
+          val scan = df.queryExecution.executedPlan.collectFirst { case scan: FileSourceScanExec => scan }
+          (scan.get.supportsColumnar, df.sort("name").collect())
+        } finally {
+          sparkSession.conf.unset(SQLConf.PARQUET_VECTORIZED_READER_ENABLED.key)
+        }
+      }
+      val (batchRead, vectorizedRows) = readExample(vectorized = true)
+      val (rowRead, rows) = readExample(vectorized = false)
+      assert(batchRead)
+      assert(!rowRead)
+      assert(vectorizedRows.nonEmpty)
+      assert(vectorizedRows sameElements rows)
+      assert(vectorizedRows.forall(_.get(1).isInstanceOf[Geometry]))
+    }
   }
 }